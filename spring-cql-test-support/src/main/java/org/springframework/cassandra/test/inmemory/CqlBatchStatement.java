@@ -0,0 +1,78 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.test.inmemory;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import org.springframework.cassandra.test.inmemory.Term.Variable;
+
+import com.datastax.driver.core.exceptions.InvalidQueryException;
+
+/**
+ * A <code>BEGIN ... BATCH ... APPLY BATCH</code>. Its statements are executed in order while holding no lock across
+ * them, so concurrent readers may observe a batch partially applied. Conditional statements are not supported in
+ * batches.
+ */
+class CqlBatchStatement extends CqlStatement {
+
+	private final List<ModificationStatement> statements;
+	private final List<Option> options;
+
+	CqlBatchStatement(List<ModificationStatement> statements, List<Option> options) {
+
+		for (ModificationStatement statement : statements) {
+			if (statement.isConditional()) {
+				throw new InvalidQueryException("Conditional statements in batches are not supported by the in-memory session");
+			}
+		}
+
+		this.statements = statements;
+		this.options = options;
+	}
+
+	@Override
+	boolean isWrite() {
+		return true;
+	}
+
+	@Override
+	TableName getTable() {
+		return statements.isEmpty() ? null : statements.get(0).getTable();
+	}
+
+	@Override
+	Result execute(InMemoryCluster cluster, String keyspace, ByteBuffer[] values) {
+
+		for (ModificationStatement statement : statements) {
+			statement.execute(cluster, keyspace, values);
+		}
+
+		return Result.EMPTY;
+	}
+
+	@Override
+	void describeMarkers(InMemoryCluster cluster, String keyspace, Variable[] variables) {
+
+		for (Option option : options) {
+			option.describeMarkers(variables);
+		}
+
+		for (ModificationStatement statement : statements) {
+			statement.describeMarkers(cluster, keyspace, variables);
+		}
+	}
+}
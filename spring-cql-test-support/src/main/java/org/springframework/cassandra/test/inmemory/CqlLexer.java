@@ -0,0 +1,182 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.test.inmemory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.datastax.driver.core.exceptions.SyntaxError;
+
+/**
+ * Splits CQL into {@link Token}s for the {@link CqlParser}.
+ */
+class CqlLexer {
+
+	enum Type {
+		IDENTIFIER, QUOTED_IDENTIFIER, STRING, NUMBER, UUID, BLOB, MARKER, SYMBOL, END
+	}
+
+	static class Token {
+
+		final Type type;
+		final String text;
+		final int position;
+
+		Token(Type type, String text, int position) {
+			this.type = type;
+			this.text = text;
+			this.position = position;
+		}
+
+		/**
+		 * Whether this token is the given keyword or symbol, ignoring case.
+		 */
+		boolean is(String keywordOrSymbol) {
+			return (type == Type.IDENTIFIER || type == Type.SYMBOL) && text.equalsIgnoreCase(keywordOrSymbol);
+		}
+
+		@Override
+		public String toString() {
+			return type == Type.END ? "end of input" : "'" + text + "'";
+		}
+	}
+
+	private static final Pattern UUID = Pattern
+			.compile("[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+	private static final Pattern BLOB = Pattern.compile("0[xX][0-9a-fA-F]*");
+	private static final Pattern NUMBER = Pattern.compile("\\d+(?:\\.\\d+)?(?:[eE][+-]?\\d+)?");
+	private static final Pattern IDENTIFIER = Pattern.compile("[a-zA-Z][a-zA-Z0-9_]*");
+
+	static List<Token> tokenize(String cql) {
+
+		List<Token> tokens = new ArrayList<Token>();
+		Matcher matcher = UUID.matcher(cql);
+
+		int i = 0;
+		int length = cql.length();
+
+		while (i < length) {
+
+			char c = cql.charAt(i);
+
+			if (Character.isWhitespace(c)) {
+				i++;
+				continue;
+			}
+
+			if (cql.startsWith("--", i) || cql.startsWith("//", i)) {
+				int end = cql.indexOf('\n', i);
+				i = end < 0 ? length : end + 1;
+				continue;
+			}
+
+			if (cql.startsWith("/*", i)) {
+				int end = cql.indexOf("*/", i + 2);
+				if (end < 0) {
+					throw new SyntaxError("unterminated comment at position " + i);
+				}
+				i = end + 2;
+				continue;
+			}
+
+			if (c == '\'' || c == '"') {
+				int end = endOfQuoted(cql, i, c);
+				String text = cql.substring(i + 1, end).replace(c == '\'' ? "''" : "\"\"", String.valueOf(c));
+				tokens.add(new Token(c == '\'' ? Type.STRING : Type.QUOTED_IDENTIFIER, text, i));
+				i = end + 1;
+				continue;
+			}
+
+			if (region(matcher.usePattern(UUID), i, length)) {
+				tokens.add(new Token(Type.UUID, matcher.group(), i));
+				i = matcher.end();
+				continue;
+			}
+
+			if (region(matcher.usePattern(BLOB), i, length)) {
+				tokens.add(new Token(Type.BLOB, matcher.group(), i));
+				i = matcher.end();
+				continue;
+			}
+
+			if (region(matcher.usePattern(NUMBER), i, length)) {
+				tokens.add(new Token(Type.NUMBER, matcher.group(), i));
+				i = matcher.end();
+				continue;
+			}
+
+			if (region(matcher.usePattern(IDENTIFIER), i, length)) {
+				tokens.add(new Token(Type.IDENTIFIER, matcher.group(), i));
+				i = matcher.end();
+				continue;
+			}
+
+			if (c == '?') {
+				tokens.add(new Token(Type.MARKER, "?", i));
+				i++;
+				continue;
+			}
+
+			if (cql.startsWith("<=", i) || cql.startsWith(">=", i) || cql.startsWith("!=", i)) {
+				tokens.add(new Token(Type.SYMBOL, cql.substring(i, i + 2), i));
+				i += 2;
+				continue;
+			}
+
+			if ("(),;=<>[]{}:.+-*".indexOf(c) >= 0) {
+				tokens.add(new Token(Type.SYMBOL, String.valueOf(c), i));
+				i++;
+				continue;
+			}
+
+			throw new SyntaxError(String.format("unexpected character '%s' at position %d", c, i));
+		}
+
+		tokens.add(new Token(Type.END, "", length));
+		return tokens;
+	}
+
+	private static boolean region(Matcher matcher, int start, int end) {
+		matcher.region(start, end);
+		return matcher.lookingAt();
+	}
+
+	private static int endOfQuoted(String cql, int start, char quote) {
+
+		for (int i = start + 1; i < cql.length(); i++) {
+			if (cql.charAt(i) == quote) {
+				if (i + 1 < cql.length() && cql.charAt(i + 1) == quote) {
+					i++;
+				} else {
+					return i;
+				}
+			}
+		}
+
+		throw new SyntaxError(String.format("unterminated %s at position %d", quote == '\'' ? "string" : "identifier",
+				start));
+	}
+
+	/**
+	 * Normalizes an unquoted identifier as Cassandra does.
+	 */
+	static String normalize(Token token) {
+		return token.type == Type.QUOTED_IDENTIFIER ? token.text : token.text.toLowerCase(Locale.ENGLISH);
+	}
+}
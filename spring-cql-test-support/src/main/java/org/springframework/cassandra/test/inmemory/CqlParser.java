@@ -0,0 +1,815 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.test.inmemory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.cassandra.test.inmemory.CqlLexer.Token;
+import org.springframework.cassandra.test.inmemory.CqlLexer.Type;
+import org.springframework.cassandra.test.inmemory.CqlStatement.Option;
+import org.springframework.cassandra.test.inmemory.CqlStatement.TableName;
+import org.springframework.cassandra.test.inmemory.UpdateStatement.Assignment;
+import org.springframework.cassandra.test.inmemory.UpdateStatement.Assignment.Operation;
+
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.exceptions.InvalidQueryException;
+import com.datastax.driver.core.exceptions.SyntaxError;
+
+/**
+ * Recursive descent parser of the subset of CQL 3 the in-memory session executes: <code>SELECT</code>,
+ * <code>INSERT</code>, <code>UPDATE</code>, <code>DELETE</code>, <code>BATCH</code>, <code>CREATE</code> and
+ * <code>DROP</code> of keyspaces and tables, <code>TRUNCATE</code> and <code>USE</code>. Parsed statements are cached
+ * by query string.
+ */
+class CqlParser {
+
+	private static final int MAX_CACHED = 1000;
+
+	private static final ConcurrentMap<String, CqlStatement> CACHE = new ConcurrentHashMap<String, CqlStatement>();
+
+	private final List<Token> tokens;
+	private int position;
+	private int markers;
+
+	private CqlParser(String cql) {
+		this.tokens = CqlLexer.tokenize(cql);
+	}
+
+	/**
+	 * Parses the given CQL.
+	 * 
+	 * @throws SyntaxError If the CQL is malformed.
+	 * @throws InvalidQueryException If the CQL uses features that are not supported.
+	 */
+	static CqlStatement parse(String cql) {
+
+		CqlStatement statement = CACHE.get(cql);
+
+		if (statement == null) {
+			statement = new CqlParser(cql).statement();
+			if (CACHE.size() < MAX_CACHED) {
+				CACHE.putIfAbsent(cql, statement);
+			}
+		}
+
+		return statement;
+	}
+
+	private CqlStatement statement() {
+
+		CqlStatement statement = parseStatement();
+
+		accept(";");
+		if (peek().type != Type.END) {
+			throw unexpected();
+		}
+
+		statement.markers = markers;
+		return statement;
+	}
+
+	private CqlStatement parseStatement() {
+
+		if (accept("SELECT")) {
+			return select();
+		}
+		if (peek().is("INSERT") || peek().is("UPDATE") || peek().is("DELETE")) {
+			return modification();
+		}
+		if (accept("BEGIN")) {
+			return batch();
+		}
+		if (accept("CREATE")) {
+			return create();
+		}
+		if (accept("DROP")) {
+			return drop();
+		}
+		if (accept("TRUNCATE")) {
+			accept("TABLE");
+			return new SchemaStatement.Truncate(tableName());
+		}
+		if (accept("USE")) {
+			return new SchemaStatement.Use(identifier());
+		}
+
+		throw unsupported(peek().text.toUpperCase());
+	}
+
+	private SelectStatement select() {
+
+		if (peek().is("DISTINCT")) {
+			throw unsupported("SELECT DISTINCT");
+		}
+
+		boolean count = false;
+		List<String> columns = null;
+		List<String> aliases = null;
+
+		if (accept("*")) {
+			// all columns
+		} else if (peek().is("COUNT") && peek(1).is("(")) {
+
+			next();
+			expect("(");
+			if (!accept("*") && !accept("1")) {
+				throw unexpected();
+			}
+			expect(")");
+			count = true;
+
+			if (accept("AS")) {
+				identifier();
+			}
+
+		} else {
+
+			columns = new ArrayList<String>();
+			aliases = new ArrayList<String>();
+
+			do {
+				if (peek(1).is("(")) {
+					throw unsupported("Selecting " + peek().text + "()");
+				}
+				columns.add(identifier());
+				aliases.add(accept("AS") ? identifier() : null);
+			} while (accept(","));
+		}
+
+		expect("FROM");
+		TableName table = tableName();
+		List<Relation> where = accept("WHERE") ? relations() : Collections.<Relation> emptyList();
+
+		String orderBy = null;
+		boolean descending = false;
+
+		if (accept("ORDER")) {
+			expect("BY");
+			orderBy = identifier();
+			descending = accept("DESC");
+			if (!descending) {
+				accept("ASC");
+			}
+			if (accept(",")) {
+				throw unsupported("Ordering by more than one column");
+			}
+		}
+
+		Term limit = accept("LIMIT") ? term() : null;
+
+		if (accept("ALLOW")) {
+			expect("FILTERING");
+		}
+
+		return new SelectStatement(table, count, columns, aliases, where, orderBy, descending, limit);
+	}
+
+	private ModificationStatement modification() {
+
+		if (accept("INSERT")) {
+			return insert();
+		}
+		if (accept("UPDATE")) {
+			return update();
+		}
+
+		expect("DELETE");
+		return delete();
+	}
+
+	private InsertStatement insert() {
+
+		expect("INTO");
+		TableName table = tableName();
+
+		List<String> columns = new ArrayList<String>();
+		expect("(");
+		do {
+			columns.add(identifier());
+		} while (accept(","));
+		expect(")");
+
+		expect("VALUES");
+
+		List<Term> terms = new ArrayList<Term>();
+		expect("(");
+		do {
+			terms.add(term());
+		} while (accept(","));
+		expect(")");
+
+		boolean ifNotExists = false;
+		if (accept("IF")) {
+			expect("NOT");
+			expect("EXISTS");
+			ifNotExists = true;
+		}
+
+		InsertStatement statement = new InsertStatement(table, columns, terms, ifNotExists);
+		using(statement.options);
+
+		return statement;
+	}
+
+	private UpdateStatement update() {
+
+		TableName table = tableName();
+
+		List<Option> options = new ArrayList<Option>();
+		using(options);
+
+		expect("SET");
+
+		List<Assignment> assignments = new ArrayList<Assignment>();
+		do {
+			assignments.add(assignment());
+		} while (accept(","));
+
+		expect("WHERE");
+		UpdateStatement statement = new UpdateStatement(table, assignments, relations());
+		statement.options.addAll(options);
+		conditions(statement);
+
+		return statement;
+	}
+
+	private Assignment assignment() {
+
+		String column = identifier();
+
+		if (accept("[")) {
+			Term key = term();
+			expect("]");
+			expect("=");
+			return new Assignment(column, Operation.PUT, term(), key);
+		}
+
+		expect("=");
+
+		if (isIdentifier(peek()) && column.equals(CqlLexer.normalize(peek())) && (peek(1).is("+") || peek(1).is("-"))) {
+			next();
+			Operation operation = next().is("+") ? Operation.ADD : Operation.SUBTRACT;
+			return new Assignment(column, operation, term(), null);
+		}
+
+		Term term = term();
+
+		if (accept("+")) {
+			if (!column.equals(identifier())) {
+				throw new InvalidQueryException(String.format("Only expressions of the form X = <value> + X are supported for %s",
+						column));
+			}
+			return new Assignment(column, Operation.PREPEND, term, null);
+		}
+
+		return new Assignment(column, Operation.SET, term, null);
+	}
+
+	private DeleteStatement delete() {
+
+		List<String> columns = new ArrayList<String>();
+		List<Term> elements = new ArrayList<Term>();
+
+		if (!peek().is("FROM")) {
+			do {
+				columns.add(identifier());
+				if (accept("[")) {
+					elements.add(term());
+					expect("]");
+				} else {
+					elements.add(null);
+				}
+			} while (accept(","));
+		}
+
+		expect("FROM");
+		TableName table = tableName();
+
+		List<Option> options = new ArrayList<Option>();
+		using(options);
+
+		expect("WHERE");
+		DeleteStatement statement = new DeleteStatement(table, columns, elements, relations());
+		statement.options.addAll(options);
+		conditions(statement);
+
+		return statement;
+	}
+
+	private void conditions(ModificationStatement statement) {
+
+		if (!accept("IF")) {
+			return;
+		}
+
+		if (accept("EXISTS")) {
+			statement.ifExists = true;
+			return;
+		}
+
+		statement.conditions = relations();
+	}
+
+	private void using(List<Option> options) {
+
+		if (!accept("USING")) {
+			return;
+		}
+
+		do {
+			if (accept("TTL")) {
+				options.add(new Option(term(), "[ttl]", DataType.cint()));
+			} else {
+				expect("TIMESTAMP");
+				options.add(new Option(term(), "[timestamp]", DataType.bigint()));
+			}
+		} while (accept("AND"));
+	}
+
+	private CqlBatchStatement batch() {
+
+		if (!accept("UNLOGGED")) {
+			accept("COUNTER");
+		}
+		expect("BATCH");
+
+		List<Option> options = new ArrayList<Option>();
+		using(options);
+
+		List<ModificationStatement> statements = new ArrayList<ModificationStatement>();
+		while (!accept("APPLY")) {
+			statements.add(modification());
+			accept(";");
+		}
+		expect("BATCH");
+
+		return new CqlBatchStatement(statements, options);
+	}
+
+	private CqlStatement create() {
+
+		if (accept("KEYSPACE") || accept("SCHEMA")) {
+			boolean ifNotExists = ifNotExists();
+			String keyspace = identifier();
+			skipToEnd();
+			return new SchemaStatement.CreateKeyspace(keyspace, ifNotExists);
+		}
+
+		if (accept("TABLE") || accept("COLUMNFAMILY")) {
+			return createTable();
+		}
+
+		if (peek().is("INDEX") || (peek().is("CUSTOM") && peek(1).is("INDEX"))) {
+			skipToEnd();
+			return new SchemaStatement.Ignored();
+		}
+
+		throw unsupported("CREATE " + peek().text.toUpperCase());
+	}
+
+	private SchemaStatement.CreateTable createTable() {
+
+		boolean ifNotExists = ifNotExists();
+		TableName table = tableName();
+
+		Map<String, DataType> types = new LinkedHashMap<String, DataType>();
+		List<String> partitionKey = new ArrayList<String>();
+		List<String> clustering = new ArrayList<String>();
+
+		expect("(");
+		do {
+
+			if (accept("PRIMARY")) {
+
+				expect("KEY");
+				expect("(");
+
+				if (accept("(")) {
+					do {
+						partitionKey.add(identifier());
+					} while (accept(","));
+					expect(")");
+				} else {
+					partitionKey.add(identifier());
+				}
+
+				while (accept(",")) {
+					clustering.add(identifier());
+				}
+				expect(")");
+
+				continue;
+			}
+
+			String column = identifier();
+			types.put(column, type());
+
+			if (accept("STATIC")) {
+				throw unsupported("Static column " + column);
+			}
+
+			if (accept("PRIMARY")) {
+				expect("KEY");
+				partitionKey.add(column);
+			}
+
+		} while (accept(","));
+		expect(")");
+
+		if (partitionKey.isEmpty()) {
+			throw new InvalidQueryException("No PRIMARY KEY specifed (exactly one required)");
+		}
+
+		List<String> columns = new ArrayList<String>(partitionKey);
+		columns.addAll(clustering);
+
+		List<String> regular = new ArrayList<String>(types.keySet());
+		regular.removeAll(columns);
+		Collections.sort(regular);
+		columns.addAll(regular);
+
+		List<DataType> columnTypes = new ArrayList<DataType>(columns.size());
+		for (String column : columns) {
+			DataType type = types.get(column);
+			if (type == null) {
+				throw new InvalidQueryException(String.format("Unknown definition %s referenced in PRIMARY KEY", column));
+			}
+			columnTypes.add(type);
+		}
+
+		boolean[] ascending = new boolean[clustering.size()];
+		for (int i = 0; i < ascending.length; i++) {
+			ascending[i] = true;
+		}
+
+		if (accept("WITH")) {
+			do {
+				if (accept("CLUSTERING")) {
+
+					expect("ORDER");
+					expect("BY");
+					expect("(");
+
+					do {
+						String column = identifier();
+						int index = clustering.indexOf(column);
+						if (index < 0) {
+							throw new InvalidQueryException(String.format("Missing CLUSTERING ORDER for column %s", column));
+						}
+						ascending[index] = !accept("DESC");
+						if (ascending[index]) {
+							accept("ASC");
+						}
+					} while (accept(","));
+
+					expect(")");
+
+				} else if (accept("COMPACT")) {
+					expect("STORAGE");
+				} else {
+					skipOption();
+				}
+			} while (accept("AND"));
+		}
+
+		return new SchemaStatement.CreateTable(table, columns, columnTypes, partitionKey.size(), ascending, ifNotExists);
+	}
+
+	private DataType type() {
+
+		Token token = next();
+		String name = CqlLexer.normalize(token);
+
+		if ("frozen".equals(name)) {
+			expect("<");
+			DataType type = type();
+			expect(">");
+			return type;
+		}
+
+		if ("list".equals(name) || "set".equals(name)) {
+			expect("<");
+			DataType element = type();
+			expect(">");
+			return "list".equals(name) ? DataType.list(element) : DataType.set(element);
+		}
+
+		if ("map".equals(name)) {
+			expect("<");
+			DataType key = type();
+			expect(",");
+			DataType value = type();
+			expect(">");
+			return DataType.map(key, value);
+		}
+
+		DataType type = isIdentifier(token) ? Values.primitiveType(name) : null;
+		if (type == null) {
+			throw unsupported("Type " + token.text);
+		}
+
+		return type;
+	}
+
+	private CqlStatement drop() {
+
+		if (accept("KEYSPACE") || accept("SCHEMA")) {
+			boolean ifExists = ifExists();
+			return new SchemaStatement.DropKeyspace(identifier(), ifExists);
+		}
+
+		if (accept("TABLE") || accept("COLUMNFAMILY")) {
+			boolean ifExists = ifExists();
+			return new SchemaStatement.DropTable(tableName(), ifExists);
+		}
+
+		if (accept("INDEX")) {
+			skipToEnd();
+			return new SchemaStatement.Ignored();
+		}
+
+		throw unsupported("DROP " + peek().text.toUpperCase());
+	}
+
+	private boolean ifNotExists() {
+
+		if (accept("IF")) {
+			expect("NOT");
+			expect("EXISTS");
+			return true;
+		}
+
+		return false;
+	}
+
+	private boolean ifExists() {
+
+		if (accept("IF")) {
+			expect("EXISTS");
+			return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Skips a table option: its name, <code>=</code> and its value, which may be a map.
+	 */
+	private void skipOption() {
+
+		identifier();
+		expect("=");
+
+		int depth = 0;
+		while (peek().type != Type.END && (depth > 0 || !(peek().is("AND") || peek().is(";")))) {
+			Token token = next();
+			if (token.is("{") || token.is("(")) {
+				depth++;
+			} else if (token.is("}") || token.is(")")) {
+				depth--;
+			}
+		}
+	}
+
+	private void skipToEnd() {
+		while (peek().type != Type.END && !peek().is(";")) {
+			next();
+		}
+	}
+
+	private List<Relation> relations() {
+
+		List<Relation> relations = new ArrayList<Relation>();
+		do {
+			relations.add(relation());
+		} while (accept("AND"));
+
+		return relations;
+	}
+
+	private Relation relation() {
+
+		if (peek().is("TOKEN") && peek(1).is("(")) {
+			throw unsupported("Restricting by token");
+		}
+		if (peek().is("(")) {
+			throw unsupported("Multi-column relation");
+		}
+
+		String column = identifier();
+
+		if (accept("IN")) {
+
+			if (!accept("(")) {
+				return new Relation(column, Relation.Operator.IN, term(), null);
+			}
+
+			List<Term> terms = new ArrayList<Term>();
+			if (!accept(")")) {
+				do {
+					terms.add(term());
+				} while (accept(","));
+				expect(")");
+			}
+
+			return new Relation(column, Relation.Operator.IN, null, terms);
+		}
+
+		Relation.Operator operator;
+		Token token = next();
+
+		if (token.is("=")) {
+			operator = Relation.Operator.EQ;
+		} else if (token.is("<")) {
+			operator = Relation.Operator.LT;
+		} else if (token.is("<=")) {
+			operator = Relation.Operator.LTE;
+		} else if (token.is(">")) {
+			operator = Relation.Operator.GT;
+		} else if (token.is(">=")) {
+			operator = Relation.Operator.GTE;
+		} else if (token.is("CONTAINS")) {
+			throw unsupported("CONTAINS");
+		} else {
+			throw unexpected(token);
+		}
+
+		return new Relation(column, operator, term(), null);
+	}
+
+	private Term term() {
+
+		Token token = next();
+
+		switch (token.type) {
+
+			case MARKER:
+				return new Term.Marker(markers++, null);
+
+			case STRING:
+			case NUMBER:
+			case UUID:
+			case BLOB:
+				return new Term.Literal(token, false);
+
+			case IDENTIFIER:
+				if (token.is("true") || token.is("false") || token.is("null")) {
+					return new Term.Literal(token, false);
+				}
+				if (accept("(")) {
+					expect(")");
+					return new Term.Function(CqlLexer.normalize(token));
+				}
+				throw unexpected(token);
+
+			default:
+				break;
+		}
+
+		if (token.is(":")) {
+			return new Term.Marker(markers++, identifier());
+		}
+
+		if (token.is("-")) {
+			Token number = next();
+			if (number.type != Type.NUMBER) {
+				throw unexpected(number);
+			}
+			return new Term.Literal(number, true);
+		}
+
+		if (token.is("[")) {
+
+			List<Term> elements = new ArrayList<Term>();
+			if (!accept("]")) {
+				do {
+					elements.add(term());
+				} while (accept(","));
+				expect("]");
+			}
+
+			return new Term.CollectionLiteral(DataType.Name.LIST, elements);
+		}
+
+		if (token.is("{")) {
+
+			if (accept("}")) {
+				return new Term.CollectionLiteral(null, Collections.<Term> emptyList());
+			}
+
+			List<Term> elements = new ArrayList<Term>();
+			elements.add(term());
+
+			boolean map = accept(":");
+			if (map) {
+				elements.add(term());
+			}
+
+			while (accept(",")) {
+				elements.add(term());
+				if (map) {
+					expect(":");
+					elements.add(term());
+				}
+			}
+			expect("}");
+
+			return new Term.CollectionLiteral(map ? DataType.Name.MAP : DataType.Name.SET, elements);
+		}
+
+		throw unexpected(token);
+	}
+
+	private TableName tableName() {
+
+		String name = identifier();
+
+		if (accept(".")) {
+			return new TableName(name, identifier());
+		}
+
+		return new TableName(null, name);
+	}
+
+	private String identifier() {
+
+		Token token = next();
+		if (!isIdentifier(token)) {
+			throw unexpected(token);
+		}
+
+		return CqlLexer.normalize(token);
+	}
+
+	private static boolean isIdentifier(Token token) {
+		return token.type == Type.IDENTIFIER || token.type == Type.QUOTED_IDENTIFIER;
+	}
+
+	private Token peek() {
+		return tokens.get(position);
+	}
+
+	private Token peek(int ahead) {
+		return tokens.get(Math.min(position + ahead, tokens.size() - 1));
+	}
+
+	private Token next() {
+
+		Token token = tokens.get(position);
+		if (token.type != Type.END) {
+			position++;
+		}
+
+		return token;
+	}
+
+	/**
+	 * Consumes the next token if it is the given keyword or symbol.
+	 */
+	private boolean accept(String keywordOrSymbol) {
+
+		if (peek().is(keywordOrSymbol) || (peek().type == Type.NUMBER && peek().text.equals(keywordOrSymbol))) {
+			position++;
+			return true;
+		}
+
+		return false;
+	}
+
+	private void expect(String keywordOrSymbol) {
+		if (!accept(keywordOrSymbol)) {
+			throw unexpected();
+		}
+	}
+
+	private SyntaxError unexpected() {
+		return unexpected(peek());
+	}
+
+	private SyntaxError unexpected(Token token) {
+		return new SyntaxError(String.format("line 1:%d no viable alternative at input %s", token.position, token));
+	}
+
+	private static InvalidQueryException unsupported(String feature) {
+		return new InvalidQueryException(feature + " is not supported by the in-memory session");
+	}
+}
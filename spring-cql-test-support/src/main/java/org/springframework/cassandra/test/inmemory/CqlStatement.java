@@ -0,0 +1,252 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.test.inmemory;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.cassandra.test.inmemory.Term.Variable;
+
+import com.datastax.driver.core.ColumnDefinitions;
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.exceptions.InvalidQueryException;
+
+/**
+ * A parsed CQL statement, executable against an {@link InMemoryCluster}. Instances are immutable and shared by all
+ * executions of the same CQL; the tables they target are resolved on each execution.
+ */
+abstract class CqlStatement {
+
+	static final ColumnDefinitions NO_COLUMNS = SyntheticRows.columns(null, null);
+
+	/**
+	 * The number of bind markers in the statement.
+	 */
+	int markers;
+
+	/**
+	 * Executes this statement.
+	 * 
+	 * @param keyspace The session's keyspace, or null.
+	 * @param values The serialized values of the bind markers.
+	 */
+	abstract Result execute(InMemoryCluster cluster, String keyspace, ByteBuffer[] values);
+
+	/**
+	 * @return Whether the statement modifies data, as opposed to reading it or changing the schema.
+	 */
+	abstract boolean isWrite();
+
+	/**
+	 * @return The table whose columns the bind markers are described by, or null if there is none.
+	 */
+	abstract TableName getTable();
+
+	/**
+	 * Records the name and type of each bind marker, indexed by its position in the statement.
+	 */
+	void describeMarkers(InMemoryCluster cluster, String keyspace, Variable[] variables) {}
+
+	/**
+	 * @return The column definitions of the statement's bind markers, as {@link com.datastax.driver.core.PreparedStatement#getVariables()} returns them.
+	 */
+	ColumnDefinitions describeVariables(InMemoryCluster cluster, String keyspace) {
+
+		Variable[] variables = new Variable[markers];
+		describeMarkers(cluster, keyspace, variables);
+
+		TableName table = getTable();
+		String resolved = table == null ? null : table.resolve(keyspace);
+
+		Object[] namesAndTypes = new Object[2 * markers];
+		for (int i = 0; i < markers; i++) {
+
+			if (variables[i] == null) {
+				throw new InvalidQueryException("Unsupported bind marker at position " + i);
+			}
+
+			namesAndTypes[2 * i] = variables[i].name;
+			namesAndTypes[2 * i + 1] = variables[i].type;
+		}
+
+		return SyntheticRows.columns(resolved, table == null ? null : table.name, namesAndTypes);
+	}
+
+	/**
+	 * @return The indexes of the bind markers holding the partition key, in partition key order, if all of its columns
+	 *         are bound by markers; otherwise null.
+	 */
+	int[] getRoutingKeyIndexes(InMemoryCluster cluster, String keyspace) {
+		return null;
+	}
+
+	/**
+	 * @return The indexes of the bind markers the given relations restrict the partition key columns to, if each of them
+	 *         is restricted by equality with a bind marker; otherwise null.
+	 */
+	static int[] routingKeyIndexes(InMemoryTable table, List<Relation> relations) {
+
+		int[] indexes = new int[table.getPartitionKeySize()];
+
+		for (int i = 0; i < indexes.length; i++) {
+
+			Relation relation = find(relations, table.getColumn(i));
+			if (relation == null || relation.operator != Relation.Operator.EQ || !(relation.term instanceof Term.Marker)) {
+				return null;
+			}
+
+			indexes[i] = ((Term.Marker) relation.term).getIndex();
+		}
+
+		return indexes;
+	}
+
+	/**
+	 * Resolves the given equality and <code>IN</code> relations on the primary key columns from <code>from</code>
+	 * (inclusive) to <code>to</code> (exclusive) into the keys they select: the cartesian product of the values each
+	 * column is restricted to.
+	 * 
+	 * @return The keys, or null if any of the columns is not restricted by equality or <code>IN</code>.
+	 */
+	static List<List<ByteBuffer>> keys(InMemoryTable table, List<Relation> relations, int from, int to,
+			ByteBuffer[] values) {
+
+		List<List<ByteBuffer>> keys = new ArrayList<List<ByteBuffer>>();
+		keys.add(Collections.<ByteBuffer> emptyList());
+
+		for (int i = from; i < to; i++) {
+
+			Relation relation = find(relations, table.getColumn(i));
+			if (relation == null || !relation.isEqualityOrIn()) {
+				return null;
+			}
+
+			List<ByteBuffer> restricted = relation.serializedValues(table.getType(i), values);
+			List<List<ByteBuffer>> product = new ArrayList<List<ByteBuffer>>(keys.size() * restricted.size());
+
+			for (List<ByteBuffer> key : keys) {
+				for (ByteBuffer value : restricted) {
+					List<ByteBuffer> extended = new ArrayList<ByteBuffer>(key.size() + 1);
+					extended.addAll(key);
+					extended.add(value);
+					product.add(extended);
+				}
+			}
+
+			keys = product;
+		}
+
+		return keys;
+	}
+
+	/**
+	 * @return The first relation on the given column, or null.
+	 */
+	static Relation find(List<Relation> relations, String column) {
+
+		for (Relation relation : relations) {
+			if (relation.column.equals(column)) {
+				return relation;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Checks that all relations refer to columns of the given table and records their bind markers.
+	 */
+	static void describeRelations(InMemoryTable table, List<Relation> relations, Variable[] variables) {
+		for (Relation relation : relations) {
+			relation.describeMarkers(table.getType(relation.column), variables);
+		}
+	}
+
+	/**
+	 * A bind marker outside of any column's value, such as of a <code>LIMIT</code>, <code>TTL</code> or
+	 * <code>TIMESTAMP</code>, with the name and type the marker is described by.
+	 */
+	static class Option {
+
+		final Term term;
+		final String name;
+		final DataType type;
+
+		Option(Term term, String name, DataType type) {
+			this.term = term;
+			this.name = name;
+			this.type = type;
+		}
+
+		void describeMarkers(Variable[] variables) {
+			term.describeMarkers(name, type, variables);
+		}
+	}
+
+	/**
+	 * The possibly keyspace-qualified name of a table.
+	 */
+	static class TableName {
+
+		final String keyspace;
+		final String name;
+
+		TableName(String keyspace, String name) {
+			this.keyspace = keyspace;
+			this.name = name;
+		}
+
+		/**
+		 * @return The keyspace of the table, given the session's keyspace.
+		 */
+		String resolve(String sessionKeyspace) {
+
+			String resolved = keyspace == null ? sessionKeyspace : keyspace;
+			if (resolved == null) {
+				throw new InvalidQueryException("No keyspace has been specified. USE a keyspace, or explicitly specify keyspace.tablename");
+			}
+
+			return resolved;
+		}
+
+		InMemoryTable lookup(InMemoryCluster cluster, String sessionKeyspace) {
+			return cluster.getTable(resolve(sessionKeyspace), name);
+		}
+
+		@Override
+		public String toString() {
+			return keyspace == null ? name : keyspace + "." + name;
+		}
+	}
+
+	/**
+	 * The outcome of executing a statement: the columns and serialized values of the rows it returns.
+	 */
+	static class Result {
+
+		static final Result EMPTY = new Result(NO_COLUMNS, Collections.<ByteBuffer[]> emptyList());
+
+		final ColumnDefinitions columns;
+		final List<ByteBuffer[]> rows;
+
+		Result(ColumnDefinitions columns, List<ByteBuffer[]> rows) {
+			this.columns = columns;
+			this.rows = rows;
+		}
+	}
+}
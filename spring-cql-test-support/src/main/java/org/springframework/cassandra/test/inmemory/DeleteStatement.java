@@ -0,0 +1,210 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.test.inmemory;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.cassandra.test.inmemory.InMemoryTable.Partition;
+import org.springframework.cassandra.test.inmemory.InMemoryTable.StoredRow;
+import org.springframework.cassandra.test.inmemory.Term.Variable;
+
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.exceptions.InvalidQueryException;
+
+/**
+ * A <code>DELETE</code> of whole partitions, of the rows sharing a clustering key prefix, of single rows, or of columns
+ * and collection elements of single rows.
+ */
+class DeleteStatement extends ModificationStatement {
+
+	private final List<String> columns;
+	private final List<Term> elements;
+	private final List<Relation> where;
+
+	/**
+	 * @param columns The columns to delete, or an empty list to delete whole rows.
+	 * @param elements For each column, the index or key of the collection element to delete, or null.
+	 */
+	DeleteStatement(TableName table, List<String> columns, List<Term> elements, List<Relation> where) {
+		super(table);
+		this.columns = columns;
+		this.elements = elements;
+		this.where = where;
+	}
+
+	@Override
+	Result execute(InMemoryCluster cluster, String keyspace, ByteBuffer[] values) {
+
+		InMemoryTable table = this.table.lookup(cluster, keyspace);
+
+		for (String column : columns) {
+			modifiable(table, column);
+		}
+
+		List<List<ByteBuffer>> partitionKeys = partitionKeys(table, where, values);
+		int prefix = clusteringPrefix(table);
+
+		if (prefix < table.getClusteringSize() && (!columns.isEmpty() || isConditional())) {
+			clusteringKeys(table, where, values);
+		}
+
+		List<List<ByteBuffer>> clusteringKeys = keys(table, where, table.getPartitionKeySize(),
+				table.getPartitionKeySize() + prefix, values);
+		checkSingleRow(partitionKeys, clusteringKeys);
+
+		for (List<ByteBuffer> partitionKey : partitionKeys) {
+
+			Partition partition = table.getPartition(partitionKey, isConditional());
+			if (partition == null) {
+				continue;
+			}
+
+			synchronized (partition) {
+
+				for (List<ByteBuffer> clustering : clusteringKeys) {
+
+					if (prefix < table.getClusteringSize()) {
+						partition.removeRows(clustering);
+						continue;
+					}
+
+					StoredRow row = partition.getRow(partitionKey, clustering, false);
+
+					if (isConditional() && !conditionsMet(table, partition, row, values)) {
+						return conditionalResult(table, partition, false, row);
+					}
+
+					if (row == null) {
+						continue;
+					}
+
+					if (columns.isEmpty()) {
+						partition.removeRow(clustering);
+					} else {
+						for (int i = 0; i < columns.size(); i++) {
+							delete(table, row, table.indexOf(columns.get(i)), elements.get(i), values);
+						}
+					}
+				}
+			}
+		}
+
+		return isConditional() ? conditionalResult(table, null, true, null) : Result.EMPTY;
+	}
+
+	/**
+	 * @return The number of leading clustering columns restricted by equality or <code>IN</code>, checking that no
+	 *         other columns are restricted.
+	 */
+	private int clusteringPrefix(InMemoryTable table) {
+
+		int prefix = 0;
+
+		while (prefix < table.getClusteringSize()) {
+			Relation relation = find(where, table.getColumn(table.getPartitionKeySize() + prefix));
+			if (relation == null || !relation.isEqualityOrIn()) {
+				break;
+			}
+			prefix++;
+		}
+
+		for (Relation relation : where) {
+
+			int index = table.indexOf(relation.column);
+
+			if (index >= table.getPrimaryKeySize()) {
+				throw new InvalidQueryException(String.format("Non PRIMARY KEY %s found in where clause", relation.column));
+			}
+			if (index >= table.getPartitionKeySize() + prefix) {
+				throw new InvalidQueryException(String.format(
+						"Invalid restriction on clustering column %s since the previous ones are not all restricted by equality",
+						relation.column));
+			}
+		}
+
+		return prefix;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static void delete(InMemoryTable table, StoredRow row, int index, Term element, ByteBuffer[] values) {
+
+		if (element == null) {
+			row.cells[index] = null;
+			return;
+		}
+
+		DataType type = table.getType(index);
+		Object current = Values.deserialize(type, row.cells[index]);
+
+		if (type.getName() == DataType.Name.LIST) {
+
+			Integer position = (Integer) element.evaluate(DataType.cint(), values);
+			List<Object> list = current == null ? new ArrayList<Object>() : new ArrayList<Object>((List<Object>) current);
+
+			if (position == null || position < 0 || position >= list.size()) {
+				throw new InvalidQueryException(String.format("List index %d out of bound, list has size %d", position,
+						list.size()));
+			}
+
+			list.remove(position.intValue());
+			row.cells[index] = table.toCell(index, Values.serialize(type, list));
+			return;
+		}
+
+		if (type.getName() != DataType.Name.MAP) {
+			throw new InvalidQueryException(String.format("Invalid deletion of an element of column %s of type %s",
+					table.getColumn(index), type));
+		}
+
+		if (current != null) {
+			Map<Object, Object> map = new TreeMap<Object, Object>(Term.comparator(type.getTypeArguments().get(0)));
+			map.putAll((Map<Object, Object>) current);
+			map.remove(element.evaluate(type.getTypeArguments().get(0), values));
+			row.cells[index] = table.toCell(index, Values.serialize(type, map));
+		}
+	}
+
+	@Override
+	void describeMarkers(InMemoryCluster cluster, String keyspace, Variable[] variables) {
+
+		InMemoryTable table = this.table.lookup(cluster, keyspace);
+
+		for (int i = 0; i < columns.size(); i++) {
+
+			if (elements.get(i) == null) {
+				continue;
+			}
+
+			DataType type = table.getType(columns.get(i));
+			boolean list = type.getName() == DataType.Name.LIST;
+
+			elements.get(i).describeMarkers((list ? "idx(" : "key(") + columns.get(i) + ")",
+					list ? DataType.cint() : type.getTypeArguments().get(0), variables);
+		}
+
+		describeRelations(table, where, variables);
+		super.describeMarkers(cluster, keyspace, variables);
+	}
+
+	@Override
+	int[] getRoutingKeyIndexes(InMemoryCluster cluster, String keyspace) {
+		return routingKeyIndexes(table.lookup(cluster, keyspace), where);
+	}
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.test.inmemory;
+
+import java.util.Random;
+
+import org.springframework.util.Assert;
+
+import com.datastax.driver.core.BatchStatement;
+import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.Statement;
+import com.datastax.driver.core.WriteType;
+import com.datastax.driver.core.exceptions.DriverException;
+import com.datastax.driver.core.exceptions.ReadTimeoutException;
+import com.datastax.driver.core.exceptions.UnavailableException;
+import com.datastax.driver.core.exceptions.WriteTimeoutException;
+
+/**
+ * The failures an {@link InMemoryCluster} injects into requests. A request that fails has no effect.
+ */
+public abstract class Failures {
+
+	private static final Random RANDOM = new Random();
+
+	/**
+	 * @param statement The statement being executed.
+	 * @param write Whether the statement modifies data.
+	 * @return The exception to fail the request with, or null to execute it.
+	 */
+	public abstract DriverException next(Statement statement, boolean write);
+
+	/**
+	 * @return Failures that never happen.
+	 */
+	public static Failures none() {
+
+		return new Failures() {
+
+			@Override
+			public DriverException next(Statement statement, boolean write) {
+				return null;
+			}
+		};
+	}
+
+	/**
+	 * @return Failures timing requests out with the given probability: reads with a {@link ReadTimeoutException},
+	 *         writes with a {@link WriteTimeoutException}.
+	 */
+	public static Failures timeouts(final double probability) {
+
+		checkProbability(probability);
+
+		return new Failures() {
+
+			@Override
+			public DriverException next(Statement statement, boolean write) {
+
+				if (RANDOM.nextDouble() >= probability) {
+					return null;
+				}
+
+				ConsistencyLevel consistency = consistencyOf(statement);
+
+				return write ? new WriteTimeoutException(consistency, statement instanceof BatchStatement ? WriteType.BATCH
+						: WriteType.SIMPLE, 0, 1) : new ReadTimeoutException(consistency, 0, 1, false);
+			}
+		};
+	}
+
+	/**
+	 * @return Failures rejecting requests with an {@link UnavailableException} with the given probability.
+	 */
+	public static Failures unavailable(final double probability) {
+
+		checkProbability(probability);
+
+		return new Failures() {
+
+			@Override
+			public DriverException next(Statement statement, boolean write) {
+				return RANDOM.nextDouble() < probability ? new UnavailableException(consistencyOf(statement), 1, 0) : null;
+			}
+		};
+	}
+
+	/**
+	 * @return Failures combining the given ones, each of which is consulted in turn until one fails the request.
+	 */
+	public static Failures of(final Failures... failures) {
+
+		Assert.noNullElements(failures);
+
+		return new Failures() {
+
+			@Override
+			public DriverException next(Statement statement, boolean write) {
+
+				for (Failures candidate : failures) {
+					DriverException failure = candidate.next(statement, write);
+					if (failure != null) {
+						return failure;
+					}
+				}
+
+				return null;
+			}
+		};
+	}
+
+	private static void checkProbability(double probability) {
+		Assert.isTrue(probability >= 0 && probability <= 1, "probability must be between 0 and 1");
+	}
+
+	private static ConsistencyLevel consistencyOf(Statement statement) {
+		return statement.getConsistencyLevel() == null ? ConsistencyLevel.ONE : statement.getConsistencyLevel();
+	}
+}
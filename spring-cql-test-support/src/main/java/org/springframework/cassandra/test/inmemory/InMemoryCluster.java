@@ -0,0 +1,332 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.test.inmemory;
+
+import java.io.Closeable;
+import java.net.InetSocketAddress;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.util.Assert;
+
+import com.datastax.driver.core.exceptions.AlreadyExistsException;
+import com.datastax.driver.core.exceptions.DriverException;
+import com.datastax.driver.core.exceptions.InvalidQueryException;
+import com.datastax.driver.core.exceptions.NoHostAvailableException;
+
+/**
+ * Stand-in for a Cassandra cluster that keeps its keyspaces and tables in memory, for testing and measuring client
+ * code without a running cluster. {@link #connect() Connect} to obtain {@link InMemorySession}s, then create keyspaces
+ * and tables with CQL as usual.
+ * <p>
+ * Each request is answered after a delay drawn from the configured {@link Latency} and fails with the probability the
+ * configured {@link Failures} give. Delayed responses complete on the cluster's own threads, which are named like the
+ * driver's I/O threads; without latency, requests complete on the calling thread. Requests exceeding the maximum
+ * number in flight fail at once with a {@link NoHostAvailableException}, as they do when the driver's connection pools
+ * are exhausted.
+ */
+public class InMemoryCluster implements Closeable {
+
+	/**
+	 * The address errors of this cluster are reported for.
+	 */
+	public static final InetSocketAddress ADDRESS = new InetSocketAddress("127.0.0.1", 9042);
+
+	public static final int DEFAULT_FETCH_SIZE = 5000;
+
+	private final ConcurrentMap<String, ConcurrentMap<String, InMemoryTable>> keyspaces = new ConcurrentHashMap<String, ConcurrentMap<String, InMemoryTable>>();
+
+	private final int ioThreads;
+	private ScheduledExecutorService scheduler;
+	private volatile boolean closed;
+
+	private volatile Latency latency = Latency.none();
+	private volatile Failures failures = Failures.none();
+	private volatile int maxRequestsInFlight = Integer.MAX_VALUE;
+	private volatile int defaultFetchSize = DEFAULT_FETCH_SIZE;
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final AtomicInteger maxInFlight = new AtomicInteger();
+	private final AtomicLong executed = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+
+	/**
+	 * Creates a cluster completing delayed responses on as many threads as there are processors.
+	 */
+	public InMemoryCluster() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * @param ioThreads The number of threads completing delayed responses.
+	 */
+	public InMemoryCluster(int ioThreads) {
+
+		Assert.isTrue(ioThreads > 0, "ioThreads must be positive");
+		this.ioThreads = ioThreads;
+	}
+
+	/**
+	 * @return A session without a keyspace.
+	 */
+	public InMemorySession connect() {
+		return connect(null);
+	}
+
+	/**
+	 * @param keyspace The session's keyspace, which must exist; may be null.
+	 */
+	public InMemorySession connect(String keyspace) {
+
+		checkOpen();
+
+		if (keyspace != null) {
+			checkKeyspace(keyspace);
+		}
+
+		return new InMemorySession(this, keyspace);
+	}
+
+	/**
+	 * Stops the threads of this cluster. Pending delayed responses are discarded.
+	 */
+	@Override
+	public synchronized void close() {
+
+		closed = true;
+
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+		}
+	}
+
+	public boolean isClosed() {
+		return closed;
+	}
+
+	void checkOpen() {
+		if (closed) {
+			throw new IllegalStateException("Could not send request, cluster is closed");
+		}
+	}
+
+	public Latency getLatency() {
+		return latency;
+	}
+
+	/**
+	 * Sets the latency of each request and of each page fetched. Defaults to {@link Latency#none()}.
+	 */
+	public void setLatency(Latency latency) {
+		Assert.notNull(latency);
+		this.latency = latency;
+	}
+
+	public Failures getFailures() {
+		return failures;
+	}
+
+	/**
+	 * Sets the failures injected into requests. Defaults to {@link Failures#none()}.
+	 */
+	public void setFailures(Failures failures) {
+		Assert.notNull(failures);
+		this.failures = failures;
+	}
+
+	public int getMaxRequestsInFlight() {
+		return maxRequestsInFlight;
+	}
+
+	/**
+	 * Sets the number of requests that may be in flight at once. Defaults to unlimited.
+	 */
+	public void setMaxRequestsInFlight(int maxRequestsInFlight) {
+		Assert.isTrue(maxRequestsInFlight > 0, "maxRequestsInFlight must be positive");
+		this.maxRequestsInFlight = maxRequestsInFlight;
+	}
+
+	public int getDefaultFetchSize() {
+		return defaultFetchSize;
+	}
+
+	/**
+	 * Sets the page size of statements that don't set their own. Defaults to {@value #DEFAULT_FETCH_SIZE}, as the
+	 * driver does.
+	 */
+	public void setDefaultFetchSize(int defaultFetchSize) {
+		Assert.isTrue(defaultFetchSize > 0, "defaultFetchSize must be positive");
+		this.defaultFetchSize = defaultFetchSize;
+	}
+
+	/**
+	 * @return The number of requests currently in flight.
+	 */
+	public int getInFlight() {
+		return inFlight.get();
+	}
+
+	/**
+	 * @return The highest number of requests that were in flight at once.
+	 */
+	public int getMaxInFlight() {
+		return maxInFlight.get();
+	}
+
+	/**
+	 * @return The number of requests that completed successfully.
+	 */
+	public long getExecuted() {
+		return executed.get();
+	}
+
+	/**
+	 * @return The number of requests that failed, including injected failures.
+	 */
+	public long getFailed() {
+		return failed.get();
+	}
+
+	/**
+	 * Resets the counts of requests executed and failed, and the highest number in flight.
+	 */
+	public void resetStatistics() {
+		executed.set(0);
+		failed.set(0);
+		maxInFlight.set(inFlight.get());
+	}
+
+	/**
+	 * Counts a request as in flight, unless that would exceed the maximum.
+	 * 
+	 * @throws NoHostAvailableException If too many requests are in flight.
+	 */
+	void acquire() {
+
+		int current = inFlight.incrementAndGet();
+
+		if (current > maxRequestsInFlight) {
+			inFlight.decrementAndGet();
+			failed.incrementAndGet();
+			throw new NoHostAvailableException(Collections.<InetSocketAddress, Throwable> singletonMap(ADDRESS,
+					new DriverException(String.format("All %d connections are busy", maxRequestsInFlight))));
+		}
+
+		int max;
+		while (current > (max = maxInFlight.get()) && !maxInFlight.compareAndSet(max, current)) {}
+	}
+
+	/**
+	 * Counts a request in flight as completed.
+	 */
+	void release(boolean success) {
+
+		inFlight.decrementAndGet();
+		(success ? executed : failed).incrementAndGet();
+	}
+
+	/**
+	 * Runs the given task after the given delay on one of this cluster's threads.
+	 */
+	void schedule(Runnable task, long delayNanos) {
+		getScheduler().schedule(task, delayNanos, TimeUnit.NANOSECONDS);
+	}
+
+	private synchronized ScheduledExecutorService getScheduler() {
+
+		checkOpen();
+
+		if (scheduler == null) {
+
+			ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(ioThreads, new ThreadFactory() {
+
+				private final AtomicInteger count = new AtomicInteger();
+
+				@Override
+				public Thread newThread(Runnable runnable) {
+
+					Thread thread = new Thread(runnable, "inmemory-nio-worker-" + count.getAndIncrement());
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+			executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+
+			scheduler = executor;
+		}
+
+		return scheduler;
+	}
+
+	void createKeyspace(String keyspace, boolean ifNotExists) {
+
+		if (keyspaces.putIfAbsent(keyspace, new ConcurrentHashMap<String, InMemoryTable>()) != null && !ifNotExists) {
+			throw new AlreadyExistsException(keyspace, "");
+		}
+	}
+
+	void dropKeyspace(String keyspace, boolean ifExists) {
+
+		if (keyspaces.remove(keyspace) == null && !ifExists) {
+			throw new InvalidQueryException(String.format("Cannot drop non existing keyspace '%s'.", keyspace));
+		}
+	}
+
+	void checkKeyspace(String keyspace) {
+		getTables(keyspace);
+	}
+
+	private ConcurrentMap<String, InMemoryTable> getTables(String keyspace) {
+
+		ConcurrentMap<String, InMemoryTable> tables = keyspaces.get(keyspace);
+		if (tables == null) {
+			throw new InvalidQueryException(String.format("Keyspace '%s' does not exist", keyspace));
+		}
+
+		return tables;
+	}
+
+	void createTable(InMemoryTable table, boolean ifNotExists) {
+
+		if (getTables(table.keyspace).putIfAbsent(table.name, table) != null && !ifNotExists) {
+			throw new AlreadyExistsException(table.keyspace, table.name);
+		}
+	}
+
+	void dropTable(String keyspace, String table, boolean ifExists) {
+
+		if (getTables(keyspace).remove(table) == null && !ifExists) {
+			throw new InvalidQueryException(String.format("unconfigured columnfamily %s", table));
+		}
+	}
+
+	InMemoryTable getTable(String keyspace, String table) {
+
+		InMemoryTable found = getTables(keyspace).get(table);
+		if (found == null) {
+			throw new InvalidQueryException(String.format("unconfigured columnfamily %s", table));
+		}
+
+		return found;
+	}
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.test.inmemory;
+
+import java.nio.ByteBuffer;
+
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.ColumnDefinitions;
+import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.PreparedId;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.policies.RetryPolicy;
+
+/**
+ * {@link PreparedStatement} of an {@link InMemorySession}, whose variables are described by the table it targets as
+ * the server would.
+ */
+class InMemoryPreparedStatement implements PreparedStatement {
+
+	private final String query;
+	private final String keyspace;
+	private final ColumnDefinitions variables;
+	private final PreparedId preparedId;
+
+	private volatile ByteBuffer routingKey;
+	private volatile ConsistencyLevel consistencyLevel;
+	private volatile ConsistencyLevel serialConsistencyLevel;
+	private volatile boolean tracing;
+	private volatile RetryPolicy retryPolicy;
+
+	InMemoryPreparedStatement(String query, String keyspace, ColumnDefinitions variables, int[] routingKeyIndexes) {
+
+		this.query = query;
+		this.keyspace = keyspace;
+		this.variables = variables;
+		this.preparedId = SyntheticRows.preparedId(query, variables, routingKeyIndexes);
+	}
+
+	@Override
+	public ColumnDefinitions getVariables() {
+		return variables;
+	}
+
+	@Override
+	public BoundStatement bind(Object... values) {
+		return new BoundStatement(this).bind(values);
+	}
+
+	@Override
+	public BoundStatement bind() {
+		return new BoundStatement(this);
+	}
+
+	@Override
+	public PreparedStatement setRoutingKey(ByteBuffer routingKey) {
+		this.routingKey = routingKey;
+		return this;
+	}
+
+	@Override
+	public PreparedStatement setRoutingKey(ByteBuffer... routingKeyComponents) {
+		throw new UnsupportedOperationException("Composite routing keys are not supported by the in-memory session");
+	}
+
+	@Override
+	public ByteBuffer getRoutingKey() {
+		return routingKey;
+	}
+
+	@Override
+	public PreparedStatement setConsistencyLevel(ConsistencyLevel consistencyLevel) {
+		this.consistencyLevel = consistencyLevel;
+		return this;
+	}
+
+	@Override
+	public ConsistencyLevel getConsistencyLevel() {
+		return consistencyLevel;
+	}
+
+	@Override
+	public PreparedStatement setSerialConsistencyLevel(ConsistencyLevel serialConsistencyLevel) {
+		this.serialConsistencyLevel = serialConsistencyLevel;
+		return this;
+	}
+
+	@Override
+	public ConsistencyLevel getSerialConsistencyLevel() {
+		return serialConsistencyLevel;
+	}
+
+	@Override
+	public String getQueryString() {
+		return query;
+	}
+
+	@Override
+	public String getQueryKeyspace() {
+		return keyspace;
+	}
+
+	@Override
+	public PreparedStatement enableTracing() {
+		tracing = true;
+		return this;
+	}
+
+	@Override
+	public PreparedStatement disableTracing() {
+		tracing = false;
+		return this;
+	}
+
+	@Override
+	public boolean isTracing() {
+		return tracing;
+	}
+
+	@Override
+	public PreparedStatement setRetryPolicy(RetryPolicy policy) {
+		this.retryPolicy = policy;
+		return this;
+	}
+
+	@Override
+	public RetryPolicy getRetryPolicy() {
+		return retryPolicy;
+	}
+
+	@Override
+	public PreparedId getPreparedId() {
+		return preparedId;
+	}
+}
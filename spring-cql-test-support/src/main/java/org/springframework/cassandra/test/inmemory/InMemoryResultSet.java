@@ -0,0 +1,207 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.test.inmemory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.springframework.cassandra.test.inmemory.CqlStatement.Result;
+
+import com.datastax.driver.core.ColumnDefinitions;
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.ExecutionInfo;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Row;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+
+/**
+ * {@link ResultSet} of an {@link InMemorySession}. All rows are read when the statement is executed, but they are made
+ * available a page of the statement's fetch size at a time; fetching the next page takes as long as the cluster's
+ * latency says, as iterating past the rows fetched so far waits for.
+ */
+class InMemoryResultSet implements ResultSet {
+
+	private static final ExecutionInfo EXECUTION_INFO = SyntheticRows.executionInfo();
+
+	private final InMemoryCluster cluster;
+	private final Result result;
+	private final int fetchSize;
+
+	private volatile int fetched;
+	private int consumed;
+	private SettableFuture<Void> fetching;
+
+	InMemoryResultSet(InMemoryCluster cluster, Result result, int fetchSize) {
+
+		this.cluster = cluster;
+		this.result = result;
+		this.fetchSize = fetchSize;
+		this.fetched = Math.min(fetchSize, result.rows.size());
+	}
+
+	@Override
+	public ColumnDefinitions getColumnDefinitions() {
+		return result.columns;
+	}
+
+	@Override
+	public boolean isExhausted() {
+
+		if (consumed < fetched) {
+			return false;
+		}
+
+		if (isFullyFetched()) {
+			return true;
+		}
+
+		Futures.getUnchecked(fetchMoreResultsUnchecked());
+		return isExhausted();
+	}
+
+	@Override
+	public Row one() {
+
+		if (isExhausted()) {
+			return null;
+		}
+
+		return SyntheticRows.serializedRow(result.columns, Arrays.asList(result.rows.get(consumed++)));
+	}
+
+	@Override
+	public List<Row> all() {
+
+		List<Row> rows = new ArrayList<Row>(result.rows.size() - consumed);
+		for (Row row = one(); row != null; row = one()) {
+			rows.add(row);
+		}
+
+		return rows;
+	}
+
+	@Override
+	public Iterator<Row> iterator() {
+
+		return new Iterator<Row>() {
+
+			@Override
+			public boolean hasNext() {
+				return !isExhausted();
+			}
+
+			@Override
+			public Row next() {
+
+				Row row = one();
+				if (row == null) {
+					throw new NoSuchElementException();
+				}
+
+				return row;
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+
+	@Override
+	public int getAvailableWithoutFetching() {
+		return fetched - consumed;
+	}
+
+	@Override
+	public boolean isFullyFetched() {
+		return fetched == result.rows.size();
+	}
+
+	@Override
+	public ListenableFuture<Void> fetchMoreResults() {
+		return fetchMoreResultsUnchecked();
+	}
+
+	private synchronized ListenableFuture<Void> fetchMoreResultsUnchecked() {
+
+		if (isFullyFetched()) {
+			return Futures.immediateFuture(null);
+		}
+
+		if (fetching != null) {
+			return fetching;
+		}
+
+		final SettableFuture<Void> future = SettableFuture.create();
+		fetching = future;
+
+		Runnable fetch = new Runnable() {
+
+			@Override
+			public void run() {
+
+				synchronized (InMemoryResultSet.this) {
+					fetched = Math.min(fetched + fetchSize, result.rows.size());
+					fetching = null;
+				}
+
+				future.set(null);
+			}
+		};
+
+		long delay = cluster.getLatency().nextNanos();
+		if (delay <= 0) {
+			fetch.run();
+		} else {
+			cluster.schedule(fetch, delay);
+		}
+
+		return future;
+	}
+
+	@Override
+	public ExecutionInfo getExecutionInfo() {
+		return EXECUTION_INFO;
+	}
+
+	@Override
+	public List<ExecutionInfo> getAllExecutionInfo() {
+		return Collections.singletonList(EXECUTION_INFO);
+	}
+
+	@Override
+	public boolean wasApplied() {
+
+		if (result.rows.isEmpty() || result.columns.size() == 0
+				|| !ModificationStatement.APPLIED.equals(result.columns.getName(0))) {
+			return true;
+		}
+
+		return Boolean.TRUE.equals(Values.deserialize(DataType.cboolean(), result.rows.get(0)[0]));
+	}
+
+	@Override
+	public String toString() {
+		return String.format("ResultSet[ exhausted: %b, %s]", consumed >= fetched && isFullyFetched(), result.columns);
+	}
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.test.inmemory;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
+import com.datastax.driver.core.exceptions.DriverException;
+import com.datastax.driver.core.exceptions.DriverInternalError;
+import com.google.common.util.concurrent.AbstractFuture;
+import com.google.common.util.concurrent.Uninterruptibles;
+
+/**
+ * {@link ResultSetFuture} of a request to an {@link InMemorySession}.
+ */
+class InMemoryResultSetFuture extends AbstractFuture<ResultSet> implements ResultSetFuture {
+
+	@Override
+	protected boolean set(ResultSet value) {
+		return super.set(value);
+	}
+
+	@Override
+	protected boolean setException(Throwable throwable) {
+		return super.setException(throwable);
+	}
+
+	@Override
+	public ResultSet getUninterruptibly() {
+		try {
+			return Uninterruptibles.getUninterruptibly(this);
+		} catch (ExecutionException e) {
+			throw propagate(e);
+		}
+	}
+
+	@Override
+	public ResultSet getUninterruptibly(long timeout, TimeUnit unit) throws TimeoutException {
+		try {
+			return Uninterruptibles.getUninterruptibly(this, timeout, unit);
+		} catch (ExecutionException e) {
+			throw propagate(e);
+		}
+	}
+
+	/**
+	 * Rethrows the cause of the given exception as the driver does: a copy of a driver exception, so that its stack trace
+	 * includes the caller's.
+	 */
+	static RuntimeException propagate(ExecutionException e) {
+
+		Throwable cause = e.getCause();
+
+		if (cause instanceof DriverException) {
+			throw ((DriverException) cause).copy();
+		}
+		if (cause instanceof RuntimeException) {
+			throw (RuntimeException) cause;
+		}
+		if (cause instanceof Error) {
+			throw (Error) cause;
+		}
+
+		throw new DriverInternalError("Unexpected exception thrown", cause);
+	}
+}
@@ -0,0 +1,356 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.test.inmemory;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.cassandra.test.inmemory.CqlStatement.Result;
+
+import com.datastax.driver.core.BatchStatement;
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.CloseFuture;
+import com.datastax.driver.core.Cluster;
+import com.datastax.driver.core.Host;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.RegularStatement;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.SimpleStatement;
+import com.datastax.driver.core.Statement;
+import com.datastax.driver.core.exceptions.DriverException;
+import com.datastax.driver.core.exceptions.InvalidQueryException;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * {@link Session} of an {@link InMemoryCluster}, answering simple, built, prepared and batch statements from the
+ * cluster's in-memory tables. Obtain one via {@link InMemoryCluster#connect()}.
+ * <p>
+ * Supported are <code>SELECT</code> of columns or <code>COUNT(*)</code> with <code>WHERE</code>,
+ * <code>ORDER BY</code> and <code>LIMIT</code>; <code>INSERT</code>, <code>UPDATE</code> and <code>DELETE</code>,
+ * including collection and counter updates and lightweight transactions; batches; and the schema statements needed to
+ * set up keyspaces and tables. <code>TTL</code>s, timestamps, consistency levels and secondary indexes are accepted but
+ * have no effect. Anything else, such as user-defined types, static columns or <code>token()</code> restrictions, fails
+ * with an {@link InvalidQueryException}.
+ * <p>
+ * {@link #getCluster()} returns null, as there is no driver {@link Cluster}; code needing cluster metadata must guard
+ * against that.
+ */
+public class InMemorySession implements Session {
+
+	private final InMemoryCluster cluster;
+
+	private volatile String keyspace;
+	private volatile boolean closed;
+
+	InMemorySession(InMemoryCluster cluster, String keyspace) {
+		this.cluster = cluster;
+		this.keyspace = keyspace;
+	}
+
+	/**
+	 * @return The in-memory cluster this session belongs to.
+	 */
+	public InMemoryCluster getInMemoryCluster() {
+		return cluster;
+	}
+
+	@Override
+	public String getLoggedKeyspace() {
+		return keyspace;
+	}
+
+	@Override
+	public Session init() {
+		return this;
+	}
+
+	@Override
+	public ResultSet execute(String query) {
+		return execute(new SimpleStatement(query));
+	}
+
+	@Override
+	public ResultSet execute(String query, Object... values) {
+		return execute(new SimpleStatement(query, values));
+	}
+
+	@Override
+	public ResultSet execute(Statement statement) {
+		return executeAsync(statement).getUninterruptibly();
+	}
+
+	@Override
+	public ResultSetFuture executeAsync(String query) {
+		return executeAsync(new SimpleStatement(query));
+	}
+
+	@Override
+	public ResultSetFuture executeAsync(String query, Object... values) {
+		return executeAsync(new SimpleStatement(query, values));
+	}
+
+	/**
+	 * Executes the given statement after the cluster's latency, on one of the cluster's threads, or on the calling thread
+	 * if there is no latency. Failures, including injected ones, complete the returned future exceptionally.
+	 */
+	@Override
+	public ResultSetFuture executeAsync(final Statement statement) {
+
+		if (closed) {
+			throw new IllegalStateException("Could not send request, session is closed");
+		}
+		cluster.checkOpen();
+
+		final InMemoryResultSetFuture future = new InMemoryResultSetFuture();
+
+		try {
+			cluster.acquire();
+		} catch (DriverException e) {
+			future.setException(e);
+			return future;
+		}
+
+		Runnable request = new Runnable() {
+
+			@Override
+			public void run() {
+
+				if (future.isCancelled()) {
+					cluster.release(false);
+					return;
+				}
+
+				try {
+					ResultSet result = InMemorySession.this.run(statement);
+					cluster.release(true);
+					future.set(result);
+				} catch (RuntimeException e) {
+					cluster.release(false);
+					future.setException(e);
+				}
+			}
+		};
+
+		long delay = cluster.getLatency().nextNanos();
+		if (delay <= 0) {
+			request.run();
+		} else {
+			cluster.schedule(request, delay);
+		}
+
+		return future;
+	}
+
+	private ResultSet run(Statement statement) {
+
+		if (statement instanceof BatchStatement) {
+			return runBatch((BatchStatement) statement);
+		}
+
+		CqlStatement parsed = CqlParser.parse(getQueryString(statement));
+
+		DriverException failure = cluster.getFailures().next(statement, parsed.isWrite());
+		if (failure != null) {
+			throw failure;
+		}
+
+		Result result = parsed.execute(cluster, keyspace, getValues(statement));
+
+		if (parsed instanceof SchemaStatement.Use) {
+			keyspace = ((SchemaStatement.Use) parsed).keyspace;
+		}
+
+		int fetchSize = statement.getFetchSize() > 0 ? statement.getFetchSize() : cluster.getDefaultFetchSize();
+		return new InMemoryResultSet(cluster, result, fetchSize);
+	}
+
+	private ResultSet runBatch(BatchStatement batch) {
+
+		Collection<Statement> children = batch.getStatements();
+		List<CqlStatement> parsed = new ArrayList<CqlStatement>(children.size());
+
+		for (Statement child : children) {
+
+			CqlStatement statement = CqlParser.parse(getQueryString(child));
+
+			if (!(statement instanceof ModificationStatement)) {
+				throw new InvalidQueryException("Invalid statement in batch: only UPDATE, INSERT and DELETE statements are allowed.");
+			}
+			if (((ModificationStatement) statement).isConditional()) {
+				throw new InvalidQueryException("Conditional statements in batches are not supported by the in-memory session");
+			}
+
+			parsed.add(statement);
+		}
+
+		DriverException failure = cluster.getFailures().next(batch, true);
+		if (failure != null) {
+			throw failure;
+		}
+
+		int i = 0;
+		for (Statement child : children) {
+			parsed.get(i++).execute(cluster, keyspace, getValues(child));
+		}
+
+		return new InMemoryResultSet(cluster, Result.EMPTY, cluster.getDefaultFetchSize());
+	}
+
+	private static String getQueryString(Statement statement) {
+
+		if (statement instanceof BoundStatement) {
+			return ((BoundStatement) statement).preparedStatement().getQueryString();
+		}
+		if (statement instanceof RegularStatement) {
+			return ((RegularStatement) statement).getQueryString();
+		}
+
+		throw new IllegalArgumentException("Unsupported statement type " + statement.getClass().getName());
+	}
+
+	private static ByteBuffer[] getValues(Statement statement) {
+
+		if (statement instanceof BoundStatement) {
+
+			BoundStatement bound = (BoundStatement) statement;
+			ByteBuffer[] values = new ByteBuffer[bound.preparedStatement().getVariables().size()];
+
+			for (int i = 0; i < values.length; i++) {
+				if (!bound.isSet(i)) {
+					throw new IllegalStateException(String.format(
+							"Unset value at index %d. If you want this value to be null, please set it to null explicitly.", i));
+				}
+				values[i] = bound.getBytesUnsafe(i);
+			}
+
+			return values;
+		}
+
+		return ((RegularStatement) statement).getValues(Values.PROTOCOL_VERSION);
+	}
+
+	@Override
+	public PreparedStatement prepare(String query) {
+
+		if (closed) {
+			throw new IllegalStateException("Could not prepare statement, session is closed");
+		}
+
+		CqlStatement statement = CqlParser.parse(query);
+		String keyspace = this.keyspace;
+
+		return new InMemoryPreparedStatement(query, keyspace, statement.describeVariables(cluster, keyspace),
+				statement.getRoutingKeyIndexes(cluster, keyspace));
+	}
+
+	@Override
+	public PreparedStatement prepare(RegularStatement statement) {
+
+		if (statement.hasValues()) {
+			throw new IllegalArgumentException("A statement to prepare should not have values");
+		}
+
+		PreparedStatement prepared = prepare(statement.getQueryString());
+
+		if (statement.getConsistencyLevel() != null) {
+			prepared.setConsistencyLevel(statement.getConsistencyLevel());
+		}
+		if (statement.getSerialConsistencyLevel() != null) {
+			prepared.setSerialConsistencyLevel(statement.getSerialConsistencyLevel());
+		}
+		if (statement.isTracing()) {
+			prepared.enableTracing();
+		}
+		prepared.setRetryPolicy(statement.getRetryPolicy());
+
+		return prepared;
+	}
+
+	@Override
+	public ListenableFuture<PreparedStatement> prepareAsync(String query) {
+		try {
+			return Futures.immediateFuture(prepare(query));
+		} catch (RuntimeException e) {
+			return Futures.immediateFailedFuture(e);
+		}
+	}
+
+	@Override
+	public ListenableFuture<PreparedStatement> prepareAsync(RegularStatement statement) {
+		try {
+			return Futures.immediateFuture(prepare(statement));
+		} catch (RuntimeException e) {
+			return Futures.immediateFailedFuture(e);
+		}
+	}
+
+	@Override
+	public CloseFuture closeAsync() {
+		closed = true;
+		return SyntheticRows.closed();
+	}
+
+	@Override
+	public void close() {
+		closeAsync();
+	}
+
+	@Override
+	public boolean isClosed() {
+		return closed;
+	}
+
+	/**
+	 * @return null, as there is no driver {@link Cluster}; see {@link #getInMemoryCluster()}.
+	 */
+	@Override
+	public Cluster getCluster() {
+		return null;
+	}
+
+	@Override
+	public State getState() {
+
+		return new State() {
+
+			@Override
+			public Session getSession() {
+				return InMemorySession.this;
+			}
+
+			@Override
+			public Collection<Host> getConnectedHosts() {
+				return Collections.emptyList();
+			}
+
+			@Override
+			public int getOpenConnections(Host host) {
+				return 0;
+			}
+
+			@Override
+			public int getInFlightQueries(Host host) {
+				return cluster.getInFlight();
+			}
+		};
+	}
+}
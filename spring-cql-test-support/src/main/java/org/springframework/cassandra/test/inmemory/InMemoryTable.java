@@ -0,0 +1,317 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.test.inmemory;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.datastax.driver.core.ColumnDefinitions;
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.exceptions.InvalidQueryException;
+
+/**
+ * A table of the in-memory session: its schema and its rows, grouped into {@link Partition}s by partition key and kept
+ * in clustering order within each. Values are stored serialized.
+ */
+class InMemoryTable {
+
+	final String keyspace;
+	final String name;
+
+	private final List<String> columns;
+	private final List<DataType> types;
+	private final Map<String, Integer> indexes = new HashMap<String, Integer>();
+	private final int partitionKeySize;
+	private final int clusteringSize;
+	private final boolean[] ascending;
+	private final boolean counter;
+	private final ColumnDefinitions definitions;
+	private final Comparator<Object[]> clusteringOrder;
+
+	private final ConcurrentMap<List<ByteBuffer>, Partition> partitions = new ConcurrentHashMap<List<ByteBuffer>, Partition>();
+
+	/**
+	 * @param columns The columns: partition key columns first, then clustering columns, then the others.
+	 * @param types The types of the columns.
+	 * @param ascending The clustering order of each clustering column.
+	 */
+	InMemoryTable(String keyspace, String name, List<String> columns, List<DataType> types, final int partitionKeySize,
+			boolean[] ascending) {
+
+		this.keyspace = keyspace;
+		this.name = name;
+		this.columns = Collections.unmodifiableList(new ArrayList<String>(columns));
+		this.types = Collections.unmodifiableList(new ArrayList<DataType>(types));
+		this.partitionKeySize = partitionKeySize;
+		this.clusteringSize = ascending.length;
+		this.ascending = ascending.clone();
+
+		boolean counter = false;
+		Object[] namesAndTypes = new Object[2 * columns.size()];
+		for (int i = 0; i < columns.size(); i++) {
+			indexes.put(columns.get(i), i);
+			namesAndTypes[2 * i] = columns.get(i);
+			namesAndTypes[2 * i + 1] = types.get(i);
+			counter |= types.get(i).getName() == DataType.Name.COUNTER;
+		}
+
+		this.counter = counter;
+		this.definitions = SyntheticRows.columns(keyspace, name, namesAndTypes);
+		this.clusteringOrder = new Comparator<Object[]>() {
+
+			@Override
+			public int compare(Object[] left, Object[] right) {
+
+				for (int i = 0; i < clusteringSize; i++) {
+					int comparison = Values.compare(getType(partitionKeySize + i), left[i], right[i]);
+					if (comparison != 0) {
+						return InMemoryTable.this.ascending[i] ? comparison : -comparison;
+					}
+				}
+				return 0;
+			}
+		};
+	}
+
+	int indexOf(String column) {
+
+		Integer index = indexes.get(column);
+		if (index == null) {
+			throw new InvalidQueryException(String.format("Undefined name %s in table %s.%s", column, keyspace, name));
+		}
+
+		return index;
+	}
+
+	int size() {
+		return columns.size();
+	}
+
+	String getColumn(int index) {
+		return columns.get(index);
+	}
+
+	DataType getType(int index) {
+		return types.get(index);
+	}
+
+	DataType getType(String column) {
+		return types.get(indexOf(column));
+	}
+
+	int getPartitionKeySize() {
+		return partitionKeySize;
+	}
+
+	int getClusteringSize() {
+		return clusteringSize;
+	}
+
+	int getPrimaryKeySize() {
+		return partitionKeySize + clusteringSize;
+	}
+
+	boolean isAscending(int clusteringIndex) {
+		return ascending[clusteringIndex];
+	}
+
+	boolean isCounter() {
+		return counter;
+	}
+
+	/**
+	 * @return The definitions of all columns, in order.
+	 */
+	ColumnDefinitions getDefinitions() {
+		return definitions;
+	}
+
+	/**
+	 * @return The partition with the given key, created if so requested, otherwise null if it doesn't exist.
+	 */
+	Partition getPartition(List<ByteBuffer> key, boolean create) {
+
+		Partition partition = partitions.get(key);
+
+		if (partition == null && create) {
+			Partition created = new Partition();
+			partition = partitions.putIfAbsent(copy(key), created);
+			if (partition == null) {
+				partition = created;
+			}
+		}
+
+		return partition;
+	}
+
+	/**
+	 * @return A snapshot of the partitions.
+	 */
+	List<Partition> getPartitions() {
+		return new ArrayList<Partition>(partitions.values());
+	}
+
+	private static List<ByteBuffer> copy(List<ByteBuffer> key) {
+
+		List<ByteBuffer> copy = new ArrayList<ByteBuffer>(key.size());
+		for (ByteBuffer value : key) {
+			copy.add(Values.copy(value));
+		}
+
+		return copy;
+	}
+
+	void truncate() {
+		partitions.clear();
+	}
+
+	/**
+	 * @return The clustering key of the given serialized clustering column values, for {@link Partition} lookups.
+	 */
+	Object[] toClusteringKey(List<ByteBuffer> values) {
+
+		Object[] key = new Object[values.size()];
+		for (int i = 0; i < key.length; i++) {
+			key[i] = Values.deserialize(getType(partitionKeySize + i), values.get(i));
+		}
+
+		return key;
+	}
+
+	/**
+	 * @return The given serialized value of the column at the given index as it is to be stored: copied, and with the
+	 *         elements of a set or the keys of a map sorted, as they are returned in order. Empty collections are stored
+	 *         as null.
+	 */
+	ByteBuffer toCell(int index, ByteBuffer value) {
+
+		DataType type = getType(index);
+
+		if (value == null || !type.isCollection()) {
+			return Values.copy(value);
+		}
+
+		Object collection = Values.deserialize(type, value);
+		if (collection instanceof Collection ? ((Collection<?>) collection).isEmpty() : ((Map<?, ?>) collection).isEmpty()) {
+			return null;
+		}
+
+		return Values.serialize(type, Term.sorted(type, collection));
+	}
+
+	/**
+	 * A row as stored: the serialized value of each column, and whether it was inserted, which keeps it alive even if
+	 * all of its non-key columns are null, as a row marker does.
+	 */
+	static class StoredRow {
+
+		final ByteBuffer[] cells;
+		boolean inserted;
+
+		StoredRow(ByteBuffer[] cells) {
+			this.cells = cells;
+		}
+	}
+
+	/**
+	 * The rows of a partition in clustering order. Callers synchronize on the partition.
+	 */
+	class Partition {
+
+		final TreeMap<Object[], StoredRow> rows = new TreeMap<Object[], StoredRow>(clusteringOrder);
+
+		/**
+		 * @return Whether the given row exists as far as reads are concerned.
+		 */
+		boolean isLive(StoredRow row) {
+
+			if (row.inserted || getPrimaryKeySize() == size()) {
+				return true;
+			}
+
+			for (int i = getPrimaryKeySize(); i < row.cells.length; i++) {
+				if (row.cells[i] != null) {
+					return true;
+				}
+			}
+
+			return false;
+		}
+
+		/**
+		 * @return The row with the given primary key values, created if so requested.
+		 */
+		StoredRow getRow(List<ByteBuffer> partitionKey, List<ByteBuffer> clustering, boolean create) {
+
+			Object[] key = toClusteringKey(clustering);
+			StoredRow row = rows.get(key);
+
+			if (row == null && create) {
+
+				ByteBuffer[] cells = new ByteBuffer[size()];
+				for (int i = 0; i < partitionKeySize; i++) {
+					cells[i] = Values.copy(partitionKey.get(i));
+				}
+				for (int i = 0; i < clusteringSize; i++) {
+					cells[partitionKeySize + i] = Values.copy(clustering.get(i));
+				}
+
+				row = new StoredRow(cells);
+				rows.put(key, row);
+			}
+
+			return row;
+		}
+
+		void removeRow(List<ByteBuffer> clustering) {
+			rows.remove(toClusteringKey(clustering));
+		}
+
+		/**
+		 * Removes the rows whose clustering columns start with the given values.
+		 */
+		void removeRows(List<ByteBuffer> clusteringPrefix) {
+
+			if (clusteringPrefix.isEmpty()) {
+				rows.clear();
+				return;
+			}
+
+			Object[] prefix = toClusteringKey(clusteringPrefix);
+			List<Object[]> doomed = new ArrayList<Object[]>();
+
+			for (Object[] key : rows.keySet()) {
+				if (Arrays.equals(prefix, Arrays.copyOf(key, prefix.length))) {
+					doomed.add(key);
+				}
+			}
+
+			for (Object[] key : doomed) {
+				rows.remove(key);
+			}
+		}
+	}
+}
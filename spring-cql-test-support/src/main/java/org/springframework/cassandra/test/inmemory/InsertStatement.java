@@ -0,0 +1,148 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.test.inmemory;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.cassandra.test.inmemory.InMemoryTable.Partition;
+import org.springframework.cassandra.test.inmemory.InMemoryTable.StoredRow;
+import org.springframework.cassandra.test.inmemory.Term.Variable;
+
+import com.datastax.driver.core.exceptions.InvalidQueryException;
+
+/**
+ * An <code>INSERT</code>, optionally <code>IF NOT EXISTS</code>. Inserting a row replaces the values of the given
+ * columns, including collections, and keeps the row alive even if they are all null.
+ */
+class InsertStatement extends ModificationStatement {
+
+	private final List<String> columns;
+	private final List<Term> terms;
+	private final boolean ifNotExists;
+
+	InsertStatement(TableName table, List<String> columns, List<Term> terms, boolean ifNotExists) {
+
+		super(table);
+
+		if (columns.size() != terms.size()) {
+			throw new InvalidQueryException("Unmatched column names/values");
+		}
+
+		this.columns = columns;
+		this.terms = terms;
+		this.ifNotExists = ifNotExists;
+	}
+
+	@Override
+	boolean isConditional() {
+		return ifNotExists;
+	}
+
+	@Override
+	Result execute(InMemoryCluster cluster, String keyspace, ByteBuffer[] values) {
+
+		InMemoryTable table = this.table.lookup(cluster, keyspace);
+
+		if (table.isCounter()) {
+			throw new InvalidQueryException("INSERT statements are not allowed on counter tables, use UPDATE instead");
+		}
+
+		ByteBuffer[] cells = new ByteBuffer[table.size()];
+		boolean[] given = new boolean[table.size()];
+
+		for (int i = 0; i < columns.size(); i++) {
+
+			int index = table.indexOf(columns.get(i));
+			if (given[index]) {
+				throw new InvalidQueryException(String.format("Multiple definitions found for column %s", columns.get(i)));
+			}
+
+			given[index] = true;
+			cells[index] = terms.get(i).serialize(table.getType(index), values);
+		}
+
+		List<ByteBuffer> partitionKey = new ArrayList<ByteBuffer>(table.getPartitionKeySize());
+		List<ByteBuffer> clustering = new ArrayList<ByteBuffer>(table.getClusteringSize());
+
+		for (int i = 0; i < table.getPrimaryKeySize(); i++) {
+
+			if (cells[i] == null) {
+				throw new InvalidQueryException(String.format(given[i] ? "Invalid null value for partition key part %s"
+						: "Missing mandatory PRIMARY KEY part %s", table.getColumn(i)));
+			}
+
+			(i < table.getPartitionKeySize() ? partitionKey : clustering).add(cells[i]);
+		}
+
+		Partition partition = table.getPartition(partitionKey, true);
+
+		synchronized (partition) {
+
+			StoredRow row = partition.getRow(partitionKey, clustering, false);
+
+			if (ifNotExists && row != null && partition.isLive(row)) {
+				return conditionalResult(table, partition, false, row);
+			}
+
+			if (row == null) {
+				row = partition.getRow(partitionKey, clustering, true);
+			}
+
+			for (int i = table.getPrimaryKeySize(); i < cells.length; i++) {
+				if (given[i]) {
+					row.cells[i] = table.toCell(i, cells[i]);
+				}
+			}
+
+			row.inserted = true;
+		}
+
+		return ifNotExists ? conditionalResult(table, partition, true, null) : Result.EMPTY;
+	}
+
+	@Override
+	void describeMarkers(InMemoryCluster cluster, String keyspace, Variable[] variables) {
+
+		InMemoryTable table = this.table.lookup(cluster, keyspace);
+
+		for (int i = 0; i < columns.size(); i++) {
+			terms.get(i).describeMarkers(columns.get(i), table.getType(columns.get(i)), variables);
+		}
+
+		super.describeMarkers(cluster, keyspace, variables);
+	}
+
+	@Override
+	int[] getRoutingKeyIndexes(InMemoryCluster cluster, String keyspace) {
+
+		InMemoryTable table = this.table.lookup(cluster, keyspace);
+		int[] indexes = new int[table.getPartitionKeySize()];
+
+		for (int i = 0; i < indexes.length; i++) {
+
+			int position = columns.indexOf(table.getColumn(i));
+			if (position < 0 || !(terms.get(position) instanceof Term.Marker)) {
+				return null;
+			}
+
+			indexes[i] = ((Term.Marker) terms.get(position)).getIndex();
+		}
+
+		return indexes;
+	}
+}
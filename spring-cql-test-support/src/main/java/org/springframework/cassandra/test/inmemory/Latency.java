@@ -0,0 +1,112 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.test.inmemory;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.util.Assert;
+
+/**
+ * The distribution of the delays an {@link InMemoryCluster} answers requests after.
+ */
+public abstract class Latency {
+
+	private static final Random RANDOM = new Random();
+
+	/**
+	 * @return The delay of the next request, in nanoseconds.
+	 */
+	public abstract long nextNanos();
+
+	/**
+	 * @return Latency answering requests at once, on the calling thread.
+	 */
+	public static Latency none() {
+		return fixed(0, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * @return Latency answering each request after the given delay.
+	 */
+	public static Latency fixed(long delay, TimeUnit unit) {
+
+		Assert.isTrue(delay >= 0, "delay must not be negative");
+		final long nanos = unit.toNanos(delay);
+
+		return new Latency() {
+
+			@Override
+			public long nextNanos() {
+				return nanos;
+			}
+		};
+	}
+
+	/**
+	 * @return Latency uniformly distributed between the given minimum and maximum.
+	 */
+	public static Latency uniform(long min, long max, TimeUnit unit) {
+
+		Assert.isTrue(min >= 0 && min <= max, "min must not be negative or greater than max");
+		final long minNanos = unit.toNanos(min);
+		final long range = unit.toNanos(max) - minNanos;
+
+		return new Latency() {
+
+			@Override
+			public long nextNanos() {
+				return minNanos + (long) (RANDOM.nextDouble() * range);
+			}
+		};
+	}
+
+	/**
+	 * @return Latency exponentially distributed with the given mean, whose long tail resembles that of a loaded cluster.
+	 */
+	public static Latency exponential(long mean, TimeUnit unit) {
+
+		Assert.isTrue(mean >= 0, "mean must not be negative");
+		final double meanNanos = unit.toNanos(mean);
+
+		return new Latency() {
+
+			@Override
+			public long nextNanos() {
+				return (long) (-meanNanos * Math.log(1 - RANDOM.nextDouble()));
+			}
+		};
+	}
+
+	/**
+	 * @return Latency that is usually the given one, but with the given probability an extra delay on top of it, as
+	 *         caused by garbage collection pauses or compactions.
+	 */
+	public static Latency withSpikes(final Latency latency, final double probability, long spike, TimeUnit unit) {
+
+		Assert.notNull(latency);
+		Assert.isTrue(probability >= 0 && probability <= 1, "probability must be between 0 and 1");
+		final long spikeNanos = unit.toNanos(spike);
+
+		return new Latency() {
+
+			@Override
+			public long nextNanos() {
+				return latency.nextNanos() + (RANDOM.nextDouble() < probability ? spikeNanos : 0);
+			}
+		};
+	}
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.test.inmemory;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.cassandra.test.inmemory.InMemoryTable.Partition;
+import org.springframework.cassandra.test.inmemory.InMemoryTable.StoredRow;
+import org.springframework.cassandra.test.inmemory.Term.Variable;
+
+import com.datastax.driver.core.ColumnDefinitions;
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.exceptions.InvalidQueryException;
+
+/**
+ * Base class of <code>INSERT</code>, <code>UPDATE</code> and <code>DELETE</code> statements: the table they modify,
+ * their <code>IF</code> conditions and their <code>USING</code> options. <code>TTL</code>s and timestamps are accepted
+ * but ignored; data never expires, and the last write executed wins.
+ */
+abstract class ModificationStatement extends CqlStatement {
+
+	static final String APPLIED = "[applied]";
+
+	private static final ColumnDefinitions APPLIED_ONLY = SyntheticRows.columns(null, null, APPLIED,
+			DataType.cboolean());
+
+	final TableName table;
+	final List<Option> options = new ArrayList<Option>();
+
+	/**
+	 * Whether the statement is conditional on the row's existence.
+	 */
+	boolean ifExists;
+
+	/**
+	 * The column conditions of an <code>IF</code> clause, or null.
+	 */
+	List<Relation> conditions;
+
+	ModificationStatement(TableName table) {
+		this.table = table;
+	}
+
+	@Override
+	boolean isWrite() {
+		return true;
+	}
+
+	@Override
+	TableName getTable() {
+		return table;
+	}
+
+	/**
+	 * @return Whether this is a lightweight transaction.
+	 */
+	boolean isConditional() {
+		return ifExists || conditions != null;
+	}
+
+	@Override
+	void describeMarkers(InMemoryCluster cluster, String keyspace, Variable[] variables) {
+
+		if (conditions != null) {
+			describeRelations(table.lookup(cluster, keyspace), conditions, variables);
+		}
+
+		for (Option option : options) {
+			option.describeMarkers(variables);
+		}
+	}
+
+	/**
+	 * Evaluates the <code>IF</code> clause against the given row.
+	 * 
+	 * @param row The row, or null if it doesn't exist.
+	 */
+	boolean conditionsMet(InMemoryTable table, Partition partition, StoredRow row, ByteBuffer[] values) {
+
+		boolean exists = row != null && partition.isLive(row);
+
+		if (ifExists) {
+			return exists;
+		}
+
+		for (Relation relation : conditions) {
+
+			int index = table.indexOf(relation.column);
+			DataType type = table.getType(index);
+
+			if (!relation.matches(type, exists ? Values.deserialize(type, row.cells[index]) : null, values)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * @return The result of a lightweight transaction: whether it was applied and, if it wasn't, the current values of
+	 *         the row if it exists.
+	 */
+	static Result conditionalResult(InMemoryTable table, Partition partition, boolean applied, StoredRow row) {
+
+		ByteBuffer flag = Values.serialize(DataType.cboolean(), applied);
+
+		if (applied || row == null || !partition.isLive(row)) {
+			return new Result(APPLIED_ONLY, Collections.singletonList(new ByteBuffer[] { flag }));
+		}
+
+		Object[] namesAndTypes = new Object[2 * (table.size() + 1)];
+		ByteBuffer[] cells = new ByteBuffer[table.size() + 1];
+
+		namesAndTypes[0] = APPLIED;
+		namesAndTypes[1] = DataType.cboolean();
+		cells[0] = flag;
+
+		for (int i = 0; i < table.size(); i++) {
+			namesAndTypes[2 * i + 2] = table.getColumn(i);
+			namesAndTypes[2 * i + 3] = table.getType(i);
+			cells[i + 1] = row.cells[i] == null ? null : row.cells[i].duplicate();
+		}
+
+		return new Result(SyntheticRows.columns(table.keyspace, table.name, namesAndTypes),
+				Collections.singletonList(cells));
+	}
+
+	/**
+	 * Checks that the given column may be modified: that it exists and isn't part of the primary key.
+	 * 
+	 * @return The index of the column.
+	 */
+	static int modifiable(InMemoryTable table, String column) {
+
+		int index = table.indexOf(column);
+
+		if (index < table.getPrimaryKeySize()) {
+			throw new InvalidQueryException(String.format("PRIMARY KEY part %s found in SET part", column));
+		}
+
+		return index;
+	}
+
+	/**
+	 * @return The partition key values selected by the <code>WHERE</code> clause.
+	 */
+	static List<List<ByteBuffer>> partitionKeys(InMemoryTable table, List<Relation> where, ByteBuffer[] values) {
+
+		for (Relation relation : where) {
+			table.indexOf(relation.column);
+		}
+
+		List<List<ByteBuffer>> keys = keys(table, where, 0, table.getPartitionKeySize(), values);
+
+		if (keys == null) {
+			throw new InvalidQueryException(String.format("Missing mandatory PRIMARY KEY part %s",
+					missing(table, where, 0, table.getPartitionKeySize())));
+		}
+
+		return keys;
+	}
+
+	/**
+	 * @return The clustering keys selected by the <code>WHERE</code> clause.
+	 */
+	static List<List<ByteBuffer>> clusteringKeys(InMemoryTable table, List<Relation> where, ByteBuffer[] values) {
+
+		List<List<ByteBuffer>> keys = keys(table, where, table.getPartitionKeySize(), table.getPrimaryKeySize(), values);
+
+		if (keys == null) {
+			throw new InvalidQueryException(String.format("Missing mandatory PRIMARY KEY part %s",
+					missing(table, where, table.getPartitionKeySize(), table.getPrimaryKeySize())));
+		}
+
+		return keys;
+	}
+
+	private static String missing(InMemoryTable table, List<Relation> where, int from, int to) {
+
+		for (int i = from; i < to; i++) {
+			Relation relation = find(where, table.getColumn(i));
+			if (relation == null || !relation.isEqualityOrIn()) {
+				return table.getColumn(i);
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Checks that a conditional statement modifies a single row.
+	 */
+	void checkSingleRow(List<List<ByteBuffer>> partitionKeys, List<List<ByteBuffer>> clusteringKeys) {
+
+		if (isConditional() && (partitionKeys.size() != 1 || clusteringKeys.size() != 1)) {
+			throw new InvalidQueryException("IN on the primary key is not supported with conditional updates");
+		}
+	}
+}
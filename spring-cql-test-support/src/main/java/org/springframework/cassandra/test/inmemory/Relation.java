@@ -0,0 +1,178 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.test.inmemory;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.cassandra.test.inmemory.Term.Variable;
+
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.exceptions.InvalidQueryException;
+
+/**
+ * A restriction of a <code>WHERE</code> clause, or a condition of an <code>IF</code> clause.
+ */
+class Relation {
+
+	enum Operator {
+		EQ, LT, LTE, GT, GTE, IN
+	}
+
+	final String column;
+	final Operator operator;
+
+	/**
+	 * The term compared with, or the single bind marker of an <code>IN ?</code>; null for an <code>IN</code> list.
+	 */
+	final Term term;
+
+	/**
+	 * The terms of an <code>IN</code> list, otherwise null.
+	 */
+	final List<Term> terms;
+
+	Relation(String column, Operator operator, Term term, List<Term> terms) {
+		this.column = column;
+		this.operator = operator;
+		this.term = term;
+		this.terms = terms;
+	}
+
+	boolean isEqualityOrIn() {
+		return operator == Operator.EQ || operator == Operator.IN;
+	}
+
+	/**
+	 * @return The serialized values an <code>=</code> or <code>IN</code> relation restricts the column to, in order and
+	 *         without duplicates.
+	 */
+	List<ByteBuffer> serializedValues(DataType type, ByteBuffer[] values) {
+
+		if (operator == Operator.EQ) {
+			return Collections.singletonList(notNull(term.serialize(type, values)));
+		}
+
+		List<ByteBuffer> result = new ArrayList<ByteBuffer>();
+
+		if (terms == null) {
+			List<?> list = (List<?>) term.evaluate(DataType.list(type), values);
+			if (list != null) {
+				for (Object element : list) {
+					addIfAbsent(result, Values.serialize(type, element));
+				}
+			}
+			return result;
+		}
+
+		for (Term element : terms) {
+			addIfAbsent(result, notNull(element.serialize(type, values)));
+		}
+
+		return result;
+	}
+
+	private ByteBuffer notNull(ByteBuffer value) {
+
+		if (value == null) {
+			throw new InvalidQueryException(String.format("Invalid null value for column %s", column));
+		}
+
+		return value;
+	}
+
+	private static void addIfAbsent(List<ByteBuffer> list, ByteBuffer value) {
+		if (!list.contains(value)) {
+			list.add(value);
+		}
+	}
+
+	/**
+	 * Returns whether the given deserialized value of the column satisfies this relation; a null value only satisfies
+	 * equality with null.
+	 */
+	boolean matches(DataType type, Object actual, ByteBuffer[] values) {
+
+		if (operator == Operator.IN) {
+
+			List<?> candidates;
+			if (terms == null) {
+				candidates = (List<?>) term.evaluate(DataType.list(type), values);
+			} else {
+				List<Object> evaluated = new ArrayList<Object>(terms.size());
+				for (Term element : terms) {
+					evaluated.add(element.evaluate(type, values));
+				}
+				candidates = evaluated;
+			}
+
+			for (Object candidate : candidates) {
+				if (equal(type, actual, candidate)) {
+					return true;
+				}
+			}
+
+			return false;
+		}
+
+		Object expected = term.evaluate(type, values);
+
+		if (operator == Operator.EQ) {
+			return equal(type, actual, expected);
+		}
+
+		if (actual == null || expected == null) {
+			return false;
+		}
+
+		int comparison = Values.compare(type, actual, expected);
+
+		switch (operator) {
+			case LT:
+				return comparison < 0;
+			case LTE:
+				return comparison <= 0;
+			case GT:
+				return comparison > 0;
+			default:
+				return comparison >= 0;
+		}
+	}
+
+	private static boolean equal(DataType type, Object actual, Object expected) {
+		return actual == null || expected == null ? actual == expected : Values.compare(type, actual, expected) == 0;
+	}
+
+	void describeMarkers(DataType type, Variable[] variables) {
+
+		if (terms != null) {
+			for (Term element : terms) {
+				element.describeMarkers(column, type, variables);
+			}
+		} else if (operator == Operator.IN) {
+			term.describeMarkers("in(" + column + ")", DataType.list(type), variables);
+		} else {
+			term.describeMarkers(column, type, variables);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return column + " " + operator + " " + (terms == null ? term : terms);
+	}
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.test.inmemory;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import com.datastax.driver.core.DataType;
+
+/**
+ * Base class of statements that change the schema, or the session's keyspace. Options of keyspaces and tables, such as
+ * replication, compaction and caching, are accepted but ignored; so are secondary indexes, as any column can be
+ * filtered on.
+ */
+abstract class SchemaStatement extends CqlStatement {
+
+	@Override
+	boolean isWrite() {
+		return false;
+	}
+
+	@Override
+	TableName getTable() {
+		return null;
+	}
+
+	static class CreateKeyspace extends SchemaStatement {
+
+		private final String keyspace;
+		private final boolean ifNotExists;
+
+		CreateKeyspace(String keyspace, boolean ifNotExists) {
+			this.keyspace = keyspace;
+			this.ifNotExists = ifNotExists;
+		}
+
+		@Override
+		Result execute(InMemoryCluster cluster, String sessionKeyspace, ByteBuffer[] values) {
+			cluster.createKeyspace(keyspace, ifNotExists);
+			return Result.EMPTY;
+		}
+	}
+
+	static class CreateTable extends SchemaStatement {
+
+		private final TableName table;
+		private final List<String> columns;
+		private final List<DataType> types;
+		private final int partitionKeySize;
+		private final boolean[] ascending;
+		private final boolean ifNotExists;
+
+		/**
+		 * @param columns The columns: partition key columns first, then clustering columns, then the others.
+		 */
+		CreateTable(TableName table, List<String> columns, List<DataType> types, int partitionKeySize,
+				boolean[] ascending, boolean ifNotExists) {
+
+			this.table = table;
+			this.columns = columns;
+			this.types = types;
+			this.partitionKeySize = partitionKeySize;
+			this.ascending = ascending;
+			this.ifNotExists = ifNotExists;
+		}
+
+		@Override
+		Result execute(InMemoryCluster cluster, String sessionKeyspace, ByteBuffer[] values) {
+
+			cluster.createTable(new InMemoryTable(table.resolve(sessionKeyspace), table.name, columns, types,
+					partitionKeySize, ascending), ifNotExists);
+
+			return Result.EMPTY;
+		}
+	}
+
+	static class DropKeyspace extends SchemaStatement {
+
+		private final String keyspace;
+		private final boolean ifExists;
+
+		DropKeyspace(String keyspace, boolean ifExists) {
+			this.keyspace = keyspace;
+			this.ifExists = ifExists;
+		}
+
+		@Override
+		Result execute(InMemoryCluster cluster, String sessionKeyspace, ByteBuffer[] values) {
+			cluster.dropKeyspace(keyspace, ifExists);
+			return Result.EMPTY;
+		}
+	}
+
+	static class DropTable extends SchemaStatement {
+
+		private final TableName table;
+		private final boolean ifExists;
+
+		DropTable(TableName table, boolean ifExists) {
+			this.table = table;
+			this.ifExists = ifExists;
+		}
+
+		@Override
+		Result execute(InMemoryCluster cluster, String sessionKeyspace, ByteBuffer[] values) {
+			cluster.dropTable(table.resolve(sessionKeyspace), table.name, ifExists);
+			return Result.EMPTY;
+		}
+	}
+
+	static class Truncate extends SchemaStatement {
+
+		private final TableName table;
+
+		Truncate(TableName table) {
+			this.table = table;
+		}
+
+		@Override
+		Result execute(InMemoryCluster cluster, String sessionKeyspace, ByteBuffer[] values) {
+			table.lookup(cluster, sessionKeyspace).truncate();
+			return Result.EMPTY;
+		}
+	}
+
+	/**
+	 * <code>USE</code>, which the {@link InMemorySession} executing it applies to itself.
+	 */
+	static class Use extends SchemaStatement {
+
+		final String keyspace;
+
+		Use(String keyspace) {
+			this.keyspace = keyspace;
+		}
+
+		@Override
+		Result execute(InMemoryCluster cluster, String sessionKeyspace, ByteBuffer[] values) {
+			cluster.checkKeyspace(keyspace);
+			return Result.EMPTY;
+		}
+	}
+
+	/**
+	 * A statement that is accepted but has no effect, such as <code>CREATE INDEX</code>.
+	 */
+	static class Ignored extends SchemaStatement {
+
+		@Override
+		Result execute(InMemoryCluster cluster, String sessionKeyspace, ByteBuffer[] values) {
+			return Result.EMPTY;
+		}
+	}
+}
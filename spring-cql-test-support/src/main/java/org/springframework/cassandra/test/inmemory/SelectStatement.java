@@ -0,0 +1,275 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.test.inmemory;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.cassandra.test.inmemory.InMemoryTable.Partition;
+import org.springframework.cassandra.test.inmemory.InMemoryTable.StoredRow;
+import org.springframework.cassandra.test.inmemory.Term.Variable;
+
+import com.datastax.driver.core.ColumnDefinitions;
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.exceptions.InvalidQueryException;
+
+/**
+ * A <code>SELECT</code> of columns or of <code>COUNT(*)</code>, optionally restricted, ordered by the first clustering
+ * column and limited. Restrictions that don't select whole partitions by key are evaluated by scanning, as if
+ * <code>ALLOW FILTERING</code> had been given.
+ */
+class SelectStatement extends CqlStatement {
+
+	private final TableName table;
+	private final boolean count;
+	private final List<String> columns;
+	private final List<String> aliases;
+	private final List<Relation> where;
+	private final String orderBy;
+	private final boolean descending;
+	private final Option limit;
+
+	private volatile Projection projection;
+
+	/**
+	 * @param columns The selected columns, or null for all.
+	 * @param aliases The alias of each selected column, or null for none.
+	 * @param orderBy The column to order by, or null.
+	 * @param limit The limit, or null.
+	 */
+	SelectStatement(TableName table, boolean count, List<String> columns, List<String> aliases, List<Relation> where,
+			String orderBy, boolean descending, Term limit) {
+
+		this.table = table;
+		this.count = count;
+		this.columns = columns;
+		this.aliases = aliases;
+		this.where = where;
+		this.orderBy = orderBy;
+		this.descending = descending;
+		this.limit = limit == null ? null : new Option(limit, "[limit]", DataType.cint());
+	}
+
+	@Override
+	boolean isWrite() {
+		return false;
+	}
+
+	@Override
+	TableName getTable() {
+		return table;
+	}
+
+	@Override
+	Result execute(InMemoryCluster cluster, String keyspace, ByteBuffer[] values) {
+
+		InMemoryTable table = this.table.lookup(cluster, keyspace);
+		Projection projection = project(table);
+
+		int limit = Integer.MAX_VALUE;
+		if (this.limit != null) {
+			Integer value = (Integer) this.limit.term.evaluate(DataType.cint(), values);
+			if (value == null || value <= 0) {
+				throw new InvalidQueryException("LIMIT must be strictly positive");
+			}
+			limit = value;
+		}
+
+		int partitionKeySize = table.getPartitionKeySize();
+		List<List<ByteBuffer>> partitionKeys = keys(table, where, 0, partitionKeySize, values);
+		List<List<ByteBuffer>> clusteringKeys = partitionKeys == null ? null : keys(table, where, partitionKeySize,
+				table.getPrimaryKeySize(), values);
+
+		List<Partition> partitions;
+		if (partitionKeys == null) {
+			partitions = table.getPartitions();
+		} else {
+			partitions = new ArrayList<Partition>(partitionKeys.size());
+			for (List<ByteBuffer> key : partitionKeys) {
+				Partition partition = table.getPartition(key, false);
+				if (partition != null) {
+					partitions.add(partition);
+				}
+			}
+		}
+
+		List<ByteBuffer[]> rows = new ArrayList<ByteBuffer[]>();
+		long matched = 0;
+
+		for (Partition partition : partitions) {
+
+			synchronized (partition) {
+
+				Collection<StoredRow> candidates;
+				if (clusteringKeys != null && clusteringKeys.size() == 1) {
+					StoredRow row = partition.getRow(null, clusteringKeys.get(0), false);
+					candidates = row == null ? Collections.<StoredRow> emptyList() : Collections.singletonList(row);
+				} else {
+					candidates = projection.reversed ? partition.rows.descendingMap().values() : partition.rows.values();
+				}
+
+				for (StoredRow row : candidates) {
+
+					if (!partition.isLive(row) || !matches(table, row, partitionKeys != null, values)) {
+						continue;
+					}
+
+					if (!count) {
+						rows.add(projection.project(row));
+					}
+
+					if (++matched >= limit) {
+						break;
+					}
+				}
+			}
+
+			if (matched >= limit) {
+				break;
+			}
+		}
+
+		if (count) {
+			rows.add(new ByteBuffer[] { Values.serialize(DataType.bigint(), matched) });
+		}
+
+		return new Result(projection.columns, rows);
+	}
+
+	private boolean matches(InMemoryTable table, StoredRow row, boolean partitionKeyResolved, ByteBuffer[] values) {
+
+		for (Relation relation : where) {
+
+			int index = table.indexOf(relation.column);
+			if (partitionKeyResolved && index < table.getPartitionKeySize()) {
+				continue;
+			}
+
+			DataType type = table.getType(index);
+			if (!relation.matches(type, Values.deserialize(type, row.cells[index]), values)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * @return The projection of the given table, checking this statement against it if it's not the table the current
+	 *         projection was made for.
+	 */
+	private Projection project(InMemoryTable table) {
+
+		Projection projection = this.projection;
+
+		if (projection == null || projection.table != table) {
+			projection = new Projection(table);
+			this.projection = projection;
+		}
+
+		return projection;
+	}
+
+	@Override
+	void describeMarkers(InMemoryCluster cluster, String keyspace, Variable[] variables) {
+
+		describeRelations(table.lookup(cluster, keyspace), where, variables);
+
+		if (limit != null) {
+			limit.describeMarkers(variables);
+		}
+	}
+
+	@Override
+	int[] getRoutingKeyIndexes(InMemoryCluster cluster, String keyspace) {
+		return routingKeyIndexes(table.lookup(cluster, keyspace), where);
+	}
+
+	/**
+	 * The columns of a table that are selected, and the order they are read in.
+	 */
+	private class Projection {
+
+		final InMemoryTable table;
+		final int[] indexes;
+		final ColumnDefinitions columns;
+		final boolean reversed;
+
+		Projection(InMemoryTable table) {
+
+			this.table = table;
+
+			for (Relation relation : where) {
+				table.indexOf(relation.column);
+			}
+
+			if (orderBy == null) {
+				reversed = false;
+			} else {
+				if (table.getClusteringSize() == 0 || !orderBy.equals(table.getColumn(table.getPartitionKeySize()))) {
+					throw new InvalidQueryException(String.format(
+							"Order by is currently only supported on the first clustering column of table %s, not on %s", table.name,
+							orderBy));
+				}
+				reversed = descending == table.isAscending(0);
+			}
+
+			if (count) {
+				indexes = null;
+				columns = SyntheticRows.columns(table.keyspace, table.name, "count", DataType.bigint());
+				return;
+			}
+
+			if (SelectStatement.this.columns == null) {
+				indexes = new int[table.size()];
+				for (int i = 0; i < indexes.length; i++) {
+					indexes[i] = i;
+				}
+				columns = table.getDefinitions();
+				return;
+			}
+
+			indexes = new int[SelectStatement.this.columns.size()];
+			Object[] namesAndTypes = new Object[2 * indexes.length];
+
+			for (int i = 0; i < indexes.length; i++) {
+
+				String column = SelectStatement.this.columns.get(i);
+				String alias = aliases == null ? null : aliases.get(i);
+
+				indexes[i] = table.indexOf(column);
+				namesAndTypes[2 * i] = alias == null ? column : alias;
+				namesAndTypes[2 * i + 1] = table.getType(indexes[i]);
+			}
+
+			columns = SyntheticRows.columns(table.keyspace, table.name, namesAndTypes);
+		}
+
+		ByteBuffer[] project(StoredRow row) {
+
+			ByteBuffer[] projected = new ByteBuffer[indexes.length];
+			for (int i = 0; i < indexes.length; i++) {
+				ByteBuffer cell = row.cells[indexes[i]];
+				projected[i] = cell == null ? null : cell.duplicate();
+			}
+
+			return projected;
+		}
+	}
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.test.inmemory;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import com.datastax.driver.core.CloseFuture;
+import com.datastax.driver.core.ColumnDefinitions;
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.ExecutionInfo;
+import com.datastax.driver.core.Host;
+import com.datastax.driver.core.PreparedId;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.ProtocolVersion;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Session;
+
+/**
+ * Builds {@link Row}s the way the driver does when decoding a response, but from given values and without a cluster,
+ * along with the other response objects a {@link Session} stand-in needs. {@link ColumnDefinitions},
+ * {@link ExecutionInfo}, {@link PreparedId}, {@link CloseFuture} and the driver's {@link Row} implementation can only be
+ * created from within the driver's package, so their package-private constructors and factory methods are called
+ * reflectively rather than adding classes to that package.
+ */
+public final class SyntheticRows {
+
+	private static final String DRIVER_PACKAGE = "com.datastax.driver.core.";
+
+	private static final Constructor<ColumnDefinitions> COLUMN_DEFINITIONS = constructor(ColumnDefinitions.class,
+			ColumnDefinitions.Definition[].class);
+	private static final Constructor<ColumnDefinitions.Definition> DEFINITION = constructor(
+			ColumnDefinitions.Definition.class, String.class, String.class, String.class, DataType.class);
+	private static final Method ROW_FROM_DATA = method(driverClass("ArrayBackedRow"), "fromData",
+			ColumnDefinitions.class, ProtocolVersion.class, List.class);
+	private static final Constructor<ExecutionInfo> EXECUTION_INFO = constructor(ExecutionInfo.class, List.class);
+	private static final Method MD5_DIGEST_WRAP = method(driverClass("MD5Digest"), "wrap", byte[].class);
+	private static final Constructor<PreparedId> PREPARED_ID = constructor(PreparedId.class,
+			driverClass("MD5Digest"), ColumnDefinitions.class, ColumnDefinitions.class, int[].class, ProtocolVersion.class);
+	private static final Method CLOSED = method(CloseFuture.class, "immediateFuture");
+
+	private SyntheticRows() {}
+
+	/**
+	 * Describes the columns of a result set from the given column names and {@link DataType}s.
+	 * 
+	 * @param keyspace The keyspace the columns belong to.
+	 * @param table The table the columns belong to.
+	 * @param namesAndTypes Alternating column names and {@link DataType}s.
+	 */
+	public static ColumnDefinitions columns(String keyspace, String table, Object... namesAndTypes) {
+
+		Assert.isTrue(namesAndTypes.length % 2 == 0, "names and types must alternate");
+
+		ColumnDefinitions.Definition[] definitions = new ColumnDefinitions.Definition[namesAndTypes.length / 2];
+		for (int i = 0; i < definitions.length; i++) {
+			definitions[i] = newInstance(DEFINITION, keyspace, table, namesAndTypes[2 * i], namesAndTypes[2 * i + 1]);
+		}
+
+		return newInstance(COLUMN_DEFINITIONS, (Object) definitions);
+	}
+
+	/**
+	 * Creates a {@link Row} with the given columns holding the given values, serialized as they would be on the wire.
+	 * 
+	 * @param values The values, one per column, in column order; null for a null column.
+	 */
+	public static Row row(ColumnDefinitions columns, Object... values) {
+
+		Assert.isTrue(values.length == columns.size(), "expected one value per column");
+
+		List<ByteBuffer> data = new ArrayList<ByteBuffer>(values.length);
+		for (int i = 0; i < values.length; i++) {
+			data.add(values[i] == null ? null : columns.getType(i).serialize(values[i], ProtocolVersion.NEWEST_SUPPORTED));
+		}
+
+		return (Row) invoke(ROW_FROM_DATA, columns, ProtocolVersion.NEWEST_SUPPORTED, data);
+	}
+
+	/**
+	 * Creates a {@link Row} with the given columns holding the given already serialized values.
+	 * 
+	 * @param values The serialized values, one per column, in column order; null for a null column.
+	 */
+	public static Row serializedRow(ColumnDefinitions columns, List<ByteBuffer> values) {
+
+		Assert.isTrue(values.size() == columns.size(), "expected one value per column");
+
+		return (Row) invoke(ROW_FROM_DATA, columns, ProtocolVersion.NEWEST_SUPPORTED, values);
+	}
+
+	/**
+	 * @return {@link ExecutionInfo} of a query that wasn't sent to any host and wasn't traced.
+	 */
+	public static ExecutionInfo executionInfo() {
+		return newInstance(EXECUTION_INFO, Collections.<Host> emptyList());
+	}
+
+	/**
+	 * Creates the {@link PreparedId} a {@link PreparedStatement} must return for bound statements to be created from it.
+	 * 
+	 * @param query The query string, whose MD5 digest is the id, as the server computes it.
+	 * @param variables The bind variables of the statement.
+	 * @param routingKeyIndexes The indexes of the variables holding the partition key, or null if unknown.
+	 */
+	public static PreparedId preparedId(String query, ColumnDefinitions variables, int[] routingKeyIndexes) {
+
+		byte[] digest;
+		try {
+			digest = MessageDigest.getInstance("MD5").digest(query.getBytes(Charset.forName("UTF-8")));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+
+		return newInstance(PREPARED_ID, invoke(MD5_DIGEST_WRAP, (Object) digest), variables, columns(null, null),
+				routingKeyIndexes, ProtocolVersion.NEWEST_SUPPORTED);
+	}
+
+	/**
+	 * @return An already completed {@link CloseFuture}.
+	 */
+	public static CloseFuture closed() {
+		return (CloseFuture) invoke(CLOSED);
+	}
+
+	private static Class<?> driverClass(String simpleName) {
+
+		try {
+			return ClassUtils.forName(DRIVER_PACKAGE + simpleName, SyntheticRows.class.getClassLoader());
+		} catch (ClassNotFoundException e) {
+			throw new IllegalStateException("unsupported driver version", e);
+		}
+	}
+
+	private static <T> Constructor<T> constructor(Class<T> type, Class<?>... parameterTypes) {
+
+		try {
+			Constructor<T> constructor = type.getDeclaredConstructor(parameterTypes);
+			ReflectionUtils.makeAccessible(constructor);
+			return constructor;
+		} catch (NoSuchMethodException e) {
+			throw new IllegalStateException("unsupported driver version", e);
+		}
+	}
+
+	private static Method method(Class<?> type, String name, Class<?>... parameterTypes) {
+
+		Method method = ReflectionUtils.findMethod(type, name, parameterTypes);
+		if (method == null) {
+			throw new IllegalStateException(String.format("unsupported driver version; %s.%s not found", type.getName(),
+					name));
+		}
+
+		ReflectionUtils.makeAccessible(method);
+		return method;
+	}
+
+	private static <T> T newInstance(Constructor<T> constructor, Object... arguments) {
+
+		try {
+			return constructor.newInstance(arguments);
+		} catch (Exception e) {
+			ReflectionUtils.handleReflectionException(e);
+		}
+
+		throw new IllegalStateException("Should never get here");
+	}
+
+	private static Object invoke(Method method, Object... arguments) {
+		return ReflectionUtils.invokeMethod(method, null, arguments);
+	}
+}
@@ -0,0 +1,307 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.test.inmemory;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.springframework.cassandra.test.inmemory.CqlLexer.Token;
+import org.springframework.cassandra.test.inmemory.CqlLexer.Type;
+
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.exceptions.InvalidQueryException;
+import com.datastax.driver.core.utils.UUIDs;
+
+/**
+ * A value in a CQL statement: a literal or a bind marker. Terms are typed by the column they are bound to only when
+ * the statement is executed.
+ */
+abstract class Term {
+
+	/**
+	 * @param type The type of the column the term is bound to.
+	 * @param values The values of the statement's bind markers, serialized. May be null if it has none.
+	 * @return The value, deserialized, or null.
+	 */
+	abstract Object evaluate(DataType type, ByteBuffer[] values);
+
+	/**
+	 * @return The value, serialized, or null.
+	 */
+	ByteBuffer serialize(DataType type, ByteBuffer[] values) {
+		return Values.serialize(type, evaluate(type, values));
+	}
+
+	/**
+	 * Records the name and type of each bind marker in this term, indexed by its position in the statement.
+	 */
+	void describeMarkers(String name, DataType type, Variable[] variables) {}
+
+	/**
+	 * The name and type of a bind marker.
+	 */
+	static class Variable {
+
+		final String name;
+		final DataType type;
+
+		Variable(String name, DataType type) {
+			this.name = name;
+			this.type = type;
+		}
+	}
+
+	static class Literal extends Term {
+
+		private final Token token;
+		private final boolean negative;
+
+		Literal(Token token, boolean negative) {
+			this.token = token;
+			this.negative = negative;
+		}
+
+		@Override
+		Object evaluate(DataType type, ByteBuffer[] values) {
+
+			switch (token.type) {
+				case STRING:
+					return Values.fromString(type, token.text);
+				case NUMBER:
+					return Values.fromNumber(type, negative ? "-" + token.text : token.text);
+				case UUID:
+					return Values.fromUuid(type, token.text);
+				case BLOB:
+					return Values.fromBlob(type, token.text);
+				default:
+					break;
+			}
+
+			if (token.is("null")) {
+				return null;
+			}
+			if (token.is("true") || token.is("false")) {
+				return Values.fromBoolean(type, token.is("true"));
+			}
+
+			throw new InvalidQueryException("Invalid constant " + token);
+		}
+
+		@Override
+		public String toString() {
+			return (negative ? "-" : "") + (token.type == Type.STRING ? "'" + token.text + "'" : token.text);
+		}
+	}
+
+	static class Marker extends Term {
+
+		private final int index;
+		private final String name;
+
+		Marker(int index, String name) {
+			this.index = index;
+			this.name = name;
+		}
+
+		int getIndex() {
+			return index;
+		}
+
+		@Override
+		Object evaluate(DataType type, ByteBuffer[] values) {
+			return Values.deserialize(type, value(values));
+		}
+
+		@Override
+		ByteBuffer serialize(DataType type, ByteBuffer[] values) {
+			return value(values);
+		}
+
+		private ByteBuffer value(ByteBuffer[] values) {
+
+			if (values == null || index >= values.length) {
+				throw new InvalidQueryException(String.format("Expected at least %d bind values but got %d", index + 1,
+						values == null ? 0 : values.length));
+			}
+
+			return values[index];
+		}
+
+		@Override
+		void describeMarkers(String name, DataType type, Variable[] variables) {
+			variables[index] = new Variable(this.name == null ? name : this.name, type);
+		}
+
+		@Override
+		public String toString() {
+			return name == null ? "?" : ":" + name;
+		}
+	}
+
+	/**
+	 * A call of one of the functions generating a value: <code>now()</code> or <code>uuid()</code>.
+	 */
+	static class Function extends Term {
+
+		private final String name;
+
+		Function(String name) {
+
+			if (!"now".equals(name) && !"uuid".equals(name)) {
+				throw new InvalidQueryException(String.format("Unknown function '%s'", name));
+			}
+
+			this.name = name;
+		}
+
+		@Override
+		Object evaluate(DataType type, ByteBuffer[] values) {
+
+			DataType.Name expected = "now".equals(name) ? DataType.Name.TIMEUUID : DataType.Name.UUID;
+
+			if (type.getName() != expected) {
+				throw new InvalidQueryException(String.format("Type error: %s() cannot be passed as argument of type %s", name,
+						type));
+			}
+
+			return "now".equals(name) ? UUIDs.timeBased() : UUIDs.random();
+		}
+
+		@Override
+		public String toString() {
+			return name + "()";
+		}
+	}
+
+	/**
+	 * A list, set or map literal.
+	 */
+	static class CollectionLiteral extends Term {
+
+		private final DataType.Name kind;
+		private final List<Term> elements;
+
+		/**
+		 * @param kind {@link DataType.Name#LIST}, {@link DataType.Name#SET}, {@link DataType.Name#MAP}, or null for empty
+		 *          braces, which may be either an empty set or an empty map.
+		 * @param elements The elements; for a map, alternating keys and values.
+		 */
+		CollectionLiteral(DataType.Name kind, List<Term> elements) {
+			this.kind = kind;
+			this.elements = elements;
+		}
+
+		@Override
+		Object evaluate(final DataType type, ByteBuffer[] values) {
+
+			DataType.Name name = type.getName();
+
+			if (kind == null ? name != DataType.Name.SET && name != DataType.Name.MAP : kind != name) {
+				throw new InvalidQueryException(String.format("Invalid %s literal for type %s",
+						kind == null ? "collection" : kind.toString().toLowerCase(), type));
+			}
+
+			List<DataType> arguments = type.getTypeArguments();
+
+			if (name == DataType.Name.LIST) {
+
+				List<Object> list = new ArrayList<Object>(elements.size());
+				for (Term element : elements) {
+					list.add(notNull(element.evaluate(arguments.get(0), values)));
+				}
+				return list;
+			}
+
+			if (name == DataType.Name.SET) {
+
+				Set<Object> set = new TreeSet<Object>(comparator(arguments.get(0)));
+				for (Term element : elements) {
+					set.add(notNull(element.evaluate(arguments.get(0), values)));
+				}
+				return set;
+			}
+
+			Map<Object, Object> map = new TreeMap<Object, Object>(comparator(arguments.get(0)));
+			for (int i = 0; i < elements.size(); i += 2) {
+				map.put(notNull(elements.get(i).evaluate(arguments.get(0), values)),
+						notNull(elements.get(i + 1).evaluate(arguments.get(1), values)));
+			}
+			return map;
+		}
+
+		private static Object notNull(Object element) {
+
+			if (element == null) {
+				throw new InvalidQueryException("null is not supported inside collections");
+			}
+
+			return element;
+		}
+
+		@Override
+		void describeMarkers(String name, DataType type, Variable[] variables) {
+
+			List<DataType> arguments = type.getTypeArguments();
+			if (arguments.isEmpty()) {
+				return;
+			}
+
+			for (int i = 0; i < elements.size(); i++) {
+				DataType elementType = type.getName() == DataType.Name.MAP && i % 2 == 1 ? arguments.get(1) : arguments.get(0);
+				elements.get(i).describeMarkers(name, elementType, variables);
+			}
+		}
+	}
+
+	static Comparator<Object> comparator(final DataType type) {
+
+		return new Comparator<Object>() {
+
+			@Override
+			public int compare(Object left, Object right) {
+				return Values.compare(type, left, right);
+			}
+		};
+	}
+
+	/**
+	 * Sorts the elements of the given set, or the keys of the given map, as Cassandra does, and returns the result.
+	 */
+	@SuppressWarnings("unchecked")
+	static Object sorted(DataType type, Object value) {
+
+		if (value instanceof Set && !(value instanceof TreeSet)) {
+			Set<Object> set = new TreeSet<Object>(comparator(type.getTypeArguments().get(0)));
+			set.addAll((Collection<Object>) value);
+			return set;
+		}
+
+		if (value instanceof Map && !(value instanceof TreeMap)) {
+			Map<Object, Object> map = new TreeMap<Object, Object>(comparator(type.getTypeArguments().get(0)));
+			map.putAll((Map<Object, Object>) value);
+			return map;
+		}
+
+		return value;
+	}
+}
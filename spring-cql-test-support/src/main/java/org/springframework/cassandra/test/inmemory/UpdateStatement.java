@@ -0,0 +1,332 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.test.inmemory;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.springframework.cassandra.test.inmemory.InMemoryTable.Partition;
+import org.springframework.cassandra.test.inmemory.InMemoryTable.StoredRow;
+import org.springframework.cassandra.test.inmemory.Term.Variable;
+
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.exceptions.InvalidQueryException;
+
+/**
+ * An <code>UPDATE</code> of one or more rows, optionally conditional. Updating a row that doesn't exist creates it.
+ */
+class UpdateStatement extends ModificationStatement {
+
+	private final List<Assignment> assignments;
+	private final List<Relation> where;
+
+	UpdateStatement(TableName table, List<Assignment> assignments, List<Relation> where) {
+		super(table);
+		this.assignments = assignments;
+		this.where = where;
+	}
+
+	@Override
+	Result execute(InMemoryCluster cluster, String keyspace, ByteBuffer[] values) {
+
+		InMemoryTable table = this.table.lookup(cluster, keyspace);
+
+		for (Assignment assignment : assignments) {
+			assignment.check(table);
+		}
+
+		List<List<ByteBuffer>> partitionKeys = partitionKeys(table, where, values);
+		List<List<ByteBuffer>> clusteringKeys = clusteringKeys(table, where, values);
+		checkSingleRow(partitionKeys, clusteringKeys);
+
+		for (List<ByteBuffer> partitionKey : partitionKeys) {
+
+			Partition partition = table.getPartition(partitionKey, true);
+
+			synchronized (partition) {
+
+				for (List<ByteBuffer> clustering : clusteringKeys) {
+
+					StoredRow row = partition.getRow(partitionKey, clustering, false);
+
+					if (isConditional() && !conditionsMet(table, partition, row, values)) {
+						return conditionalResult(table, partition, false, row);
+					}
+
+					if (row == null) {
+						row = partition.getRow(partitionKey, clustering, true);
+					}
+
+					for (Assignment assignment : assignments) {
+						assignment.apply(table, row, values);
+					}
+				}
+			}
+		}
+
+		return isConditional() ? conditionalResult(table, null, true, null) : Result.EMPTY;
+	}
+
+	@Override
+	void describeMarkers(InMemoryCluster cluster, String keyspace, Variable[] variables) {
+
+		InMemoryTable table = this.table.lookup(cluster, keyspace);
+
+		for (Assignment assignment : assignments) {
+			assignment.describeMarkers(table, variables);
+		}
+
+		describeRelations(table, where, variables);
+		super.describeMarkers(cluster, keyspace, variables);
+	}
+
+	@Override
+	int[] getRoutingKeyIndexes(InMemoryCluster cluster, String keyspace) {
+		return routingKeyIndexes(table.lookup(cluster, keyspace), where);
+	}
+
+	/**
+	 * An assignment of a <code>SET</code> clause.
+	 */
+	static class Assignment {
+
+		enum Operation {
+
+			/**
+			 * <code>c = value</code>
+			 */
+			SET,
+
+			/**
+			 * <code>c = c + value</code>: increment a counter, append to a list, add to a set or put into a map.
+			 */
+			ADD,
+
+			/**
+			 * <code>c = c - value</code>: decrement a counter or remove from a list or set.
+			 */
+			SUBTRACT,
+
+			/**
+			 * <code>c = value + c</code>: prepend to a list.
+			 */
+			PREPEND,
+
+			/**
+			 * <code>c[key] = value</code>: set a list element by index or a map entry by key.
+			 */
+			PUT
+		}
+
+		final String column;
+		final Operation operation;
+		final Term term;
+		final Term key;
+
+		/**
+		 * @param key The index or key of a {@link Operation#PUT}, otherwise null.
+		 */
+		Assignment(String column, Operation operation, Term term, Term key) {
+			this.column = column;
+			this.operation = operation;
+			this.term = term;
+			this.key = key;
+		}
+
+		void check(InMemoryTable table) {
+
+			int index = modifiable(table, column);
+			DataType.Name name = table.getType(index).getName();
+
+			boolean valid;
+			switch (operation) {
+				case SET:
+					valid = name != DataType.Name.COUNTER;
+					break;
+				case ADD:
+					valid = name == DataType.Name.COUNTER || table.getType(index).isCollection();
+					break;
+				case SUBTRACT:
+					valid = name == DataType.Name.COUNTER || name == DataType.Name.LIST || name == DataType.Name.SET;
+					break;
+				case PREPEND:
+					valid = name == DataType.Name.LIST;
+					break;
+				default:
+					valid = name == DataType.Name.LIST || name == DataType.Name.MAP;
+			}
+
+			if (!valid) {
+				throw new InvalidQueryException(String.format("Invalid operation (%s) for column %s of type %s", operation,
+						column, table.getType(index)));
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		void apply(InMemoryTable table, StoredRow row, ByteBuffer[] values) {
+
+			int index = table.indexOf(column);
+			DataType type = table.getType(index);
+
+			if (operation == Operation.SET) {
+				row.cells[index] = table.toCell(index, term.serialize(type, values));
+				return;
+			}
+
+			Object current = Values.deserialize(type, row.cells[index]);
+
+			if (type.getName() == DataType.Name.COUNTER) {
+
+				Long delta = (Long) term.evaluate(DataType.bigint(), values);
+				if (delta == null) {
+					throw new InvalidQueryException("Invalid null value for counter increment/decrement");
+				}
+
+				long value = current == null ? 0 : (Long) current;
+				row.cells[index] = Values.serialize(type, operation == Operation.ADD ? value + delta : value - delta);
+				return;
+			}
+
+			Object updated;
+
+			switch (type.getName()) {
+
+				case LIST:
+					updated = applyToList(type, current == null ? new ArrayList<Object>() : new ArrayList<Object>(
+							(List<Object>) current), values);
+					break;
+
+				case SET:
+					TreeSet<Object> set = new TreeSet<Object>(Term.comparator(type.getTypeArguments().get(0)));
+					if (current != null) {
+						set.addAll((Collection<Object>) current);
+					}
+					Collection<Object> elements = (Collection<Object>) term.evaluate(type, values);
+					if (elements != null) {
+						if (operation == Operation.ADD) {
+							set.addAll(elements);
+						} else {
+							set.removeAll(elements);
+						}
+					}
+					updated = set;
+					break;
+
+				default:
+					TreeMap<Object, Object> map = new TreeMap<Object, Object>(Term.comparator(type.getTypeArguments().get(0)));
+					if (current != null) {
+						map.putAll((Map<Object, Object>) current);
+					}
+					if (operation == Operation.PUT) {
+						Object mapKey = key.evaluate(type.getTypeArguments().get(0), values);
+						Object value = term.evaluate(type.getTypeArguments().get(1), values);
+						if (value == null) {
+							map.remove(mapKey);
+						} else {
+							map.put(mapKey, value);
+						}
+					} else {
+						Map<Object, Object> entries = (Map<Object, Object>) term.evaluate(type, values);
+						if (entries != null) {
+							map.putAll(entries);
+						}
+					}
+					updated = map;
+			}
+
+			row.cells[index] = table.toCell(index, Values.serialize(type, updated));
+		}
+
+		@SuppressWarnings("unchecked")
+		private List<Object> applyToList(DataType type, List<Object> list, ByteBuffer[] values) {
+
+			if (operation == Operation.PUT) {
+
+				Integer position = (Integer) key.evaluate(DataType.cint(), values);
+				if (position == null || position < 0 || position >= list.size()) {
+					throw new InvalidQueryException(String.format("List index %d out of bound, list has size %d", position,
+							list.size()));
+				}
+
+				Object value = term.evaluate(type.getTypeArguments().get(0), values);
+				if (value == null) {
+					list.remove(position.intValue());
+				} else {
+					list.set(position, value);
+				}
+
+				return list;
+			}
+
+			List<Object> elements = (List<Object>) term.evaluate(type, values);
+			if (elements == null) {
+				return list;
+			}
+
+			switch (operation) {
+				case ADD:
+					list.addAll(elements);
+					break;
+				case PREPEND:
+					list.addAll(0, elements);
+					break;
+				default:
+					List<Object> remaining = new ArrayList<Object>(list.size());
+					for (Object element : list) {
+						if (!contains(type.getTypeArguments().get(0), elements, element)) {
+							remaining.add(element);
+						}
+					}
+					return remaining;
+			}
+
+			return list;
+		}
+
+		private static boolean contains(DataType type, List<Object> elements, Object element) {
+
+			for (Object candidate : elements) {
+				if (Values.compare(type, candidate, element) == 0) {
+					return true;
+				}
+			}
+
+			return false;
+		}
+
+		void describeMarkers(InMemoryTable table, Variable[] variables) {
+
+			DataType type = table.getType(column);
+
+			if (operation == Operation.PUT) {
+
+				boolean list = type.getName() == DataType.Name.LIST;
+
+				key.describeMarkers((list ? "idx(" : "key(") + column + ")", list ? DataType.cint() : type.getTypeArguments()
+						.get(0), variables);
+				term.describeMarkers("value(" + column + ")", type.getTypeArguments().get(list ? 0 : 1), variables);
+				return;
+			}
+
+			term.describeMarkers(column, type.getName() == DataType.Name.COUNTER ? DataType.bigint() : type, variables);
+		}
+	}
+}
@@ -0,0 +1,275 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.test.inmemory;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.UUID;
+
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.ProtocolVersion;
+import com.datastax.driver.core.exceptions.InvalidQueryException;
+
+/**
+ * Conversion and comparison of CQL values as the in-memory session stores them: serialized as on the wire, and
+ * deserialized to the driver's Java types wherever they are interpreted.
+ */
+abstract class Values {
+
+	static final ProtocolVersion PROTOCOL_VERSION = ProtocolVersion.NEWEST_SUPPORTED;
+
+	private static final Map<String, DataType> PRIMITIVE_TYPES = new HashMap<String, DataType>();
+
+	private static final String[] TIMESTAMP_FORMATS = { "yyyy-MM-dd HH:mm:ss.SSSZ", "yyyy-MM-dd HH:mm:ssZ",
+			"yyyy-MM-dd'T'HH:mm:ss.SSSZ", "yyyy-MM-dd'T'HH:mm:ssZ", "yyyy-MM-dd HH:mm:ss.SSS", "yyyy-MM-dd HH:mm:ss",
+			"yyyy-MM-dd'T'HH:mm:ss", "yyyy-MM-dd" };
+
+	static {
+		for (DataType type : DataType.allPrimitiveTypes()) {
+			PRIMITIVE_TYPES.put(type.getName().name().toLowerCase(Locale.ENGLISH), type);
+		}
+	}
+
+	/**
+	 * @return The primitive type of the given name, or null if there is none.
+	 */
+	static DataType primitiveType(String name) {
+		return PRIMITIVE_TYPES.get(name.toLowerCase(Locale.ENGLISH));
+	}
+
+	static ByteBuffer serialize(DataType type, Object value) {
+
+		if (value == null) {
+			return null;
+		}
+
+		try {
+			return type.serialize(value, PROTOCOL_VERSION);
+		} catch (RuntimeException e) {
+			throw new InvalidQueryException(String.format("Invalid value [%s] for type %s", value, type));
+		}
+	}
+
+	static Object deserialize(DataType type, ByteBuffer value) {
+
+		if (value == null) {
+			return null;
+		}
+
+		try {
+			return type.deserialize(value.duplicate(), PROTOCOL_VERSION);
+		} catch (RuntimeException e) {
+			throw new InvalidQueryException(String.format("Invalid serialized value for type %s: %s", type, e.getMessage()));
+		}
+	}
+
+	/**
+	 * @return A copy of the remaining bytes of the given buffer, so that values stored are not changed through buffers
+	 *         the caller still holds; null if the buffer is null.
+	 */
+	static ByteBuffer copy(ByteBuffer value) {
+
+		if (value == null) {
+			return null;
+		}
+
+		ByteBuffer copy = ByteBuffer.allocate(value.remaining());
+		copy.put(value.duplicate());
+		copy.flip();
+
+		return copy;
+	}
+
+	/**
+	 * Converts a string literal to a value of the given type.
+	 */
+	static Object fromString(DataType type, String literal) {
+
+		switch (type.getName()) {
+			case ASCII:
+			case TEXT:
+			case VARCHAR:
+				return literal;
+			case TIMESTAMP:
+				return parseTimestamp(literal);
+			case INET:
+				try {
+					return InetAddress.getByName(literal);
+				} catch (UnknownHostException e) {
+					throw new InvalidQueryException("Invalid inet literal " + literal);
+				}
+			default:
+				throw new InvalidQueryException(String.format("Invalid STRING constant (%s) for type %s", literal, type));
+		}
+	}
+
+	/**
+	 * Converts a numeric literal to a value of the given type.
+	 */
+	static Object fromNumber(DataType type, String literal) {
+
+		try {
+			switch (type.getName()) {
+				case INT:
+					return Integer.valueOf(literal);
+				case BIGINT:
+				case COUNTER:
+					return Long.valueOf(literal);
+				case VARINT:
+					return new BigInteger(literal);
+				case FLOAT:
+					return Float.valueOf(literal);
+				case DOUBLE:
+					return Double.valueOf(literal);
+				case DECIMAL:
+					return new BigDecimal(literal);
+				case TIMESTAMP:
+					return new Date(Long.parseLong(literal));
+				default:
+					break;
+			}
+		} catch (NumberFormatException e) {
+			// fall through
+		}
+
+		throw new InvalidQueryException(String.format("Invalid numeric constant (%s) for type %s", literal, type));
+	}
+
+	static Object fromUuid(DataType type, String literal) {
+
+		if (type.getName() != DataType.Name.UUID && type.getName() != DataType.Name.TIMEUUID) {
+			throw new InvalidQueryException(String.format("Invalid UUID constant (%s) for type %s", literal, type));
+		}
+
+		return UUID.fromString(literal);
+	}
+
+	static Object fromBlob(DataType type, String literal) {
+
+		if (type.getName() != DataType.Name.BLOB) {
+			throw new InvalidQueryException(String.format("Invalid HEX constant (%s) for type %s", literal, type));
+		}
+
+		String hex = literal.substring(2);
+		byte[] bytes = new byte[hex.length() / 2];
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = (byte) Integer.parseInt(hex.substring(2 * i, 2 * i + 2), 16);
+		}
+
+		return ByteBuffer.wrap(bytes);
+	}
+
+	static Object fromBoolean(DataType type, boolean literal) {
+
+		if (type.getName() != DataType.Name.BOOLEAN) {
+			throw new InvalidQueryException(String.format("Invalid BOOLEAN constant (%s) for type %s", literal, type));
+		}
+
+		return literal;
+	}
+
+	private static Date parseTimestamp(String literal) {
+
+		for (String format : TIMESTAMP_FORMATS) {
+
+			SimpleDateFormat parser = new SimpleDateFormat(format, Locale.ENGLISH);
+			parser.setLenient(false);
+			if (!format.endsWith("Z")) {
+				parser.setTimeZone(TimeZone.getTimeZone("UTC"));
+			}
+
+			try {
+				return parser.parse(literal);
+			} catch (ParseException e) {
+				// try the next format
+			}
+		}
+
+		throw new InvalidQueryException("Unable to coerce '" + literal + "' to a formatted date (long)");
+	}
+
+	/**
+	 * Compares two non-null deserialized values of the given type as Cassandra orders them.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	static int compare(DataType type, Object left, Object right) {
+
+		switch (type.getName()) {
+			case TIMEUUID:
+				return compareTimeuuids((UUID) left, (UUID) right);
+			case BLOB:
+				return compareUnsigned((ByteBuffer) left, (ByteBuffer) right);
+			case INET:
+				return compareUnsigned(ByteBuffer.wrap(((InetAddress) left).getAddress()),
+						ByteBuffer.wrap(((InetAddress) right).getAddress()));
+			case LIST:
+				return compareLists(type.getTypeArguments().get(0), (List<?>) left, (List<?>) right);
+			default:
+				if (left instanceof Comparable) {
+					return ((Comparable) left).compareTo(right);
+				}
+				return compareUnsigned(serialize(type, left), serialize(type, right));
+		}
+	}
+
+	private static int compareTimeuuids(UUID left, UUID right) {
+
+		long l = left.timestamp();
+		long r = right.timestamp();
+
+		if (l != r) {
+			return l < r ? -1 : 1;
+		}
+
+		return left.compareTo(right);
+	}
+
+	private static int compareLists(DataType elementType, List<?> left, List<?> right) {
+
+		for (int i = 0; i < left.size() && i < right.size(); i++) {
+			int comparison = compare(elementType, left.get(i), right.get(i));
+			if (comparison != 0) {
+				return comparison;
+			}
+		}
+
+		return left.size() - right.size();
+	}
+
+	static int compareUnsigned(ByteBuffer left, ByteBuffer right) {
+
+		int length = Math.min(left.remaining(), right.remaining());
+		for (int i = 0; i < length; i++) {
+			int comparison = (left.get(left.position() + i) & 0xff) - (right.get(right.position() + i) & 0xff);
+			if (comparison != 0) {
+				return comparison;
+			}
+		}
+
+		return left.remaining() - right.remaining();
+	}
+}
@@ -0,0 +1,287 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.test.unit.inmemory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cassandra.test.inmemory.Failures;
+import org.springframework.cassandra.test.inmemory.InMemoryCluster;
+import org.springframework.cassandra.test.inmemory.InMemorySession;
+import org.springframework.cassandra.test.inmemory.Latency;
+
+import com.datastax.driver.core.BatchStatement;
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.ProtocolVersion;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.SimpleStatement;
+import com.datastax.driver.core.Statement;
+import com.datastax.driver.core.exceptions.DriverException;
+import com.datastax.driver.core.exceptions.InvalidQueryException;
+import com.datastax.driver.core.exceptions.NoHostAvailableException;
+import com.datastax.driver.core.exceptions.ReadTimeoutException;
+import com.datastax.driver.core.exceptions.WriteTimeoutException;
+import com.datastax.driver.core.querybuilder.QueryBuilder;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.MoreExecutors;
+
+public class InMemorySessionTest {
+
+	private InMemoryCluster cluster;
+	private InMemorySession session;
+
+	@Before
+	public void setup() {
+
+		cluster = new InMemoryCluster(1);
+		session = cluster.connect();
+
+		session.execute("CREATE KEYSPACE ks WITH replication = { 'class' : 'SimpleStrategy', 'replication_factor' : 1 }");
+		session.execute("USE ks");
+		session.execute("CREATE TABLE person (id uuid PRIMARY KEY, name text, age int, emails set<text>)");
+		session.execute("CREATE TABLE event (source text, time timestamp, type text, PRIMARY KEY (source, time)) "
+				+ "WITH CLUSTERING ORDER BY (time DESC) AND comment = 'events'");
+	}
+
+	@After
+	public void teardown() {
+		cluster.close();
+	}
+
+	@Test
+	public void insertsAndSelectsWithSimpleStatements() {
+
+		UUID id = UUID.randomUUID();
+		session.execute("INSERT INTO person (id, name, age) VALUES (?, ?, ?)", id, "Alice", 42);
+
+		Row row = session.execute("SELECT name, age FROM person WHERE id = ?", id).one();
+
+		assertEquals("Alice", row.getString("name"));
+		assertEquals(42, row.getInt("age"));
+		assertNull(session.execute("SELECT * FROM person WHERE id = ?", UUID.randomUUID()).one());
+	}
+
+	@Test
+	public void executesPreparedStatements() {
+
+		PreparedStatement insert = session.prepare("INSERT INTO person (id, name, emails) VALUES (:id, :name, :emails)");
+
+		assertEquals(3, insert.getVariables().size());
+		assertEquals("emails", insert.getVariables().getName(2));
+
+		UUID id = UUID.randomUUID();
+		session.execute(insert.bind(id, "Bob", Sets.newHashSet("b@example.com", "a@example.com")));
+
+		assertEquals(DataType.uuid().serialize(id, ProtocolVersion.NEWEST_SUPPORTED), insert.bind(id, "Bob", null)
+				.getRoutingKey());
+
+		Row row = session.execute(session.prepare("SELECT * FROM person WHERE id = ?").bind(id)).one();
+
+		assertEquals("Bob", row.getString("name"));
+		assertEquals(Arrays.asList("a@example.com", "b@example.com"),
+				new ArrayList<String>(row.getSet("emails", String.class)));
+	}
+
+	@Test
+	public void executesBuiltStatementsAndBatches() {
+
+		UUID first = UUID.randomUUID();
+		UUID second = UUID.randomUUID();
+
+		BatchStatement batch = new BatchStatement();
+		batch.add(QueryBuilder.insertInto("person").value("id", first).value("name", "Carol"));
+		batch.add(QueryBuilder.insertInto("person").value("id", second).value("name", "Dave"));
+		session.execute(batch);
+
+		session.execute(QueryBuilder.update("person").with(QueryBuilder.add("emails", "c@example.com"))
+				.where(QueryBuilder.eq("id", first)));
+
+		ResultSet rs = session.execute(QueryBuilder.select().all().from("person")
+				.where(QueryBuilder.in("id", first, second)));
+
+		List<Row> rows = rs.all();
+		assertEquals(2, rows.size());
+		assertEquals("Carol", rows.get(0).getString("name"));
+		assertEquals(Sets.newHashSet("c@example.com"), rows.get(0).getSet("emails", String.class));
+		assertEquals(2, session.execute("SELECT COUNT(*) FROM person").one().getLong("count"));
+	}
+
+	@Test
+	public void ordersRestrictsAndLimitsClusteredRows() {
+
+		for (int i = 0; i < 10; i++) {
+			session.execute("INSERT INTO event (source, time, type) VALUES ('s', ?, ?)", new Date(i), "t" + i);
+		}
+
+		List<Row> newest = session.execute("SELECT type FROM event WHERE source = 's' LIMIT 3").all();
+		assertEquals("t9", newest.get(0).getString("type"));
+		assertEquals(3, newest.size());
+
+		List<Row> range = session.execute(
+				"SELECT type FROM event WHERE source = 's' AND time >= ? AND time < ? ORDER BY time ASC", new Date(2),
+				new Date(5)).all();
+		assertEquals(3, range.size());
+		assertEquals("t2", range.get(0).getString("type"));
+
+		session.execute("DELETE FROM event WHERE source = 's' AND time = ?", new Date(9));
+		assertEquals(9, session.execute("SELECT COUNT(*) FROM event WHERE source = 's'").one().getLong("count"));
+	}
+
+	@Test
+	public void pagesByFetchSize() {
+
+		for (int i = 0; i < 25; i++) {
+			session.execute("INSERT INTO person (id, age) VALUES (?, ?)", UUID.randomUUID(), i);
+		}
+
+		ResultSet rs = session.execute(new SimpleStatement("SELECT * FROM person").setFetchSize(10));
+
+		assertEquals(10, rs.getAvailableWithoutFetching());
+		assertFalse(rs.isFullyFetched());
+		assertEquals(25, rs.all().size());
+		assertTrue(rs.isFullyFetched());
+	}
+
+	@Test
+	public void appliesLightweightTransactions() {
+
+		UUID id = UUID.randomUUID();
+
+		assertTrue(session.execute("INSERT INTO person (id, name) VALUES (?, 'Eve') IF NOT EXISTS", id).wasApplied());
+
+		ResultSet rs = session.execute("INSERT INTO person (id, name) VALUES (?, 'Mallory') IF NOT EXISTS", id);
+		assertFalse(rs.wasApplied());
+		assertEquals("Eve", rs.one().getString("name"));
+
+		assertTrue(session.execute("UPDATE person SET name = 'Mallory' WHERE id = ? IF name = 'Eve'", id).wasApplied());
+		assertFalse(session.execute("DELETE FROM person WHERE id = ? IF name = 'Eve'", id).wasApplied());
+	}
+
+	@Test
+	public void updatesCounters() {
+
+		session.execute("CREATE TABLE hits (page text PRIMARY KEY, count counter)");
+		session.execute("UPDATE hits SET count = count + 3 WHERE page = 'home'");
+		session.execute("UPDATE hits SET count = count - 1 WHERE page = 'home'");
+
+		assertEquals(2, session.execute("SELECT count FROM hits WHERE page = 'home'").one().getLong(0));
+	}
+
+	@Test
+	public void completesDelayedRequestsOnIoThreads() throws Exception {
+
+		final CountDownLatch executing = new CountDownLatch(1);
+		final CountDownLatch proceed = new CountDownLatch(1);
+
+		// holds the request on the I/O thread, so that the listener is added before the request completes
+		cluster.setFailures(new Failures() {
+
+			@Override
+			public DriverException next(Statement statement, boolean write) {
+
+				executing.countDown();
+				try {
+					proceed.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return null;
+			}
+		});
+		cluster.setLatency(Latency.fixed(1, TimeUnit.MILLISECONDS));
+
+		final AtomicReference<String> thread = new AtomicReference<String>();
+		final CountDownLatch done = new CountDownLatch(1);
+
+		ResultSetFuture future = session.executeAsync("SELECT * FROM person");
+
+		assertTrue(executing.await(5, TimeUnit.SECONDS));
+		assertFalse(future.isDone());
+
+		future.addListener(new Runnable() {
+
+			@Override
+			public void run() {
+				thread.set(Thread.currentThread().getName());
+				done.countDown();
+			}
+		}, MoreExecutors.sameThreadExecutor());
+
+		proceed.countDown();
+
+		assertTrue(done.await(5, TimeUnit.SECONDS));
+		assertTrue(thread.get().startsWith("inmemory-nio-worker-"));
+		assertEquals(1, cluster.getMaxInFlight());
+	}
+
+	@Test
+	public void injectsFailures() {
+
+		cluster.setFailures(Failures.timeouts(1));
+
+		try {
+			session.execute("SELECT * FROM person");
+			fail("Missing ReadTimeoutException");
+		} catch (ReadTimeoutException expected) {}
+
+		UUID id = UUID.randomUUID();
+		try {
+			session.execute("INSERT INTO person (id) VALUES (?)", id);
+			fail("Missing WriteTimeoutException");
+		} catch (WriteTimeoutException expected) {}
+
+		cluster.setFailures(Failures.none());
+		assertNull(session.execute("SELECT * FROM person WHERE id = ?", id).one());
+		assertEquals(2, cluster.getFailed());
+	}
+
+	@Test
+	public void rejectsRequestsBeyondMaxInFlight() {
+
+		cluster.setLatency(Latency.fixed(1, TimeUnit.SECONDS));
+		cluster.setMaxRequestsInFlight(1);
+
+		session.executeAsync("SELECT * FROM person");
+
+		try {
+			session.executeAsync("SELECT * FROM person").getUninterruptibly();
+			fail("Missing NoHostAvailableException");
+		} catch (NoHostAvailableException expected) {}
+	}
+
+	@Test(expected = InvalidQueryException.class)
+	public void rejectsUnknownTables() {
+		session.execute("SELECT * FROM nothing");
+	}
+}
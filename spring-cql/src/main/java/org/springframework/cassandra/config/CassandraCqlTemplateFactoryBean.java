@@ -15,10 +15,13 @@
  */
 package org.springframework.cassandra.config;
 
+import java.util.List;
+
 import org.springframework.beans.factory.FactoryBean;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.cassandra.core.CqlOperations;
 import org.springframework.cassandra.core.CqlTemplate;
+import org.springframework.cassandra.core.StatementInterceptor;
 
 import com.datastax.driver.core.Session;
 
@@ -31,6 +34,7 @@ public class CassandraCqlTemplateFactoryBean implements FactoryBean<CqlOperation
 
 	private CqlTemplate template;
 	private Session session;
+	private List<StatementInterceptor> statementInterceptors;
 
 	@Override
 	public CqlOperations getObject() {
@@ -55,9 +59,14 @@ public class CassandraCqlTemplateFactoryBean implements FactoryBean<CqlOperation
 		}
 
 		this.template = new CqlTemplate(session);
+		this.template.setStatementInterceptors(statementInterceptors);
 	}
 
 	public void setSession(Session session) {
 		this.session = session;
 	}
+
+	public void setStatementInterceptors(List<StatementInterceptor> statementInterceptors) {
+		this.statementInterceptors = statementInterceptors;
+	}
 }
@@ -18,12 +18,15 @@ package org.springframework.cassandra.config.xml;
 import static org.springframework.cassandra.config.xml.ParsingUtils.addOptionalPropertyReference;
 
 import org.springframework.beans.factory.BeanDefinitionStoreException;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
 import org.springframework.beans.factory.support.AbstractBeanDefinition;
 import org.springframework.beans.factory.support.BeanDefinitionBuilder;
+import org.springframework.beans.factory.support.ManagedList;
 import org.springframework.beans.factory.xml.AbstractSingleBeanDefinitionParser;
 import org.springframework.beans.factory.xml.ParserContext;
 import org.springframework.cassandra.config.CassandraCqlTemplateFactoryBean;
 import org.springframework.util.StringUtils;
+import org.springframework.util.xml.DomUtils;
 import org.w3c.dom.Element;
 
 /**
@@ -50,5 +53,25 @@ public class CassandraCqlTemplateParser extends AbstractSingleBeanDefinitionPars
 	@Override
 	protected void doParse(Element element, ParserContext parserContext, BeanDefinitionBuilder builder) {
 		addOptionalPropertyReference(builder, "session", element, "session-ref", DefaultCqlBeanNames.SESSION);
+		parseInterceptors(element, builder);
+	}
+
+	/**
+	 * Parses the &lt;interceptor&gt; child elements, in document order, into the statement interceptors of the template.
+	 * 
+	 * @param element The Element being parsed
+	 * @param builder The {@link BeanDefinitionBuilder} to add the interceptors to
+	 */
+	protected void parseInterceptors(Element element, BeanDefinitionBuilder builder) {
+
+		ManagedList<RuntimeBeanReference> interceptors = new ManagedList<RuntimeBeanReference>();
+
+		for (Element subElement : DomUtils.getChildElementsByTagName(element, "interceptor")) {
+			interceptors.add(new RuntimeBeanReference(subElement.getAttribute("ref")));
+		}
+
+		if (!interceptors.isEmpty()) {
+			builder.addPropertyValue("statementInterceptors", interceptors);
+		}
 	}
 }
@@ -17,6 +17,7 @@ package org.springframework.cassandra.core;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,7 +40,13 @@ public class CachedPreparedStatementCreator implements PreparedStatementCreator
 
 	private final String cql;
 
-	private static final Map<Session, Map<String, PreparedStatement>> psMap = new ConcurrentHashMap<Session, Map<String, PreparedStatement>>();
+	/**
+	 * Prepared statements by session, then by the session's keyspace ({@link #NO_KEYSPACE} if none), then by CQL, so that
+	 * looking one up doesn't build a combined key.
+	 */
+	private static final ConcurrentMap<Session, ConcurrentMap<String, Map<String, PreparedStatement>>> psMap = new ConcurrentHashMap<Session, ConcurrentMap<String, Map<String, PreparedStatement>>>();
+
+	private static final String NO_KEYSPACE = "";
 
 	/**
 	 * Create a PreparedStatementCreator from the provided CQL.
@@ -58,26 +65,37 @@ public class CachedPreparedStatementCreator implements PreparedStatementCreator
 	@Override
 	public PreparedStatement createPreparedStatement(Session session) throws DriverException {
 
-		StringBuilder keyspaceCQLKey = new StringBuilder().append(session.getLoggedKeyspace()).append("|").append(this.cql);
-
-		log.debug(String.format("Cachable PreparedStatement in Keyspace [%s]", session.getLoggedKeyspace()));
-
-		Map<String, PreparedStatement> sessionMap = psMap.get(session);
-		if (sessionMap == null) {
-			sessionMap = new ConcurrentHashMap<String, PreparedStatement>();
-			psMap.put(session, sessionMap);
-		}
+		String keyspace = session.getLoggedKeyspace();
+		Map<String, PreparedStatement> statements = getStatements(session, keyspace == null ? NO_KEYSPACE : keyspace);
 
-		PreparedStatement pstmt = sessionMap.get(keyspaceCQLKey.toString());
+		PreparedStatement pstmt = statements.get(this.cql);
 		if (pstmt == null) {
-			log.debug("No Cached PreparedStatement found...Creating and Caching");
+			if (log.isDebugEnabled()) {
+				log.debug(String.format("No cached PreparedStatement in keyspace [%s], creating and caching", keyspace));
+			}
 			pstmt = session.prepare(this.cql);
-			sessionMap.put(keyspaceCQLKey.toString(), pstmt);
-		} else {
-			log.debug("Found cached PreparedStatement");
+			statements.put(this.cql, pstmt);
 		}
 
 		return pstmt;
 	}
 
+	private static Map<String, PreparedStatement> getStatements(Session session, String keyspace) {
+
+		ConcurrentMap<String, Map<String, PreparedStatement>> keyspaces = psMap.get(session);
+		if (keyspaces == null) {
+			keyspaces = new ConcurrentHashMap<String, Map<String, PreparedStatement>>();
+			ConcurrentMap<String, Map<String, PreparedStatement>> existing = psMap.putIfAbsent(session, keyspaces);
+			keyspaces = existing == null ? keyspaces : existing;
+		}
+
+		Map<String, PreparedStatement> statements = keyspaces.get(keyspace);
+		if (statements == null) {
+			statements = new ConcurrentHashMap<String, PreparedStatement>();
+			Map<String, PreparedStatement> existing = keyspaces.putIfAbsent(keyspace, statements);
+			statements = existing == null ? statements : existing;
+		}
+
+		return statements;
+	}
 }
@@ -21,6 +21,7 @@ import java.util.Map;
 import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
+import org.springframework.cassandra.core.columnar.ColumnarResult;
 import org.springframework.cassandra.core.cql.CqlIdentifier;
 import org.springframework.cassandra.core.keyspace.AlterKeyspaceSpecification;
 import org.springframework.cassandra.core.keyspace.AlterTableSpecification;
@@ -853,6 +854,18 @@ public interface CqlOperations {
 	 */
 	<T> List<T> queryForList(String cql, Class<T> elementType) throws DataAccessException;
 
+	/**
+	 * Executes the provided CQL and returns all values in the first column of the Results as a List of the Type in the
+	 * second argument.
+	 * 
+	 * @param cql The Query
+	 * @param elementType Type to cast the data values to
+	 * @param options Query Options, including result limits
+	 * @return List of elementType
+	 * @throws DataAccessException
+	 */
+	<T> List<T> queryForList(String cql, Class<T> elementType, QueryOptions options) throws DataAccessException;
+
 	/**
 	 * Executes the provided Select Query and returns all values in the first column of the Results as a List of the Type
 	 * in the second argument.
@@ -912,6 +925,17 @@ public interface CqlOperations {
 	 */
 	List<Map<String, Object>> queryForListOfMap(String cql) throws DataAccessException;
 
+	/**
+	 * Executes the provided CQL and converts the results to a basic List of Maps. Each element in the List represents a
+	 * Row returned from the Query. Each Row's columns are put into the map as column/value.
+	 * 
+	 * @param cql The Query
+	 * @param options Query Options, including result limits
+	 * @return List of Maps with the query results
+	 * @throws DataAccessException
+	 */
+	List<Map<String, Object>> queryForListOfMap(String cql, QueryOptions options) throws DataAccessException;
+
 	/**
 	 * Executes the provided {@link Select} query and converts the results to a {@link List} of {@link Map}s. Each element
 	 * in the {@link List} represents a row returned from the query. Each row's column(s) are put into a {@link Map} as
@@ -962,6 +986,38 @@ public interface CqlOperations {
 	 */
 	List<Map<String, Object>> queryForListOfMap(Select select) throws DataAccessException;
 
+	/**
+	 * Executes the provided CQL and reads all of its rows into a {@link ColumnarResult}, which holds numeric and boolean
+	 * columns as primitive arrays and text columns as codes into a dictionary of their distinct values. Meant for
+	 * queries over many rows, for which a {@link Map} per row is mostly garbage.
+	 * 
+	 * @param cql The Query
+	 * @return The query results by column
+	 * @throws DataAccessException
+	 */
+	ColumnarResult queryForColumns(String cql) throws DataAccessException;
+
+	/**
+	 * Executes the provided CQL and reads all of its rows into a {@link ColumnarResult}.
+	 * 
+	 * @param cql The Query
+	 * @param options Query Options
+	 * @return The query results by column
+	 * @throws DataAccessException
+	 * @see #queryForColumns(String)
+	 */
+	ColumnarResult queryForColumns(String cql, QueryOptions options) throws DataAccessException;
+
+	/**
+	 * Executes the provided {@link Select} query and reads all of its rows into a {@link ColumnarResult}.
+	 * 
+	 * @param select The {@link Select} query. Must not be <code>null</code>.
+	 * @return The query results by column
+	 * @throws DataAccessException
+	 * @see #queryForColumns(String)
+	 */
+	ColumnarResult queryForColumns(Select select) throws DataAccessException;
+
 	/**
 	 * Process a ResultSet and convert it to a List of Maps with column/value. This is used internal to the Template for
 	 * core operations, but is made available through Operations in the event you have a ResultSet to process. The
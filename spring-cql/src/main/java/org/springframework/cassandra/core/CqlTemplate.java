@@ -17,21 +17,41 @@ package org.springframework.cassandra.core;
 
 import static org.springframework.cassandra.core.cql.CqlIdentifier.cqlId;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cassandra.core.coalesce.ReadCoalescer;
+import org.springframework.cassandra.core.coalesce.RowListResultSet;
+import org.springframework.cassandra.core.columnar.ColumnarResult;
+import org.springframework.cassandra.core.columnar.ColumnarResultSetExtractor;
 import org.springframework.cassandra.core.cql.CqlIdentifier;
+import org.springframework.cassandra.core.cql.CqlStringUtils;
+import org.springframework.cassandra.core.cql.InClause;
+import org.springframework.cassandra.core.cql.OperationType;
+import org.springframework.cassandra.core.cql.StatementInfo;
 import org.springframework.cassandra.core.cql.generator.AlterKeyspaceCqlGenerator;
 import org.springframework.cassandra.core.cql.generator.AlterTableCqlGenerator;
 import org.springframework.cassandra.core.cql.generator.CreateIndexCqlGenerator;
@@ -48,24 +68,40 @@ import org.springframework.cassandra.core.keyspace.CreateTableSpecification;
 import org.springframework.cassandra.core.keyspace.DropIndexSpecification;
 import org.springframework.cassandra.core.keyspace.DropKeyspaceSpecification;
 import org.springframework.cassandra.core.keyspace.DropTableSpecification;
+import org.springframework.cassandra.core.metrics.StatementMetricsRegistry;
+import org.springframework.cassandra.core.metrics.StatementMetricsSink;
+import org.springframework.cassandra.core.metrics.StatementSource;
+import org.springframework.cassandra.core.retry.BackoffRetryPolicy;
+import org.springframework.cassandra.core.retry.HedgingPolicy;
+import org.springframework.cassandra.core.throttle.AdaptiveConcurrencyLimiter;
+import org.springframework.cassandra.core.throttle.StatementRateLimiter;
 import org.springframework.cassandra.support.CassandraAccessor;
+import org.springframework.cassandra.support.exception.CassandraAdmissionRejectedException;
+import org.springframework.cassandra.support.exception.CassandraResultSizeLimitExceededException;
+import org.springframework.core.annotation.AnnotationAwareOrderComparator;
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.dao.QueryTimeoutException;
 import org.springframework.util.Assert;
 
 import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.Cluster;
 import com.datastax.driver.core.ColumnDefinitions;
-import com.datastax.driver.core.ColumnDefinitions.Definition;
+import com.datastax.driver.core.ColumnMetadata;
+import com.datastax.driver.core.ExecutionInfo;
 import com.datastax.driver.core.Host;
+import com.datastax.driver.core.KeyspaceMetadata;
+import com.datastax.driver.core.Metadata;
 import com.datastax.driver.core.PreparedStatement;
 import com.datastax.driver.core.ProtocolVersion;
+import com.datastax.driver.core.RegularStatement;
 import com.datastax.driver.core.ResultSet;
 import com.datastax.driver.core.ResultSetFuture;
 import com.datastax.driver.core.Row;
 import com.datastax.driver.core.Session;
 import com.datastax.driver.core.SimpleStatement;
 import com.datastax.driver.core.Statement;
+import com.datastax.driver.core.TableMetadata;
 import com.datastax.driver.core.exceptions.DriverException;
 import com.datastax.driver.core.querybuilder.Batch;
 import com.datastax.driver.core.querybuilder.Delete;
@@ -74,6 +110,11 @@ import com.datastax.driver.core.querybuilder.QueryBuilder;
 import com.datastax.driver.core.querybuilder.Select;
 import com.datastax.driver.core.querybuilder.Truncate;
 import com.datastax.driver.core.querybuilder.Update;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.Uninterruptibles;
 
 /**
  * <b>This is the Central class in the Cassandra core package.</b> It simplifies the use of Cassandra and helps to avoid
@@ -88,10 +129,35 @@ import com.datastax.driver.core.querybuilder.Update;
  * @author David Webb
  * @author Matthew Adams
  */
-public class CqlTemplate extends CassandraAccessor implements CqlOperations {
+public class CqlTemplate extends CassandraAccessor implements CqlOperations, DisposableBean {
 
 	protected static final Logger log = LoggerFactory.getLogger(CqlTemplate.class);
 
+	private static final Executor DIRECT_EXECUTOR = MoreExecutors.sameThreadExecutor();
+
+	// netty event loop threads as named by the driver ("cluster1-nio-worker-0") or by netty's defaults
+	private static final Pattern IO_THREAD_NAME = Pattern.compile("-nio-worker-\\d+$|^(?:nio|epoll)EventLoopGroup-");
+
+	private int maxRows = 0;
+	private long maxResultBytes = 0;
+	private ResultLimitAction resultLimitAction = ResultLimitAction.FAIL;
+
+	private volatile StatementMetricsSink metricsSink;
+	private volatile StatementInterceptor[] interceptors = new StatementInterceptor[0];
+	private volatile StatementRateLimiter rateLimiter;
+	private volatile AdaptiveConcurrencyLimiter concurrencyLimiter;
+	private volatile BackoffRetryPolicy backoffRetryPolicy;
+	private volatile HedgingPolicy hedgingPolicy;
+	private volatile ReadCoalescer readCoalescer;
+	private volatile int inClauseChunkSize;
+	private volatile ScheduledExecutorService scheduler;
+	private ScheduledExecutorService ownScheduler;
+	private volatile Executor callbackExecutor;
+	private volatile boolean rejectBlockingOnIoThread;
+	private volatile boolean warnedBlockingOnIoThread;
+	private volatile boolean warnedCallbackRejected;
+	private volatile RowMap.Schema rowMapSchema;
+
 	/**
 	 * Add common {@link Statement} options for all types of queries.
 	 * 
@@ -206,6 +272,386 @@ public class CqlTemplate extends CassandraAccessor implements CqlOperations {
 		setSession(session);
 	}
 
+	/**
+	 * @return The {@link StatementInterceptor}s invoked for every statement executed by this template, in order.
+	 */
+	public List<StatementInterceptor> getStatementInterceptors() {
+		return Collections.unmodifiableList(Arrays.asList(interceptors));
+	}
+
+	/**
+	 * Sets the {@link StatementInterceptor}s to invoke for every statement executed by this template. Interceptors are
+	 * sorted according to {@link org.springframework.core.Ordered} and {@link org.springframework.core.annotation.Order},
+	 * retaining the given order otherwise.
+	 */
+	public void setStatementInterceptors(List<? extends StatementInterceptor> statementInterceptors) {
+
+		List<StatementInterceptor> sorted = new ArrayList<StatementInterceptor>();
+		if (statementInterceptors != null) {
+			sorted.addAll(statementInterceptors);
+		}
+
+		AnnotationAwareOrderComparator.sort(sorted);
+
+		this.interceptors = sorted.toArray(new StatementInterceptor[sorted.size()]);
+	}
+
+	/**
+	 * Adds the given {@link StatementInterceptor} to the ones invoked for every statement executed by this template.
+	 */
+	public synchronized void addStatementInterceptor(StatementInterceptor statementInterceptor) {
+
+		Assert.notNull(statementInterceptor);
+
+		List<StatementInterceptor> list = new ArrayList<StatementInterceptor>(Arrays.asList(interceptors));
+		list.add(statementInterceptor);
+
+		setStatementInterceptors(list);
+	}
+
+	/**
+	 * @return The {@link StatementRateLimiter} statements are throttled with, or null.
+	 */
+	public StatementRateLimiter getRateLimiter() {
+		return rateLimiter;
+	}
+
+	/**
+	 * Sets the {@link StatementRateLimiter} to throttle every statement executed by this template with. Synchronous
+	 * executions block until the statement may proceed; asynchronous executions are submitted once it may proceed, using
+	 * the {@link #setScheduler(ScheduledExecutorService) scheduler}. Defaults to null, which disables throttling.
+	 */
+	public void setRateLimiter(StatementRateLimiter rateLimiter) {
+		this.rateLimiter = rateLimiter;
+	}
+
+	/**
+	 * @return The {@link AdaptiveConcurrencyLimiter} asynchronous executions are admitted by, or null.
+	 */
+	public AdaptiveConcurrencyLimiter getConcurrencyLimiter() {
+		return concurrencyLimiter;
+	}
+
+	/**
+	 * Sets the {@link AdaptiveConcurrencyLimiter} to admit every asynchronous execution of this template by. Executions
+	 * that would exceed its current limit return a future failed with a {@link CassandraAdmissionRejectedException},
+	 * which the {@link #setBackoffRetryPolicy(BackoffRetryPolicy) BackoffRetryPolicy} doesn't retry; completed executions
+	 * feed their round trip time, and whether they timed out, back into the limit. Defaults to null, which disables the
+	 * limit.
+	 */
+	public void setConcurrencyLimiter(AdaptiveConcurrencyLimiter concurrencyLimiter) {
+		this.concurrencyLimiter = concurrencyLimiter;
+	}
+
+	/**
+	 * @return The {@link BackoffRetryPolicy} idempotent statements are retried with, or null.
+	 */
+	public BackoffRetryPolicy getBackoffRetryPolicy() {
+		return backoffRetryPolicy;
+	}
+
+	/**
+	 * Sets the {@link BackoffRetryPolicy} to retry failed {@link #isIdempotent(Statement, QueryOptions) idempotent}
+	 * statements with. Synchronous executions sleep between attempts; asynchronous executions schedule the next attempt
+	 * with the {@link #setScheduler(ScheduledExecutorService) scheduler} and complete the returned future with the outcome
+	 * of the last attempt. Each attempt is throttled, limited and recorded individually; interceptors see the execution
+	 * once. Defaults to null, which disables template-level retries.
+	 */
+	public void setBackoffRetryPolicy(BackoffRetryPolicy backoffRetryPolicy) {
+		this.backoffRetryPolicy = backoffRetryPolicy;
+	}
+
+	/**
+	 * @return The {@link HedgingPolicy} idempotent reads are hedged with, or null.
+	 */
+	public HedgingPolicy getHedgingPolicy() {
+		return hedgingPolicy;
+	}
+
+	/**
+	 * Sets the {@link HedgingPolicy} to hedge {@link #isIdempotent(Statement, QueryOptions) idempotent} single-partition
+	 * reads with: if a read hasn't completed after the delay the policy derives from recent latencies of its statement,
+	 * it is sent once more using the {@link #setScheduler(ScheduledExecutorService) scheduler}, and the first successful
+	 * response wins. Each attempt of a {@link #setBackoffRetryPolicy(BackoffRetryPolicy) retried} read is hedged
+	 * individually. Defaults to null, which disables hedging.
+	 */
+	public void setHedgingPolicy(HedgingPolicy hedgingPolicy) {
+		this.hedgingPolicy = hedgingPolicy;
+	}
+
+	/**
+	 * @return The {@link ReadCoalescer} identical concurrent reads are coalesced with, or null.
+	 */
+	public ReadCoalescer getReadCoalescer() {
+		return readCoalescer;
+	}
+
+	/**
+	 * Sets the {@link ReadCoalescer} to coalesce identical concurrent synchronous
+	 * {@link #isSinglePartitionRead(Session, Statement) single-partition reads} with, so that they share one request and
+	 * each receive their own result set over its rows. A coalesced read may not see writes completed while the read it
+	 * joined was in flight, see {@link ReadCoalescer}. Coalesced reads that aren't executed don't invoke the
+	 * {@link StatementInterceptor}s and aren't recorded with the {@link StatementMetricsSink}. Defaults to null, which
+	 * disables coalescing.
+	 */
+	public void setReadCoalescer(ReadCoalescer readCoalescer) {
+		this.readCoalescer = readCoalescer;
+	}
+
+	/**
+	 * @return The number of partition keys above which <code>IN</code> queries are split, or zero.
+	 */
+	public int getInClauseChunkSize() {
+		return inClauseChunkSize;
+	}
+
+	/**
+	 * Sets the number of partition keys above which synchronous queries restricting the partition key with
+	 * <code>IN</code> are split into queries of at most that many keys each. The chunks are executed concurrently, so
+	 * that no single coordinator fans out to all partitions, and their rows are merged in the order of the keys, or as
+	 * given by the <code>ORDER BY</code> clause, keeping the clustering order within each partition. A <code>LIMIT</code>
+	 * applies to the merged rows. Whether the restricted column is a partition key column is told by
+	 * {@link #isPartitionKeyColumn(Session, String, String, String)}. Defaults to zero, which disables splitting.
+	 */
+	public void setInClauseChunkSize(int inClauseChunkSize) {
+		Assert.isTrue(inClauseChunkSize >= 0, "inClauseChunkSize must not be negative");
+		this.inClauseChunkSize = inClauseChunkSize;
+	}
+
+	/**
+	 * Returns whether the given statement may be retried: as {@link QueryOptions#getIdempotent() given} in the options,
+	 * if so, otherwise as {@link StatementInfo#isIdempotent() inferred} from its CQL.
+	 */
+	protected boolean isIdempotent(Statement q, QueryOptions options) {
+
+		if (options != null && options.getIdempotent() != null) {
+			return options.getIdempotent();
+		}
+
+		return StatementInfo.of(q).isIdempotent();
+	}
+
+	/**
+	 * Returns the {@link ScheduledExecutorService} used to submit delayed asynchronous executions, creating a single
+	 * daemon thread for it if none was set. A scheduler created here is shut down on {@link #destroy()}.
+	 */
+	public ScheduledExecutorService getScheduler() {
+
+		if (scheduler == null) {
+			synchronized (this) {
+				if (scheduler == null) {
+					ownScheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+
+						@Override
+						public Thread newThread(Runnable r) {
+
+							Thread thread = new Thread(r, "cql-template-scheduler");
+							thread.setDaemon(true);
+							return thread;
+						}
+					});
+					scheduler = ownScheduler;
+				}
+			}
+		}
+
+		return scheduler;
+	}
+
+	/**
+	 * Sets the {@link ScheduledExecutorService} used to submit delayed asynchronous executions. Scheduled tasks only
+	 * submit statements and never block. The given scheduler's lifecycle is left to the caller.
+	 */
+	public void setScheduler(ScheduledExecutorService scheduler) {
+
+		ScheduledExecutorService created;
+
+		synchronized (this) {
+			this.scheduler = scheduler;
+			created = ownScheduler;
+			ownScheduler = null;
+		}
+
+		if (created != null && created != scheduler) {
+			created.shutdown();
+		}
+	}
+
+	/**
+	 * Shuts down the {@link #getScheduler() scheduler} if this template created it; a
+	 * {@link #setScheduler(ScheduledExecutorService) set} scheduler is left running.
+	 */
+	@Override
+	public void destroy() {
+
+		ScheduledExecutorService created;
+
+		synchronized (this) {
+			created = ownScheduler;
+			ownScheduler = null;
+			if (created != null && scheduler == created) {
+				scheduler = null;
+			}
+		}
+
+		if (created != null) {
+			created.shutdown();
+		}
+	}
+
+	/**
+	 * @return The {@link Executor} asynchronous listeners are run with, or null if they are run directly.
+	 */
+	public Executor getCallbackExecutor() {
+		return callbackExecutor;
+	}
+
+	/**
+	 * Sets the {@link Executor} to run the listeners given to asynchronous operations with, unless given an
+	 * {@link Executor} of their own or marked as {@link InlineListener}s. This includes the listeners this template wraps
+	 * around {@link QueryForListListener}s and the like, which map rows and translate exceptions. Typically a bounded
+	 * thread pool, so that listeners don't run on, and so don't stall, the driver's I/O threads; listeners the executor
+	 * rejects are run directly instead, logging a warning the first time. Defaults to null, which runs listeners directly
+	 * on the thread completing the query.
+	 */
+	public void setCallbackExecutor(Executor callbackExecutor) {
+		this.callbackExecutor = callbackExecutor;
+	}
+
+	/**
+	 * @return Whether synchronous executions attempted on a driver I/O thread fail rather than log a warning.
+	 */
+	public boolean isRejectBlockingOnIoThread() {
+		return rejectBlockingOnIoThread;
+	}
+
+	/**
+	 * Sets whether synchronous executions attempted on a driver I/O thread, typically from an asynchronous listener run
+	 * directly, fail with an {@link InvalidDataAccessApiUsageException}. Such executions block the thread that would
+	 * complete them, and every other request it serves, until the driver times them out. Defaults to false, which logs a
+	 * warning, the first time, and executes them anyway.
+	 */
+	public void setRejectBlockingOnIoThread(boolean rejectBlockingOnIoThread) {
+		this.rejectBlockingOnIoThread = rejectBlockingOnIoThread;
+	}
+
+	/**
+	 * Returns the {@link Executor} to run the given asynchronous listener with: directly if it is an
+	 * {@link InlineListener} or no {@link #setCallbackExecutor(Executor) callback executor} is set, otherwise the callback
+	 * executor, falling back to running it directly if rejected.
+	 */
+	protected Executor getCallbackExecutor(Object listener) {
+
+		Executor executor = callbackExecutor;
+
+		if (executor == null || listener instanceof InlineListener) {
+			return DIRECT_EXECUTOR;
+		}
+
+		return new CallbackExecutor(executor);
+	}
+
+	/**
+	 * Returns whether the given thread is one of the driver's I/O threads, which must never block.
+	 */
+	protected boolean isIoThread(Thread thread) {
+		return IO_THREAD_NAME.matcher(thread.getName()).find();
+	}
+
+	/**
+	 * Fails or warns, as {@link #setRejectBlockingOnIoThread(boolean) configured}, if the current thread is a driver I/O
+	 * thread about to block on the given statement.
+	 */
+	protected void checkNotBlockingIoThread(Statement q) {
+
+		Thread thread = Thread.currentThread();
+
+		if (!isIoThread(thread)) {
+			return;
+		}
+
+		String message = String.format(
+				"synchronous execution of [%s] on driver I/O thread [%s]; use an asynchronous operation or a callback executor",
+				q, thread.getName());
+
+		if (rejectBlockingOnIoThread) {
+			throw new InvalidDataAccessApiUsageException(message);
+		}
+
+		if (!warnedBlockingOnIoThread) {
+			warnedBlockingOnIoThread = true;
+			log.warn(message);
+		} else if (log.isDebugEnabled()) {
+			log.debug(message);
+		}
+	}
+
+	/**
+	 * @return The {@link StatementMetricsSink} executions are recorded with, or null if metrics are disabled.
+	 */
+	public StatementMetricsSink getMetricsSink() {
+		return metricsSink;
+	}
+
+	/**
+	 * Sets the {@link StatementMetricsSink} to record the latency, rows returned and errors of every statement executed
+	 * by this template with, typically a {@link StatementMetricsRegistry}. Defaults to null, which disables metrics
+	 * collection entirely.
+	 */
+	public void setMetricsSink(StatementMetricsSink metricsSink) {
+		this.metricsSink = metricsSink;
+	}
+
+	/**
+	 * @return The default maximum number of rows returned by list-returning queries. Zero means unlimited.
+	 */
+	public int getMaxRows() {
+		return maxRows;
+	}
+
+	/**
+	 * Sets the default maximum number of rows returned by list-returning queries, such as
+	 * {@link #query(String, RowMapper)} and {@link #queryForListOfMap(String)}. May be overridden per call via
+	 * {@link QueryOptions#setMaxRows(Integer)}. Zero, the default, means unlimited.
+	 */
+	public void setMaxRows(int maxRows) {
+		Assert.isTrue(maxRows >= 0, "maxRows must not be negative");
+		this.maxRows = maxRows;
+	}
+
+	/**
+	 * @return The default maximum estimated size in bytes of the rows returned by list-returning queries. Zero means
+	 *         unlimited.
+	 */
+	public long getMaxResultBytes() {
+		return maxResultBytes;
+	}
+
+	/**
+	 * Sets the default maximum estimated size in bytes of the rows returned by list-returning queries, estimated from the
+	 * size of their raw column values. May be overridden per call via {@link QueryOptions#setMaxResultBytes(Long)}. Zero,
+	 * the default, means unlimited.
+	 */
+	public void setMaxResultBytes(long maxResultBytes) {
+		Assert.isTrue(maxResultBytes >= 0, "maxResultBytes must not be negative");
+		this.maxResultBytes = maxResultBytes;
+	}
+
+	/**
+	 * @return The default action taken when a result limit is exceeded.
+	 */
+	public ResultLimitAction getResultLimitAction() {
+		return resultLimitAction;
+	}
+
+	/**
+	 * Sets the default action taken when a result limit is exceeded. Defaults to {@link ResultLimitAction#FAIL}.
+	 */
+	public void setResultLimitAction(ResultLimitAction resultLimitAction) {
+		Assert.notNull(resultLimitAction);
+		this.resultLimitAction = resultLimitAction;
+	}
+
 	@Override
 	public <T> T execute(SessionCallback<T> sessionCallback) throws DataAccessException {
 		return doExecute(sessionCallback);
@@ -231,7 +677,7 @@ public class CqlTemplate extends CassandraAccessor implements CqlOperations {
 		return execute(new SessionCallback<ResultSetFuture>() {
 			@Override
 			public ResultSetFuture doInSession(Session s) throws DataAccessException {
-				return s.executeAsync(cql);
+				return executeStatementAsync(s, new SimpleStatement(cql));
 			}
 		});
 	}
@@ -249,7 +695,7 @@ public class CqlTemplate extends CassandraAccessor implements CqlOperations {
 			public ResultSet doInSession(Session s) throws DataAccessException {
 				Statement statement = new SimpleStatement(cql);
 				addQueryOptions(statement, options);
-				ResultSetFuture rsf = s.executeAsync(statement);
+				ResultSetFuture rsf = executeStatementAsync(s, statement, options);
 				ResultSet rs = null;
 				try {
 					rs = rsf.get(timeout, timeUnit);
@@ -275,49 +721,29 @@ public class CqlTemplate extends CassandraAccessor implements CqlOperations {
 			public ResultSetFuture doInSession(Session s) throws DataAccessException {
 				Statement statement = new SimpleStatement(cql);
 				addQueryOptions(statement, options);
-				return s.executeAsync(statement);
+				return executeStatementAsync(s, statement, options);
 			}
 		});
 	}
 
 	@Override
 	public Cancellable queryAsynchronously(String cql, Runnable listener) {
-		return queryAsynchronously(cql, listener, new Executor() {
-			@Override
-			public void execute(Runnable command) {
-				command.run();
-			}
-		});
+		return queryAsynchronously(cql, listener, getCallbackExecutor(listener));
 	}
 
 	@Override
 	public Cancellable queryAsynchronously(String cql, AsynchronousQueryListener listener) {
-		return queryAsynchronously(cql, listener, new Executor() {
-			@Override
-			public void execute(Runnable command) {
-				command.run();
-			}
-		});
+		return queryAsynchronously(cql, listener, getCallbackExecutor(listener));
 	}
 
 	@Override
 	public Cancellable queryAsynchronously(String cql, Runnable listener, QueryOptions options) {
-		return queryAsynchronously(cql, listener, options, new Executor() {
-			@Override
-			public void execute(Runnable command) {
-				command.run();
-			}
-		});
+		return queryAsynchronously(cql, listener, options, getCallbackExecutor(listener));
 	}
 
 	@Override
 	public Cancellable queryAsynchronously(String cql, AsynchronousQueryListener listener, QueryOptions options) {
-		return queryAsynchronously(cql, listener, options, new Executor() {
-			@Override
-			public void execute(Runnable command) {
-				command.run();
-			}
-		});
+		return queryAsynchronously(cql, listener, options, getCallbackExecutor(listener));
 	}
 
 	@Override
@@ -338,7 +764,7 @@ public class CqlTemplate extends CassandraAccessor implements CqlOperations {
 			public Cancellable doInSession(Session s) throws DataAccessException {
 				Statement statement = new SimpleStatement(cql);
 				addQueryOptions(statement, options);
-				ResultSetFuture rsf = s.executeAsync(statement);
+				ResultSetFuture rsf = executeStatementAsync(s, statement, options);
 				rsf.addListener(listener, executor);
 				return new ResultSetFutureCancellable(rsf);
 			}
@@ -353,7 +779,7 @@ public class CqlTemplate extends CassandraAccessor implements CqlOperations {
 			public Cancellable doInSession(Session s) throws DataAccessException {
 				Statement statement = new SimpleStatement(cql);
 				addQueryOptions(statement, options);
-				final ResultSetFuture rsf = s.executeAsync(statement);
+				final ResultSetFuture rsf = executeStatementAsync(s, statement, options);
 				Runnable wrapper = new Runnable() {
 					@Override
 					public void run() {
@@ -373,106 +799,772 @@ public class CqlTemplate extends CassandraAccessor implements CqlOperations {
 			public ResultSetFuture doInSession(Session s) throws DataAccessException {
 				Statement statement = new SimpleStatement(cql);
 				addQueryOptions(statement, options);
-				return s.executeAsync(statement);
+				return executeStatementAsync(s, statement, options);
+			}
+		}));
+	}
+
+	public <T> T queryAsynchronously(final String cql, ResultSetFutureExtractor<T> rse) throws DataAccessException {
+		return queryAsynchronously(cql, rse, null);
+	}
+
+	@Override
+	public <T> T query(String cql, ResultSetExtractor<T> rse) throws DataAccessException {
+		return query(cql, rse, null);
+	}
+
+	@Override
+	public <T> T query(String cql, ResultSetExtractor<T> rse, QueryOptions options) throws DataAccessException {
+		Assert.notNull(cql);
+		ResultSet rs = doExecute(cql, options);
+		return rse.extractData(rs);
+	}
+
+	@Override
+	public void query(String cql, RowCallbackHandler rch, QueryOptions options) throws DataAccessException {
+		process(doExecute(cql, options), rch);
+	}
+
+	@Override
+	public void query(String cql, RowCallbackHandler rch) throws DataAccessException {
+		query(cql, rch, null);
+	}
+
+	@Override
+	public <T> List<T> query(String cql, RowMapper<T> rowMapper, QueryOptions options) throws DataAccessException {
+		return process(doExecute(cql, options), rowMapper, options);
+	}
+
+	@Override
+	public ResultSet query(String cql) {
+		return query(cql, (QueryOptions) null);
+	}
+
+	@Override
+	public ResultSet query(String cql, QueryOptions options) {
+
+		return query(cql, new ResultSetExtractor<ResultSet>() {
+
+			@Override
+			public ResultSet extractData(ResultSet rs) throws DriverException, DataAccessException {
+				return rs;
+			}
+		}, options);
+	}
+
+	@Override
+	public <T> List<T> query(String cql, RowMapper<T> rowMapper) throws DataAccessException {
+		return query(cql, rowMapper, null);
+	}
+
+	@Override
+	public List<Map<String, Object>> queryForListOfMap(String cql) throws DataAccessException {
+		return queryForListOfMap(cql, (QueryOptions) null);
+	}
+
+	@Override
+	public List<Map<String, Object>> queryForListOfMap(String cql, QueryOptions options) throws DataAccessException {
+		return processListOfMap(doExecute(cql, options), options);
+	}
+
+	@Override
+	public ColumnarResult queryForColumns(String cql) throws DataAccessException {
+		return queryForColumns(cql, (QueryOptions) null);
+	}
+
+	@Override
+	public ColumnarResult queryForColumns(String cql, QueryOptions options) throws DataAccessException {
+		return processColumns(doExecute(cql, options));
+	}
+
+	@Override
+	public <T> List<T> queryForList(String cql, Class<T> elementType) throws DataAccessException {
+		return queryForList(cql, elementType, null);
+	}
+
+	@Override
+	public <T> List<T> queryForList(String cql, Class<T> elementType, QueryOptions options) throws DataAccessException {
+		return processList(doExecute(cql, options), elementType, options);
+	}
+
+	@Override
+	public Map<String, Object> queryForMap(String cql) throws DataAccessException {
+		return processMap(doExecute(cql, null));
+	}
+
+	@Override
+	public <T> T queryForObject(String cql, Class<T> requiredType) throws DataAccessException {
+		return processOne(doExecute(cql, null), requiredType);
+	}
+
+	@Override
+	public <T> T queryForObject(String cql, RowMapper<T> rowMapper) throws DataAccessException {
+		return processOne(doExecute(cql, null), rowMapper);
+	}
+
+	/**
+	 * Execute a command at the Session Level
+	 * 
+	 * @param callback
+	 * @return
+	 */
+	protected <T> T doExecute(SessionCallback<T> callback) {
+
+		Assert.notNull(callback);
+
+		try {
+
+			return callback.doInSession(getSession());
+
+		} catch (DataAccessException e) {
+			throw translateExceptionIfPossible(e);
+		}
+	}
+
+	protected ResultSet executeStatement(Session s, Statement q) {
+		return executeStatement(s, q, null);
+	}
+
+	/**
+	 * Executes the given {@link Statement} on the given {@link Session}. Every synchronous execution of this template
+	 * goes through this method, which {@link #checkNotBlockingIoThread(Statement) checks} it isn't on a driver I/O
+	 * thread, splits large <code>IN</code> queries into {@link #setInClauseChunkSize(int) chunks}, coalesces identical
+	 * concurrent single-partition reads with the {@link ReadCoalescer}, if any, invokes the {@link StatementInterceptor}s,
+	 * if any, and records the execution with the {@link StatementMetricsSink}, if any.
+	 * 
+	 * @param s The {@link Session} to execute on.
+	 * @param q The {@link Statement} to execute, with the given options already applied.
+	 * @param options The {@link QueryOptions}. May be null.
+	 * @return The {@link ResultSet}.
+	 */
+	protected ResultSet executeStatement(final Session s, final Statement q, final QueryOptions options) {
+
+		checkNotBlockingIoThread(q);
+
+		int chunkSize = inClauseChunkSize;
+
+		if (chunkSize > 0 && q instanceof RegularStatement) {
+
+			InClause in = InClause.find(((RegularStatement) q).getQueryString());
+
+			if (in != null && in.getElements().size() > chunkSize) {
+
+				StatementInfo info = StatementInfo.of(q);
+
+				if (isPartitionKeyColumn(s, info.getKeyspace(), info.getTable(), in.getColumn())) {
+					return executeInChunks(s, (RegularStatement) q, options, in, chunkSize);
+				}
+			}
+		}
+
+		ReadCoalescer coalescer = readCoalescer;
+
+		if (coalescer == null || !isSinglePartitionRead(s, q)) {
+			return interceptAndExecute(s, q, options);
+		}
+
+		return coalescer.execute(s, q, new ReadCoalescer.Read() {
+
+			@Override
+			public ResultSet execute() {
+				return interceptAndExecute(s, q, options);
+			}
+		});
+	}
+
+	/**
+	 * Returns whether the given column is a partition key column of the given table, according to the cluster metadata.
+	 * 
+	 * @param keyspace The keyspace, unquoted, or null for the session's keyspace.
+	 * @param table The table, unquoted.
+	 * @param column The column, unquoted.
+	 */
+	protected boolean isPartitionKeyColumn(Session s, String keyspace, String table, String column) {
+
+		List<String> columns = getPartitionKeyColumns(s, keyspace, table);
+		return columns != null && columns.contains(column);
+	}
+
+	/**
+	 * Returns the partition key columns of the given table, according to the cluster metadata.
+	 * 
+	 * @param keyspace The keyspace, unquoted, or null for the session's keyspace.
+	 * @param table The table, unquoted.
+	 * @return The unquoted column names, or null if the table is unknown.
+	 */
+	protected List<String> getPartitionKeyColumns(Session s, String keyspace, String table) {
+
+		if (table == null || s.getCluster() == null) {
+			return null;
+		}
+
+		keyspace = keyspace == null ? s.getLoggedKeyspace() : keyspace;
+		KeyspaceMetadata keyspaceMetadata = keyspace == null ? null : s.getCluster().getMetadata()
+				.getKeyspace(Metadata.quote(keyspace));
+		TableMetadata tableMetadata = keyspaceMetadata == null ? null : keyspaceMetadata.getTable(Metadata.quote(table));
+
+		if (tableMetadata == null) {
+			return null;
+		}
+
+		List<String> columns = new ArrayList<String>();
+		for (ColumnMetadata partitionKeyColumn : tableMetadata.getPartitionKey()) {
+			columns.add(partitionKeyColumn.getName());
+		}
+
+		return columns;
+	}
+
+	/**
+	 * Returns whether the given {@link Statement} is known to read a single partition: a {@link OperationType#READ}
+	 * without <code>IN</code> or <code>CONTAINS</code> restrictions or <code>ALLOW FILTERING</code> that either has a
+	 * routing key or restricts every {@link #getPartitionKeyColumns(Session, String, String) partition key column} to a
+	 * single value.
+	 */
+	protected boolean isSinglePartitionRead(Session s, Statement q) {
+
+		StatementInfo info = StatementInfo.of(q);
+
+		if (info.getOperationType() != OperationType.READ || info.getEqualityRestrictedColumns().isEmpty()) {
+			return false;
+		}
+
+		if (q.getRoutingKey() != null) {
+			return true;
+		}
+
+		List<String> partitionKey = getPartitionKeyColumns(s, info.getKeyspace(), info.getTable());
+
+		return partitionKey != null && !partitionKey.isEmpty()
+				&& info.getEqualityRestrictedColumns().containsAll(partitionKey);
+	}
+
+	private ResultSet executeInChunks(Session s, RegularStatement q, QueryOptions options, InClause in, int chunkSize) {
+
+		ByteBuffer[] values = q.hasValues() ? q.getValues(getProtocolVersion()) : new ByteBuffer[0];
+		List<String> elements = in.getElements();
+
+		int markersInList = Collections.frequency(elements, "?");
+		int valueIndex = in.getMarkersBefore();
+
+		List<ListenableFuture<ResultSet>> futures = new ArrayList<ListenableFuture<ResultSet>>();
+
+		try {
+
+			for (int from = 0; from < elements.size(); from += chunkSize) {
+
+				List<String> chunk = elements.subList(from, Math.min(elements.size(), from + chunkSize));
+				List<Object> chunkValues = new ArrayList<Object>(Arrays.asList(values).subList(0, in.getMarkersBefore()));
+
+				for (String element : chunk) {
+					if ("?".equals(element)) {
+						chunkValues.add(values[valueIndex++]);
+					}
+				}
+
+				chunkValues.addAll(Arrays.asList(values).subList(in.getMarkersBefore() + markersInList, values.length));
+
+				SimpleStatement chunkStatement = new SimpleStatement(in.toCql(chunk), chunkValues.toArray());
+				chunkStatement.setKeyspace(q.getKeyspace());
+				chunkStatement.setConsistencyLevel(q.getConsistencyLevel());
+				if (q.getSerialConsistencyLevel() != null) {
+					chunkStatement.setSerialConsistencyLevel(q.getSerialConsistencyLevel());
+				}
+				chunkStatement.setFetchSize(q.getFetchSize());
+				chunkStatement.setRetryPolicy(q.getRetryPolicy());
+				if (q.isTracing()) {
+					chunkStatement.enableTracing();
+				}
+
+				futures.add(executeStatementAsync(s, chunkStatement, options));
+			}
+
+		} catch (RuntimeException e) {
+			cancel(futures);
+			throw e;
+		} catch (Error e) {
+			cancel(futures);
+			throw e;
+		}
+
+		List<ResultSet> results;
+
+		try {
+			results = Uninterruptibles.getUninterruptibly(Futures.allAsList(futures));
+		} catch (ExecutionException e) {
+
+			cancel(futures);
+
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			}
+			throw new CassandraUncategorizedDataAccessException("Caught Uncategorized Exception", e.getCause());
+		}
+
+		List<Row> rows = new ArrayList<Row>();
+		List<ExecutionInfo> executionInfos = new ArrayList<ExecutionInfo>();
+
+		for (ResultSet rs : results) {
+			rows.addAll(rs.all());
+			executionInfos.addAll(rs.getAllExecutionInfo());
+		}
+
+		ColumnDefinitions definitions = results.get(0).getColumnDefinitions();
+		Comparator<Row> comparator = in.getRowComparator(definitions);
+
+		if (comparator != null) {
+			Collections.sort(rows, comparator);
+		}
+
+		if (in.getLimit() != null && rows.size() > in.getLimit()) {
+			rows = rows.subList(0, in.getLimit());
+		}
+
+		return new RowListResultSet(definitions, rows, executionInfos, true);
+	}
+
+	private static void cancel(List<? extends Future<?>> futures) {
+
+		for (Future<?> future : futures) {
+			future.cancel(true);
+		}
+	}
+
+	private ResultSet interceptAndExecute(Session s, Statement q, QueryOptions options) {
+
+		StatementInterceptor[] chain = interceptors;
+
+		if (chain.length == 0) {
+			return executeWithRetry(s, q, options);
+		}
+
+		StatementExecution execution = new StatementExecution(s, q, options, false);
+
+		for (StatementInterceptor interceptor : chain) {
+			interceptor.beforeExecution(execution);
+		}
+
+		if (!execution.isComplete()) {
+			try {
+				execution.setResultSet(executeWithRetry(s, applyOptions(execution), execution.getQueryOptions()));
+			} catch (RuntimeException e) {
+				execution.setError(e);
+			}
+		}
+
+		for (int i = chain.length - 1; i >= 0; i--) {
+			chain[i].afterExecution(execution);
+		}
+
+		Throwable error = execution.getError();
+
+		if (error instanceof RuntimeException) {
+			throw (RuntimeException) error;
+		}
+		if (error instanceof Error) {
+			throw (Error) error;
+		}
+		if (error != null) {
+			throw new CassandraUncategorizedDataAccessException("Caught Uncategorized Exception", error);
+		}
+
+		return execution.getResultSet();
+	}
+
+	protected ResultSetFuture executeStatementAsync(Session s, Statement q) {
+		return executeStatementAsync(s, q, null);
+	}
+
+	/**
+	 * Asynchronously executes the given {@link Statement} on the given {@link Session}. Every asynchronous execution of
+	 * this template goes through this method, which invokes the {@link StatementInterceptor}s, if any, before the
+	 * statement is submitted and before the returned future completes, and records the execution with the
+	 * {@link StatementMetricsSink}, if any, once it completes.
+	 * 
+	 * @param s The {@link Session} to execute on.
+	 * @param q The {@link Statement} to execute, with the given options already applied.
+	 * @param options The {@link QueryOptions}. May be null.
+	 * @return The {@link ResultSetFuture}.
+	 */
+	protected ResultSetFuture executeStatementAsync(Session s, Statement q, QueryOptions options) {
+
+		final StatementInterceptor[] chain = interceptors;
+
+		if (chain.length == 0) {
+			return executeWithRetryAsync(s, q, options);
+		}
+
+		final StatementExecution execution = new StatementExecution(s, q, options, true);
+
+		for (StatementInterceptor interceptor : chain) {
+			interceptor.beforeExecution(execution);
+		}
+
+		final SettableResultSetFuture future = new SettableResultSetFuture();
+
+		if (execution.isComplete()) {
+			notifyAsyncCompletion(chain, execution);
+			complete(future, execution);
+			return future;
+		}
+
+		ResultSetFuture rsf = executeWithRetryAsync(s, applyOptions(execution), execution.getQueryOptions());
+		future.bind(rsf);
+
+		Futures.addCallback(rsf, new FutureCallback<ResultSet>() {
+
+			@Override
+			public void onSuccess(ResultSet rs) {
+				execution.setResultSet(rs);
+				notifyAsyncCompletion(chain, execution);
+				complete(future, execution);
+			}
+
+			@Override
+			public void onFailure(Throwable t) {
+				execution.setError(t);
+				notifyAsyncCompletion(chain, execution);
+				complete(future, execution);
+			}
+		});
+
+		return future;
+	}
+
+	private static void complete(SettableResultSetFuture future, StatementExecution execution) {
+
+		if (execution.getError() != null) {
+			future.setException(execution.getError());
+		} else {
+			future.set(execution.getResultSet());
+		}
+	}
+
+	private Statement applyOptions(StatementExecution execution) {
+
+		Statement q = execution.getStatement();
+
+		if (execution.getQueryOptions() != null) {
+			addQueryOptions(q, execution.getQueryOptions());
+		}
+
+		return q;
+	}
+
+	private void notifyAsyncCompletion(StatementInterceptor[] chain, StatementExecution execution) {
+
+		for (int i = chain.length - 1; i >= 0; i--) {
+			try {
+				chain[i].onAsyncCompletion(execution);
+			} catch (RuntimeException e) {
+				log.warn("statement interceptor failed on asynchronous completion", e);
+			}
+		}
+	}
+
+	private ResultSet executeWithRetry(Session s, Statement q, QueryOptions options) {
+
+		BackoffRetryPolicy policy = backoffRetryPolicy;
+
+		if (policy == null || !isIdempotent(q, options)) {
+			return executeAttempt(s, q, options);
+		}
+
+		policy.onExecution();
+
+		for (int attempt = 1;; attempt++) {
+
+			try {
+				return executeAttempt(s, q, options);
+			} catch (RuntimeException e) {
+
+				if (!policy.shouldRetry(attempt, toDataAccessException(e))) {
+					throw e;
+				}
+
+				try {
+					TimeUnit.NANOSECONDS.sleep(policy.getDelayNanos(attempt));
+				} catch (InterruptedException x) {
+					Thread.currentThread().interrupt();
+					throw e;
+				}
+			}
+		}
+	}
+
+	private ResultSetFuture executeWithRetryAsync(Session s, Statement q, QueryOptions options) {
+
+		// attempts may be sent from the scheduler, so the source is captured here
+		String source = StatementSource.get();
+		BackoffRetryPolicy policy = backoffRetryPolicy;
+
+		if (policy == null || !isIdempotent(q, options)) {
+			return executeAttemptAsync(s, q, options, source);
+		}
+
+		policy.onExecution();
+
+		SettableResultSetFuture future = new SettableResultSetFuture();
+		attemptAsync(s, q, options, source, policy, future, 1);
+
+		return future;
+	}
+
+	private void attemptAsync(final Session s, final Statement q, final QueryOptions options, final String source,
+			final BackoffRetryPolicy policy, final SettableResultSetFuture future, final int attempt) {
+
+		ResultSetFuture rsf;
+
+		try {
+			rsf = executeAttemptAsync(s, q, options, source);
+		} catch (RuntimeException e) {
+			retryAsync(s, q, options, source, policy, future, attempt, e);
+			return;
+		}
+
+		if (!future.bind(rsf)) {
+			return;
+		}
+
+		Futures.addCallback(rsf, new FutureCallback<ResultSet>() {
+
+			@Override
+			public void onSuccess(ResultSet rs) {
+				future.set(rs);
+			}
+
+			@Override
+			public void onFailure(Throwable t) {
+				retryAsync(s, q, options, source, policy, future, attempt, t);
+			}
+		});
+	}
+
+	private void retryAsync(final Session s, final Statement q, final QueryOptions options, final String source,
+			final BackoffRetryPolicy policy, final SettableResultSetFuture future, final int attempt, Throwable t) {
+
+		if (future.isCancelled() || !policy.shouldRetry(attempt, toDataAccessException(t))) {
+			future.setException(t);
+			return;
+		}
+
+		getScheduler().schedule(new Runnable() {
+
+			@Override
+			public void run() {
+				if (!future.isCancelled()) {
+					attemptAsync(s, q, options, source, policy, future, attempt + 1);
+				}
+			}
+		}, policy.getDelayNanos(attempt), TimeUnit.NANOSECONDS);
+	}
+
+	private ResultSet executeAttempt(Session s, Statement q, QueryOptions options) {
+
+		HedgingPolicy policy = hedgingPolicy;
+
+		if (policy == null || !isHedgeable(q, options)) {
+			return executeInstrumented(s, q);
+		}
+
+		String key = getStatementKey(q);
+		long delay = policy.beginExecution(key);
+
+		if (delay >= 0) {
+			return new HedgedRead(s, q, StatementSource.get(), policy, key).start(delay).getUninterruptibly();
+		}
+
+		long start = System.nanoTime();
+		ResultSet rs = executeInstrumented(s, q);
+		policy.recordLatency(key, System.nanoTime() - start, false);
+
+		return rs;
+	}
+
+	private ResultSetFuture executeAttemptAsync(Session s, Statement q, QueryOptions options, String source) {
+
+		HedgingPolicy policy = hedgingPolicy;
+
+		if (policy == null || !isHedgeable(q, options)) {
+			return executeInstrumentedAsync(s, q, source);
+		}
+
+		String key = getStatementKey(q);
+
+		return new HedgedRead(s, q, source, policy, key).start(policy.beginExecution(key));
+	}
+
+	private boolean isHedgeable(Statement q, QueryOptions options) {
+		return StatementInfo.of(q).getOperationType() == OperationType.READ && isIdempotent(q, options);
+	}
+
+	private ResultSet executeInstrumented(Session s, Statement q) {
+
+		StatementRateLimiter limiter = rateLimiter;
+
+		if (limiter != null) {
+			limiter.acquire(q, s.getLoggedKeyspace());
+		}
+
+		StatementMetricsSink sink = metricsSink;
+
+		if (sink == null) {
+			return s.execute(q);
+		}
+
+		String source = StatementSource.get();
+		long start = System.nanoTime();
+
+		try {
+
+			ResultSet rs = s.execute(q);
+			recordExecution(sink, q, source, start, rs.getAvailableWithoutFetching(), null);
+			return rs;
+
+		} catch (RuntimeException e) {
+			recordExecution(sink, q, source, start, 0, e);
+			throw e;
+		}
+	}
+
+	private ResultSetFuture executeInstrumentedAsync(final Session s, final Statement q, final String source) {
+
+		StatementRateLimiter limiter = rateLimiter;
+
+		if (limiter != null) {
+
+			long delay = limiter.reserve(q, s.getLoggedKeyspace());
+
+			if (delay > 0) {
+
+				final SettableResultSetFuture future = new SettableResultSetFuture();
+
+				getScheduler().schedule(new Runnable() {
+
+					@Override
+					public void run() {
+
+						if (future.isCancelled()) {
+							return;
+						}
+
+						try {
+							future.setFuture(submitInstrumentedAsync(s, q, source));
+						} catch (RuntimeException e) {
+							future.setException(e);
+						}
+					}
+				}, delay, TimeUnit.NANOSECONDS);
+
+				return future;
 			}
-		}));
-	}
+		}
 
-	public <T> T queryAsynchronously(final String cql, ResultSetFutureExtractor<T> rse) throws DataAccessException {
-		return queryAsynchronously(cql, rse, null);
+		return submitInstrumentedAsync(s, q, source);
 	}
 
-	@Override
-	public <T> T query(String cql, ResultSetExtractor<T> rse) throws DataAccessException {
-		return query(cql, rse, null);
-	}
+	private ResultSetFuture submitInstrumentedAsync(Session s, final Statement q, final String source) {
 
-	@Override
-	public <T> T query(String cql, ResultSetExtractor<T> rse, QueryOptions options) throws DataAccessException {
-		Assert.notNull(cql);
-		ResultSet rs = doExecute(cql, options);
-		return rse.extractData(rs);
-	}
+		final AdaptiveConcurrencyLimiter limiter = concurrencyLimiter;
+		final StatementMetricsSink sink = metricsSink;
 
-	@Override
-	public void query(String cql, RowCallbackHandler rch, QueryOptions options) throws DataAccessException {
-		process(doExecute(cql, options), rch);
-	}
+		if (limiter == null && sink == null) {
+			return s.executeAsync(q);
+		}
 
-	@Override
-	public void query(String cql, RowCallbackHandler rch) throws DataAccessException {
-		query(cql, rch, null);
-	}
+		if (limiter != null && !limiter.tryAcquire()) {
 
-	@Override
-	public <T> List<T> query(String cql, RowMapper<T> rowMapper, QueryOptions options) throws DataAccessException {
-		return process(doExecute(cql, options), rowMapper);
-	}
+			SettableResultSetFuture rejected = new SettableResultSetFuture();
+			rejected.setException(new CassandraAdmissionRejectedException(limiter.getLimit(), String.format(
+					"statement rejected, %d statements in flight with a limit of %d", limiter.getInFlight(), limiter.getLimit())));
+			return rejected;
+		}
 
-	@Override
-	public ResultSet query(String cql) {
-		return query(cql, (QueryOptions) null);
-	}
+		final long start = System.nanoTime();
 
-	@Override
-	public ResultSet query(String cql, QueryOptions options) {
+		ResultSetFuture rsf;
 
-		return query(cql, new ResultSetExtractor<ResultSet>() {
+		try {
+			rsf = s.executeAsync(q);
+		} catch (RuntimeException e) {
+			if (limiter != null) {
+				limiter.release(System.nanoTime() - start, false);
+			}
+			throw e;
+		}
+
+		Futures.addCallback(rsf, new FutureCallback<ResultSet>() {
 
 			@Override
-			public ResultSet extractData(ResultSet rs) throws DriverException, DataAccessException {
-				return rs;
+			public void onSuccess(ResultSet rs) {
+
+				if (limiter != null) {
+					limiter.release(System.nanoTime() - start, false);
+				}
+				if (sink != null) {
+					recordExecution(sink, q, source, start, rs.getAvailableWithoutFetching(), null);
+				}
 			}
-		}, options);
-	}
 
-	@Override
-	public <T> List<T> query(String cql, RowMapper<T> rowMapper) throws DataAccessException {
-		return query(cql, rowMapper, null);
-	}
+			@Override
+			public void onFailure(Throwable t) {
 
-	@Override
-	public List<Map<String, Object>> queryForListOfMap(String cql) throws DataAccessException {
-		return processListOfMap(doExecute(cql, null));
-	}
+				if (limiter != null) {
+					limiter.release(System.nanoTime() - start, toDataAccessException(t) instanceof QueryTimeoutException);
+				}
+				if (sink != null) {
+					recordExecution(sink, q, source, start, 0, t);
+				}
+			}
+		});
 
-	@Override
-	public <T> List<T> queryForList(String cql, Class<T> elementType) throws DataAccessException {
-		return processList(doExecute(cql, null), elementType);
+		return rsf;
 	}
 
-	@Override
-	public Map<String, Object> queryForMap(String cql) throws DataAccessException {
-		return processMap(doExecute(cql, null));
-	}
+	private void recordExecution(StatementMetricsSink sink, Statement q, String source, long start, int rows,
+			Throwable error) {
 
-	@Override
-	public <T> T queryForObject(String cql, Class<T> requiredType) throws DataAccessException {
-		return processOne(doExecute(cql, null), requiredType);
-	}
+		long latency = System.nanoTime() - start;
 
-	@Override
-	public <T> T queryForObject(String cql, RowMapper<T> rowMapper) throws DataAccessException {
-		return processOne(doExecute(cql, null), rowMapper);
+		try {
+			sink.record(getStatementKey(q), source, latency, TimeUnit.NANOSECONDS, rows,
+					error == null ? null : toDataAccessException(error));
+		} catch (RuntimeException e) {
+			log.warn("failed to record statement metrics", e);
+		}
 	}
 
 	/**
-	 * Execute a command at the Session Level
-	 * 
-	 * @param callback
-	 * @return
+	 * Returns the key statement metrics are recorded under: the query string of the prepared statement for a
+	 * {@link BoundStatement}, the normalized query string for other {@link RegularStatement}s and the simple class name
+	 * otherwise.
 	 */
-	protected <T> T doExecute(SessionCallback<T> callback) {
+	protected String getStatementKey(Statement q) {
 
-		Assert.notNull(callback);
+		if (q instanceof BoundStatement) {
+			return ((BoundStatement) q).preparedStatement().getQueryString();
+		}
 
-		try {
+		if (q instanceof RegularStatement) {
+			return CqlStringUtils.normalize(((RegularStatement) q).getQueryString());
+		}
 
-			return callback.doInSession(getSession());
+		return q.getClass().getSimpleName();
+	}
 
-		} catch (DataAccessException e) {
-			throw translateExceptionIfPossible(e);
+	protected DataAccessException toDataAccessException(Throwable t) {
+
+		if (t instanceof Exception) {
+			RuntimeException translated = translateExceptionIfPossible((Exception) t);
+			if (translated instanceof DataAccessException) {
+				return (DataAccessException) translated;
+			}
 		}
+
+		return new CassandraUncategorizedDataAccessException("Caught Uncategorized Exception", t);
 	}
 
 	protected ResultSet doExecute(String cql) {
@@ -480,7 +1572,11 @@ public class CqlTemplate extends CassandraAccessor implements CqlOperations {
 	}
 
 	protected ResultSet doExecute(String cql, QueryOptions options) {
-		return doExecute(addQueryOptions(new SimpleStatement(cql), options));
+		return doExecute(new SimpleStatement(cql), options);
+	}
+
+	protected ResultSet doExecute(Statement q) {
+		return doExecute(q, null);
 	}
 
 	/**
@@ -489,7 +1585,7 @@ public class CqlTemplate extends CassandraAccessor implements CqlOperations {
 	 * @param q The query to execute.
 	 * @param options The {@link QueryOptions}. May be null.
 	 */
-	protected ResultSet doExecute(final Statement q) {
+	protected ResultSet doExecute(final Statement q, final QueryOptions options) {
 
 		return doExecute(new SessionCallback<ResultSet>() {
 
@@ -500,12 +1596,16 @@ public class CqlTemplate extends CassandraAccessor implements CqlOperations {
 					log.debug("executing [{}]", q.toString());
 				}
 
-				return s.execute(q);
+				return executeStatement(s, addQueryOptions(q, options), options);
 			}
 		});
 	}
 
-	protected ResultSetFuture doExecuteAsync(final Statement q) {
+	protected ResultSetFuture doExecuteAsync(Statement q) {
+		return doExecuteAsync(q, (QueryOptions) null);
+	}
+
+	protected ResultSetFuture doExecuteAsync(final Statement q, final QueryOptions options) {
 
 		return doExecute(new SessionCallback<ResultSetFuture>() {
 
@@ -515,7 +1615,7 @@ public class CqlTemplate extends CassandraAccessor implements CqlOperations {
 				if (log.isDebugEnabled()) {
 					log.debug("asynchronously executing [{}]", q.toString());
 				}
-				return s.executeAsync(q);
+				return executeStatementAsync(s, addQueryOptions(q, options), options);
 			}
 		});
 	}
@@ -540,7 +1640,7 @@ public class CqlTemplate extends CassandraAccessor implements CqlOperations {
 					addQueryOptions(q, options);
 				}
 
-				final ResultSetFuture rsf = s.executeAsync(q);
+				final ResultSetFuture rsf = executeStatementAsync(s, q, options);
 
 				if (listener != null) {
 					rsf.addListener(new Runnable() {
@@ -549,19 +1649,29 @@ public class CqlTemplate extends CassandraAccessor implements CqlOperations {
 						public void run() {
 							listener.onQueryComplete(rsf);
 						}
-					}, new Executor() {
-
-						@Override
-						public void execute(Runnable command) {
-							command.run();
-						}
-					});
+					}, getCallbackExecutor(listener));
 				}
 				return new ResultSetFutureCancellable(rsf);
 			}
 		});
 	}
 
+	/**
+	 * @return The protocol version negotiated with the cluster, with which to deserialize column values; the newest
+	 *         supported if the session has no cluster to ask.
+	 */
+	protected ProtocolVersion getProtocolVersion() {
+
+		Cluster cluster = getSession().getCluster();
+
+		if (cluster == null) {
+			return ProtocolVersion.NEWEST_SUPPORTED;
+		}
+
+		ProtocolVersion version = cluster.getConfiguration().getProtocolOptions().getProtocolVersionEnum();
+		return version == null ? ProtocolVersion.NEWEST_SUPPORTED : version;
+	}
+
 	/**
 	 * @param row
 	 * @return
@@ -571,24 +1681,23 @@ public class CqlTemplate extends CassandraAccessor implements CqlOperations {
 		if (cols.size() == 0) {
 			return null;
 		}
-		return cols.getType(0).deserialize(row.getBytesUnsafe(0), ProtocolVersion.NEWEST_SUPPORTED);
+		return cols.getType(0).deserialize(row.getBytesUnsafe(0), getProtocolVersion());
 	}
 
 	/**
+	 * Maps the given row to a {@link RowMap}, sharing the {@link RowMap.Schema} of the previous row if it has the same
+	 * columns.
+	 * 
 	 * @param row
 	 * @return
 	 */
 	protected Map<String, Object> toMap(Row row) {
-		if (row == null) {
-			return null;
-		}
 
-		ColumnDefinitions cols = row.getColumnDefinitions();
-		Map<String, Object> map = new HashMap<String, Object>(cols.size());
+		RowMap.Schema schema = rowMapSchema;
+		RowMap map = RowMap.of(row, schema, getProtocolVersion());
 
-		for (Definition def : cols.asList()) {
-			String name = def.getName();
-			map.put(name, def.getType().deserialize(row.getBytesUnsafe(name), ProtocolVersion.NEWEST_SUPPORTED));
+		if (map != null && map.getSchema() != schema) {
+			rowMapSchema = map.getSchema();
 		}
 
 		return map;
@@ -628,17 +1737,12 @@ public class CqlTemplate extends CassandraAccessor implements CqlOperations {
 
 	@Override
 	public ResultSetFuture executeAsynchronously(final String cql, QueryOptions options) throws DataAccessException {
-		return doExecuteAsync(addQueryOptions(new SimpleStatement(cql), options));
+		return doExecuteAsync(new SimpleStatement(cql), options);
 	}
 
 	@Override
 	public Cancellable executeAsynchronously(String cql, Runnable listener) throws DataAccessException {
-		return executeAsynchronously(cql, listener, new Executor() {
-			@Override
-			public void execute(Runnable command) {
-				command.run();
-			}
-		});
+		return executeAsynchronously(cql, listener, getCallbackExecutor(listener));
 	}
 
 	@Override
@@ -649,7 +1753,7 @@ public class CqlTemplate extends CassandraAccessor implements CqlOperations {
 			@Override
 			public Cancellable doInSession(Session s) throws DataAccessException {
 				Statement statement = new SimpleStatement(cql);
-				final ResultSetFuture rsf = s.executeAsync(statement);
+				final ResultSetFuture rsf = executeStatementAsync(s, statement);
 				rsf.addListener(listener, executor);
 				return new ResultSetFutureCancellable(rsf);
 			}
@@ -659,12 +1763,7 @@ public class CqlTemplate extends CassandraAccessor implements CqlOperations {
 	@Override
 	public Cancellable executeAsynchronously(String cql, AsynchronousQueryListener listener) throws DataAccessException {
 
-		return executeAsynchronously(cql, listener, new Executor() {
-			@Override
-			public void execute(Runnable command) {
-				command.run();
-			}
-		});
+		return executeAsynchronously(cql, listener, getCallbackExecutor(listener));
 	}
 
 	@Override
@@ -675,7 +1774,7 @@ public class CqlTemplate extends CassandraAccessor implements CqlOperations {
 			@Override
 			public Cancellable doInSession(Session s) throws DataAccessException {
 				Statement statement = new SimpleStatement(cql);
-				final ResultSetFuture rsf = s.executeAsync(statement);
+				final ResultSetFuture rsf = executeStatementAsync(s, statement);
 				Runnable wrapper = new Runnable() {
 					@Override
 					public void run() {
@@ -695,23 +1794,13 @@ public class CqlTemplate extends CassandraAccessor implements CqlOperations {
 
 	@Override
 	public Cancellable executeAsynchronously(Statement query, Runnable listener) throws DataAccessException {
-		return executeAsynchronously(query, listener, new Executor() {
-			@Override
-			public void execute(Runnable command) {
-				command.run();
-			}
-		});
+		return executeAsynchronously(query, listener, getCallbackExecutor(listener));
 	}
 
 	@Override
 	public Cancellable executeAsynchronously(Statement query, AsynchronousQueryListener listener)
 			throws DataAccessException {
-		return executeAsynchronously(query, listener, new Executor() {
-			@Override
-			public void execute(Runnable command) {
-				command.run();
-			}
-		});
+		return executeAsynchronously(query, listener, getCallbackExecutor(listener));
 	}
 
 	@Override
@@ -720,7 +1809,7 @@ public class CqlTemplate extends CassandraAccessor implements CqlOperations {
 		return execute(new SessionCallback<Cancellable>() {
 			@Override
 			public Cancellable doInSession(Session s) throws DataAccessException {
-				final ResultSetFuture rsf = s.executeAsync(query);
+				final ResultSetFuture rsf = executeStatementAsync(s, query);
 				rsf.addListener(listener, executor);
 				return new ResultSetFutureCancellable(rsf);
 			}
@@ -734,7 +1823,7 @@ public class CqlTemplate extends CassandraAccessor implements CqlOperations {
 		return execute(new SessionCallback<Cancellable>() {
 			@Override
 			public Cancellable doInSession(Session s) throws DataAccessException {
-				final ResultSetFuture rsf = s.executeAsync(query);
+				final ResultSetFuture rsf = executeStatementAsync(s, query);
 				if (listener != null) {
 					Runnable wrapper = new Runnable() {
 						@Override
@@ -762,18 +1851,75 @@ public class CqlTemplate extends CassandraAccessor implements CqlOperations {
 
 	@Override
 	public <T> List<T> process(ResultSet resultSet, RowMapper<T> rowMapper) throws DataAccessException {
-		List<T> mappedRows = new ArrayList<T>();
+		return process(resultSet, rowMapper, null);
+	}
+
+	/**
+	 * Maps each row of the given {@link ResultSet}, enforcing the row and size limits of the given {@link QueryOptions},
+	 * or of this template where the options don't specify them. Rows are mapped as they are paged in, so a query
+	 * exceeding its limits stops fetching once the limit is reached.
+	 * 
+	 * @param resultSet The {@link ResultSet} to process.
+	 * @param rowMapper The {@link RowMapper} to map each row with.
+	 * @param options The {@link QueryOptions}. May be null.
+	 * @return A {@link LimitedResultList} of the mapped rows.
+	 * @throws CassandraResultSizeLimitExceededException if a limit is exceeded and {@link ResultLimitAction#FAIL} is in
+	 *           effect.
+	 */
+	protected <T> List<T> process(ResultSet resultSet, RowMapper<T> rowMapper, QueryOptions options)
+			throws DataAccessException {
+
+		int rowLimit = options == null || options.getMaxRows() == null ? maxRows : options.getMaxRows();
+		long byteLimit = options == null || options.getMaxResultBytes() == null ? maxResultBytes : options
+				.getMaxResultBytes();
+		ResultLimitAction action = options == null || options.getResultLimitAction() == null ? resultLimitAction
+				: options.getResultLimitAction();
+
+		LimitedResultList<T> mappedRows = new LimitedResultList<T>();
 		try {
 			int i = 0;
-			for (Row row : resultSet.all()) {
+			long bytes = 0;
+			for (Row row : resultSet) {
+
+				if (byteLimit > 0) {
+					bytes += estimateSize(row);
+				}
+
+				if ((rowLimit > 0 && i >= rowLimit) || (byteLimit > 0 && bytes > byteLimit)) {
+
+					if (action == ResultLimitAction.TRUNCATE) {
+						mappedRows.setTruncated(true);
+						break;
+					}
+
+					throw new CassandraResultSizeLimitExceededException(String.format(
+							"query result exceeds limit of %d rows or %d estimated bytes", rowLimit, byteLimit), rowLimit, byteLimit);
+				}
+
 				mappedRows.add(rowMapper.mapRow(row, i++));
 			}
 		} catch (DriverException dx) {
-			translateExceptionIfPossible(dx);
+			throw translateExceptionIfPossible(dx);
 		}
 		return mappedRows;
 	}
 
+	/**
+	 * Estimates the size of the given row as the sum of the sizes of its raw column values.
+	 */
+	protected long estimateSize(Row row) {
+
+		long size = 0;
+		for (int i = 0; i < row.getColumnDefinitions().size(); i++) {
+			ByteBuffer bytes = row.getBytesUnsafe(i);
+			if (bytes != null) {
+				size += bytes.remaining();
+			}
+		}
+
+		return size;
+	}
+
 	@Override
 	public <T> T processOne(ResultSet resultSet, RowMapper<T> rowMapper) throws DataAccessException {
 		T row = null;
@@ -811,24 +1957,50 @@ public class CqlTemplate extends CassandraAccessor implements CqlOperations {
 	}
 
 	@Override
-	@SuppressWarnings("unchecked")
 	public <T> List<T> processList(ResultSet resultSet, Class<T> elementType) throws DataAccessException {
-		List<Row> rows = resultSet.all();
-		List<T> list = new ArrayList<T>(rows.size());
-		for (Row row : rows) {
-			list.add((T) firstColumnToObject(row));
+		return processList(resultSet, elementType, null);
+	}
+
+	protected <T> List<T> processList(ResultSet resultSet, Class<T> elementType, QueryOptions options)
+			throws DataAccessException {
+
+		return process(resultSet, new RowMapper<T>() {
+
+			@Override
+			@SuppressWarnings("unchecked")
+			public T mapRow(Row row, int rowNum) throws DriverException {
+				return (T) firstColumnToObject(row);
+			}
+		}, options);
+	}
+
+	/**
+	 * Reads all rows of the given {@link ResultSet} into a {@link ColumnarResult}, decoding with the negotiated protocol
+	 * version.
+	 */
+	protected ColumnarResult processColumns(ResultSet resultSet) throws DataAccessException {
+		try {
+			return new ColumnarResultSetExtractor(getProtocolVersion()).extractData(resultSet);
+		} catch (DriverException dx) {
+			throw translateExceptionIfPossible(dx);
 		}
-		return list;
 	}
 
 	@Override
 	public List<Map<String, Object>> processListOfMap(ResultSet resultSet) throws DataAccessException {
-		List<Row> rows = resultSet.all();
-		List<Map<String, Object>> list = new ArrayList<Map<String, Object>>(rows.size());
-		for (Row row : rows) {
-			list.add(toMap(row));
-		}
-		return list;
+		return processListOfMap(resultSet, null);
+	}
+
+	protected List<Map<String, Object>> processListOfMap(ResultSet resultSet, QueryOptions options)
+			throws DataAccessException {
+
+		return process(resultSet, new RowMapper<Map<String, Object>>() {
+
+			@Override
+			public Map<String, Object> mapRow(Row row, int rowNum) throws DriverException {
+				return toMap(row);
+			}
+		}, options);
 	}
 
 	/**
@@ -941,7 +2113,7 @@ public class CqlTemplate extends CassandraAccessor implements CqlOperations {
 
 		Session s = getSession();
 		while (rowIterator.hasNext()) {
-			s.executeAsync(preparedStatement.bind(rowIterator.next()));
+			executeStatementAsync(s, preparedStatement.bind(rowIterator.next()));
 		}
 	}
 
@@ -1032,7 +2204,7 @@ public class CqlTemplate extends CassandraAccessor implements CqlOperations {
 				} else {
 					bs = ps.bind();
 				}
-				rs = doExecute(addQueryOptions(bs, options));
+				rs = doExecute(bs, options);
 				return rse.extractData(rs);
 			}
 		});
@@ -1061,7 +2233,7 @@ public class CqlTemplate extends CassandraAccessor implements CqlOperations {
 				} else {
 					bs = ps.bind();
 				}
-				rs = doExecute(addQueryOptions(bs, options));
+				rs = doExecute(bs, options);
 				process(rs, rch);
 				return null;
 			}
@@ -1090,9 +2262,9 @@ public class CqlTemplate extends CassandraAccessor implements CqlOperations {
 				} else {
 					bs = ps.bind();
 				}
-				rs = doExecute(addQueryOptions(bs, options));
+				rs = doExecute(bs, options);
 
-				return process(rs, rowMapper);
+				return process(rs, rowMapper, options);
 			}
 		});
 	}
@@ -1110,7 +2282,7 @@ public class CqlTemplate extends CassandraAccessor implements CqlOperations {
 
 			@Override
 			public ResultSet doInSession(Session s) throws DataAccessException {
-				return s.execute(DropTableCqlGenerator.toCql(specification));
+				return executeStatement(s, new SimpleStatement(DropTableCqlGenerator.toCql(specification)));
 			}
 		});
 	}
@@ -1122,7 +2294,7 @@ public class CqlTemplate extends CassandraAccessor implements CqlOperations {
 
 			@Override
 			public ResultSet doInSession(Session s) throws DataAccessException {
-				return s.execute(CreateTableCqlGenerator.toCql(specification));
+				return executeStatement(s, new SimpleStatement(CreateTableCqlGenerator.toCql(specification)));
 			}
 		});
 	}
@@ -1134,7 +2306,7 @@ public class CqlTemplate extends CassandraAccessor implements CqlOperations {
 
 			@Override
 			public ResultSet doInSession(Session s) throws DataAccessException {
-				return s.execute(AlterTableCqlGenerator.toCql(specification));
+				return executeStatement(s, new SimpleStatement(AlterTableCqlGenerator.toCql(specification)));
 			}
 		});
 	}
@@ -1146,7 +2318,7 @@ public class CqlTemplate extends CassandraAccessor implements CqlOperations {
 
 			@Override
 			public ResultSet doInSession(Session s) throws DataAccessException {
-				return s.execute(DropKeyspaceCqlGenerator.toCql(specification));
+				return executeStatement(s, new SimpleStatement(DropKeyspaceCqlGenerator.toCql(specification)));
 			}
 		});
 	}
@@ -1158,7 +2330,7 @@ public class CqlTemplate extends CassandraAccessor implements CqlOperations {
 
 			@Override
 			public ResultSet doInSession(Session s) throws DataAccessException {
-				return s.execute(CreateKeyspaceCqlGenerator.toCql(specification));
+				return executeStatement(s, new SimpleStatement(CreateKeyspaceCqlGenerator.toCql(specification)));
 			}
 		});
 	}
@@ -1170,7 +2342,7 @@ public class CqlTemplate extends CassandraAccessor implements CqlOperations {
 
 			@Override
 			public ResultSet doInSession(Session s) throws DataAccessException {
-				return s.execute(AlterKeyspaceCqlGenerator.toCql(specification));
+				return executeStatement(s, new SimpleStatement(AlterKeyspaceCqlGenerator.toCql(specification)));
 			}
 		});
 	}
@@ -1182,7 +2354,7 @@ public class CqlTemplate extends CassandraAccessor implements CqlOperations {
 
 			@Override
 			public ResultSet doInSession(Session s) throws DataAccessException {
-				return s.execute(DropIndexCqlGenerator.toCql(specification));
+				return executeStatement(s, new SimpleStatement(DropIndexCqlGenerator.toCql(specification)));
 			}
 		});
 	}
@@ -1194,7 +2366,7 @@ public class CqlTemplate extends CassandraAccessor implements CqlOperations {
 
 			@Override
 			public ResultSet doInSession(Session s) throws DataAccessException {
-				return s.execute(CreateIndexCqlGenerator.toCql(specification));
+				return executeStatement(s, new SimpleStatement(CreateIndexCqlGenerator.toCql(specification)));
 			}
 		});
 	}
@@ -1310,29 +2482,19 @@ public class CqlTemplate extends CassandraAccessor implements CqlOperations {
 		return execute(new SessionCallback<ResultSetFuture>() {
 			@Override
 			public ResultSetFuture doInSession(Session s) throws DataAccessException {
-				return s.executeAsync(select);
+				return executeStatementAsync(s, select);
 			}
 		});
 	}
 
 	@Override
 	public Cancellable queryAsynchronously(Select select, Runnable listener) {
-		return queryAsynchronously(select, listener, new Executor() {
-			@Override
-			public void execute(Runnable command) {
-				command.run();
-			}
-		});
+		return queryAsynchronously(select, listener, getCallbackExecutor(listener));
 	}
 
 	@Override
 	public Cancellable queryAsynchronously(Select select, AsynchronousQueryListener listener) {
-		return queryAsynchronously(select, listener, new Executor() {
-			@Override
-			public void execute(Runnable command) {
-				command.run();
-			}
-		});
+		return queryAsynchronously(select, listener, getCallbackExecutor(listener));
 	}
 
 	@Override
@@ -1342,7 +2504,7 @@ public class CqlTemplate extends CassandraAccessor implements CqlOperations {
 		return execute(new SessionCallback<Cancellable>() {
 			@Override
 			public Cancellable doInSession(Session s) throws DataAccessException {
-				final ResultSetFuture rsf = s.executeAsync(select);
+				final ResultSetFuture rsf = executeStatementAsync(s, select);
 				Runnable wrapper = new Runnable() {
 					@Override
 					public void run() {
@@ -1360,7 +2522,7 @@ public class CqlTemplate extends CassandraAccessor implements CqlOperations {
 		return execute(new SessionCallback<Cancellable>() {
 			@Override
 			public Cancellable doInSession(Session s) throws DataAccessException {
-				ResultSetFuture rsf = s.executeAsync(select);
+				ResultSetFuture rsf = executeStatementAsync(s, select);
 				rsf.addListener(listener, executor);
 				return new ResultSetFutureCancellable(rsf);
 			}
@@ -1419,6 +2581,11 @@ public class CqlTemplate extends CassandraAccessor implements CqlOperations {
 		return processListOfMap(doExecute(select));
 	}
 
+	@Override
+	public ColumnarResult queryForColumns(Select select) throws DataAccessException {
+		return processColumns(doExecute(select));
+	}
+
 	@Override
 	public <T> Cancellable queryForListAsynchronously(Select select, final Class<T> elementType,
 			final QueryForListListener<T> listener) throws DataAccessException {
@@ -1639,4 +2806,151 @@ public class CqlTemplate extends CassandraAccessor implements CqlOperations {
 			throw translateExceptionIfPossible(x);
 		}
 	}
+
+	/**
+	 * A read sent once more after a delay unless completed by then; the first successful response wins and the other
+	 * request is cancelled. Fails only once every request sent failed, with the last failure.
+	 */
+	private class HedgedRead implements Runnable {
+
+		private final Session session;
+		private final Statement statement;
+		private final String source;
+		private final HedgingPolicy policy;
+		private final String key;
+
+		private final SettableResultSetFuture result = new SettableResultSetFuture();
+		private final AtomicInteger pending = new AtomicInteger(1);
+		private final long start = System.nanoTime();
+
+		private volatile ResultSetFuture primary;
+		private volatile ResultSetFuture hedge;
+
+		HedgedRead(Session session, Statement statement, String source, HedgingPolicy policy, String key) {
+			this.session = session;
+			this.statement = statement;
+			this.source = source;
+			this.policy = policy;
+			this.key = key;
+		}
+
+		ResultSetFuture start(long delay) {
+
+			primary = executeInstrumentedAsync(session, statement, source);
+			Futures.addCallback(primary, new Completion(false));
+
+			if (delay >= 0) {
+
+				final ScheduledFuture<?> timer = getScheduler().schedule(this, delay, TimeUnit.NANOSECONDS);
+
+				result.addListener(new Runnable() {
+
+					@Override
+					public void run() {
+
+						timer.cancel(false);
+
+						if (result.isCancelled()) {
+							cancel(primary);
+							cancel(hedge);
+						}
+					}
+				}, MoreExecutors.sameThreadExecutor());
+
+			} else {
+				result.bind(primary);
+			}
+
+			return result;
+		}
+
+		@Override
+		public void run() {
+
+			if (result.isDone() || !policy.tryHedge(key)) {
+				return;
+			}
+
+			pending.incrementAndGet();
+
+			try {
+				hedge = executeInstrumentedAsync(session, statement, source);
+			} catch (RuntimeException e) {
+				pending.decrementAndGet();
+				log.debug("failed to send hedged read", e);
+				return;
+			}
+
+			if (result.isDone()) {
+				cancel(hedge);
+			} else {
+				Futures.addCallback(hedge, new Completion(true));
+			}
+		}
+
+		private void cancel(ResultSetFuture future) {
+			if (future != null) {
+				future.cancel(true);
+			}
+		}
+
+		private class Completion implements FutureCallback<ResultSet> {
+
+			private final boolean isHedge;
+
+			Completion(boolean isHedge) {
+				this.isHedge = isHedge;
+			}
+
+			@Override
+			public void onSuccess(ResultSet rs) {
+
+				if (result.set(rs)) {
+					policy.recordLatency(key, System.nanoTime() - start, isHedge);
+					cancel(isHedge ? primary : hedge);
+				}
+			}
+
+			@Override
+			public void onFailure(Throwable t) {
+
+				if (pending.decrementAndGet() == 0) {
+					result.setException(t);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Hands listeners to the callback executor, running them directly if it rejects them, since a listener that isn't run
+	 * would never be told its query completed.
+	 */
+	private class CallbackExecutor implements Executor {
+
+		private final Executor delegate;
+
+		CallbackExecutor(Executor delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public void execute(Runnable command) {
+
+			try {
+				delegate.execute(command);
+			} catch (RejectedExecutionException e) {
+
+				if (!warnedCallbackRejected) {
+					warnedCallbackRejected = true;
+					log.warn("callback executor rejected listener; running it directly on [{}]: {}", Thread.currentThread()
+							.getName(), e.toString());
+				} else if (log.isDebugEnabled()) {
+					log.debug("callback executor rejected listener; running it directly on [{}]: {}", Thread.currentThread()
+							.getName(), e.toString());
+				}
+
+				command.run();
+			}
+		}
+	}
 }
@@ -0,0 +1,25 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.core;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Marker for asynchronous listeners, whether {@link Runnable}s or {@link AsynchronousQueryListener}s, that do so little
+ * work and never block that they are run directly on the thread completing the query, typically a driver I/O thread,
+ * rather than handed to the template's {@link CqlTemplate#setCallbackExecutor(Executor) callback executor}.
+ */
+public interface InlineListener {}
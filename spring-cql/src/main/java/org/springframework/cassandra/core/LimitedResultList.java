@@ -0,0 +1,43 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.core;
+
+import java.util.ArrayList;
+
+/**
+ * List of mapped rows returned by the list-returning query methods of {@link CqlTemplate}. If a row or size limit was
+ * reached and {@link ResultLimitAction#TRUNCATE} is in effect, {@link #isTruncated()} returns <code>true</code>.
+ */
+public class LimitedResultList<T> extends ArrayList<T> {
+
+	private static final long serialVersionUID = 4863052217004470719L;
+
+	private boolean truncated;
+
+	/**
+	 * @return Whether rows were omitted from this list because a result limit was reached.
+	 */
+	public boolean isTruncated() {
+		return truncated;
+	}
+
+	/**
+	 * @param truncated Whether rows were omitted from this list.
+	 */
+	public void setTruncated(boolean truncated) {
+		this.truncated = truncated;
+	}
+}
@@ -24,6 +24,10 @@ public class QueryOptions {
 
 	private ConsistencyLevel consistencyLevel;
 	private RetryPolicy retryPolicy;
+	private Integer maxRows;
+	private Long maxResultBytes;
+	private ResultLimitAction resultLimitAction;
+	private Boolean idempotent;
 
 	public QueryOptions() {}
 
@@ -59,4 +63,63 @@ public class QueryOptions {
 	public void setRetryPolicy(RetryPolicy retryPolicy) {
 		this.retryPolicy = retryPolicy;
 	}
+
+	/**
+	 * @return Returns the maximum number of rows a list-returning query may return, or null to use the template's default.
+	 */
+	public Integer getMaxRows() {
+		return maxRows;
+	}
+
+	/**
+	 * @param maxRows The maximum number of rows to set. Zero means unlimited.
+	 */
+	public void setMaxRows(Integer maxRows) {
+		this.maxRows = maxRows;
+	}
+
+	/**
+	 * @return Returns the maximum estimated size in bytes of the rows a list-returning query may return, or null to use
+	 *         the template's default.
+	 */
+	public Long getMaxResultBytes() {
+		return maxResultBytes;
+	}
+
+	/**
+	 * @param maxResultBytes The maximum estimated result size to set. Rows are estimated by the size of their raw column
+	 *          values. Zero means unlimited.
+	 */
+	public void setMaxResultBytes(Long maxResultBytes) {
+		this.maxResultBytes = maxResultBytes;
+	}
+
+	/**
+	 * @return Returns the action taken when a result limit is exceeded, or null to use the template's default.
+	 */
+	public ResultLimitAction getResultLimitAction() {
+		return resultLimitAction;
+	}
+
+	/**
+	 * @param resultLimitAction The resultLimitAction to set.
+	 */
+	public void setResultLimitAction(ResultLimitAction resultLimitAction) {
+		this.resultLimitAction = resultLimitAction;
+	}
+
+	/**
+	 * @return Returns whether the statement may safely be executed more than once, or null to infer it from the CQL.
+	 */
+	public Boolean getIdempotent() {
+		return idempotent;
+	}
+
+	/**
+	 * @param idempotent Whether the statement may be retried by the template's
+	 *          {@link org.springframework.cassandra.core.retry.BackoffRetryPolicy}. Null infers it from the CQL.
+	 */
+	public void setIdempotent(Boolean idempotent) {
+		this.idempotent = idempotent;
+	}
 }
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.core;
+
+/**
+ * What to do when a query returns more rows or more bytes than allowed by {@link QueryOptions#getMaxRows()} or
+ * {@link QueryOptions#getMaxResultBytes()}.
+ */
+public enum ResultLimitAction {
+
+	/**
+	 * Throw a {@link org.springframework.cassandra.support.exception.CassandraResultSizeLimitExceededException}.
+	 */
+	FAIL,
+
+	/**
+	 * Return the rows read so far as a {@link LimitedResultList} flagged as truncated.
+	 */
+	TRUNCATE
+}
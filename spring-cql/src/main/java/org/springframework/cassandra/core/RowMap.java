@@ -0,0 +1,255 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.core;
+
+import java.nio.ByteBuffer;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.springframework.util.Assert;
+
+import com.datastax.driver.core.ColumnDefinitions;
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.ProtocolVersion;
+import com.datastax.driver.core.Row;
+
+/**
+ * Immutable {@link Map} of the values of a {@link Row} keyed by column name. The column names and their index are held
+ * by a {@link Schema} shared by all maps of rows with the same {@link ColumnDefinitions}, and each value is
+ * deserialized on its first access, so that a map costs little more than an array of its values. Null columns map to
+ * null. Maps are equal to any other {@link Map} with the same entries.
+ * <p>
+ * Maps can be read by several threads concurrently. If threads deserialize the same value at the same time, the value
+ * first stored is the one all of them return. Once every value has been deserialized, the map no longer refers to
+ * its {@link Row}.
+ */
+public class RowMap extends AbstractMap<String, Object> {
+
+	private static final Object UNDECODED = new Object();
+
+	private final Schema schema;
+	private final AtomicReferenceArray<Object> values;
+	private final AtomicInteger undecoded;
+	private volatile Row row;
+
+	public RowMap(Schema schema, Row row) {
+
+		Assert.notNull(schema);
+		Assert.notNull(row);
+
+		this.schema = schema;
+		this.row = row;
+		this.values = new AtomicReferenceArray<Object>(schema.types.length);
+		this.undecoded = new AtomicInteger(schema.entries.length);
+
+		for (int i = 0; i < schema.types.length; i++) {
+			values.set(i, UNDECODED);
+		}
+	}
+
+	/**
+	 * Creates a map of the given row, reusing the given {@link Schema} if it describes the row's columns.
+	 * 
+	 * @param row The row; may be null, in which case null is returned.
+	 * @param schema The {@link Schema} of a previous row; may be null.
+	 */
+	public static RowMap of(Row row, Schema schema, ProtocolVersion protocolVersion) {
+
+		if (row == null) {
+			return null;
+		}
+
+		return new RowMap(Schema.of(row.getColumnDefinitions(), protocolVersion, schema), row);
+	}
+
+	public Schema getSchema() {
+		return schema;
+	}
+
+	@Override
+	public int size() {
+		return schema.entries.length;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return schema.indexOf(key) >= 0;
+	}
+
+	@Override
+	public Object get(Object key) {
+
+		int index = schema.indexOf(key);
+		return index < 0 ? null : getValue(index);
+	}
+
+	private Object getValue(int index) {
+
+		Object value = values.get(index);
+
+		if (value == UNDECODED) {
+
+			Row row = this.row;
+
+			if (row == null) {
+				// every value was stored before the row was released
+				return values.get(index);
+			}
+
+			ByteBuffer bytes = row.getBytesUnsafe(index);
+			value = bytes == null ? null : schema.types[index].deserialize(bytes, schema.protocolVersion);
+
+			if (!values.compareAndSet(index, UNDECODED, value)) {
+				value = values.get(index);
+			} else if (undecoded.decrementAndGet() == 0) {
+				this.row = null;
+			}
+		}
+
+		return value;
+	}
+
+	@Override
+	public Set<Entry<String, Object>> entrySet() {
+
+		return new AbstractSet<Entry<String, Object>>() {
+
+			@Override
+			public int size() {
+				return schema.entries.length;
+			}
+
+			@Override
+			public Iterator<Entry<String, Object>> iterator() {
+
+				return new Iterator<Entry<String, Object>>() {
+
+					private int next;
+
+					@Override
+					public boolean hasNext() {
+						return next < schema.entries.length;
+					}
+
+					@Override
+					public Entry<String, Object> next() {
+
+						if (!hasNext()) {
+							throw new NoSuchElementException();
+						}
+
+						int index = schema.entries[next++];
+						return new SimpleImmutableEntry<String, Object>(schema.names[index], getValue(index));
+					}
+
+					@Override
+					public void remove() {
+						throw new UnsupportedOperationException();
+					}
+				};
+			}
+		};
+	}
+
+	/**
+	 * The column names, types and index shared by the {@link RowMap}s of rows with the same {@link ColumnDefinitions}.
+	 * If a name occurs more than once, its last column is the one mapped, as it would be in a {@link HashMap}.
+	 */
+	public static class Schema {
+
+		private final ColumnDefinitions definitions;
+		private final ProtocolVersion protocolVersion;
+		private final String[] names;
+		private final DataType[] types;
+		private final Map<String, Integer> indexes;
+		private final int[] entries;
+
+		public Schema(ColumnDefinitions definitions, ProtocolVersion protocolVersion) {
+
+			Assert.notNull(definitions);
+			Assert.notNull(protocolVersion);
+
+			this.definitions = definitions;
+			this.protocolVersion = protocolVersion;
+
+			int size = definitions.size();
+			this.names = new String[size];
+			this.types = new DataType[size];
+			this.indexes = new HashMap<String, Integer>(size * 4 / 3 + 1);
+
+			for (int i = 0; i < size; i++) {
+				names[i] = definitions.getName(i);
+				types[i] = definitions.getType(i);
+				indexes.put(names[i], i);
+			}
+
+			this.entries = new int[indexes.size()];
+			for (int i = 0, e = 0; i < size; i++) {
+				if (indexes.get(names[i]) == i) {
+					entries[e++] = i;
+				}
+			}
+		}
+
+		/**
+		 * @return The given {@link Schema} if it describes the given columns and protocol version, otherwise a new one.
+		 */
+		public static Schema of(ColumnDefinitions definitions, ProtocolVersion protocolVersion, Schema schema) {
+			return schema != null && schema.describes(definitions, protocolVersion) ? schema : new Schema(definitions,
+					protocolVersion);
+		}
+
+		/**
+		 * @return Whether this {@link Schema} describes the given columns, decoded with the given protocol version. Rows of
+		 *         the same result share their {@link ColumnDefinitions}; otherwise, their names and types are compared.
+		 */
+		public boolean describes(ColumnDefinitions definitions, ProtocolVersion protocolVersion) {
+
+			if (this.protocolVersion != protocolVersion) {
+				return false;
+			}
+
+			if (this.definitions == definitions) {
+				return true;
+			}
+
+			if (definitions.size() != names.length) {
+				return false;
+			}
+
+			for (int i = 0; i < names.length; i++) {
+				if (!names[i].equals(definitions.getName(i)) || !types[i].equals(definitions.getType(i))) {
+					return false;
+				}
+			}
+
+			return true;
+		}
+
+		int indexOf(Object name) {
+
+			Integer index = indexes.get(name);
+			return index == null ? -1 : index;
+		}
+	}
+}
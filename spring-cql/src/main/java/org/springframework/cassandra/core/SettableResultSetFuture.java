@@ -0,0 +1,143 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.core;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
+import com.datastax.driver.core.exceptions.DriverInternalError;
+import com.google.common.util.concurrent.AbstractFuture;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.Uninterruptibles;
+
+/**
+ * {@link ResultSetFuture} completed by the template rather than by the driver, used where a statement is submitted
+ * later than the template operation returns, such as after a throttling delay or a retry backoff. Cancelling this
+ * future cancels the driver future it is currently {@link #setFuture(ResultSetFuture) bound to}.
+ */
+public class SettableResultSetFuture extends AbstractFuture<ResultSet> implements ResultSetFuture {
+
+	private volatile ResultSetFuture current;
+
+	/**
+	 * Completes this future with the outcome of the given driver future, once available.
+	 */
+	public void setFuture(final ResultSetFuture future) {
+
+		if (!bind(future)) {
+			return;
+		}
+
+		Futures.addCallback(future, new FutureCallback<ResultSet>() {
+
+			@Override
+			public void onSuccess(ResultSet result) {
+				set(result);
+			}
+
+			@Override
+			public void onFailure(Throwable t) {
+				setException(t);
+			}
+		});
+	}
+
+	/**
+	 * Binds this future to the given driver future without taking its outcome, so that cancelling this future cancels
+	 * it. Used where the outcome is inspected first, such as before deciding on a retry.
+	 * 
+	 * @return Whether this future is still pending; if it was cancelled, the given future is cancelled as well.
+	 */
+	public boolean bind(ResultSetFuture future) {
+
+		current = future;
+
+		if (isCancelled()) {
+			future.cancel(true);
+			return false;
+		}
+
+		return true;
+	}
+
+	@Override
+	public boolean set(ResultSet value) {
+		return super.set(value);
+	}
+
+	@Override
+	public boolean setException(Throwable throwable) {
+		return super.setException(throwable);
+	}
+
+	@Override
+	protected void interruptTask() {
+		cancelCurrent();
+	}
+
+	@Override
+	public boolean cancel(boolean mayInterruptIfRunning) {
+
+		boolean cancelled = super.cancel(mayInterruptIfRunning);
+		if (cancelled) {
+			cancelCurrent();
+		}
+		return cancelled;
+	}
+
+	private void cancelCurrent() {
+		ResultSetFuture future = current;
+		if (future != null) {
+			future.cancel(true);
+		}
+	}
+
+	@Override
+	public ResultSet getUninterruptibly() {
+		try {
+			return Uninterruptibles.getUninterruptibly(this);
+		} catch (ExecutionException e) {
+			throw propagate(e);
+		}
+	}
+
+	@Override
+	public ResultSet getUninterruptibly(long timeout, TimeUnit unit) throws TimeoutException {
+		try {
+			return Uninterruptibles.getUninterruptibly(this, timeout, unit);
+		} catch (ExecutionException e) {
+			throw propagate(e);
+		}
+	}
+
+	private static RuntimeException propagate(ExecutionException e) {
+
+		Throwable cause = e.getCause();
+
+		if (cause instanceof RuntimeException) {
+			throw (RuntimeException) cause;
+		}
+		if (cause instanceof Error) {
+			throw (Error) cause;
+		}
+
+		throw new DriverInternalError("Unexpected exception thrown", cause);
+	}
+}
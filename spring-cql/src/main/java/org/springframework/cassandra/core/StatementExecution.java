@@ -0,0 +1,141 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.core;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.util.Assert;
+
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.Statement;
+
+/**
+ * The execution of a single {@link Statement} as seen by {@link StatementInterceptor}s. It carries the statement and
+ * {@link QueryOptions} to execute, the outcome once available, and attributes interceptors can use to pass state from
+ * {@link StatementInterceptor#beforeExecution(StatementExecution) before} to
+ * {@link StatementInterceptor#afterExecution(StatementExecution) after} the execution.
+ */
+public class StatementExecution {
+
+	private final Session session;
+	private final boolean async;
+
+	private Statement statement;
+	private QueryOptions options;
+	private ResultSet resultSet;
+	private Throwable error;
+	private Map<String, Object> attributes;
+
+	public StatementExecution(Session session, Statement statement, QueryOptions options, boolean async) {
+
+		Assert.notNull(statement);
+
+		this.session = session;
+		this.statement = statement;
+		this.options = options;
+		this.async = async;
+	}
+
+	public Session getSession() {
+		return session;
+	}
+
+	/**
+	 * @return Whether the statement is executed asynchronously.
+	 */
+	public boolean isAsync() {
+		return async;
+	}
+
+	public Statement getStatement() {
+		return statement;
+	}
+
+	/**
+	 * Replaces the statement to execute. Only effective before execution.
+	 */
+	public void setStatement(Statement statement) {
+		Assert.notNull(statement);
+		this.statement = statement;
+	}
+
+	/**
+	 * @return The {@link QueryOptions} given to the template operation, or null if the operation took none. Options are
+	 *         applied to the statement before it is submitted.
+	 */
+	public QueryOptions getQueryOptions() {
+		return options;
+	}
+
+	/**
+	 * Replaces the {@link QueryOptions} to apply to the statement. Only effective before execution.
+	 */
+	public void setQueryOptions(QueryOptions options) {
+		this.options = options;
+	}
+
+	/**
+	 * @return The {@link ResultSet}, or null if the statement was not executed yet or failed.
+	 */
+	public ResultSet getResultSet() {
+		return resultSet;
+	}
+
+	/**
+	 * Sets the result of the execution, clearing any error.
+	 */
+	public void setResultSet(ResultSet resultSet) {
+		this.resultSet = resultSet;
+		this.error = null;
+	}
+
+	/**
+	 * @return The exception the execution failed with, or null.
+	 */
+	public Throwable getError() {
+		return error;
+	}
+
+	/**
+	 * Sets the exception the execution failed with, clearing any result.
+	 */
+	public void setError(Throwable error) {
+		this.error = error;
+		this.resultSet = null;
+	}
+
+	/**
+	 * @return Whether a result or an error is available.
+	 */
+	public boolean isComplete() {
+		return resultSet != null || error != null;
+	}
+
+	public Object getAttribute(String name) {
+		return attributes == null ? null : attributes.get(name);
+	}
+
+	public void setAttribute(String name, Object value) {
+
+		if (attributes == null) {
+			attributes = new HashMap<String, Object>();
+		}
+
+		attributes.put(name, value);
+	}
+}
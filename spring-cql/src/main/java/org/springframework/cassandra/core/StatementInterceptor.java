@@ -0,0 +1,54 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.core;
+
+/**
+ * Callback interface to intercept the execution of {@link com.datastax.driver.core.Statement}s by a
+ * {@link CqlTemplate}. Interceptors registered with a template via
+ * {@link CqlTemplate#setStatementInterceptors(java.util.List)} are invoked for every statement it executes:
+ * <ul>
+ * <li>{@link #beforeExecution(StatementExecution)} in order, before the statement is submitted;</li>
+ * <li>{@link #afterExecution(StatementExecution)} in reverse order, after a synchronous execution completed or failed;</li>
+ * <li>{@link #onAsyncCompletion(StatementExecution)} in reverse order, after an asynchronous execution completed or
+ * failed.</li>
+ * </ul>
+ * Interceptors may replace the statement and its {@link QueryOptions} before execution, and the result or error
+ * afterwards; see {@link StatementExecution}. Interceptors are shared across threads and must be thread-safe. Extend
+ * {@link StatementInterceptorAdapter} to implement only the callbacks of interest.
+ */
+public interface StatementInterceptor {
+
+	/**
+	 * Invoked before the statement is submitted. Supplying a result or an error via
+	 * {@link StatementExecution#setResultSet(com.datastax.driver.core.ResultSet)} or
+	 * {@link StatementExecution#setError(Throwable)} skips the execution of the statement. An exception thrown from this
+	 * method aborts the execution and is propagated to the caller.
+	 */
+	void beforeExecution(StatementExecution execution);
+
+	/**
+	 * Invoked after a synchronous execution completed or failed. If the execution still carries an error once all
+	 * interceptors were invoked, that error is thrown to the caller; otherwise its result is returned.
+	 */
+	void afterExecution(StatementExecution execution);
+
+	/**
+	 * Invoked on the thread completing the statement after an asynchronous execution completed or failed. The future
+	 * handed to the caller completes with the outcome once all interceptors were invoked, so interceptors may replace the
+	 * result or the error. Exceptions thrown from this method are logged and ignored. Implementations must not block.
+	 */
+	void onAsyncCompletion(StatementExecution execution);
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.core;
+
+/**
+ * Abstract adapter class for the {@link StatementInterceptor} interface, for simplified implementation of
+ * before-only or after-only interceptors.
+ */
+public abstract class StatementInterceptorAdapter implements StatementInterceptor {
+
+	@Override
+	public void beforeExecution(StatementExecution execution) {}
+
+	@Override
+	public void afterExecution(StatementExecution execution) {}
+
+	@Override
+	public void onAsyncCompletion(StatementExecution execution) {}
+}
@@ -0,0 +1,320 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.core.coalesce;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
+
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.ProtocolVersion;
+import com.datastax.driver.core.RegularStatement;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.Statement;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.Uninterruptibles;
+
+/**
+ * Single-flight coalescing of identical concurrent reads. While a read is in flight, identical reads - on the same
+ * session, with the same query string and values, keyspace, consistency level and fetch size - wait for it instead of
+ * being executed, and each receives its own {@link RowListResultSet} over the shared rows, so that results mapped from
+ * them are never shared between callers. A failure of the read is rethrown to every waiter.
+ * <p>
+ * Only results that fit into their first page are shared. If the read in flight needs further pages, its waiters
+ * execute their reads themselves, so that rows are never buffered beyond a page.
+ * <p>
+ * A waiter receives the result of a read that was sent before it asked, so it may not see writes that completed in the
+ * meantime, including its own: a thread that writes and then reads can join a read issued before its write, which
+ * breaks read-your-writes. To bound this staleness, a read only joins a read in flight that was sent no longer than the
+ * {@link #getJoinWindowMillis() join window} ago, and is otherwise executed and becomes the read later identical reads
+ * join. Callers that need to read their own writes should not use coalescing.
+ * 
+ * @see org.springframework.cassandra.core.CqlTemplate#setReadCoalescer(ReadCoalescer)
+ */
+public class ReadCoalescer implements ReadCoalescerMBean {
+
+	/**
+	 * Executes a read on behalf of the {@link ReadCoalescer}.
+	 */
+	public interface Read {
+
+		ResultSet execute();
+	}
+
+	/**
+	 * The default {@link #getJoinWindowMillis() join window}, in milliseconds.
+	 */
+	public static final long DEFAULT_JOIN_WINDOW_MILLIS = 50;
+
+	private final ConcurrentMap<Key, Flight> flights = new ConcurrentHashMap<Key, Flight>();
+	private final long joinWindowMillis;
+	private final long joinWindowNanos;
+
+	private final AtomicLong reads = new AtomicLong();
+	private final AtomicLong coalesced = new AtomicLong();
+	private final AtomicLong fallbacks = new AtomicLong();
+
+	/**
+	 * Creates a {@link ReadCoalescer} with the {@link #DEFAULT_JOIN_WINDOW_MILLIS default join window}.
+	 */
+	public ReadCoalescer() {
+		this(DEFAULT_JOIN_WINDOW_MILLIS);
+	}
+
+	/**
+	 * Creates a {@link ReadCoalescer} with the given join window.
+	 * 
+	 * @param joinWindowMillis How long after it was sent a read in flight may be joined, in milliseconds; must not be
+	 *          negative.
+	 */
+	public ReadCoalescer(long joinWindowMillis) {
+
+		Assert.isTrue(joinWindowMillis >= 0, "join window must not be negative");
+
+		this.joinWindowMillis = joinWindowMillis;
+		this.joinWindowNanos = TimeUnit.MILLISECONDS.toNanos(joinWindowMillis);
+	}
+
+	/**
+	 * @return How long after it was sent a read in flight may be joined, in milliseconds.
+	 */
+	public long getJoinWindowMillis() {
+		return joinWindowMillis;
+	}
+
+	/**
+	 * Executes the given read, unless an identical read sent within the {@link #getJoinWindowMillis() join window} is in
+	 * flight, in which case its result is returned.
+	 * 
+	 * @param session The session the read executes on.
+	 * @param statement The statement the read executes.
+	 * @param read Executes the read.
+	 */
+	public ResultSet execute(Session session, Statement statement, Read read) {
+
+		reads.incrementAndGet();
+
+		Key key = Key.of(session, statement);
+
+		if (key == null) {
+			return read.execute();
+		}
+
+		Flight flight = new Flight(System.nanoTime());
+		Flight existing = flights.putIfAbsent(key, flight);
+
+		while (existing != null) {
+
+			if (flight.sentAt - existing.sentAt <= joinWindowNanos) {
+				return join(existing.result, read);
+			}
+
+			// too old to join, so this read takes its place
+			if (flights.replace(key, existing, flight)) {
+				break;
+			}
+			existing = flights.putIfAbsent(key, flight);
+		}
+
+		try {
+
+			ResultSet rs = read.execute();
+
+			if (!rs.isFullyFetched()) {
+				flight.result.set(null);
+				return rs;
+			}
+
+			RowListResultSet shared = new RowListResultSet(rs.getColumnDefinitions(), rs.all(), rs.getAllExecutionInfo(),
+					rs.wasApplied());
+			flight.result.set(shared);
+
+			return shared.copy();
+
+		} catch (RuntimeException e) {
+			flight.result.setException(e);
+			throw e;
+		} catch (Error e) {
+			flight.result.setException(e);
+			throw e;
+		} finally {
+			flights.remove(key, flight);
+		}
+	}
+
+	private ResultSet join(SettableFuture<RowListResultSet> flight, Read read) {
+
+		RowListResultSet shared;
+
+		try {
+			shared = Uninterruptibles.getUninterruptibly(flight);
+		} catch (ExecutionException e) {
+
+			Throwable cause = e.getCause();
+
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw (Error) cause;
+		}
+
+		if (shared == null) {
+			fallbacks.incrementAndGet();
+			return read.execute();
+		}
+
+		coalesced.incrementAndGet();
+		return shared.copy();
+	}
+
+	@Override
+	public long getReadCount() {
+		return reads.get();
+	}
+
+	@Override
+	public long getCoalescedCount() {
+		return coalesced.get();
+	}
+
+	@Override
+	public long getFallbackCount() {
+		return fallbacks.get();
+	}
+
+	@Override
+	public double getCoalescingRate() {
+
+		long n = reads.get();
+
+		return n == 0 ? 0 : (double) coalesced.get() / n;
+	}
+
+	@Override
+	public int getInFlightCount() {
+		return flights.size();
+	}
+
+	@Override
+	public void reset() {
+		reads.set(0);
+		coalesced.set(0);
+		fallbacks.set(0);
+	}
+
+	private static class Flight {
+
+		private final long sentAt;
+		private final SettableFuture<RowListResultSet> result = SettableFuture.create();
+
+		Flight(long sentAt) {
+			this.sentAt = sentAt;
+		}
+	}
+
+	static class Key {
+
+		private final Session session;
+		private final String cql;
+		private final ByteBuffer[] values;
+		private final String keyspace;
+		private final ConsistencyLevel consistencyLevel;
+		private final int fetchSize;
+		private final int hashCode;
+
+		private Key(Session session, String cql, ByteBuffer[] values, String keyspace, ConsistencyLevel consistencyLevel,
+				int fetchSize) {
+
+			this.session = session;
+			this.cql = cql;
+			this.values = values;
+			this.keyspace = keyspace;
+			this.consistencyLevel = consistencyLevel;
+			this.fetchSize = fetchSize;
+
+			int h = System.identityHashCode(session);
+			h = 31 * h + cql.hashCode();
+			h = 31 * h + Arrays.hashCode(values);
+			h = 31 * h + ObjectUtils.nullSafeHashCode(keyspace);
+			h = 31 * h + ObjectUtils.nullSafeHashCode(consistencyLevel);
+			this.hashCode = 31 * h + fetchSize;
+		}
+
+		/**
+		 * @return The key of the given statement, or null if it can't be determined.
+		 */
+		static Key of(Session session, Statement statement) {
+
+			String cql;
+			ByteBuffer[] values;
+
+			if (statement instanceof BoundStatement) {
+
+				BoundStatement bound = (BoundStatement) statement;
+				cql = bound.preparedStatement().getQueryString();
+				values = new ByteBuffer[bound.preparedStatement().getVariables().size()];
+
+				for (int i = 0; i < values.length; i++) {
+					values[i] = bound.getBytesUnsafe(i);
+				}
+
+			} else if (statement instanceof RegularStatement) {
+
+				RegularStatement regular = (RegularStatement) statement;
+				cql = regular.getQueryString();
+				values = regular.hasValues() ? regular.getValues(ProtocolVersion.NEWEST_SUPPORTED) : null;
+
+			} else {
+				return null;
+			}
+
+			String keyspace = statement.getKeyspace() == null ? session.getLoggedKeyspace() : statement.getKeyspace();
+
+			return new Key(session, cql, values, keyspace, statement.getConsistencyLevel(), statement.getFetchSize());
+		}
+
+		@Override
+		public boolean equals(Object that) {
+
+			if (this == that) {
+				return true;
+			}
+			if (!(that instanceof Key)) {
+				return false;
+			}
+
+			Key other = (Key) that;
+
+			return hashCode == other.hashCode && session == other.session && fetchSize == other.fetchSize
+					&& cql.equals(other.cql) && Arrays.equals(values, other.values)
+					&& ObjectUtils.nullSafeEquals(keyspace, other.keyspace) && consistencyLevel == other.consistencyLevel;
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+	}
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.core.coalesce;
+
+/**
+ * JMX management interface of a {@link ReadCoalescer}.
+ */
+public interface ReadCoalescerMBean {
+
+	/**
+	 * @return The number of reads that went through the coalescer.
+	 */
+	long getReadCount();
+
+	/**
+	 * @return The number of reads that were served by a concurrent identical read instead of being executed.
+	 */
+	long getCoalescedCount();
+
+	/**
+	 * @return The number of reads that joined a concurrent identical read whose result spanned more than one page, and
+	 *         were therefore executed after all.
+	 */
+	long getFallbackCount();
+
+	/**
+	 * @return The fraction of reads that were coalesced, between 0 and 1.
+	 */
+	double getCoalescingRate();
+
+	/**
+	 * @return The number of distinct reads currently in flight.
+	 */
+	int getInFlightCount();
+
+	/**
+	 * Resets the counters.
+	 */
+	void reset();
+}
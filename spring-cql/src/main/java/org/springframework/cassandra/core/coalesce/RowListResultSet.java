@@ -0,0 +1,133 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.core.coalesce;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import com.datastax.driver.core.ColumnDefinitions;
+import com.datastax.driver.core.ExecutionInfo;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Row;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * Fully fetched {@link ResultSet} over a list of rows. Several instances may share the same rows, each iterating them
+ * independently; {@link Row}s are immutable, so this is safe across threads.
+ */
+public class RowListResultSet implements ResultSet {
+
+	private final ColumnDefinitions columnDefinitions;
+	private final List<Row> rows;
+	private final List<ExecutionInfo> executionInfos;
+	private final boolean applied;
+
+	private int position;
+
+	public RowListResultSet(ColumnDefinitions columnDefinitions, List<Row> rows, List<ExecutionInfo> executionInfos,
+			boolean applied) {
+
+		this.columnDefinitions = columnDefinitions;
+		this.rows = rows;
+		this.executionInfos = executionInfos;
+		this.applied = applied;
+	}
+
+	/**
+	 * Returns a new {@link RowListResultSet} over the same rows, positioned at the first row.
+	 */
+	public RowListResultSet copy() {
+		return new RowListResultSet(columnDefinitions, rows, executionInfos, applied);
+	}
+
+	@Override
+	public ColumnDefinitions getColumnDefinitions() {
+		return columnDefinitions;
+	}
+
+	@Override
+	public boolean isExhausted() {
+		return position >= rows.size();
+	}
+
+	@Override
+	public Row one() {
+		return isExhausted() ? null : rows.get(position++);
+	}
+
+	@Override
+	public List<Row> all() {
+
+		List<Row> remaining = Collections.unmodifiableList(rows.subList(position, rows.size()));
+		position = rows.size();
+
+		return remaining;
+	}
+
+	@Override
+	public Iterator<Row> iterator() {
+
+		return new Iterator<Row>() {
+
+			@Override
+			public boolean hasNext() {
+				return !isExhausted();
+			}
+
+			@Override
+			public Row next() {
+				return one();
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+
+	@Override
+	public int getAvailableWithoutFetching() {
+		return rows.size() - position;
+	}
+
+	@Override
+	public boolean isFullyFetched() {
+		return true;
+	}
+
+	@Override
+	public ListenableFuture<Void> fetchMoreResults() {
+		return Futures.immediateFuture(null);
+	}
+
+	@Override
+	public ExecutionInfo getExecutionInfo() {
+		return executionInfos.isEmpty() ? null : executionInfos.get(executionInfos.size() - 1);
+	}
+
+	@Override
+	public List<ExecutionInfo> getAllExecutionInfo() {
+		return executionInfos;
+	}
+
+	@Override
+	public boolean wasApplied() {
+		return applied;
+	}
+}
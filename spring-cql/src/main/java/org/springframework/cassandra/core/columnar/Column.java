@@ -0,0 +1,119 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.core.columnar;
+
+import java.nio.ByteBuffer;
+import java.util.BitSet;
+
+import com.datastax.driver.core.DataType;
+
+/**
+ * Values of one column of a {@link ColumnarResult}, by row. Subclasses hold them in primitive arrays where the type
+ * allows, decoded straight from the serialized cells. The slot of a null cell holds the type's default value.
+ */
+public abstract class Column {
+
+	protected static final int INITIAL_CAPACITY = 16;
+
+	private final String name;
+	private final DataType type;
+	private final BitSet nulls = new BitSet();
+	private int size;
+
+	protected Column(String name, DataType type) {
+		this.name = name;
+		this.type = type;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public DataType getType() {
+		return type;
+	}
+
+	/**
+	 * @return The number of rows.
+	 */
+	public int size() {
+		return size;
+	}
+
+	public boolean isNull(int row) {
+		checkRow(row);
+		return nulls.get(row);
+	}
+
+	/**
+	 * @return The value of the given row, boxed, or null.
+	 */
+	public abstract Object getObject(int row);
+
+	/**
+	 * Appends the value of the next row.
+	 * 
+	 * @param bytes The serialized value; null or empty if the cell is null.
+	 */
+	void add(ByteBuffer bytes) {
+
+		if (isNullValue(bytes)) {
+			nulls.set(size);
+			addNull(size);
+		} else {
+			addValue(size, bytes);
+		}
+
+		size++;
+	}
+
+	/**
+	 * @return Whether the given serialized value is null; by default, if it is missing or empty.
+	 */
+	protected boolean isNullValue(ByteBuffer bytes) {
+		return bytes == null || bytes.remaining() == 0;
+	}
+
+	/**
+	 * Stores the given non-null serialized value as the given row, growing storage as needed.
+	 */
+	protected abstract void addValue(int row, ByteBuffer bytes);
+
+	/**
+	 * Stores the default value as the given row, growing storage as needed.
+	 */
+	protected abstract void addNull(int row);
+
+	/**
+	 * Shrinks storage to the number of rows, once all rows are added.
+	 */
+	protected abstract void trim();
+
+	protected void checkRow(int row) {
+		if (row < 0 || row >= size) {
+			throw new IndexOutOfBoundsException(String.format("row %d of %d in column %s", row, size, name));
+		}
+	}
+
+	protected static int grow(int capacity, int row) {
+		return row < capacity ? capacity : Math.max(INITIAL_CAPACITY, capacity + (capacity >> 1) + 1);
+	}
+
+	@Override
+	public String toString() {
+		return name + " " + type + " [" + size + " rows]";
+	}
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.core.columnar;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The rows of a query result held by column rather than by row: numeric and boolean columns as primitive arrays, text
+ * columns as dictionary codes, so that large results can be aggregated without an object per value. Obtained from
+ * {@link ColumnarResultSetExtractor}.
+ */
+public class ColumnarResult {
+
+	private final int size;
+	private final List<Column> columns;
+	private final Map<String, Column> columnsByName;
+
+	public ColumnarResult(int size, List<Column> columns) {
+
+		this.size = size;
+		this.columns = Collections.unmodifiableList(new ArrayList<Column>(columns));
+		this.columnsByName = new HashMap<String, Column>(columns.size() * 4 / 3 + 1);
+
+		for (Column column : columns) {
+			columnsByName.put(column.getName(), column);
+		}
+	}
+
+	/**
+	 * @return The number of rows.
+	 */
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public int getColumnCount() {
+		return columns.size();
+	}
+
+	public List<String> getColumnNames() {
+		List<String> names = new ArrayList<String>(columns.size());
+		for (Column column : columns) {
+			names.add(column.getName());
+		}
+		return names;
+	}
+
+	public List<Column> getColumns() {
+		return columns;
+	}
+
+	/**
+	 * @throws IndexOutOfBoundsException If there is no column at the given index.
+	 */
+	public Column getColumn(int index) {
+		return columns.get(index);
+	}
+
+	/**
+	 * @throws IllegalArgumentException If there is no column of the given name.
+	 */
+	public Column getColumn(String name) {
+
+		Column column = columnsByName.get(name);
+
+		if (column == null) {
+			throw new IllegalArgumentException(String.format("no column [%s] in %s", name, getColumnNames()));
+		}
+
+		return column;
+	}
+
+	/**
+	 * @return The values of the given <code>bigint</code>, <code>counter</code> or <code>timestamp</code> column.
+	 */
+	public long[] getLongs(String name) {
+		return getColumn(name, LongColumn.class).getValues();
+	}
+
+	/**
+	 * @return The values of the given <code>int</code> column.
+	 */
+	public int[] getInts(String name) {
+		return getColumn(name, IntColumn.class).getValues();
+	}
+
+	/**
+	 * @return The values of the given <code>double</code> or <code>float</code> column.
+	 */
+	public double[] getDoubles(String name) {
+		return getColumn(name, DoubleColumn.class).getValues();
+	}
+
+	/**
+	 * @return The values of the given <code>boolean</code> column.
+	 */
+	public boolean[] getBooleans(String name) {
+		return getColumn(name, BooleanColumn.class).getValues();
+	}
+
+	/**
+	 * @return The given <code>text</code>, <code>varchar</code> or <code>ascii</code> column.
+	 */
+	public TextColumn getText(String name) {
+		return getColumn(name, TextColumn.class);
+	}
+
+	/**
+	 * @return The value of the given row and column, boxed, or null.
+	 */
+	public Object getObject(int row, String name) {
+		return getColumn(name).getObject(row);
+	}
+
+	/**
+	 * @throws IllegalArgumentException If there is no column of the given name or it isn't of the given type.
+	 */
+	public <T extends Column> T getColumn(String name, Class<T> type) {
+
+		Column column = getColumn(name);
+
+		if (!type.isInstance(column)) {
+			throw new IllegalArgumentException(String.format("column [%s] of type [%s] is not a %s", name,
+					column.getType(), type.getSimpleName()));
+		}
+
+		return type.cast(column);
+	}
+
+	@Override
+	public String toString() {
+		return size + " rows of " + columns;
+	}
+}
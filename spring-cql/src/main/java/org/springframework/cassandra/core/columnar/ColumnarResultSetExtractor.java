@@ -0,0 +1,104 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.core.columnar;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.cassandra.core.ResultSetExtractor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.util.Assert;
+
+import com.datastax.driver.core.ColumnDefinitions;
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.ProtocolVersion;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.exceptions.DriverException;
+
+/**
+ * {@link ResultSetExtractor} reading all rows, across pages, into a {@link ColumnarResult}. Values of numeric, boolean
+ * and text columns are decoded directly from the serialized cells; values of other types are deserialized by the driver
+ * with the given {@link ProtocolVersion}.
+ */
+public class ColumnarResultSetExtractor implements ResultSetExtractor<ColumnarResult> {
+
+	private final ProtocolVersion protocolVersion;
+
+	public ColumnarResultSetExtractor() {
+		this(ProtocolVersion.NEWEST_SUPPORTED);
+	}
+
+	public ColumnarResultSetExtractor(ProtocolVersion protocolVersion) {
+		Assert.notNull(protocolVersion);
+		this.protocolVersion = protocolVersion;
+	}
+
+	@Override
+	public ColumnarResult extractData(ResultSet rs) throws DriverException, DataAccessException {
+
+		ColumnDefinitions definitions = rs.getColumnDefinitions();
+		int count = definitions.size();
+
+		Column[] columns = new Column[count];
+		for (int i = 0; i < count; i++) {
+			columns[i] = createColumn(definitions.getName(i), definitions.getType(i));
+		}
+
+		int size = 0;
+		for (Row row : rs) {
+			for (int i = 0; i < count; i++) {
+				columns[i].add(row.getBytesUnsafe(i));
+			}
+			size++;
+		}
+
+		List<Column> list = new ArrayList<Column>(count);
+		for (Column column : columns) {
+			column.trim();
+			list.add(column);
+		}
+
+		return new ColumnarResult(size, list);
+	}
+
+	/**
+	 * Creates the {@link Column} holding the values of the given column. May be overridden to hold other types as
+	 * primitives.
+	 */
+	protected Column createColumn(String name, DataType type) {
+
+		switch (type.getName()) {
+			case BIGINT:
+			case COUNTER:
+			case TIMESTAMP:
+				return new LongColumn(name, type);
+			case INT:
+				return new IntColumn(name, type);
+			case DOUBLE:
+			case FLOAT:
+				return new DoubleColumn(name, type);
+			case BOOLEAN:
+				return new BooleanColumn(name, type);
+			case TEXT:
+			case VARCHAR:
+			case ASCII:
+				return new TextColumn(name, type);
+			default:
+				return new ObjectColumn(name, type, protocolVersion);
+		}
+	}
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.core.columnar;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import com.datastax.driver.core.DataType;
+
+/**
+ * {@link Column} of <code>double</code> or <code>float</code> values, the latter widened to <code>double</code>.
+ */
+public class DoubleColumn extends Column {
+
+	private final boolean single;
+	private double[] values = new double[INITIAL_CAPACITY];
+
+	public DoubleColumn(String name, DataType type) {
+		super(name, type);
+		this.single = type.getName() == DataType.Name.FLOAT;
+	}
+
+	/**
+	 * @return The values by row; to be read, not modified.
+	 */
+	public double[] getValues() {
+		return values;
+	}
+
+	public double getDouble(int row) {
+		checkRow(row);
+		return values[row];
+	}
+
+	@Override
+	public Object getObject(int row) {
+
+		if (isNull(row)) {
+			return null;
+		}
+
+		return single ? (Object) (float) values[row] : (Object) values[row];
+	}
+
+	@Override
+	protected void addValue(int row, ByteBuffer bytes) {
+		ensureCapacity(row);
+		values[row] = single ? bytes.getFloat(bytes.position()) : bytes.getDouble(bytes.position());
+	}
+
+	@Override
+	protected void addNull(int row) {
+		ensureCapacity(row);
+	}
+
+	private void ensureCapacity(int row) {
+		if (row == values.length) {
+			values = Arrays.copyOf(values, grow(values.length, row));
+		}
+	}
+
+	@Override
+	protected void trim() {
+		if (values.length != size()) {
+			values = Arrays.copyOf(values, size());
+		}
+	}
+}
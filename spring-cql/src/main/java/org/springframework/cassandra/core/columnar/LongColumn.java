@@ -0,0 +1,83 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.core.columnar;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Date;
+
+import com.datastax.driver.core.DataType;
+
+/**
+ * {@link Column} of <code>bigint</code>, <code>counter</code> or <code>timestamp</code> values, the latter as
+ * milliseconds since the epoch.
+ */
+public class LongColumn extends Column {
+
+	private final boolean timestamp;
+	private long[] values = new long[INITIAL_CAPACITY];
+
+	public LongColumn(String name, DataType type) {
+		super(name, type);
+		this.timestamp = type.getName() == DataType.Name.TIMESTAMP;
+	}
+
+	/**
+	 * @return The values by row; to be read, not modified.
+	 */
+	public long[] getValues() {
+		return values;
+	}
+
+	public long getLong(int row) {
+		checkRow(row);
+		return values[row];
+	}
+
+	@Override
+	public Object getObject(int row) {
+
+		if (isNull(row)) {
+			return null;
+		}
+
+		return timestamp ? (Object) new Date(values[row]) : (Object) values[row];
+	}
+
+	@Override
+	protected void addValue(int row, ByteBuffer bytes) {
+		ensureCapacity(row);
+		values[row] = bytes.getLong(bytes.position());
+	}
+
+	@Override
+	protected void addNull(int row) {
+		ensureCapacity(row);
+	}
+
+	private void ensureCapacity(int row) {
+		if (row == values.length) {
+			values = Arrays.copyOf(values, grow(values.length, row));
+		}
+	}
+
+	@Override
+	protected void trim() {
+		if (values.length != size()) {
+			values = Arrays.copyOf(values, size());
+		}
+	}
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.core.columnar;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.ProtocolVersion;
+
+/**
+ * {@link Column} of values of any type without a primitive representation, deserialized by the driver.
+ */
+public class ObjectColumn extends Column {
+
+	private final ProtocolVersion protocolVersion;
+	private Object[] values = new Object[INITIAL_CAPACITY];
+
+	public ObjectColumn(String name, DataType type, ProtocolVersion protocolVersion) {
+		super(name, type);
+		this.protocolVersion = protocolVersion;
+	}
+
+	@Override
+	public Object getObject(int row) {
+		checkRow(row);
+		return values[row];
+	}
+
+	@Override
+	protected boolean isNullValue(ByteBuffer bytes) {
+		return bytes == null;
+	}
+
+	@Override
+	protected void addValue(int row, ByteBuffer bytes) {
+		ensureCapacity(row);
+		values[row] = getType().deserialize(bytes, protocolVersion);
+	}
+
+	@Override
+	protected void addNull(int row) {
+		ensureCapacity(row);
+	}
+
+	private void ensureCapacity(int row) {
+		if (row == values.length) {
+			values = Arrays.copyOf(values, grow(values.length, row));
+		}
+	}
+
+	@Override
+	protected void trim() {
+		if (values.length != size()) {
+			values = Arrays.copyOf(values, size());
+		}
+	}
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.core.columnar;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.datastax.driver.core.DataType;
+
+/**
+ * {@link Column} of <code>text</code>, <code>varchar</code> or <code>ascii</code> values, held as codes into a
+ * dictionary of the column's distinct values. Each distinct value is decoded once, however many rows hold it; rows
+ * holding null have code <code>-1</code>.
+ */
+public class TextColumn extends Column {
+
+	public static final int NULL_CODE = -1;
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+	private static final Charset US_ASCII = Charset.forName("US-ASCII");
+
+	private final Charset charset;
+	private final Map<ByteBuffer, Integer> codesByBytes = new HashMap<ByteBuffer, Integer>();
+	private final List<String> dictionary = new ArrayList<String>();
+	private int[] codes = new int[INITIAL_CAPACITY];
+
+	public TextColumn(String name, DataType type) {
+		super(name, type);
+		this.charset = type.getName() == DataType.Name.ASCII ? US_ASCII : UTF_8;
+	}
+
+	/**
+	 * @return The dictionary codes by row; to be read, not modified.
+	 */
+	public int[] getCodes() {
+		return codes;
+	}
+
+	/**
+	 * @return The distinct values, indexed by code.
+	 */
+	public List<String> getDictionary() {
+		return Collections.unmodifiableList(dictionary);
+	}
+
+	public int getCode(int row) {
+		checkRow(row);
+		return codes[row];
+	}
+
+	public String getString(int row) {
+		int code = getCode(row);
+		return code == NULL_CODE ? null : dictionary.get(code);
+	}
+
+	@Override
+	public Object getObject(int row) {
+		return getString(row);
+	}
+
+	/**
+	 * An empty value is the empty string, not null.
+	 */
+	@Override
+	protected boolean isNullValue(ByteBuffer bytes) {
+		return bytes == null;
+	}
+
+	@Override
+	protected void addValue(int row, ByteBuffer bytes) {
+		ensureCapacity(row);
+		codes[row] = codeOf(bytes);
+	}
+
+	@Override
+	protected void addNull(int row) {
+		ensureCapacity(row);
+		codes[row] = NULL_CODE;
+	}
+
+	private int codeOf(ByteBuffer bytes) {
+
+		Integer code = codesByBytes.get(bytes);
+
+		if (code == null) {
+
+			// copied so that the dictionary doesn't pin the driver's response frames
+			byte[] copy = new byte[bytes.remaining()];
+			bytes.duplicate().get(copy);
+
+			code = dictionary.size();
+			dictionary.add(new String(copy, charset));
+			codesByBytes.put(ByteBuffer.wrap(copy), code);
+		}
+
+		return code;
+	}
+
+	private void ensureCapacity(int row) {
+		if (row == codes.length) {
+			codes = Arrays.copyOf(codes, grow(codes.length, row));
+		}
+	}
+
+	@Override
+	protected void trim() {
+		if (codes.length != size()) {
+			codes = Arrays.copyOf(codes, size());
+		}
+	}
+}
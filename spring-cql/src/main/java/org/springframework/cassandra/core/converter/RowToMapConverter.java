@@ -1,34 +1,29 @@
 package org.springframework.cassandra.core.converter;
 
-import java.util.HashMap;
 import java.util.Map;
 
+import org.springframework.cassandra.core.RowMap;
 import org.springframework.core.convert.converter.Converter;
 
-import com.datastax.driver.core.ColumnDefinitions;
-import com.datastax.driver.core.ColumnDefinitions.Definition;
 import com.datastax.driver.core.ProtocolVersion;
 import com.datastax.driver.core.Row;
 
+/**
+ * Converts a {@link Row} to a {@link RowMap}, sharing the {@link RowMap.Schema} of the previous row if it has the same
+ * columns.
+ */
 public class RowToMapConverter implements Converter<Row, Map<String, Object>> {
 
+	private volatile RowMap.Schema schema;
+
 	@Override
 	public Map<String, Object> convert(Row row) {
 
-		if (row == null) {
-			return null;
-		}
-
-		ColumnDefinitions cols = row.getColumnDefinitions();
-		Map<String, Object> map = new HashMap<String, Object>(cols.size());
-
-		for (Definition def : cols.asList()) {
+		RowMap.Schema schema = this.schema;
+		RowMap map = RowMap.of(row, schema, ProtocolVersion.NEWEST_SUPPORTED);
 
-			String name = def.getName();
-			map.put(
-					name,
-					row.isNull(name) ? null : def.getType().deserialize(row.getBytesUnsafe(name),
-							ProtocolVersion.NEWEST_SUPPORTED));
+		if (map != null && map.getSchema() != schema) {
+			this.schema = map.getSchema();
 		}
 
 		return map;
@@ -15,6 +15,8 @@
  */
 package org.springframework.cassandra.core.cql;
 
+import java.util.regex.Pattern;
+
 import com.datastax.driver.core.DataType;
 
 public class CqlStringUtils {
@@ -27,6 +29,15 @@ public class CqlStringUtils {
 	protected static final String TYPE_PARAMETER_PREFIX = "<";
 	protected static final String TYPE_PARAMETER_SUFFIX = ">";
 
+	private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+	private static final Pattern UUID_LITERAL = Pattern
+			.compile("(?<![\\w.\"])[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}(?![\\w.])");
+	private static final Pattern BLOB_LITERAL = Pattern.compile("(?<![\\w.\"])0[xX][0-9a-fA-F]*(?![\\w.])");
+	private static final Pattern NUMERIC_LITERAL = Pattern
+			.compile("(?<![\\w.\"])-?\\d+(?:\\.\\d+)?(?:[eE][-+]?\\d+)?(?![\\w.])");
+	private static final Pattern IN_LIST = Pattern.compile("(?i)\\bIN\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+	private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
 	public static StringBuilder noNull(StringBuilder sb) {
 		return sb == null ? new StringBuilder() : sb;
 	}
@@ -112,6 +123,26 @@ public class CqlStringUtils {
 		return s.append(TYPE_PARAMETER_SUFFIX).toString();
 	}
 
+	/**
+	 * Normalizes the given CQL so that statements differing only in their literal values compare equal: string, UUID,
+	 * blob and numeric literals are replaced by <code>?</code>, <code>IN</code> lists are collapsed to a single marker
+	 * and whitespace is collapsed. Given <code>null</code>, returns <code>null</code>.
+	 */
+	public static String normalize(String cql) {
+
+		if (cql == null) {
+			return null;
+		}
+
+		String s = STRING_LITERAL.matcher(cql).replaceAll("?");
+		s = UUID_LITERAL.matcher(s).replaceAll("?");
+		s = BLOB_LITERAL.matcher(s).replaceAll("?");
+		s = NUMERIC_LITERAL.matcher(s).replaceAll("?");
+		s = IN_LIST.matcher(s).replaceAll("IN (?)");
+
+		return WHITESPACE.matcher(s).replaceAll(" ").trim();
+	}
+
 	public static String unquote(String s) {
 		return unquote(s, "\"");
 	}
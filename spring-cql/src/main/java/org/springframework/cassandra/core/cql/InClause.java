@@ -0,0 +1,353 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.core.cql;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.datastax.driver.core.ColumnDefinitions;
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.Metadata;
+import com.datastax.driver.core.ProtocolVersion;
+import com.datastax.driver.core.Row;
+
+/**
+ * The <code>IN</code> restriction of a <code>SELECT</code>, as found by {@link #find(String)}, which can render the
+ * statement with a subset of its elements. Used to split a query over many partitions into several smaller ones.
+ */
+public class InClause {
+
+	private static final Pattern IN = Pattern.compile("(\"(?:[^\"]|\"\")+\"|\\b\\w+)\\s+IN\\s*\\(",
+			Pattern.CASE_INSENSITIVE);
+	private static final Pattern SELECT = Pattern.compile("^\\s*SELECT\\b", Pattern.CASE_INSENSITIVE);
+	private static final Pattern WHERE = Pattern.compile("\\bWHERE\\b", Pattern.CASE_INSENSITIVE);
+	private static final Pattern ORDER_BY = Pattern.compile("\\bORDER\\s+BY\\s+(.+?)(?=\\bLIMIT\\b|\\bALLOW\\b|;|$)",
+			Pattern.CASE_INSENSITIVE);
+	private static final Pattern ORDERING = Pattern.compile("\\s*(\"(?:[^\"]|\"\")+\"|\\w+)(?:\\s+(ASC|DESC))?\\s*",
+			Pattern.CASE_INSENSITIVE);
+	private static final Pattern LIMIT = Pattern.compile("\\bLIMIT\\s+(\\d+)", Pattern.CASE_INSENSITIVE);
+
+	private final String prefix;
+	private final String suffix;
+	private final String column;
+	private final List<String> elements;
+	private final int markersBefore;
+	private final Map<String, Boolean> orderings;
+	private final Integer limit;
+
+	private InClause(String prefix, String suffix, String column, List<String> elements, int markersBefore,
+			Map<String, Boolean> orderings, Integer limit) {
+
+		this.prefix = prefix;
+		this.suffix = suffix;
+		this.column = column;
+		this.elements = elements;
+		this.markersBefore = markersBefore;
+		this.orderings = orderings;
+		this.limit = limit;
+	}
+
+	/**
+	 * Finds the <code>IN</code> restriction of the given <code>SELECT</code>.
+	 * 
+	 * @return The restriction, or null if the given CQL isn't a <code>SELECT</code>, has no or more than one
+	 *         <code>IN</code> restriction, or binds the whole list to a single or a named marker.
+	 */
+	public static InClause find(String cql) {
+
+		if (cql == null || !SELECT.matcher(cql).find()) {
+			return null;
+		}
+
+		String masked = maskLiterals(cql);
+
+		Matcher where = WHERE.matcher(masked);
+		if (!where.find()) {
+			return null;
+		}
+
+		Matcher in = IN.matcher(masked);
+		if (!in.find(where.end())) {
+			return null;
+		}
+
+		String column = normalize(in.group(1));
+		int open = in.end() - 1;
+		int start = in.start();
+		int close = -1;
+		int depth = 0;
+		List<String> elements = new ArrayList<String>();
+		int elementStart = open + 1;
+
+		for (int i = open + 1; i < masked.length() && close < 0; i++) {
+
+			char c = masked.charAt(i);
+
+			if (c == '(' || c == '[' || c == '{') {
+				depth++;
+			} else if ((c == ')' || c == ']' || c == '}') && depth > 0) {
+				depth--;
+			} else if ((c == ',' || c == ')') && depth == 0) {
+
+				String element = masked.substring(elementStart, i).trim();
+
+				// markers must be whole elements so that values can be assigned to them
+				if (element.length() == 0 || element.indexOf(':') >= 0 || element.indexOf('?') >= 0 && !"?".equals(element)) {
+					return null;
+				}
+
+				elements.add(cql.substring(elementStart, i).trim());
+				elementStart = i + 1;
+
+				if (c == ')') {
+					close = i;
+				}
+			}
+		}
+
+		if (close < 0 || in.find(close)) {
+			return null;
+		}
+
+		String suffix = cql.substring(close);
+		String maskedSuffix = masked.substring(close);
+
+		return new InClause(cql.substring(0, open + 1), suffix, column, elements, count(masked, '?', start),
+				parseOrderings(maskedSuffix, suffix), parseLimit(maskedSuffix));
+	}
+
+	/**
+	 * Renders the statement restricted to the given elements instead.
+	 */
+	public String toCql(List<String> elements) {
+
+		StringBuilder cql = new StringBuilder(prefix);
+
+		for (int i = 0; i < elements.size(); i++) {
+			if (i > 0) {
+				cql.append(", ");
+			}
+			cql.append(elements.get(i));
+		}
+
+		return cql.append(suffix).toString();
+	}
+
+	/**
+	 * @return The restricted column, unquoted.
+	 */
+	public String getColumn() {
+		return column;
+	}
+
+	/**
+	 * @return The elements of the list as given in the CQL: literals, or <code>?</code> markers each bound to one value.
+	 */
+	public List<String> getElements() {
+		return Collections.unmodifiableList(elements);
+	}
+
+	/**
+	 * @return The number of <code>?</code> markers before the list, which is the index of the value bound to the first
+	 *         marker in the list.
+	 */
+	public int getMarkersBefore() {
+		return markersBefore;
+	}
+
+	/**
+	 * @return The columns of the <code>ORDER BY</code> clause, unquoted, in order and mapped to whether they are
+	 *         ascending; empty if there is none.
+	 */
+	public Map<String, Boolean> getOrderings() {
+		return orderings;
+	}
+
+	/**
+	 * Returns a {@link Comparator} ordering rows by the columns of the <code>ORDER BY</code> clause, as Cassandra orders
+	 * them, to merge rows of several partitions.
+	 * 
+	 * @param definitions The columns of the rows.
+	 * @return The comparator, or null if there is no <code>ORDER BY</code> clause or not all of its columns are among the
+	 *         given ones.
+	 */
+	public Comparator<Row> getRowComparator(ColumnDefinitions definitions) {
+
+		if (orderings.isEmpty() || definitions == null) {
+			return null;
+		}
+
+		final List<String> names = new ArrayList<String>();
+		final List<DataType> types = new ArrayList<DataType>();
+		final List<Boolean> ascending = new ArrayList<Boolean>();
+
+		for (Map.Entry<String, Boolean> ordering : orderings.entrySet()) {
+
+			String name = Metadata.quote(ordering.getKey());
+
+			if (!definitions.contains(name)) {
+				return null;
+			}
+
+			names.add(name);
+			types.add(definitions.getType(name));
+			ascending.add(ordering.getValue());
+		}
+
+		return new Comparator<Row>() {
+
+			@Override
+			public int compare(Row left, Row right) {
+
+				for (int i = 0; i < names.size(); i++) {
+
+					int result = compareValues(types.get(i), left.getBytesUnsafe(names.get(i)),
+							right.getBytesUnsafe(names.get(i)));
+
+					if (result != 0) {
+						return ascending.get(i) ? result : -result;
+					}
+				}
+
+				return 0;
+			}
+		};
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static int compareValues(DataType type, ByteBuffer left, ByteBuffer right) {
+
+		if (left == null || right == null) {
+			return left == null ? (right == null ? 0 : -1) : 1;
+		}
+
+		Object l = type.deserialize(left.duplicate(), ProtocolVersion.NEWEST_SUPPORTED);
+		Object r = type.deserialize(right.duplicate(), ProtocolVersion.NEWEST_SUPPORTED);
+
+		if (l instanceof UUID && ((UUID) l).version() == 1 && ((UUID) r).version() == 1) {
+			long lt = ((UUID) l).timestamp();
+			long rt = ((UUID) r).timestamp();
+			return lt != rt ? (lt < rt ? -1 : 1) : compareUnsigned(left, right);
+		}
+
+		// text and blobs are ordered by their bytes
+		if (l instanceof String || l instanceof ByteBuffer || !(l instanceof Comparable)) {
+			return compareUnsigned(left, right);
+		}
+
+		return ((Comparable) l).compareTo(r);
+	}
+
+	private static int compareUnsigned(ByteBuffer left, ByteBuffer right) {
+
+		int length = Math.min(left.remaining(), right.remaining());
+
+		for (int i = 0; i < length; i++) {
+			int result = (left.get(left.position() + i) & 0xff) - (right.get(right.position() + i) & 0xff);
+			if (result != 0) {
+				return result;
+			}
+		}
+
+		return left.remaining() - right.remaining();
+	}
+
+	/**
+	 * @return The <code>LIMIT</code>, or null if there is none.
+	 */
+	public Integer getLimit() {
+		return limit;
+	}
+
+	/**
+	 * Replaces the contents of string literals, which may contain anything, with spaces.
+	 */
+	private static String maskLiterals(String cql) {
+
+		StringBuilder masked = new StringBuilder(cql);
+		boolean inString = false;
+
+		for (int i = 0; i < masked.length(); i++) {
+
+			char c = masked.charAt(i);
+
+			if (c == '\'') {
+				if (inString && i + 1 < masked.length() && masked.charAt(i + 1) == '\'') {
+					masked.setCharAt(i, ' ');
+					masked.setCharAt(++i, ' ');
+				} else {
+					inString = !inString;
+				}
+			} else if (inString) {
+				masked.setCharAt(i, ' ');
+			}
+		}
+
+		return masked.toString();
+	}
+
+	private static int count(String s, char c, int end) {
+
+		int count = 0;
+		for (int i = 0; i < end; i++) {
+			if (s.charAt(i) == c) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private static Map<String, Boolean> parseOrderings(String maskedSuffix, String suffix) {
+
+		Matcher orderBy = ORDER_BY.matcher(maskedSuffix);
+		if (!orderBy.find()) {
+			return Collections.emptyMap();
+		}
+
+		Map<String, Boolean> orderings = new LinkedHashMap<String, Boolean>();
+
+		for (String ordering : suffix.substring(orderBy.start(1), orderBy.end(1)).split(",")) {
+
+			Matcher matcher = ORDERING.matcher(ordering);
+			if (!matcher.matches()) {
+				return Collections.emptyMap();
+			}
+
+			orderings.put(normalize(matcher.group(1)), !"DESC".equalsIgnoreCase(matcher.group(2)));
+		}
+
+		return orderings;
+	}
+
+	private static Integer parseLimit(String maskedSuffix) {
+
+		Matcher limit = LIMIT.matcher(maskedSuffix);
+		return limit.find() ? Integer.valueOf(limit.group(1)) : null;
+	}
+
+	private static String normalize(String name) {
+		return name.startsWith("\"") ? CqlStringUtils.unquote(name).replace("\"\"", "\"") : name.toLowerCase(Locale.ENGLISH);
+	}
+}
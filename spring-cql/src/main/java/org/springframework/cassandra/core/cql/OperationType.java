@@ -0,0 +1,42 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.core.cql;
+
+/**
+ * The kind of work a statement asks of the cluster.
+ */
+public enum OperationType {
+
+	/**
+	 * A <code>SELECT</code> restricted by a <code>WHERE</code> clause.
+	 */
+	READ,
+
+	/**
+	 * An <code>INSERT</code>, <code>UPDATE</code>, <code>DELETE</code> or batch.
+	 */
+	WRITE,
+
+	/**
+	 * A <code>SELECT</code> without a <code>WHERE</code> clause or restricted by token range.
+	 */
+	SCAN,
+
+	/**
+	 * Any other statement, such as schema changes and <code>TRUNCATE</code>.
+	 */
+	OTHER
+}
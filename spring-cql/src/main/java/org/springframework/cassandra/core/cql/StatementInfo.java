@@ -0,0 +1,296 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.core.cql;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.datastax.driver.core.BatchStatement;
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.RegularStatement;
+import com.datastax.driver.core.Statement;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * What can be told about a {@link Statement} from its CQL without executing it: the {@link OperationType} and the
+ * keyspace and table it targets. Instances are obtained via {@link #of(Statement)} and are cached by query string; the
+ * least recently used are evicted once more than 1000 query strings have been described.
+ */
+public class StatementInfo {
+
+	private static final int MAX_CACHED = 1000;
+
+	private static final Pattern VERB = Pattern.compile("^\\s*(?:BEGIN\\s+(?:UNLOGGED\\s+|COUNTER\\s+)?BATCH\\s+)?(\\w+)",
+			Pattern.CASE_INSENSITIVE);
+	private static final Pattern TARGET = Pattern.compile(
+			"\\b(?:FROM|INTO|UPDATE|TRUNCATE)\\s+((?:\"(?:[^\"]|\"\")+\"|\\w+)(?:\\.(?:\"(?:[^\"]|\"\")+\"|\\w+))?)",
+			Pattern.CASE_INSENSITIVE);
+	private static final Pattern WHERE = Pattern.compile("\\bWHERE\\b", Pattern.CASE_INSENSITIVE);
+	private static final Pattern TOKEN_RESTRICTION = Pattern.compile("\\bWHERE\\s+TOKEN\\s*\\(", Pattern.CASE_INSENSITIVE);
+	private static final Pattern RESTRICTIONS = Pattern.compile(
+			"\\bWHERE\\b(.*?)(?:\\bORDER\\s+BY\\b|\\bLIMIT\\b|\\bALLOW\\s+FILTERING\\b|;|$)", Pattern.CASE_INSENSITIVE
+					| Pattern.DOTALL);
+	private static final Pattern EQUALITY = Pattern.compile("(?:^|\\bAND\\b)\\s*(\"(?:[^\"]|\"\")+\"|\\w+)\\s*=",
+			Pattern.CASE_INSENSITIVE);
+	private static final Pattern MULTIPLE_PARTITIONS = Pattern.compile("\\bIN\\b|\\bCONTAINS\\b|\\bALLOW\\s+FILTERING\\b",
+			Pattern.CASE_INSENSITIVE);
+	private static final Pattern NON_IDEMPOTENT = Pattern.compile(
+			// lightweight transaction, counter batch, server-generated values, element removal by index
+			"\\bIF\\b|\\bCOUNTER\\s+BATCH\\b|\\b(?:now|uuid)\\s*\\(|\\bDELETE\\s+(?:(?!\\bFROM\\b)[^;])*\\[",
+			Pattern.CASE_INSENSITIVE);
+	private static final Pattern SELF_REFERENCE = Pattern.compile(
+			// counter increment, list append or prepend: c = c + ?, l = ? + l
+			"(?<![\\w\"])(\"?\\w+\"?)\\s*=\\s*\\1\\s*[-+]|(?<![\\w\"])(\"?\\w+\"?)\\s*=\\s*(?:\\[[^\\]]*\\]|\\?|:\\w+)\\s*\\+\\s*\\2(?!\\w)");
+
+	private static final Cache<String, StatementInfo> CACHE = CacheBuilder.newBuilder().maximumSize(MAX_CACHED).build();
+
+	private static final StatementInfo UNKNOWN = new StatementInfo(OperationType.OTHER, null, null, null, false);
+
+	private final OperationType operationType;
+	private final String keyspace;
+	private final String table;
+	private final String cql;
+	private final boolean idempotent;
+	private final Set<String> equalityRestrictedColumns;
+
+	protected StatementInfo(OperationType operationType, String keyspace, String table, String cql, boolean idempotent) {
+		this(operationType, keyspace, table, cql, idempotent, Collections.<String> emptySet());
+	}
+
+	protected StatementInfo(OperationType operationType, String keyspace, String table, String cql, boolean idempotent,
+			Set<String> equalityRestrictedColumns) {
+		this.operationType = operationType;
+		this.keyspace = keyspace;
+		this.table = table;
+		this.cql = cql;
+		this.idempotent = idempotent;
+		this.equalityRestrictedColumns = equalityRestrictedColumns;
+	}
+
+	/**
+	 * Describes the given {@link Statement}. A {@link BatchStatement} is described as a {@link OperationType#WRITE} to
+	 * the table of its first statement that is idempotent if all of its statements are.
+	 */
+	public static StatementInfo of(Statement statement) {
+
+		String cql = getQueryString(statement);
+
+		if (cql == null) {
+			return statement instanceof BatchStatement ? new StatementInfo(OperationType.WRITE, statement.getKeyspace(), null,
+					null, true) : UNKNOWN;
+		}
+
+		StatementInfo info = of(cql);
+
+		if (statement instanceof BatchStatement) {
+			info = new StatementInfo(OperationType.WRITE, info.keyspace, info.table, info.cql,
+					isIdempotent((BatchStatement) statement));
+		}
+
+		if (info.keyspace == null && statement.getKeyspace() != null) {
+			info = new StatementInfo(info.operationType, statement.getKeyspace(), info.table, info.cql, info.idempotent,
+					info.equalityRestrictedColumns);
+		}
+
+		return info;
+	}
+
+	private static boolean isIdempotent(BatchStatement batch) {
+
+		for (Statement child : batch.getStatements()) {
+			if (!of(child).isIdempotent()) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Describes the given CQL.
+	 */
+	public static StatementInfo of(String cql) {
+
+		StatementInfo info = CACHE.getIfPresent(cql);
+
+		if (info == null) {
+			info = parse(cql);
+			CACHE.put(cql, info);
+		}
+
+		return info;
+	}
+
+	/**
+	 * @return The query string of the given statement, of its prepared statement, or of the first statement of a batch;
+	 *         null if there is none.
+	 */
+	public static String getQueryString(Statement statement) {
+
+		if (statement instanceof BoundStatement) {
+			return ((BoundStatement) statement).preparedStatement().getQueryString();
+		}
+
+		if (statement instanceof RegularStatement) {
+			return ((RegularStatement) statement).getQueryString();
+		}
+
+		if (statement instanceof BatchStatement) {
+			for (Statement child : ((BatchStatement) statement).getStatements()) {
+				return getQueryString(child);
+			}
+		}
+
+		return null;
+	}
+
+	protected static StatementInfo parse(String cql) {
+
+		Matcher verb = VERB.matcher(cql);
+		if (!verb.find()) {
+			return new StatementInfo(OperationType.OTHER, null, null, cql, false);
+		}
+
+		String keyword = verb.group(1).toUpperCase(Locale.ENGLISH);
+		boolean batch = verb.group(0).toUpperCase(Locale.ENGLISH).contains("BATCH");
+
+		OperationType type;
+		if ("SELECT".equals(keyword)) {
+			type = !WHERE.matcher(cql).find() || TOKEN_RESTRICTION.matcher(cql).find() ? OperationType.SCAN
+					: OperationType.READ;
+		} else if (batch || "INSERT".equals(keyword) || "UPDATE".equals(keyword) || "DELETE".equals(keyword)) {
+			type = OperationType.WRITE;
+		} else {
+			type = OperationType.OTHER;
+		}
+
+		String keyspace = null;
+		String table = null;
+
+		Matcher target = TARGET.matcher(cql);
+		if (target.find()) {
+
+			String name = target.group(1);
+			int dot = indexOfSeparator(name);
+
+			if (dot < 0) {
+				table = normalizeName(name);
+			} else {
+				keyspace = normalizeName(name.substring(0, dot));
+				table = normalizeName(name.substring(dot + 1));
+			}
+		}
+
+		boolean idempotent = type == OperationType.READ || type == OperationType.SCAN
+				|| (type == OperationType.WRITE && !NON_IDEMPOTENT.matcher(cql).find() && !SELF_REFERENCE.matcher(cql).find());
+
+		return new StatementInfo(type, keyspace, table, cql, idempotent,
+				type == OperationType.READ ? parseEqualityRestrictedColumns(cql) : Collections.<String> emptySet());
+	}
+
+	private static Set<String> parseEqualityRestrictedColumns(String cql) {
+
+		if (MULTIPLE_PARTITIONS.matcher(cql).find()) {
+			return Collections.emptySet();
+		}
+
+		Matcher restrictions = RESTRICTIONS.matcher(cql);
+		if (!restrictions.find()) {
+			return Collections.emptySet();
+		}
+
+		Set<String> columns = new LinkedHashSet<String>();
+
+		Matcher equality = EQUALITY.matcher(restrictions.group(1).trim());
+		while (equality.find()) {
+			columns.add(normalizeName(equality.group(1)));
+		}
+
+		return Collections.unmodifiableSet(columns);
+	}
+
+	private static int indexOfSeparator(String name) {
+
+		boolean quoted = false;
+		for (int i = 0; i < name.length(); i++) {
+			char c = name.charAt(i);
+			if (c == '"') {
+				quoted = !quoted;
+			} else if (c == '.' && !quoted) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static String normalizeName(String name) {
+		return name.startsWith("\"") ? CqlStringUtils.unquote(name).replace("\"\"", "\"") : name.toLowerCase(Locale.ENGLISH);
+	}
+
+	public OperationType getOperationType() {
+		return operationType;
+	}
+
+	/**
+	 * @return The keyspace, if qualified in the CQL or known to the statement; otherwise null, meaning the session's
+	 *         keyspace.
+	 */
+	public String getKeyspace() {
+		return keyspace;
+	}
+
+	/**
+	 * @return The table, or null if it can't be determined.
+	 */
+	public String getTable() {
+		return table;
+	}
+
+	/**
+	 * @return The CQL this information was parsed from, or null.
+	 */
+	public String getCql() {
+		return cql;
+	}
+
+	/**
+	 * @return Whether executing the statement more than once has the same effect as executing it once: true for reads
+	 *         and for writes without lightweight transactions, counter or list increments, server-generated values or
+	 *         removal of list elements by index; false for anything else, including schema changes.
+	 */
+	public boolean isIdempotent() {
+		return idempotent;
+	}
+
+	/**
+	 * @return The columns, unquoted, that a {@link OperationType#READ} restricts to a single value; empty for any other
+	 *         statement and for reads that restrict a column with <code>IN</code> or <code>CONTAINS</code> or allow
+	 *         filtering, which may span several partitions.
+	 */
+	public Set<String> getEqualityRestrictedColumns() {
+		return equalityRestrictedColumns;
+	}
+
+	@Override
+	public String toString() {
+		return operationType + " " + (keyspace == null ? "" : keyspace + ".") + table;
+	}
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.core.lob;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.zip.CRC32;
+
+import com.datastax.driver.core.ResultSetFuture;
+import com.datastax.driver.core.Row;
+import com.google.common.util.concurrent.Uninterruptibles;
+
+/**
+ * Stream of a large object written by a {@link LargeObjectTemplate}, which fetches the chunks following the one being
+ * consumed asynchronously and verifies the checksum of each chunk before returning its bytes.
+ */
+public class LargeObjectInputStream extends InputStream {
+
+	private final LargeObjectTemplate template;
+	private final String id;
+	private final UUID generation;
+	private final long length;
+	private final int chunkSize;
+	private final int chunks;
+	private final int prefetchChunks;
+
+	private final Deque<ResultSetFuture> fetching = new ArrayDeque<ResultSetFuture>();
+	private int fetched;
+	private int consumed;
+	private long position;
+	private ByteBuffer chunk;
+	private boolean closed;
+
+	LargeObjectInputStream(LargeObjectTemplate template, String id, UUID generation, long length, int chunkSize,
+			int prefetchChunks) {
+
+		this.template = template;
+		this.id = id;
+		this.generation = generation;
+		this.length = length;
+		this.chunkSize = chunkSize;
+		this.chunks = LargeObjectTemplate.getChunkCount(length, chunkSize);
+		this.prefetchChunks = prefetchChunks;
+	}
+
+	/**
+	 * Returns the length of the object.
+	 */
+	public long getLength() {
+		return length;
+	}
+
+	@Override
+	public int read() throws IOException {
+
+		if (!nextChunk()) {
+			return -1;
+		}
+
+		position++;
+		return chunk.get() & 0xFF;
+	}
+
+	@Override
+	public int read(byte[] bytes, int offset, int len) throws IOException {
+
+		if (len == 0) {
+			return 0;
+		}
+
+		if (!nextChunk()) {
+			return -1;
+		}
+
+		int n = Math.min(len, chunk.remaining());
+		chunk.get(bytes, offset, n);
+		position += n;
+
+		return n;
+	}
+
+	@Override
+	public int available() throws IOException {
+
+		ensureOpen();
+		return chunk == null ? 0 : chunk.remaining();
+	}
+
+	@Override
+	public void close() {
+
+		closed = true;
+		chunk = null;
+
+		for (ResultSetFuture future : fetching) {
+			future.cancel(true);
+		}
+		fetching.clear();
+	}
+
+	/**
+	 * Ensures that the current chunk has bytes remaining, waiting for the next chunk if needed.
+	 * 
+	 * @return <code>false</code> at the end of the object.
+	 */
+	private boolean nextChunk() throws IOException {
+
+		ensureOpen();
+
+		if (chunk != null && chunk.hasRemaining()) {
+			return true;
+		}
+
+		if (consumed == chunks) {
+			return false;
+		}
+
+		prefetch();
+
+		Row row;
+		try {
+			row = Uninterruptibles.getUninterruptibly(fetching.poll()).one();
+		} catch (ExecutionException e) {
+			throw new IOException(String.format("could not read chunk %d of large object [%s]", consumed, id), e.getCause());
+		}
+
+		chunk = verify(row, consumed);
+		consumed++;
+
+		prefetch();
+
+		return true;
+	}
+
+	/**
+	 * Fetches the chunks up to the prefetch distance beyond the next chunk to be consumed.
+	 */
+	private void prefetch() {
+
+		while (fetched < chunks && fetched <= consumed + prefetchChunks) {
+			fetching.add(template.fetchChunk(id, generation, fetched++));
+		}
+	}
+
+	private ByteBuffer verify(Row row, int index) throws IOException {
+
+		if (row == null || row.isNull(0)) {
+			throw new IOException(String.format("chunk %d of large object [%s] is missing", index, id));
+		}
+
+		ByteBuffer data = row.getBytesUnsafe(0);
+
+		long expectedSize = index < chunks - 1 ? chunkSize : length - (long) index * chunkSize;
+		if (data.remaining() != expectedSize) {
+			throw new IOException(String.format("chunk %d of large object [%s] has %d bytes instead of %d", index, id,
+					data.remaining(), expectedSize));
+		}
+
+		CRC32 crc = new CRC32();
+		if (data.hasArray()) {
+			crc.update(data.array(), data.arrayOffset() + data.position(), data.remaining());
+		} else {
+			byte[] bytes = new byte[data.remaining()];
+			data.duplicate().get(bytes);
+			crc.update(bytes, 0, bytes.length);
+		}
+
+		if (crc.getValue() != row.getLong(1)) {
+			throw new IOException(String.format("checksum of chunk %d of large object [%s] doesn't match", index, id));
+		}
+
+		return data;
+	}
+
+	private void ensureOpen() throws IOException {
+		if (closed) {
+			throw new IOException("stream is closed");
+		}
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[" + id + ", " + position + "/" + length + "]";
+	}
+}
@@ -0,0 +1,432 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.core.lob;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cassandra.core.CassandraUncategorizedDataAccessException;
+import org.springframework.cassandra.core.CqlOperations;
+import org.springframework.cassandra.core.cql.CqlIdentifier;
+import org.springframework.cassandra.core.cql.generator.CreateTableCqlGenerator;
+import org.springframework.cassandra.core.keyspace.CreateTableSpecification;
+import org.springframework.cassandra.support.CassandraExceptionTranslator;
+import org.springframework.dao.DataAccessException;
+import org.springframework.util.Assert;
+
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Statement;
+import com.datastax.driver.core.querybuilder.QueryBuilder;
+import com.datastax.driver.core.querybuilder.Select;
+import com.datastax.driver.core.utils.UUIDs;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+
+/**
+ * Stores large objects, such as files of several megabytes, in fixed-size chunks, each a clustering row of the object's
+ * partition, so that neither writing nor reading one needs a buffer of its size, and mutations stay small.
+ * <p>
+ * Each write stores a new generation of the object. Its chunks are written concurrently, with at most
+ * {@link #setMaxChunksInFlight(int) maxChunksInFlight} chunks buffered, followed by a header row pointing to the new
+ * generation and holding its length and chunk size. An object is visible once its header is written, so that an
+ * interrupted write leaves no partial object behind, and a previously written object is left as it was; the chunks of
+ * the interrupted write are deleted if possible. Once the header points to the new generation, the chunks of the
+ * previous one are deleted, so that streams opened before an overwrite may fail with a missing chunk. Each chunk is
+ * stored with its CRC32 checksum, which is verified when it is read; streams
+ * returned by {@link #read(String)} fetch the following {@link #setPrefetchChunks(int) prefetchChunks} chunks
+ * asynchronously while a chunk is being consumed.
+ * <p>
+ * The table, which {@link #createTable(boolean)} creates, is
+ * 
+ * <pre>
+ * CREATE TABLE &lt;table&gt; (id text, generation uuid, chunk int, data blob, checksum bigint, length bigint,
+ *     chunk_size int, current_generation uuid, PRIMARY KEY (id, generation, chunk))
+ * </pre>
+ */
+public class LargeObjectTemplate {
+
+	public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+	public static final int DEFAULT_MAX_CHUNKS_IN_FLIGHT = 4;
+	public static final int DEFAULT_PREFETCH_CHUNKS = 2;
+
+	static final String ID = "id";
+	static final String GENERATION = "generation";
+	static final String CHUNK = "chunk";
+	static final String DATA = "data";
+	static final String CHECKSUM = "checksum";
+	static final String LENGTH = "length";
+	static final String CHUNK_SIZE = "chunk_size";
+	static final String CURRENT_GENERATION = "current_generation";
+
+	/**
+	 * The clustering key of the header row, which precedes the chunks of all generations.
+	 */
+	static final UUID HEADER_GENERATION = new UUID(0, 0);
+	static final int HEADER = -1;
+
+	private static final Logger log = LoggerFactory.getLogger(LargeObjectTemplate.class);
+
+	private final CqlOperations template;
+	private final CqlIdentifier table;
+	private final CassandraExceptionTranslator exceptionTranslator = new CassandraExceptionTranslator();
+
+	private int chunkSize = DEFAULT_CHUNK_SIZE;
+	private int maxChunksInFlight = DEFAULT_MAX_CHUNKS_IN_FLIGHT;
+	private int prefetchChunks = DEFAULT_PREFETCH_CHUNKS;
+
+	public LargeObjectTemplate(CqlOperations template, String table) {
+		this(template, new CqlIdentifier(table));
+	}
+
+	public LargeObjectTemplate(CqlOperations template, CqlIdentifier table) {
+
+		Assert.notNull(template);
+		Assert.notNull(table);
+
+		this.template = template;
+		this.table = table;
+	}
+
+	/**
+	 * Sets the size of the chunks objects are written in. Objects keep the chunk size they were written with.
+	 */
+	public void setChunkSize(int chunkSize) {
+		Assert.isTrue(chunkSize > 0, "chunk size must be positive");
+		this.chunkSize = chunkSize;
+	}
+
+	public int getChunkSize() {
+		return chunkSize;
+	}
+
+	/**
+	 * Sets the maximum number of chunks written concurrently, which bounds the memory a write needs to
+	 * <code>(maxChunksInFlight + 1) * chunkSize</code>.
+	 */
+	public void setMaxChunksInFlight(int maxChunksInFlight) {
+		Assert.isTrue(maxChunksInFlight > 0, "max chunks in flight must be positive");
+		this.maxChunksInFlight = maxChunksInFlight;
+	}
+
+	public int getMaxChunksInFlight() {
+		return maxChunksInFlight;
+	}
+
+	/**
+	 * Sets the number of chunks streams fetch ahead of the chunk being consumed; zero fetches each chunk when it is
+	 * needed.
+	 */
+	public void setPrefetchChunks(int prefetchChunks) {
+		Assert.isTrue(prefetchChunks >= 0, "prefetch chunks must not be negative");
+		this.prefetchChunks = prefetchChunks;
+	}
+
+	public int getPrefetchChunks() {
+		return prefetchChunks;
+	}
+
+	public CqlIdentifier getTable() {
+		return table;
+	}
+
+	/**
+	 * Creates the table objects are stored in.
+	 */
+	public void createTable(boolean ifNotExists) {
+
+		template.execute(CreateTableCqlGenerator.toCql(CreateTableSpecification.createTable(table)
+				.ifNotExists(ifNotExists).partitionKeyColumn(ID, DataType.text())
+				.clusteredKeyColumn(GENERATION, DataType.uuid()).clusteredKeyColumn(CHUNK, DataType.cint())
+				.column(DATA, DataType.blob()).column(CHECKSUM, DataType.bigint()).column(LENGTH, DataType.bigint())
+				.column(CHUNK_SIZE, DataType.cint()).column(CURRENT_GENERATION, DataType.uuid())));
+	}
+
+	/**
+	 * Writes the given stream, up to its end, as the object with the given id, replacing any object with that id. The
+	 * stream is not closed.
+	 * 
+	 * @return The length of the object.
+	 * @throws IOException if the stream can't be read.
+	 */
+	public long write(String id, InputStream in) throws IOException {
+
+		Assert.hasText(id);
+		Assert.notNull(in);
+
+		Row previous = readHeader(id);
+		UUID generation = UUIDs.timeBased();
+
+		int chunkSize = this.chunkSize;
+		int chunks = 0;
+		long length = 0;
+
+		Semaphore permits = new Semaphore(maxChunksInFlight);
+		AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+		boolean headerSent = false;
+
+		try {
+
+			try {
+
+				for (;;) {
+
+					byte[] bytes = new byte[chunkSize];
+					int n = readFully(in, bytes);
+
+					if (n == 0) {
+						break;
+					}
+
+					CRC32 crc = new CRC32();
+					crc.update(bytes, 0, n);
+
+					permits.acquireUninterruptibly();
+					if (failure.get() != null) {
+						permits.release();
+						break;
+					}
+
+					execute(QueryBuilder.insertInto(table.toCql()).value(ID, id).value(GENERATION, generation)
+							.value(CHUNK, chunks).value(DATA, ByteBuffer.wrap(bytes, 0, n)).value(CHECKSUM, crc.getValue()),
+							permits, failure);
+
+					chunks++;
+					length += n;
+
+					if (n < chunkSize) {
+						break;
+					}
+				}
+
+			} finally {
+				// wait for the chunks in flight
+				permits.acquireUninterruptibly(maxChunksInFlight);
+			}
+
+			if (failure.get() != null) {
+				throw translate(failure.get());
+			}
+
+			// a failed header write may still have been applied, so the new chunks are kept from here on
+			headerSent = true;
+
+			template.execute(QueryBuilder.insertInto(table.toCql()).value(ID, id).value(GENERATION, HEADER_GENERATION)
+					.value(CHUNK, HEADER).value(CURRENT_GENERATION, generation).value(LENGTH, length)
+					.value(CHUNK_SIZE, chunkSize));
+
+		} finally {
+			if (!headerSent) {
+				discardChunks(id, generation, chunks);
+			}
+		}
+
+		if (previous != null) {
+			deleteChunks(id, previous.getUUID(CURRENT_GENERATION), 0,
+					getChunkCount(previous.getLong(LENGTH), previous.getInt(CHUNK_SIZE)));
+		}
+
+		return length;
+	}
+
+	/**
+	 * Returns a stream of the object with the given id, or <code>null</code> if there is none. Streams should be closed
+	 * to cancel chunks fetched ahead.
+	 */
+	public LargeObjectInputStream read(String id) {
+
+		Assert.hasText(id);
+
+		Row header = readHeader(id);
+		if (header == null) {
+			return null;
+		}
+
+		return new LargeObjectInputStream(this, id, header.getUUID(CURRENT_GENERATION), header.getLong(LENGTH),
+				header.getInt(CHUNK_SIZE), prefetchChunks);
+	}
+
+	/**
+	 * Returns the length of the object with the given id, or -1 if there is none.
+	 */
+	public long getLength(String id) {
+
+		Row header = readHeader(id);
+		return header == null ? -1 : header.getLong(LENGTH);
+	}
+
+	public boolean exists(String id) {
+		return readHeader(id) != null;
+	}
+
+	/**
+	 * Deletes the object with the given id, if any.
+	 */
+	public void delete(String id) {
+
+		Assert.hasText(id);
+
+		template.execute(QueryBuilder.delete().from(table.toCql()).where(QueryBuilder.eq(ID, id)));
+	}
+
+	protected Row readHeader(String id) {
+
+		Select select = QueryBuilder.select(CURRENT_GENERATION, LENGTH, CHUNK_SIZE).from(table.toCql());
+		select.where(QueryBuilder.eq(ID, id)).and(QueryBuilder.eq(GENERATION, HEADER_GENERATION))
+				.and(QueryBuilder.eq(CHUNK, HEADER));
+
+		ResultSet rs = template.query(select);
+		return rs == null ? null : rs.one();
+	}
+
+	/**
+	 * Fetches the given chunk of the given generation of the given object asynchronously.
+	 */
+	protected ResultSetFuture fetchChunk(String id, UUID generation, int chunk) {
+
+		Select select = QueryBuilder.select(DATA, CHECKSUM).from(table.toCql());
+		select.where(QueryBuilder.eq(ID, id)).and(QueryBuilder.eq(GENERATION, generation))
+				.and(QueryBuilder.eq(CHUNK, chunk));
+
+		return template.queryAsynchronously(select);
+	}
+
+	/**
+	 * Deletes the chunks of an interrupted write, logging rather than throwing if that fails, so that the cause of the
+	 * interruption is what the caller sees.
+	 */
+	protected void discardChunks(String id, UUID generation, int chunks) {
+
+		try {
+			deleteChunks(id, generation, 0, chunks);
+		} catch (RuntimeException e) {
+			log.warn(String.format("could not delete the chunks of interrupted write of large object [%s]", id), e);
+		}
+	}
+
+	/**
+	 * Deletes the given chunks of the given generation of the given object.
+	 */
+	protected void deleteChunks(String id, UUID generation, int from, int to) {
+
+		Semaphore permits = new Semaphore(maxChunksInFlight);
+		AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+
+		try {
+			for (int chunk = from; chunk < to && failure.get() == null; chunk++) {
+
+				permits.acquireUninterruptibly();
+
+				execute(QueryBuilder.delete().from(table.toCql()).where(QueryBuilder.eq(ID, id))
+						.and(QueryBuilder.eq(GENERATION, generation)).and(QueryBuilder.eq(CHUNK, chunk)), permits, failure);
+			}
+		} finally {
+			permits.acquireUninterruptibly(maxChunksInFlight);
+		}
+
+		if (failure.get() != null) {
+			throw translate(failure.get());
+		}
+	}
+
+	/**
+	 * Executes the given write asynchronously, releasing one of the given permits, which the caller acquired, when it
+	 * completed, and recording its failure, if it is the first.
+	 */
+	private void execute(Statement statement, Semaphore permits, AtomicReference<Throwable> failure) {
+
+		ResultSetFuture future;
+		try {
+			future = template.executeAsynchronously(statement);
+		} catch (RuntimeException e) {
+			permits.release();
+			throw e;
+		}
+
+		Futures.addCallback(future, new ReleasingCallback(permits, failure));
+	}
+
+	protected DataAccessException translate(Throwable t) {
+
+		if (t instanceof DataAccessException) {
+			return (DataAccessException) t;
+		}
+
+		DataAccessException translated = t instanceof RuntimeException ? exceptionTranslator
+				.translateExceptionIfPossible((RuntimeException) t) : null;
+
+		return translated != null ? translated : new CassandraUncategorizedDataAccessException(
+				"could not write large object chunk", t);
+	}
+
+	static int getChunkCount(long length, int chunkSize) {
+		return (int) ((length + chunkSize - 1) / chunkSize);
+	}
+
+	/**
+	 * Reads bytes from the given stream until the given array is full or the stream ends.
+	 * 
+	 * @return The number of bytes read.
+	 */
+	private static int readFully(InputStream in, byte[] bytes) throws IOException {
+
+		int read = 0;
+		while (read < bytes.length) {
+
+			int n = in.read(bytes, read, bytes.length - read);
+			if (n < 0) {
+				break;
+			}
+			read += n;
+		}
+
+		return read;
+	}
+
+	/**
+	 * Releases a permit when a write completed, recording the first failure.
+	 */
+	private static class ReleasingCallback implements FutureCallback<ResultSet> {
+
+		private final Semaphore permits;
+		private final AtomicReference<Throwable> failure;
+
+		ReleasingCallback(Semaphore permits, AtomicReference<Throwable> failure) {
+			this.permits = permits;
+			this.failure = failure;
+		}
+
+		@Override
+		public void onSuccess(ResultSet result) {
+			permits.release();
+		}
+
+		@Override
+		public void onFailure(Throwable t) {
+			failure.compareAndSet(null, t);
+			permits.release();
+		}
+	}
+}
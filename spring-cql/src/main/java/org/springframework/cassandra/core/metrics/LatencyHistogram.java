@@ -0,0 +1,148 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.core.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.util.Assert;
+
+/**
+ * Lock-free latency histogram with log-linear buckets in the style of HdrHistogram. Values are recorded in
+ * microseconds; each power-of-two range is divided into 64 linear sub-buckets, so reported percentiles are within about
+ * 1.6% of the recorded value. Values above roughly 19 hours are clamped into the last bucket.
+ */
+public class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 7;
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	private static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT >> 1;
+	private static final int MAX_VALUE_BITS = 36;
+	private static final long MAX_VALUE = (1L << MAX_VALUE_BITS) - 1;
+	private static final int BUCKET_COUNT = indexOf(MAX_VALUE) + 1;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicLong sum = new AtomicLong();
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Records the given latency.
+	 */
+	public void record(long duration, TimeUnit unit) {
+
+		long micros = Math.min(MAX_VALUE, Math.max(0, unit.toMicros(duration)));
+
+		counts.incrementAndGet(indexOf(micros));
+		count.incrementAndGet();
+		sum.addAndGet(micros);
+
+		long current;
+		while (micros > (current = max.get()) && !max.compareAndSet(current, micros)) {}
+	}
+
+	/**
+	 * @return The number of recorded values.
+	 */
+	public long getCount() {
+		return count.get();
+	}
+
+	/**
+	 * @return The largest recorded value in microseconds.
+	 */
+	public long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * @return The mean of the recorded values in microseconds, or zero if none were recorded.
+	 */
+	public double getMean() {
+		long n = count.get();
+		return n == 0 ? 0 : (double) sum.get() / n;
+	}
+
+	/**
+	 * Returns the value in microseconds at or below which the given percentage of recorded values fall. Values recorded
+	 * concurrently with this call may or may not be taken into account.
+	 * 
+	 * @param percentile The percentile, between 0 and 100.
+	 * @return The value at the given percentile, or zero if no values were recorded.
+	 */
+	public long getValueAtPercentile(double percentile) {
+
+		Assert.isTrue(percentile >= 0 && percentile <= 100, "percentile must be between 0 and 100");
+
+		long total = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			total += counts.get(i);
+		}
+
+		if (total == 0) {
+			return 0;
+		}
+
+		long target = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+		long seen = 0;
+
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			seen += counts.get(i);
+			if (seen >= target) {
+				return Math.min(highestEquivalentValue(i), getMax());
+			}
+		}
+
+		return getMax();
+	}
+
+	/**
+	 * Discards all recorded values.
+	 */
+	public void reset() {
+
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			counts.set(i, 0);
+		}
+
+		count.set(0);
+		sum.set(0);
+		max.set(0);
+	}
+
+	static int indexOf(long value) {
+
+		if (value < SUB_BUCKET_COUNT) {
+			return (int) value;
+		}
+
+		int shift = (63 - Long.numberOfLeadingZeros(value)) - (SUB_BUCKET_BITS - 1);
+		return (int) (shift * SUB_BUCKET_HALF_COUNT + (value >>> shift));
+	}
+
+	static long highestEquivalentValue(int index) {
+
+		if (index < SUB_BUCKET_COUNT) {
+			return index;
+		}
+
+		int shift = index / SUB_BUCKET_HALF_COUNT - 1;
+		long mantissa = index - shift * SUB_BUCKET_HALF_COUNT;
+
+		return ((mantissa + 1) << shift) - 1;
+	}
+}
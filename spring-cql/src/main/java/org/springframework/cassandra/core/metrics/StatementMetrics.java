@@ -0,0 +1,129 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.core.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.dao.DataAccessException;
+
+/**
+ * Metrics of a single statement executed from a single {@link StatementSource}: a {@link LatencyHistogram}, the number
+ * of executions and rows returned, and error counts by translated exception type.
+ */
+public class StatementMetrics {
+
+	private final String statement;
+	private final String source;
+
+	private final LatencyHistogram latency = new LatencyHistogram();
+	private final AtomicLong rows = new AtomicLong();
+	private final ConcurrentMap<String, AtomicLong> errors = new ConcurrentHashMap<String, AtomicLong>();
+
+	public StatementMetrics(String statement, String source) {
+		this.statement = statement;
+		this.source = source;
+	}
+
+	void record(long duration, TimeUnit unit, int rowCount, DataAccessException error) {
+
+		latency.record(duration, unit);
+
+		if (error == null) {
+			rows.addAndGet(rowCount);
+			return;
+		}
+
+		String type = error.getClass().getSimpleName();
+		AtomicLong counter = errors.get(type);
+		if (counter == null) {
+			AtomicLong existing = errors.putIfAbsent(type, counter = new AtomicLong());
+			counter = existing == null ? counter : existing;
+		}
+		counter.incrementAndGet();
+	}
+
+	void reset() {
+		latency.reset();
+		rows.set(0);
+		errors.clear();
+	}
+
+	public String getStatement() {
+		return statement;
+	}
+
+	/**
+	 * @return The {@link StatementSource} the statement was executed from, or null.
+	 */
+	public String getSource() {
+		return source;
+	}
+
+	public LatencyHistogram getLatency() {
+		return latency;
+	}
+
+	/**
+	 * @return The number of executions, including failed ones.
+	 */
+	public long getExecutions() {
+		return latency.getCount();
+	}
+
+	/**
+	 * @return The total number of rows returned with the first page of each result.
+	 */
+	public long getRows() {
+		return rows.get();
+	}
+
+	/**
+	 * @return The number of failed executions.
+	 */
+	public long getErrorCount() {
+
+		long count = 0;
+		for (AtomicLong counter : errors.values()) {
+			count += counter.get();
+		}
+		return count;
+	}
+
+	/**
+	 * @return The number of failed executions by simple name of the translated exception type.
+	 */
+	public Map<String, Long> getErrors() {
+
+		Map<String, Long> result = new TreeMap<String, Long>();
+		for (Map.Entry<String, AtomicLong> entry : errors.entrySet()) {
+			result.put(entry.getKey(), entry.getValue().get());
+		}
+		return Collections.unmodifiableMap(result);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("count=%d p50=%dus p99=%dus max=%dus rows=%d errors=%s source=%s statement=%s",
+				getExecutions(), latency.getValueAtPercentile(50), latency.getValueAtPercentile(99), latency.getMax(),
+				getRows(), getErrors(), source, statement);
+	}
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.core.metrics;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * {@link StatementMetricsSink} that keeps {@link StatementMetrics} per statement and {@link StatementSource}, and
+ * forwards each execution to any further sinks registered via {@link #setSinks(List)} for export to an external
+ * metrics system. The number of tracked statements is bounded; once the limit is reached, further statements are
+ * accounted under {@link #OTHER_STATEMENTS}.
+ * <p>
+ * This class is a standard MBean and can be exported as is, for example with Spring's
+ * {@link org.springframework.jmx.export.MBeanExporter}.
+ * 
+ * @see org.springframework.cassandra.core.CqlTemplate#setMetricsSink(StatementMetricsSink)
+ */
+public class StatementMetricsRegistry implements StatementMetricsSink, StatementMetricsRegistryMBean {
+
+	public static final int DEFAULT_MAX_STATEMENTS = 1000;
+
+	public static final String OTHER_STATEMENTS = "<other>";
+
+	private final ConcurrentMap<Key, StatementMetrics> metrics = new ConcurrentHashMap<Key, StatementMetrics>();
+	private final List<StatementMetricsSink> sinks = new CopyOnWriteArrayList<StatementMetricsSink>();
+
+	private volatile int maxStatements = DEFAULT_MAX_STATEMENTS;
+
+	@Override
+	public void record(String statement, String source, long latency, TimeUnit unit, int rows,
+			DataAccessException error) {
+
+		getOrCreate(statement, source).record(latency, unit, rows, error);
+
+		for (StatementMetricsSink sink : sinks) {
+			sink.record(statement, source, latency, unit, rows, error);
+		}
+	}
+
+	protected StatementMetrics getOrCreate(String statement, String source) {
+
+		Key key = new Key(statement, source);
+		StatementMetrics result = metrics.get(key);
+
+		if (result != null) {
+			return result;
+		}
+
+		if (metrics.size() >= maxStatements) {
+			key = new Key(OTHER_STATEMENTS, null);
+			result = metrics.get(key);
+			if (result != null) {
+				return result;
+			}
+		}
+
+		StatementMetrics created = new StatementMetrics(key.statement, key.source);
+		result = metrics.putIfAbsent(key, created);
+
+		return result == null ? created : result;
+	}
+
+	/**
+	 * @return A snapshot of the currently tracked metrics.
+	 */
+	public Collection<StatementMetrics> getMetrics() {
+		return Collections.unmodifiableCollection(new ArrayList<StatementMetrics>(metrics.values()));
+	}
+
+	/**
+	 * @return The metrics of the given statement executed from the given source, or null if none were recorded.
+	 */
+	public StatementMetrics getMetrics(String statement, String source) {
+		return metrics.get(new Key(statement, source));
+	}
+
+	@Override
+	public int getStatementCount() {
+		return metrics.size();
+	}
+
+	@Override
+	public long getExecutions() {
+
+		long executions = 0;
+		for (StatementMetrics m : metrics.values()) {
+			executions += m.getExecutions();
+		}
+		return executions;
+	}
+
+	@Override
+	public long getErrors() {
+
+		long errors = 0;
+		for (StatementMetrics m : metrics.values()) {
+			errors += m.getErrorCount();
+		}
+		return errors;
+	}
+
+	@Override
+	public String[] getSummaries() {
+
+		List<StatementMetrics> list = new ArrayList<StatementMetrics>(metrics.values());
+		Collections.sort(list, new Comparator<StatementMetrics>() {
+
+			@Override
+			public int compare(StatementMetrics left, StatementMetrics right) {
+
+				long l = left.getLatency().getValueAtPercentile(99);
+				long r = right.getLatency().getValueAtPercentile(99);
+
+				return l < r ? 1 : l > r ? -1 : 0;
+			}
+		});
+
+		String[] summaries = new String[list.size()];
+		for (int i = 0; i < summaries.length; i++) {
+			summaries[i] = list.get(i).toString();
+		}
+		return summaries;
+	}
+
+	@Override
+	public long getLatencyAtPercentile(String statement, double percentile) {
+
+		long latency = 0;
+		for (StatementMetrics m : metrics.values()) {
+			if (m.getStatement().equals(statement)) {
+				latency = Math.max(latency, m.getLatency().getValueAtPercentile(percentile));
+			}
+		}
+		return latency;
+	}
+
+	@Override
+	public void reset() {
+		for (StatementMetrics m : metrics.values()) {
+			m.reset();
+		}
+	}
+
+	public int getMaxStatements() {
+		return maxStatements;
+	}
+
+	/**
+	 * Sets the maximum number of statement and source combinations to track. Defaults to
+	 * {@value #DEFAULT_MAX_STATEMENTS}.
+	 */
+	public void setMaxStatements(int maxStatements) {
+		Assert.isTrue(maxStatements > 0, "maxStatements must be positive");
+		this.maxStatements = maxStatements;
+	}
+
+	/**
+	 * Sets further sinks each execution is forwarded to.
+	 */
+	public void setSinks(List<StatementMetricsSink> sinks) {
+
+		this.sinks.clear();
+		if (sinks != null) {
+			this.sinks.addAll(sinks);
+		}
+	}
+
+	public List<StatementMetricsSink> getSinks() {
+		return Collections.unmodifiableList(sinks);
+	}
+
+	private static final class Key {
+
+		final String statement;
+		final String source;
+
+		Key(String statement, String source) {
+			this.statement = statement;
+			this.source = source;
+		}
+
+		@Override
+		public boolean equals(Object that) {
+
+			if (this == that) {
+				return true;
+			}
+			if (!(that instanceof Key)) {
+				return false;
+			}
+
+			Key other = (Key) that;
+			return statement.equals(other.statement) && ObjectUtils.nullSafeEquals(source, other.source);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * statement.hashCode() + ObjectUtils.nullSafeHashCode(source);
+		}
+	}
+}
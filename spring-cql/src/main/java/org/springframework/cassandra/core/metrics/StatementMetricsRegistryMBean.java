@@ -0,0 +1,52 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.core.metrics;
+
+/**
+ * JMX management interface of a {@link StatementMetricsRegistry}. Latencies are reported in microseconds.
+ */
+public interface StatementMetricsRegistryMBean {
+
+	/**
+	 * @return The number of distinct statement and source combinations tracked.
+	 */
+	int getStatementCount();
+
+	/**
+	 * @return The total number of executions of all tracked statements.
+	 */
+	long getExecutions();
+
+	/**
+	 * @return The total number of failed executions of all tracked statements.
+	 */
+	long getErrors();
+
+	/**
+	 * @return One line per tracked statement and source with its counts and latency percentiles, slowest p99 first.
+	 */
+	String[] getSummaries();
+
+	/**
+	 * @return The latency in microseconds at the given percentile across all sources of the given statement.
+	 */
+	long getLatencyAtPercentile(String statement, double percentile);
+
+	/**
+	 * Discards all recorded metrics.
+	 */
+	void reset();
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.core.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.dao.DataAccessException;
+
+/**
+ * Receives a notification for each statement executed by a {@link org.springframework.cassandra.core.CqlTemplate}.
+ * Implementations are invoked on the thread completing the statement, which for asynchronous executions is a driver I/O
+ * thread, so they must be thread-safe and must not block.
+ * 
+ * @see StatementMetricsRegistry
+ */
+public interface StatementMetricsSink {
+
+	/**
+	 * Records one statement execution.
+	 * 
+	 * @param statement The normalized CQL of the statement, or the query string of its prepared statement.
+	 * @param source The {@link StatementSource} that was current when the statement was executed; may be null.
+	 * @param latency The time between submitting the statement and receiving its result.
+	 * @param unit The unit of <code>latency</code>.
+	 * @param rows The number of rows in the first page of the result; zero for writes and failures.
+	 * @param error The translated exception if the statement failed, otherwise null.
+	 */
+	void record(String statement, String source, long latency, TimeUnit unit, int rows, DataAccessException error);
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.core.metrics;
+
+/**
+ * Thread-bound label naming the caller on whose behalf statements are executed, such as an entity operation or a
+ * repository method. Statement metrics are keyed by this label in addition to the statement itself. Sources nest;
+ * {@link #pop(String)} restores the source that was current when the matching {@link #push(String)} was called.
+ * 
+ * <pre>
+ * String previous = StatementSource.push(&quot;PersonRepository.findByLastName&quot;);
+ * try {
+ * 	// execute statements
+ * } finally {
+ * 	StatementSource.pop(previous);
+ * }
+ * </pre>
+ */
+public abstract class StatementSource {
+
+	private static final ThreadLocal<String> CURRENT = new ThreadLocal<String>();
+
+	/**
+	 * @return The current source, or null if none is bound.
+	 */
+	public static String get() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * Binds the given source to the current thread.
+	 * 
+	 * @return The previously bound source, to be passed to {@link #pop(String)}.
+	 */
+	public static String push(String source) {
+
+		String previous = CURRENT.get();
+		CURRENT.set(source);
+		return previous;
+	}
+
+	/**
+	 * Restores the given source, as returned by {@link #push(String)}.
+	 */
+	public static void pop(String previous) {
+
+		if (previous == null) {
+			CURRENT.remove();
+		} else {
+			CURRENT.set(previous);
+		}
+	}
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.core.retry;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.cassandra.support.exception.CassandraAdmissionRejectedException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.util.Assert;
+
+/**
+ * Template-level retry policy for idempotent statements, complementing the driver's
+ * {@link org.springframework.cassandra.core.RetryPolicy retry policies}, which retry immediately and only on
+ * coordinator timeouts. Failed attempts are retried after an exponentially growing delay with full jitter, up to
+ * {@link #getMaxAttempts() maxAttempts} attempts and within the {@link RetryBudget}, as long as the failure
+ * {@link #isRetryable(DataAccessException) is retryable}.
+ * 
+ * @see org.springframework.cassandra.core.CqlTemplate#setBackoffRetryPolicy(BackoffRetryPolicy)
+ */
+public class BackoffRetryPolicy {
+
+	public static final int DEFAULT_MAX_ATTEMPTS = 3;
+	public static final long DEFAULT_INITIAL_DELAY_MILLIS = 10;
+	public static final long DEFAULT_MAX_DELAY_MILLIS = 1000;
+	public static final double DEFAULT_MULTIPLIER = 2;
+
+	private final Random random = new Random();
+
+	private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+	private long initialDelayMillis = DEFAULT_INITIAL_DELAY_MILLIS;
+	private long maxDelayMillis = DEFAULT_MAX_DELAY_MILLIS;
+	private double multiplier = DEFAULT_MULTIPLIER;
+	private RetryBudget budget = new RetryBudget();
+
+	/**
+	 * Records an execution that this policy applies to with the {@link RetryBudget}.
+	 */
+	public void onExecution() {
+		budget.onExecution();
+	}
+
+	/**
+	 * Decides whether to retry after the given failed attempt, withdrawing from the {@link RetryBudget} if so.
+	 * 
+	 * @param attempt The number of the failed attempt, starting with 1.
+	 * @param x The failure, translated.
+	 */
+	public boolean shouldRetry(int attempt, DataAccessException x) {
+		return attempt < maxAttempts && isRetryable(x) && budget.tryRetry();
+	}
+
+	/**
+	 * Returns whether the given failure may be resolved by trying again: any {@link TransientDataAccessException}, such as
+	 * a timeout or too few live replicas, and any {@link DataAccessResourceFailureException}, such as no host being
+	 * available. A {@link CassandraAdmissionRejectedException} is not retryable, since the statement was shed to relieve
+	 * the load a retry would add to.
+	 */
+	protected boolean isRetryable(DataAccessException x) {
+		return !(x instanceof CassandraAdmissionRejectedException)
+				&& (x instanceof TransientDataAccessException || x instanceof DataAccessResourceFailureException);
+	}
+
+	/**
+	 * Returns the delay before the attempt following the given failed attempt: a random value between zero and
+	 * <code>initialDelay * multiplier^(attempt - 1)</code>, capped at <code>maxDelay</code>.
+	 * 
+	 * @return The delay, in nanoseconds.
+	 */
+	public long getDelayNanos(int attempt) {
+
+		double ceiling = Math.min(maxDelayMillis, initialDelayMillis * Math.pow(multiplier, attempt - 1));
+
+		return (long) (random.nextDouble() * TimeUnit.MILLISECONDS.toNanos(1) * ceiling);
+	}
+
+	public int getMaxAttempts() {
+		return maxAttempts;
+	}
+
+	/**
+	 * @param maxAttempts The maximum number of attempts, including the first; must be positive.
+	 */
+	public void setMaxAttempts(int maxAttempts) {
+		Assert.isTrue(maxAttempts > 0, "maxAttempts must be positive");
+		this.maxAttempts = maxAttempts;
+	}
+
+	public long getInitialDelayMillis() {
+		return initialDelayMillis;
+	}
+
+	public void setInitialDelayMillis(long initialDelayMillis) {
+		Assert.isTrue(initialDelayMillis >= 0, "initialDelayMillis must not be negative");
+		this.initialDelayMillis = initialDelayMillis;
+	}
+
+	public long getMaxDelayMillis() {
+		return maxDelayMillis;
+	}
+
+	public void setMaxDelayMillis(long maxDelayMillis) {
+		Assert.isTrue(maxDelayMillis >= 0, "maxDelayMillis must not be negative");
+		this.maxDelayMillis = maxDelayMillis;
+	}
+
+	public double getMultiplier() {
+		return multiplier;
+	}
+
+	public void setMultiplier(double multiplier) {
+		Assert.isTrue(multiplier >= 1, "multiplier must be at least 1");
+		this.multiplier = multiplier;
+	}
+
+	public RetryBudget getBudget() {
+		return budget;
+	}
+
+	public void setBudget(RetryBudget budget) {
+		Assert.notNull(budget);
+		this.budget = budget;
+	}
+}
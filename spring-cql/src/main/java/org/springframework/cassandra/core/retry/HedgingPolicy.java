@@ -0,0 +1,236 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.core.retry;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.cassandra.core.metrics.LatencyHistogram;
+import org.springframework.util.Assert;
+
+/**
+ * Policy for speculative (hedged) execution of idempotent reads. If a read hasn't completed after the
+ * {@link #getPercentile() percentile} of the recent latencies of its statement, the same read is sent again, and the
+ * first successful response wins. Recent latencies are taken from the last completed window of
+ * {@link #getWindowSize() windowSize} executions per statement that weren't won by a hedge; statements are not hedged
+ * until their first window completed. Hedges are bounded per statement by a {@link RetryBudget} of
+ * {@link #getMaxHedgeRatio() maxHedgeRatio} hedges per execution, so hedging adds at most about that fraction of load.
+ * <p>
+ * The hedge is routed like any other execution, by the cluster's load balancing policy. With the usual round robin or
+ * token aware policies, its query plan starts at a different coordinator than the original's.
+ * 
+ * @see org.springframework.cassandra.core.CqlTemplate#setHedgingPolicy(HedgingPolicy)
+ */
+public class HedgingPolicy {
+
+	public static final double DEFAULT_PERCENTILE = 95;
+	public static final long DEFAULT_MIN_DELAY_MILLIS = 1;
+	public static final double DEFAULT_MAX_HEDGE_RATIO = 0.05;
+	public static final int DEFAULT_WINDOW_SIZE = 200;
+	public static final int DEFAULT_MAX_STATEMENTS = 1000;
+
+	private final ConcurrentMap<String, StatementLatency> latencies = new ConcurrentHashMap<String, StatementLatency>();
+	private final AtomicLong hedges = new AtomicLong();
+	private final AtomicLong hedgesWon = new AtomicLong();
+
+	private volatile double percentile = DEFAULT_PERCENTILE;
+	private volatile long minDelayMillis = DEFAULT_MIN_DELAY_MILLIS;
+	private volatile double maxHedgeRatio = DEFAULT_MAX_HEDGE_RATIO;
+	private volatile int windowSize = DEFAULT_WINDOW_SIZE;
+	private volatile int maxStatements = DEFAULT_MAX_STATEMENTS;
+
+	/**
+	 * Begins an execution of the given statement.
+	 * 
+	 * @param statement The statement key.
+	 * @return The delay after which to hedge, in nanoseconds, or -1 if the statement isn't to be hedged yet.
+	 */
+	public long beginExecution(String statement) {
+
+		StatementLatency latency = getLatency(statement);
+
+		if (latency == null) {
+			return -1;
+		}
+
+		latency.budget.onExecution();
+
+		return latency.delayNanos;
+	}
+
+	/**
+	 * Decides whether to send a hedge for the given statement, withdrawing from its budget if so.
+	 */
+	public boolean tryHedge(String statement) {
+
+		StatementLatency latency = getLatency(statement);
+
+		if (latency == null || !latency.budget.tryRetry()) {
+			return false;
+		}
+
+		hedges.incrementAndGet();
+		return true;
+	}
+
+	/**
+	 * Records the latency of an execution of the given statement, from the submission of the original to the first
+	 * successful response. Executions won by the hedge are only counted: their latency is that of the hedge, not of the
+	 * statement, and feeding it back into the window would pull the delay down with every hedge that wins.
+	 * 
+	 * @param hedgeWon Whether the response came from the hedge.
+	 */
+	public void recordLatency(String statement, long latencyNanos, boolean hedgeWon) {
+
+		if (hedgeWon) {
+			hedgesWon.incrementAndGet();
+			return;
+		}
+
+		StatementLatency latency = getLatency(statement);
+
+		if (latency != null) {
+			latency.record(latencyNanos);
+		}
+	}
+
+	private StatementLatency getLatency(String statement) {
+
+		StatementLatency latency = latencies.get(statement);
+
+		if (latency == null && latencies.size() < maxStatements) {
+			latency = new StatementLatency(maxHedgeRatio);
+			StatementLatency existing = latencies.putIfAbsent(statement, latency);
+			latency = existing == null ? latency : existing;
+		}
+
+		return latency;
+	}
+
+	/**
+	 * @return The hedge delay currently in effect for the given statement in microseconds, or -1 if it isn't hedged yet.
+	 */
+	public long getDelayMicros(String statement) {
+
+		StatementLatency latency = latencies.get(statement);
+
+		return latency == null || latency.delayNanos < 0 ? -1 : TimeUnit.NANOSECONDS.toMicros(latency.delayNanos);
+	}
+
+	/**
+	 * @return The number of hedges sent.
+	 */
+	public long getHedgeCount() {
+		return hedges.get();
+	}
+
+	/**
+	 * @return The number of executions whose first successful response came from the hedge.
+	 */
+	public long getHedgesWonCount() {
+		return hedgesWon.get();
+	}
+
+	/**
+	 * Forgets all recorded latencies and budgets.
+	 */
+	public void reset() {
+		latencies.clear();
+	}
+
+	public double getPercentile() {
+		return percentile;
+	}
+
+	public void setPercentile(double percentile) {
+		Assert.isTrue(percentile > 0 && percentile <= 100, "percentile must be between 0 and 100");
+		this.percentile = percentile;
+	}
+
+	public long getMinDelayMillis() {
+		return minDelayMillis;
+	}
+
+	/**
+	 * @param minDelayMillis The minimum delay before hedging, regardless of observed latency.
+	 */
+	public void setMinDelayMillis(long minDelayMillis) {
+		Assert.isTrue(minDelayMillis >= 0, "minDelayMillis must not be negative");
+		this.minDelayMillis = minDelayMillis;
+	}
+
+	public double getMaxHedgeRatio() {
+		return maxHedgeRatio;
+	}
+
+	/**
+	 * @param maxHedgeRatio The maximum number of hedges per execution of a statement. Applies to statements first seen
+	 *          after the change.
+	 */
+	public void setMaxHedgeRatio(double maxHedgeRatio) {
+		Assert.isTrue(maxHedgeRatio >= 0 && maxHedgeRatio <= 1, "maxHedgeRatio must be between 0 and 1");
+		this.maxHedgeRatio = maxHedgeRatio;
+	}
+
+	public int getWindowSize() {
+		return windowSize;
+	}
+
+	public void setWindowSize(int windowSize) {
+		Assert.isTrue(windowSize > 0, "windowSize must be positive");
+		this.windowSize = windowSize;
+	}
+
+	public int getMaxStatements() {
+		return maxStatements;
+	}
+
+	/**
+	 * @param maxStatements The maximum number of statements to track; statements beyond it are not hedged.
+	 */
+	public void setMaxStatements(int maxStatements) {
+		Assert.isTrue(maxStatements > 0, "maxStatements must be positive");
+		this.maxStatements = maxStatements;
+	}
+
+	private class StatementLatency {
+
+		final LatencyHistogram histogram = new LatencyHistogram();
+		final RetryBudget budget;
+		volatile long delayNanos = -1;
+
+		StatementLatency(double maxHedgeRatio) {
+			this.budget = new RetryBudget(maxHedgeRatio, 0, Math.max(1, maxHedgeRatio * windowSize));
+		}
+
+		void record(long latencyNanos) {
+
+			histogram.record(latencyNanos, TimeUnit.NANOSECONDS);
+
+			if (histogram.getCount() >= windowSize) {
+				synchronized (this) {
+					if (histogram.getCount() >= windowSize) {
+						long micros = histogram.getValueAtPercentile(percentile);
+						delayNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(minDelayMillis), TimeUnit.MICROSECONDS.toNanos(micros));
+						histogram.reset();
+					}
+				}
+			}
+		}
+	}
+}
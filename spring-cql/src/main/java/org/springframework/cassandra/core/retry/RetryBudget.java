@@ -0,0 +1,104 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.core.retry;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.util.Assert;
+
+/**
+ * Bounds retries to a fraction of executions so that a degraded cluster isn't additionally loaded with a retry storm.
+ * Each execution deposits {@link #getRatio() ratio} tokens, each retry withdraws one, and a small number of tokens
+ * accrues over time so that a lightly used template can still retry. The balance is capped at
+ * {@link #getMaxBalance() maxBalance}.
+ */
+public class RetryBudget {
+
+	public static final double DEFAULT_RATIO = 0.1;
+	public static final double DEFAULT_MIN_RETRIES_PER_SECOND = 10;
+	public static final double DEFAULT_MAX_BALANCE = 100;
+
+	private final double ratio;
+	private final double minRetriesPerSecond;
+	private final double maxBalance;
+
+	private double balance;
+	private long lastRefill = System.nanoTime();
+
+	public RetryBudget() {
+		this(DEFAULT_RATIO, DEFAULT_MIN_RETRIES_PER_SECOND, DEFAULT_MAX_BALANCE);
+	}
+
+	/**
+	 * @param ratio The number of retries allowed per execution; must not be negative.
+	 * @param minRetriesPerSecond The number of retries allowed per second regardless of executions; must not be negative.
+	 * @param maxBalance The maximum number of retries that can be saved up; must be positive.
+	 */
+	public RetryBudget(double ratio, double minRetriesPerSecond, double maxBalance) {
+
+		Assert.isTrue(ratio >= 0, "ratio must not be negative");
+		Assert.isTrue(minRetriesPerSecond >= 0, "minRetriesPerSecond must not be negative");
+		Assert.isTrue(maxBalance > 0, "maxBalance must be positive");
+
+		this.ratio = ratio;
+		this.minRetriesPerSecond = minRetriesPerSecond;
+		this.maxBalance = maxBalance;
+		this.balance = maxBalance;
+	}
+
+	/**
+	 * Deposits the tokens earned by an execution.
+	 */
+	public synchronized void onExecution() {
+		balance = Math.min(maxBalance, balance + ratio);
+	}
+
+	/**
+	 * Withdraws a token for a retry, if available.
+	 * 
+	 * @return Whether the retry may proceed.
+	 */
+	public synchronized boolean tryRetry() {
+
+		long now = System.nanoTime();
+		balance = Math.min(maxBalance, balance + minRetriesPerSecond * (now - lastRefill) / TimeUnit.SECONDS.toNanos(1));
+		lastRefill = now;
+
+		// tolerate the rounding of repeated fractional deposits
+		if (balance < 1 - 1e-9) {
+			return false;
+		}
+
+		balance = Math.max(0, balance - 1);
+		return true;
+	}
+
+	public synchronized double getBalance() {
+		return balance;
+	}
+
+	public double getRatio() {
+		return ratio;
+	}
+
+	public double getMinRetriesPerSecond() {
+		return minRetriesPerSecond;
+	}
+
+	public double getMaxBalance() {
+		return maxBalance;
+	}
+}
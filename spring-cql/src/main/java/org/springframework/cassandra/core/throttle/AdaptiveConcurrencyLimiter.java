@@ -0,0 +1,212 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.core.throttle;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.util.Assert;
+
+/**
+ * Limits the number of statements in flight, adapting the limit to the observed round trip times using additive
+ * increase and multiplicative decrease. While statements complete within {@link #getLatencyTolerance() tolerance} of
+ * the lowest recently observed round trip time and the limit is being used, the limit grows by about one per round
+ * trip. A timeout, or a round trip time beyond tolerance, multiplies the limit by the {@link #getBackoffRatio() backoff
+ * ratio}, at most once per round trip. This settles the limit near the point beyond which added concurrency only adds
+ * queueing latency.
+ * <p>
+ * Callers {@link #tryAcquire()} before submitting a statement and {@link #release(long, boolean)} exactly once after it
+ * completed.
+ * 
+ * @see org.springframework.cassandra.core.CqlTemplate#setConcurrencyLimiter(AdaptiveConcurrencyLimiter)
+ */
+public class AdaptiveConcurrencyLimiter implements AdaptiveConcurrencyLimiterMBean {
+
+	public static final int DEFAULT_INITIAL_LIMIT = 20;
+	public static final int DEFAULT_MIN_LIMIT = 1;
+	public static final int DEFAULT_MAX_LIMIT = 1000;
+	public static final double DEFAULT_BACKOFF_RATIO = 0.9;
+	public static final double DEFAULT_LATENCY_TOLERANCE = 2.0;
+	public static final int DEFAULT_WINDOW_SIZE = 500;
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final AtomicLong rejected = new AtomicLong();
+
+	private volatile double limit;
+	private volatile int minLimit = DEFAULT_MIN_LIMIT;
+	private volatile int maxLimit = DEFAULT_MAX_LIMIT;
+	private volatile double backoffRatio = DEFAULT_BACKOFF_RATIO;
+	private volatile double latencyTolerance = DEFAULT_LATENCY_TOLERANCE;
+	private final int windowSize;
+
+	private long minRtt = Long.MAX_VALUE;
+	private long windowMinRtt = Long.MAX_VALUE;
+	private int windowSamples;
+	private long lastDecrease;
+
+	public AdaptiveConcurrencyLimiter() {
+		this(DEFAULT_INITIAL_LIMIT);
+	}
+
+	public AdaptiveConcurrencyLimiter(int initialLimit) {
+		this(initialLimit, DEFAULT_WINDOW_SIZE);
+	}
+
+	/**
+	 * @param initialLimit The limit to start with; must be positive.
+	 * @param windowSize The number of samples after which the lowest round trip time is taken from the samples of the
+	 *          last window only, so that the baseline follows lasting changes in cluster latency; must be positive.
+	 */
+	public AdaptiveConcurrencyLimiter(int initialLimit, int windowSize) {
+
+		Assert.isTrue(initialLimit > 0, "initialLimit must be positive");
+		Assert.isTrue(windowSize > 0, "windowSize must be positive");
+
+		this.limit = initialLimit;
+		this.windowSize = windowSize;
+	}
+
+	/**
+	 * Admits a statement if fewer statements than the current limit are in flight.
+	 * 
+	 * @return Whether the statement was admitted, in which case {@link #release(long, boolean)} must be called once it
+	 *         completed.
+	 */
+	public boolean tryAcquire() {
+
+		for (;;) {
+
+			int current = inFlight.get();
+
+			if (current >= (int) limit) {
+				rejected.incrementAndGet();
+				return false;
+			}
+
+			if (inFlight.compareAndSet(current, current + 1)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Releases an admitted statement and adapts the limit.
+	 * 
+	 * @param rttNanos The round trip time of the statement, in nanoseconds.
+	 * @param timedOut Whether the statement failed with a timeout.
+	 */
+	public void release(long rttNanos, boolean timedOut) {
+
+		int current = inFlight.getAndDecrement();
+
+		synchronized (this) {
+
+			if (!timedOut) {
+
+				windowMinRtt = Math.min(windowMinRtt, rttNanos);
+
+				if (++windowSamples >= windowSize || minRtt == Long.MAX_VALUE) {
+					minRtt = windowMinRtt;
+					windowMinRtt = Long.MAX_VALUE;
+					windowSamples = 0;
+				}
+			}
+
+			double newLimit = limit;
+
+			if (timedOut || rttNanos > minRtt * latencyTolerance) {
+
+				long now = System.nanoTime();
+
+				if (now - lastDecrease < Math.min(rttNanos, minRtt)) {
+					return;
+				}
+
+				lastDecrease = now;
+				newLimit = newLimit * backoffRatio;
+
+			} else if (current * 2 >= newLimit) {
+				newLimit = newLimit + 1 / newLimit;
+			}
+
+			limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+		}
+	}
+
+	@Override
+	public int getLimit() {
+		return (int) limit;
+	}
+
+	@Override
+	public int getInFlight() {
+		return inFlight.get();
+	}
+
+	@Override
+	public long getRejectedCount() {
+		return rejected.get();
+	}
+
+	@Override
+	public synchronized long getMinRttMicros() {
+		return minRtt == Long.MAX_VALUE ? -1 : minRtt / 1000;
+	}
+
+	@Override
+	public int getMinLimit() {
+		return minLimit;
+	}
+
+	@Override
+	public void setMinLimit(int minLimit) {
+		Assert.isTrue(minLimit > 0, "minLimit must be positive");
+		this.minLimit = minLimit;
+	}
+
+	@Override
+	public int getMaxLimit() {
+		return maxLimit;
+	}
+
+	@Override
+	public void setMaxLimit(int maxLimit) {
+		Assert.isTrue(maxLimit > 0, "maxLimit must be positive");
+		this.maxLimit = maxLimit;
+	}
+
+	@Override
+	public double getBackoffRatio() {
+		return backoffRatio;
+	}
+
+	@Override
+	public void setBackoffRatio(double backoffRatio) {
+		Assert.isTrue(backoffRatio > 0 && backoffRatio < 1, "backoffRatio must be between 0 and 1");
+		this.backoffRatio = backoffRatio;
+	}
+
+	@Override
+	public double getLatencyTolerance() {
+		return latencyTolerance;
+	}
+
+	@Override
+	public void setLatencyTolerance(double latencyTolerance) {
+		Assert.isTrue(latencyTolerance >= 1, "latencyTolerance must be at least 1");
+		this.latencyTolerance = latencyTolerance;
+	}
+}
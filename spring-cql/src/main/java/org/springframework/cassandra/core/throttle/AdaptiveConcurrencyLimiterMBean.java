@@ -0,0 +1,58 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.core.throttle;
+
+/**
+ * JMX management interface of an {@link AdaptiveConcurrencyLimiter}.
+ */
+public interface AdaptiveConcurrencyLimiterMBean {
+
+	/**
+	 * @return The current concurrency limit.
+	 */
+	int getLimit();
+
+	/**
+	 * @return The number of statements currently in flight.
+	 */
+	int getInFlight();
+
+	/**
+	 * @return The number of statements rejected because the limit was reached.
+	 */
+	long getRejectedCount();
+
+	/**
+	 * @return The lowest round trip time observed in the last completed sample window, in microseconds, or -1 if none.
+	 */
+	long getMinRttMicros();
+
+	int getMinLimit();
+
+	void setMinLimit(int minLimit);
+
+	int getMaxLimit();
+
+	void setMaxLimit(int maxLimit);
+
+	double getBackoffRatio();
+
+	void setBackoffRatio(double backoffRatio);
+
+	double getLatencyTolerance();
+
+	void setLatencyTolerance(double latencyTolerance);
+}
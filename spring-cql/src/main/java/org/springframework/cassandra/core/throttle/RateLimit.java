@@ -0,0 +1,132 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.core.throttle;
+
+import java.util.Locale;
+
+import org.springframework.cassandra.core.cql.OperationType;
+import org.springframework.cassandra.core.cql.StatementInfo;
+import org.springframework.util.StringUtils;
+
+/**
+ * A rate limit on the statements matching a keyspace, table and {@link OperationType}, each of which may be left
+ * unspecified to match any. All statements matching a limit share its budget of operations and, optionally, request
+ * bytes per second.
+ */
+public class RateLimit {
+
+	public static final String ANY = "*";
+
+	private final String keyspace;
+	private final String table;
+	private final OperationType operationType;
+
+	private final TokenBucket operations;
+	private final TokenBucket bytes;
+
+	/**
+	 * @param keyspace The keyspace, or null or {@value #ANY} for any.
+	 * @param table The table, or null or {@value #ANY} for any.
+	 * @param operationType The {@link OperationType}, or null for any.
+	 * @param operationsPerSecond The number of statements per second; zero or less for no limit.
+	 * @param bytesPerSecond The number of request bytes per second; zero or less for no limit.
+	 */
+	public RateLimit(String keyspace, String table, OperationType operationType, double operationsPerSecond,
+			double bytesPerSecond) {
+
+		this.keyspace = normalize(keyspace);
+		this.table = normalize(table);
+		this.operationType = operationType;
+		this.operations = new TokenBucket(operationsPerSecond);
+		this.bytes = new TokenBucket(bytesPerSecond);
+	}
+
+	private static String normalize(String name) {
+		return !StringUtils.hasText(name) || ANY.equals(name) ? null : name.toLowerCase(Locale.ENGLISH);
+	}
+
+	/**
+	 * @param info The statement.
+	 * @param sessionKeyspace The keyspace of the session, used if the statement doesn't name one.
+	 */
+	public boolean matches(StatementInfo info, String sessionKeyspace) {
+
+		if (operationType != null && operationType != info.getOperationType()) {
+			return false;
+		}
+
+		if (keyspace != null) {
+			String actual = info.getKeyspace() == null ? sessionKeyspace : info.getKeyspace();
+			if (actual == null || !keyspace.equalsIgnoreCase(actual)) {
+				return false;
+			}
+		}
+
+		return table == null || table.equalsIgnoreCase(info.getTable());
+	}
+
+	/**
+	 * Takes one operation and the given number of bytes from this limit's budget.
+	 * 
+	 * @return The number of nanoseconds to wait before proceeding.
+	 */
+	public long reserve(long requestBytes) {
+		return Math.max(operations.reserve(1), requestBytes > 0 ? bytes.reserve(requestBytes) : 0);
+	}
+
+	public boolean isFor(String keyspace, String table, OperationType operationType) {
+
+		String ks = normalize(keyspace);
+		String t = normalize(table);
+
+		return (ks == null ? this.keyspace == null : ks.equals(this.keyspace))
+				&& (t == null ? this.table == null : t.equals(this.table)) && this.operationType == operationType;
+	}
+
+	public String getKeyspace() {
+		return keyspace;
+	}
+
+	public String getTable() {
+		return table;
+	}
+
+	public OperationType getOperationType() {
+		return operationType;
+	}
+
+	public double getOperationsPerSecond() {
+		return operations.getRate();
+	}
+
+	public void setOperationsPerSecond(double operationsPerSecond) {
+		operations.setRate(operationsPerSecond);
+	}
+
+	public double getBytesPerSecond() {
+		return bytes.getRate();
+	}
+
+	public void setBytesPerSecond(double bytesPerSecond) {
+		bytes.setRate(bytesPerSecond);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s.%s %s: %s ops/s, %s bytes/s", keyspace == null ? ANY : keyspace, table == null ? ANY
+				: table, operationType == null ? ANY : operationType, getOperationsPerSecond(), getBytesPerSecond());
+	}
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.core.throttle;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.cassandra.core.cql.OperationType;
+import org.springframework.cassandra.core.cql.StatementInfo;
+
+import com.datastax.driver.core.BatchStatement;
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.RegularStatement;
+import com.datastax.driver.core.Statement;
+
+/**
+ * Client-side token-bucket rate limiter for the statements executed by a
+ * {@link org.springframework.cassandra.core.CqlTemplate}. A statement has to satisfy every {@link RateLimit} it matches,
+ * so that, for example, a keyspace-wide write limit and a per-table scan limit can be combined. Byte rates apply to the
+ * estimated size of the request, that is, the bound values or the CQL text.
+ * <p>
+ * Synchronous executions block the calling thread until the budget allows; asynchronous executions are submitted later
+ * without blocking any thread. Limits can be changed at runtime, including through JMX by exporting an instance as a
+ * standard MBean.
+ * 
+ * @see org.springframework.cassandra.core.CqlTemplate#setRateLimiter(StatementRateLimiter)
+ */
+public class StatementRateLimiter implements StatementRateLimiterMBean {
+
+	private final List<RateLimit> limits = new CopyOnWriteArrayList<RateLimit>();
+
+	private final AtomicLong throttled = new AtomicLong();
+	private final AtomicLong throttledNanos = new AtomicLong();
+
+	/**
+	 * Takes the given statement from the budget of every limit it matches.
+	 * 
+	 * @param statement The statement about to be executed.
+	 * @param sessionKeyspace The keyspace of the session, used for statements that don't name one; may be null.
+	 * @return The number of nanoseconds the statement has to be delayed.
+	 */
+	public long reserve(Statement statement, String sessionKeyspace) {
+
+		if (limits.isEmpty()) {
+			return 0;
+		}
+
+		StatementInfo info = StatementInfo.of(statement);
+		long bytes = -1;
+		long delay = 0;
+
+		for (RateLimit limit : limits) {
+
+			if (!limit.matches(info, sessionKeyspace)) {
+				continue;
+			}
+
+			if (bytes < 0) {
+				bytes = limit.getBytesPerSecond() > 0 ? estimateSize(statement) : 0;
+			}
+
+			delay = Math.max(delay, limit.reserve(bytes));
+		}
+
+		if (delay > 0) {
+			throttled.incrementAndGet();
+			throttledNanos.addAndGet(delay);
+		}
+
+		return delay;
+	}
+
+	/**
+	 * Takes the given statement from the budget of every limit it matches, blocking until the budget allows it to
+	 * proceed.
+	 */
+	public void acquire(Statement statement, String sessionKeyspace) {
+
+		long delay = reserve(statement, sessionKeyspace);
+
+		if (delay > 0) {
+			try {
+				TimeUnit.NANOSECONDS.sleep(delay);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Estimates the size of the given statement's request.
+	 */
+	protected long estimateSize(Statement statement) {
+
+		if (statement instanceof BoundStatement) {
+
+			BoundStatement bound = (BoundStatement) statement;
+			long size = 0;
+
+			for (int i = 0; i < bound.preparedStatement().getVariables().size(); i++) {
+				if (bound.isSet(i)) {
+					ByteBuffer value = bound.getBytesUnsafe(i);
+					size += value == null ? 0 : value.remaining();
+				}
+			}
+
+			return size;
+		}
+
+		if (statement instanceof RegularStatement) {
+			return ((RegularStatement) statement).getQueryString().length();
+		}
+
+		if (statement instanceof BatchStatement) {
+
+			long size = 0;
+			for (Statement child : ((BatchStatement) statement).getStatements()) {
+				size += estimateSize(child);
+			}
+			return size;
+		}
+
+		return 0;
+	}
+
+	public List<RateLimit> getRateLimits() {
+		return limits;
+	}
+
+	public void setRateLimits(List<RateLimit> rateLimits) {
+		limits.clear();
+		if (rateLimits != null) {
+			limits.addAll(rateLimits);
+		}
+	}
+
+	public void addRateLimit(RateLimit rateLimit) {
+		limits.add(rateLimit);
+	}
+
+	@Override
+	public synchronized void setLimit(String keyspace, String table, String operationType, double operationsPerSecond,
+			double bytesPerSecond) {
+
+		OperationType type = toOperationType(operationType);
+
+		for (RateLimit limit : limits) {
+			if (limit.isFor(keyspace, table, type)) {
+				limit.setOperationsPerSecond(operationsPerSecond);
+				limit.setBytesPerSecond(bytesPerSecond);
+				return;
+			}
+		}
+
+		limits.add(new RateLimit(keyspace, table, type, operationsPerSecond, bytesPerSecond));
+	}
+
+	@Override
+	public synchronized boolean removeLimit(String keyspace, String table, String operationType) {
+
+		OperationType type = toOperationType(operationType);
+
+		for (RateLimit limit : limits) {
+			if (limit.isFor(keyspace, table, type)) {
+				return limits.remove(limit);
+			}
+		}
+
+		return false;
+	}
+
+	private static OperationType toOperationType(String operationType) {
+		return operationType == null || operationType.trim().length() == 0 || RateLimit.ANY.equals(operationType) ? null
+				: OperationType.valueOf(operationType.trim().toUpperCase(Locale.ENGLISH));
+	}
+
+	@Override
+	public String[] getLimits() {
+
+		String[] result = new String[limits.size()];
+		int i = 0;
+		for (RateLimit limit : limits) {
+			if (i < result.length) {
+				result[i++] = limit.toString();
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public long getThrottledCount() {
+		return throttled.get();
+	}
+
+	@Override
+	public long getThrottledMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(throttledNanos.get());
+	}
+}
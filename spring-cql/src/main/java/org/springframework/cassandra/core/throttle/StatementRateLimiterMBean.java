@@ -0,0 +1,51 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.core.throttle;
+
+/**
+ * JMX management interface of a {@link StatementRateLimiter}. Keyspace and table names may be given as
+ * <code>*</code> to match any; operation types as <code>READ</code>, <code>WRITE</code>, <code>SCAN</code>,
+ * <code>OTHER</code> or <code>*</code>.
+ */
+public interface StatementRateLimiterMBean {
+
+	/**
+	 * Adds a limit, or changes the rates of the existing limit for the given keyspace, table and operation type.
+	 */
+	void setLimit(String keyspace, String table, String operationType, double operationsPerSecond, double bytesPerSecond);
+
+	/**
+	 * Removes the limit for the given keyspace, table and operation type.
+	 * 
+	 * @return Whether such a limit existed.
+	 */
+	boolean removeLimit(String keyspace, String table, String operationType);
+
+	/**
+	 * @return A description of each limit.
+	 */
+	String[] getLimits();
+
+	/**
+	 * @return The number of statements that were delayed.
+	 */
+	long getThrottledCount();
+
+	/**
+	 * @return The total time statements were delayed, in milliseconds.
+	 */
+	long getThrottledMillis();
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.core.throttle;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket refilled continuously at a configurable rate and holding at most one second's worth of tokens.
+ * Acquisitions never fail; instead, {@link #reserve(double)} takes the tokens immediately, possibly going into debt, and
+ * returns how long the caller has to wait for the debt to be repaid. A rate of zero or less means unlimited.
+ */
+public class TokenBucket {
+
+	private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+	private double rate;
+	private double tokens;
+	private long refilled = System.nanoTime();
+
+	/**
+	 * @param rate The number of tokens per second.
+	 */
+	public TokenBucket(double rate) {
+		this.rate = rate;
+		this.tokens = Math.max(0, rate);
+	}
+
+	/**
+	 * Takes the given number of tokens.
+	 * 
+	 * @return The number of nanoseconds to wait before proceeding; zero if the tokens were available.
+	 */
+	public synchronized long reserve(double permits) {
+
+		if (rate <= 0) {
+			return 0;
+		}
+
+		refill();
+
+		tokens -= permits;
+
+		return tokens >= 0 ? 0 : (long) (-tokens / rate * NANOS_PER_SECOND);
+	}
+
+	private void refill() {
+
+		long now = System.nanoTime();
+		tokens = Math.min(rate, tokens + (now - refilled) * rate / NANOS_PER_SECOND);
+		refilled = now;
+	}
+
+	public synchronized double getRate() {
+		return rate;
+	}
+
+	/**
+	 * Changes the rate, keeping the current balance.
+	 */
+	public synchronized void setRate(double rate) {
+
+		if (this.rate > 0) {
+			refill();
+		} else {
+			tokens = Math.max(0, rate);
+			refilled = System.nanoTime();
+		}
+
+		this.rate = rate;
+	}
+}
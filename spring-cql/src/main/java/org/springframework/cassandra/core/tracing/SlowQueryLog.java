@@ -0,0 +1,566 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.core.tracing;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cassandra.core.StatementExecution;
+import org.springframework.cassandra.core.StatementInterceptor;
+import org.springframework.cassandra.core.cql.CqlStringUtils;
+import org.springframework.cassandra.support.exception.CassandraTraceRetrievalException;
+import org.springframework.util.Assert;
+
+import com.datastax.driver.core.BatchStatement;
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.Cluster;
+import com.datastax.driver.core.ColumnDefinitions;
+import com.datastax.driver.core.ProtocolVersion;
+import com.datastax.driver.core.QueryTrace;
+import com.datastax.driver.core.RegularStatement;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.SimpleStatement;
+import com.datastax.driver.core.Statement;
+
+/**
+ * {@link StatementInterceptor} that logs statements exceeding a latency threshold, and runs a sample of statements with
+ * server-side tracing enabled. Retrieving a trace requires further queries against the <code>system_traces</code>
+ * keyspace, so traces are fetched on a background {@link Executor} and kept in a bounded {@link TracedQueryBuffer};
+ * neither logging, rendering bound values nor trace retrieval happens on the thread executing the statement.
+ * <p>
+ * Statements are often shared between threads, so a sampled statement is not modified; instead, a copy with tracing
+ * enabled is executed in its place. Simple, built and bound statements can be copied; batches are not sampled.
+ * <p>
+ * Slow statements are logged at <code>WARN</code> level with their bound values. Values of columns named in
+ * {@link #setRedactedColumns(Set)} are replaced by <code>&lt;redacted&gt;</code>; if {@link #setRedactLiterals(boolean)}
+ * is set, literals in plain CQL statements are replaced by <code>?</code>.
+ * <p>
+ * Register an instance with {@link org.springframework.cassandra.core.CqlTemplate#addStatementInterceptor} and export it
+ * over JMX as a standard MBean to inspect the buffered traces and adjust the threshold and sample rate at runtime.
+ */
+public class SlowQueryLog implements StatementInterceptor, SlowQueryLogMBean, DisposableBean {
+
+	public static final long DEFAULT_THRESHOLD_MILLIS = 500;
+	public static final int DEFAULT_BUFFER_CAPACITY = 100;
+	public static final int DEFAULT_MAX_VALUE_LENGTH = 256;
+
+	private static final Logger log = LoggerFactory.getLogger(SlowQueryLog.class);
+
+	private static final String START = SlowQueryLog.class.getName() + ".start";
+	private static final String TRACED = SlowQueryLog.class.getName() + ".traced";
+
+	private final ThreadLocal<Random> random = new ThreadLocal<Random>() {
+
+		@Override
+		protected Random initialValue() {
+			return new Random();
+		}
+	};
+
+	/**
+	 * Marks bound variables that are not set in a {@link StatementSnapshot}.
+	 */
+	private static final ByteBuffer UNSET = ByteBuffer.allocate(0);
+
+	private final AtomicLong slowQueries = new AtomicLong();
+	private final AtomicLong traces = new AtomicLong();
+	private final AtomicLong failedTraces = new AtomicLong();
+
+	private volatile long thresholdMillis = DEFAULT_THRESHOLD_MILLIS;
+	private volatile double traceSampleRate = 0;
+	private volatile Set<String> redactedColumns = Collections.emptySet();
+	private volatile boolean redactLiterals = false;
+	private volatile int maxValueLength = DEFAULT_MAX_VALUE_LENGTH;
+
+	private volatile TracedQueryBuffer buffer = new TracedQueryBuffer(DEFAULT_BUFFER_CAPACITY);
+	private volatile Executor executor;
+	private ExecutorService ownExecutor;
+
+	@Override
+	public void beforeExecution(StatementExecution execution) {
+
+		execution.setAttribute(START, System.nanoTime());
+
+		double rate = traceSampleRate;
+		Statement statement = execution.getStatement();
+
+		if (rate > 0 && !statement.isTracing() && random.get().nextDouble() < rate) {
+
+			Statement traced = copy(statement, getProtocolVersion(execution.getSession()));
+
+			if (traced != null) {
+				traced.enableTracing();
+				execution.setStatement(traced);
+				execution.setAttribute(TRACED, Boolean.TRUE);
+			}
+		}
+	}
+
+	/**
+	 * Copies the given statement, so that tracing can be enabled for a single execution of it.
+	 * 
+	 * @return The copy, or null if statements of its type can't be copied.
+	 */
+	protected Statement copy(Statement statement, ProtocolVersion protocolVersion) {
+
+		Statement copy;
+
+		if (statement instanceof BoundStatement) {
+
+			BoundStatement bound = (BoundStatement) statement;
+			BoundStatement boundCopy = new BoundStatement(bound.preparedStatement());
+
+			for (int i = 0; i < bound.preparedStatement().getVariables().size(); i++) {
+				if (bound.isSet(i)) {
+					boundCopy.setBytesUnsafe(i, bound.getBytesUnsafe(i));
+				}
+			}
+
+			copy = boundCopy;
+
+		} else if (statement instanceof RegularStatement) {
+
+			RegularStatement regular = (RegularStatement) statement;
+			String cql = regular.getQueryString();
+
+			// serialized values are bound as blobs, whose serialized form is the value itself
+			ByteBuffer[] values = regular.hasValues() ? regular.getValues(protocolVersion) : null;
+			SimpleStatement simpleCopy = values == null ? new SimpleStatement(cql) : new SimpleStatement(cql,
+					(Object[]) values);
+
+			simpleCopy.setKeyspace(regular.getKeyspace());
+			if (regular.getRoutingKey() != null) {
+				simpleCopy.setRoutingKey(regular.getRoutingKey());
+			}
+
+			copy = simpleCopy;
+
+		} else {
+			return null;
+		}
+
+		if (statement.getConsistencyLevel() != null) {
+			copy.setConsistencyLevel(statement.getConsistencyLevel());
+		}
+		if (statement.getSerialConsistencyLevel() != null) {
+			copy.setSerialConsistencyLevel(statement.getSerialConsistencyLevel());
+		}
+		copy.setRetryPolicy(statement.getRetryPolicy());
+		copy.setFetchSize(statement.getFetchSize());
+		copy.setDefaultTimestamp(statement.getDefaultTimestamp());
+
+		return copy;
+	}
+
+	@Override
+	public void afterExecution(StatementExecution execution) {
+		complete(execution);
+	}
+
+	@Override
+	public void onAsyncCompletion(StatementExecution execution) {
+		complete(execution);
+	}
+
+	protected void complete(StatementExecution execution) {
+
+		Long start = (Long) execution.getAttribute(START);
+		if (start == null) {
+			return;
+		}
+
+		long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+		boolean slow = latencyMicros > TimeUnit.MILLISECONDS.toMicros(thresholdMillis);
+		boolean traced = execution.getAttribute(TRACED) != null;
+
+		ResultSet rs = execution.getResultSet();
+		final QueryTrace trace = traced && rs != null ? rs.getExecutionInfo().getQueryTrace() : null;
+
+		if (!slow && trace == null) {
+			return;
+		}
+
+		if (slow) {
+			slowQueries.incrementAndGet();
+		}
+
+		// values are captured here, but only rendered on the executor
+		final StatementSnapshot snapshot = snapshot(execution.getStatement(), getProtocolVersion(execution.getSession()));
+		final long latency = latencyMicros;
+		final boolean wasSlow = slow;
+		final Throwable error = execution.getError();
+
+		try {
+			getExecutor().execute(new Runnable() {
+
+				@Override
+				public void run() {
+
+					String description = describe(snapshot);
+
+					if (wasSlow) {
+						log.warn("slow query took {}us (threshold {}ms){}: {}", latency, thresholdMillis, error == null ? ""
+								: " and failed with " + error, description);
+					}
+
+					if (trace != null) {
+						fetchTrace(trace, description, latency, wasSlow);
+					}
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			if (trace != null) {
+				failedTraces.incrementAndGet();
+			}
+		}
+	}
+
+	protected void fetchTrace(QueryTrace trace, String description, long latencyMicros, boolean slow) {
+
+		try {
+
+			List<String> events = new ArrayList<String>();
+			for (QueryTrace.Event event : trace.getEvents()) {
+				events.add(String.format("+%dus %s [%s] %s", event.getSourceElapsedMicros(), event.getSource(),
+						event.getThreadName(), event.getDescription()));
+			}
+
+			buffer.add(new TracedQuery(description, latencyMicros, slow, trace.getTraceId(), trace.getCoordinator(), trace
+					.getDurationMicros(), events));
+			traces.incrementAndGet();
+
+		} catch (RuntimeException e) {
+
+			failedTraces.incrementAndGet();
+
+			if (log.isDebugEnabled()) {
+				log.debug("could not retrieve trace " + trace.getTraceId(), new CassandraTraceRetrievalException(
+						e.getMessage(), e));
+			}
+		}
+	}
+
+	/**
+	 * Renders the given statement for logging, applying redactions.
+	 */
+	protected String describe(Statement statement) {
+		return describe(snapshot(statement, ProtocolVersion.NEWEST_SUPPORTED));
+	}
+
+	/**
+	 * Captures what is needed to describe the given statement later, without deserializing its values, so that the
+	 * statement may be reused once its execution completed.
+	 */
+	protected StatementSnapshot snapshot(Statement statement, ProtocolVersion protocolVersion) {
+
+		if (statement instanceof BoundStatement) {
+
+			BoundStatement bound = (BoundStatement) statement;
+			ColumnDefinitions variables = bound.preparedStatement().getVariables();
+			ByteBuffer[] values = new ByteBuffer[variables.size()];
+
+			for (int i = 0; i < values.length; i++) {
+				values[i] = bound.isSet(i) ? bound.getBytesUnsafe(i) : UNSET;
+			}
+
+			return new StatementSnapshot(bound.preparedStatement().getQueryString(), true, variables, values,
+					protocolVersion);
+		}
+
+		if (statement instanceof RegularStatement) {
+			return new StatementSnapshot(((RegularStatement) statement).getQueryString(), true, null, null, protocolVersion);
+		}
+
+		if (statement instanceof BatchStatement) {
+			return new StatementSnapshot("BATCH of " + ((BatchStatement) statement).getStatements().size() + " statements",
+					false, null, null, protocolVersion);
+		}
+
+		return new StatementSnapshot(statement.toString(), false, null, null, protocolVersion);
+	}
+
+	/**
+	 * Renders the given snapshot of a statement for logging, applying redactions.
+	 */
+	protected String describe(StatementSnapshot snapshot) {
+
+		if (snapshot.variables == null) {
+			return redactLiterals && snapshot.query ? CqlStringUtils.normalize(snapshot.text) : snapshot.text;
+		}
+
+		StringBuilder s = new StringBuilder(snapshot.text).append(" [");
+		Set<String> redacted = redactedColumns;
+
+		for (int i = 0; i < snapshot.values.length; i++) {
+
+			if (i > 0) {
+				s.append(", ");
+			}
+
+			String name = snapshot.variables.getName(i);
+			s.append(name).append('=');
+
+			if (redacted.contains(name.toLowerCase(Locale.ENGLISH))) {
+				s.append("<redacted>");
+			} else if (snapshot.values[i] == UNSET) {
+				s.append("<unset>");
+			} else if (snapshot.values[i] == null) {
+				s.append("null");
+			} else {
+				s.append(format(snapshot, i));
+			}
+		}
+
+		return s.append(']').toString();
+	}
+
+	private String format(StatementSnapshot snapshot, int i) {
+
+		try {
+			Object value = snapshot.variables.getType(i).deserialize(snapshot.values[i], snapshot.protocolVersion);
+			return truncate(String.valueOf(value), maxValueLength);
+		} catch (RuntimeException e) {
+			return "<" + snapshot.values[i].remaining() + " bytes>";
+		}
+	}
+
+	/**
+	 * @return The protocol version negotiated by the given session's cluster, with which bound values are serialized.
+	 */
+	protected static ProtocolVersion getProtocolVersion(Session session) {
+
+		Cluster cluster = session == null ? null : session.getCluster();
+		if (cluster == null) {
+			return ProtocolVersion.NEWEST_SUPPORTED;
+		}
+
+		ProtocolVersion version = cluster.getConfiguration().getProtocolOptions().getProtocolVersionEnum();
+		return version == null ? ProtocolVersion.NEWEST_SUPPORTED : version;
+	}
+
+	private static String truncate(String s, int max) {
+		return s.length() <= max ? s : s.substring(0, max) + "...";
+	}
+
+	protected Executor getExecutor() {
+
+		Executor executor = this.executor;
+
+		if (executor == null) {
+			synchronized (this) {
+				executor = this.executor;
+				if (executor == null) {
+					ownExecutor = createDefaultExecutor();
+					executor = ownExecutor;
+					this.executor = executor;
+				}
+			}
+		}
+
+		return executor;
+	}
+
+	/**
+	 * Creates the executor used when none was set: a single daemon thread with a bounded queue, rejecting work once the
+	 * queue is full.
+	 */
+	protected ExecutorService createDefaultExecutor() {
+
+		return new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(1024),
+				new ThreadFactory() {
+
+					@Override
+					public Thread newThread(Runnable r) {
+
+						Thread thread = new Thread(r, "slow-query-log");
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+	}
+
+	@Override
+	public void destroy() {
+		if (ownExecutor != null) {
+			ownExecutor.shutdown();
+		}
+	}
+
+	/**
+	 * Sets the {@link Executor} slow statements are logged and traces are retrieved on. Defaults to a single daemon
+	 * thread.
+	 */
+	public synchronized void setExecutor(Executor executor) {
+		Assert.notNull(executor);
+		this.executor = executor;
+	}
+
+	@Override
+	public long getThresholdMillis() {
+		return thresholdMillis;
+	}
+
+	/**
+	 * Sets the latency above which statements are logged. Defaults to {@value #DEFAULT_THRESHOLD_MILLIS}.
+	 */
+	@Override
+	public void setThresholdMillis(long thresholdMillis) {
+		Assert.isTrue(thresholdMillis >= 0, "thresholdMillis must not be negative");
+		this.thresholdMillis = thresholdMillis;
+	}
+
+	@Override
+	public double getTraceSampleRate() {
+		return traceSampleRate;
+	}
+
+	/**
+	 * Sets the fraction of statements, between 0 and 1, to execute with tracing enabled. Defaults to 0.
+	 */
+	@Override
+	public void setTraceSampleRate(double traceSampleRate) {
+		Assert.isTrue(traceSampleRate >= 0 && traceSampleRate <= 1, "traceSampleRate must be between 0 and 1");
+		this.traceSampleRate = traceSampleRate;
+	}
+
+	public Set<String> getRedactedColumns() {
+		return redactedColumns;
+	}
+
+	/**
+	 * Sets the names of bound variables whose values are not logged, compared case-insensitively.
+	 */
+	public void setRedactedColumns(Set<String> redactedColumns) {
+
+		Set<String> names = new HashSet<String>();
+		if (redactedColumns != null) {
+			for (String name : redactedColumns) {
+				names.add(name.toLowerCase(Locale.ENGLISH));
+			}
+		}
+
+		this.redactedColumns = Collections.unmodifiableSet(names);
+	}
+
+	public boolean isRedactLiterals() {
+		return redactLiterals;
+	}
+
+	/**
+	 * Sets whether to replace literals in plain CQL statements by <code>?</code> when logging. Defaults to false.
+	 */
+	public void setRedactLiterals(boolean redactLiterals) {
+		this.redactLiterals = redactLiterals;
+	}
+
+	public int getMaxValueLength() {
+		return maxValueLength;
+	}
+
+	/**
+	 * Sets the length at which logged bound values are truncated. Defaults to {@value #DEFAULT_MAX_VALUE_LENGTH}.
+	 */
+	public void setMaxValueLength(int maxValueLength) {
+		Assert.isTrue(maxValueLength > 0, "maxValueLength must be positive");
+		this.maxValueLength = maxValueLength;
+	}
+
+	/**
+	 * Sets the number of traces to keep. Defaults to {@value #DEFAULT_BUFFER_CAPACITY}.
+	 */
+	public void setBufferCapacity(int capacity) {
+		this.buffer = new TracedQueryBuffer(capacity);
+	}
+
+	/**
+	 * @return The buffered traces, oldest first.
+	 */
+	public List<TracedQuery> getTraces() {
+		return buffer.getAll();
+	}
+
+	@Override
+	public long getSlowQueryCount() {
+		return slowQueries.get();
+	}
+
+	@Override
+	public long getTraceCount() {
+		return traces.get();
+	}
+
+	@Override
+	public long getFailedTraceCount() {
+		return failedTraces.get();
+	}
+
+	@Override
+	public String[] getRecentTraces() {
+
+		List<TracedQuery> all = buffer.getAll();
+		String[] result = new String[all.size()];
+
+		for (int i = 0; i < result.length; i++) {
+			result[i] = all.get(all.size() - 1 - i).toString();
+		}
+
+		return result;
+	}
+
+	@Override
+	public void clearTraces() {
+		buffer.clear();
+	}
+
+	/**
+	 * The query string, or another description, and the serialized bound values of an executed statement.
+	 */
+	protected static class StatementSnapshot {
+
+		final String text;
+		final boolean query;
+		final ColumnDefinitions variables;
+		final ByteBuffer[] values;
+		final ProtocolVersion protocolVersion;
+
+		StatementSnapshot(String text, boolean query, ColumnDefinitions variables, ByteBuffer[] values,
+				ProtocolVersion protocolVersion) {
+			this.text = text;
+			this.query = query;
+			this.variables = variables;
+			this.values = values;
+			this.protocolVersion = protocolVersion;
+		}
+	}
+}
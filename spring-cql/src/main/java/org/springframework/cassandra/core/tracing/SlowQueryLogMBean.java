@@ -0,0 +1,55 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.core.tracing;
+
+/**
+ * JMX management interface of a {@link SlowQueryLog}.
+ */
+public interface SlowQueryLogMBean {
+
+	long getThresholdMillis();
+
+	void setThresholdMillis(long thresholdMillis);
+
+	double getTraceSampleRate();
+
+	void setTraceSampleRate(double traceSampleRate);
+
+	/**
+	 * @return The number of statements that exceeded the threshold.
+	 */
+	long getSlowQueryCount();
+
+	/**
+	 * @return The number of traces retrieved.
+	 */
+	long getTraceCount();
+
+	/**
+	 * @return The number of traces that could not be retrieved or were dropped because retrieval was backlogged.
+	 */
+	long getFailedTraceCount();
+
+	/**
+	 * @return The buffered traces, most recent first.
+	 */
+	String[] getRecentTraces();
+
+	/**
+	 * Discards the buffered traces.
+	 */
+	void clearTraces();
+}
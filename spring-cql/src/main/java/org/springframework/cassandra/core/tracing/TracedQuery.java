@@ -0,0 +1,97 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.core.tracing;
+
+import java.net.InetAddress;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Immutable record of a statement executed with tracing enabled, together with the server-side trace events
+ * retrieved for it.
+ */
+public class TracedQuery {
+
+	private final String statement;
+	private final long latencyMicros;
+	private final boolean slow;
+	private final UUID traceId;
+	private final InetAddress coordinator;
+	private final int durationMicros;
+	private final List<String> events;
+
+	public TracedQuery(String statement, long latencyMicros, boolean slow, UUID traceId, InetAddress coordinator,
+			int durationMicros, List<String> events) {
+
+		this.statement = statement;
+		this.latencyMicros = latencyMicros;
+		this.slow = slow;
+		this.traceId = traceId;
+		this.coordinator = coordinator;
+		this.durationMicros = durationMicros;
+		this.events = Collections.unmodifiableList(events);
+	}
+
+	/**
+	 * @return The statement as logged, with redactions applied.
+	 */
+	public String getStatement() {
+		return statement;
+	}
+
+	/**
+	 * @return The latency observed by the client in microseconds.
+	 */
+	public long getLatencyMicros() {
+		return latencyMicros;
+	}
+
+	/**
+	 * @return Whether the latency exceeded the slow query threshold.
+	 */
+	public boolean isSlow() {
+		return slow;
+	}
+
+	public UUID getTraceId() {
+		return traceId;
+	}
+
+	public InetAddress getCoordinator() {
+		return coordinator;
+	}
+
+	/**
+	 * @return The duration of the request as measured by the coordinator in microseconds.
+	 */
+	public int getDurationMicros() {
+		return durationMicros;
+	}
+
+	/**
+	 * @return The trace events, each rendered as elapsed time, source, thread and description.
+	 */
+	public List<String> getEvents() {
+		return events;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s latency=%dus coordinator=%s duration=%dus trace=%s statement=%s events=%s",
+				slow ? "SLOW" : "sampled", latencyMicros, coordinator, durationMicros, traceId, statement, events);
+	}
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.core.tracing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.springframework.util.Assert;
+
+/**
+ * Lock-free, fixed-capacity ring buffer of the most recently added {@link TracedQuery}s. Once full, each addition
+ * overwrites the oldest entry.
+ */
+public class TracedQueryBuffer {
+
+	private final AtomicReferenceArray<TracedQuery> slots;
+	private final AtomicLong next = new AtomicLong();
+
+	public TracedQueryBuffer(int capacity) {
+
+		Assert.isTrue(capacity > 0, "capacity must be positive");
+		this.slots = new AtomicReferenceArray<TracedQuery>(capacity);
+	}
+
+	public void add(TracedQuery query) {
+		slots.set((int) (next.getAndIncrement() % slots.length()), query);
+	}
+
+	/**
+	 * @return The buffered queries, oldest first.
+	 */
+	public List<TracedQuery> getAll() {
+
+		long end = next.get();
+		long start = Math.max(0, end - slots.length());
+
+		List<TracedQuery> result = new ArrayList<TracedQuery>((int) (end - start));
+		for (long i = start; i < end; i++) {
+			TracedQuery query = slots.get((int) (i % slots.length()));
+			if (query != null) {
+				result.add(query);
+			}
+		}
+		return result;
+	}
+
+	public int getCapacity() {
+		return slots.length();
+	}
+
+	public void clear() {
+		for (int i = 0; i < slots.length(); i++) {
+			slots.set(i, null);
+		}
+	}
+}
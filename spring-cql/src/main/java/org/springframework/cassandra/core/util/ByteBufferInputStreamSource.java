@@ -0,0 +1,60 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.core.util;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.util.Assert;
+
+/**
+ * {@link InputStreamSource} whose streams read a {@link ByteBuffer} without copying it, for instance a blob column
+ * value.
+ */
+public class ByteBufferInputStreamSource implements InputStreamSource {
+
+	private final ByteBuffer buffer;
+
+	public ByteBufferInputStreamSource(ByteBuffer buffer) {
+
+		Assert.notNull(buffer);
+
+		this.buffer = buffer;
+	}
+
+	/**
+	 * Returns a new stream of the remaining bytes of the buffer.
+	 */
+	@Override
+	public InputStream getInputStream() {
+		return new ByteBufferInputStream(buffer);
+	}
+
+	/**
+	 * Returns a read-only view of the buffer.
+	 */
+	public ByteBuffer getByteBuffer() {
+		return buffer.asReadOnlyBuffer();
+	}
+
+	/**
+	 * Returns the number of bytes the streams read.
+	 */
+	public int size() {
+		return buffer.remaining();
+	}
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.support.exception;
+
+import org.springframework.dao.TransientDataAccessResourceException;
+
+/**
+ * Spring data access exception for a statement that was not admitted because the number of statements in flight
+ * reached the current concurrency limit.
+ */
+public class CassandraAdmissionRejectedException extends TransientDataAccessResourceException {
+
+	private static final long serialVersionUID = 7325542150432837185L;
+
+	private int limit;
+
+	public CassandraAdmissionRejectedException(int limit, String msg) {
+		super(msg);
+		this.limit = limit;
+	}
+
+	/**
+	 * @return The concurrency limit at the time the statement was rejected.
+	 */
+	public int getLimit() {
+		return limit;
+	}
+}
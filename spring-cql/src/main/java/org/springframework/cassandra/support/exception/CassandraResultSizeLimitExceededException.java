@@ -0,0 +1,52 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.support.exception;
+
+import org.springframework.dao.DataRetrievalFailureException;
+
+/**
+ * Thrown when a query returns more rows or more estimated bytes than the configured limit allows.
+ * 
+ * @see org.springframework.cassandra.core.QueryOptions#setMaxRows(Integer)
+ * @see org.springframework.cassandra.core.QueryOptions#setMaxResultBytes(Long)
+ */
+public class CassandraResultSizeLimitExceededException extends DataRetrievalFailureException {
+
+	private static final long serialVersionUID = -6046305432707766389L;
+
+	private int maxRows;
+	private long maxResultBytes;
+
+	public CassandraResultSizeLimitExceededException(String msg, int maxRows, long maxResultBytes) {
+		super(msg);
+		this.maxRows = maxRows;
+		this.maxResultBytes = maxResultBytes;
+	}
+
+	/**
+	 * @return The row limit in effect, or 0 if rows were not limited.
+	 */
+	public int getMaxRows() {
+		return maxRows;
+	}
+
+	/**
+	 * @return The estimated byte limit in effect, or 0 if bytes were not limited.
+	 */
+	public long getMaxResultBytes() {
+		return maxResultBytes;
+	}
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright 2013-2014 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.test.unit.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.cassandra.core.AsynchronousQueryListener;
+import org.springframework.cassandra.core.CqlTemplate;
+import org.springframework.cassandra.core.InlineListener;
+import org.springframework.cassandra.core.SettableResultSetFuture;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.Statement;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CqlTemplateCallbackExecutorTest {
+
+	@Mock
+	private Session session;
+
+	private CqlTemplate template;
+
+	private SettableResultSetFuture future = new SettableResultSetFuture();
+
+	private List<Runnable> queued = new ArrayList<Runnable>();
+
+	private Executor queueing = new Executor() {
+
+		@Override
+		public void execute(Runnable command) {
+			queued.add(command);
+		}
+	};
+
+	@Before
+	public void setup() {
+
+		template = new CqlTemplate(session);
+
+		given(session.executeAsync(any(Statement.class))).willReturn(future);
+		given(session.execute(any(Statement.class))).willReturn(mock(ResultSet.class));
+	}
+
+	@Test
+	public void runsListenersDirectlyByDefault() {
+
+		final AtomicReference<Thread> thread = new AtomicReference<Thread>();
+
+		template.executeAsynchronously("INSERT INTO t (id) VALUES (1)", new Runnable() {
+
+			@Override
+			public void run() {
+				thread.set(Thread.currentThread());
+			}
+		});
+		future.set(mock(ResultSet.class));
+
+		assertSame(Thread.currentThread(), thread.get());
+	}
+
+	@Test
+	public void handsListenersToCallbackExecutor() {
+
+		template.setCallbackExecutor(queueing);
+
+		final List<ResultSetFuture> completed = new ArrayList<ResultSetFuture>();
+
+		template.queryAsynchronously("SELECT * FROM t WHERE id = 1", new AsynchronousQueryListener() {
+
+			@Override
+			public void onQueryComplete(ResultSetFuture rsf) {
+				completed.add(rsf);
+			}
+		});
+		future.set(mock(ResultSet.class));
+
+		assertTrue(completed.isEmpty());
+		assertEquals(1, queued.size());
+
+		queued.get(0).run();
+
+		assertEquals(1, completed.size());
+	}
+
+	@Test
+	public void runsInlineListenersDirectly() {
+
+		template.setCallbackExecutor(queueing);
+
+		InlineRunnable listener = new InlineRunnable();
+		template.executeAsynchronously("INSERT INTO t (id) VALUES (1)", listener);
+		future.set(mock(ResultSet.class));
+
+		assertTrue(queued.isEmpty());
+		assertEquals(1, listener.runs);
+	}
+
+	@Test
+	public void runsRejectedListenersDirectly() {
+
+		template.setCallbackExecutor(new Executor() {
+
+			@Override
+			public void execute(Runnable command) {
+				throw new RejectedExecutionException();
+			}
+		});
+
+		final AtomicReference<Thread> thread = new AtomicReference<Thread>();
+
+		template.executeAsynchronously("INSERT INTO t (id) VALUES (1)", new Runnable() {
+
+			@Override
+			public void run() {
+				thread.set(Thread.currentThread());
+			}
+		});
+		future.set(mock(ResultSet.class));
+
+		assertSame(Thread.currentThread(), thread.get());
+	}
+
+	@Test
+	public void rejectsBlockingOnIoThreadIfConfigured() throws Exception {
+
+		template.setRejectBlockingOnIoThread(true);
+
+		final AtomicReference<Exception> failure = new AtomicReference<Exception>();
+
+		Thread io = new Thread(new Runnable() {
+
+			@Override
+			public void run() {
+				try {
+					template.execute("INSERT INTO t (id) VALUES (1)");
+				} catch (Exception e) {
+					failure.set(e);
+				}
+			}
+		}, "cluster1-nio-worker-0");
+		io.start();
+		io.join();
+
+		assertTrue(failure.get() instanceof InvalidDataAccessApiUsageException);
+
+		template.execute("INSERT INTO t (id) VALUES (1)");
+	}
+
+	@Test
+	public void warnsAboutBlockingOnIoThreadByDefault() throws Exception {
+
+		final AtomicReference<Exception> failure = new AtomicReference<Exception>();
+
+		Thread io = new Thread(new Runnable() {
+
+			@Override
+			public void run() {
+				try {
+					template.execute("INSERT INTO t (id) VALUES (1)");
+				} catch (Exception e) {
+					failure.set(e);
+				}
+			}
+		}, "nioEventLoopGroup-2-1");
+		io.start();
+		io.join();
+
+		if (failure.get() != null) {
+			fail(failure.get().toString());
+		}
+	}
+
+	@Test
+	public void shutsDownCreatedSchedulerOnDestroy() {
+
+		ScheduledExecutorService scheduler = template.getScheduler();
+
+		template.destroy();
+
+		assertTrue(scheduler.isShutdown());
+	}
+
+	@Test
+	public void leavesSetSchedulerRunningOnDestroy() {
+
+		ScheduledExecutorService created = template.getScheduler();
+		ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+		try {
+			template.setScheduler(scheduler);
+			template.destroy();
+
+			assertTrue(created.isShutdown());
+			assertFalse(scheduler.isShutdown());
+			assertSame(scheduler, template.getScheduler());
+		} finally {
+			scheduler.shutdown();
+		}
+	}
+
+	static class InlineRunnable implements Runnable, InlineListener {
+
+		int runs;
+
+		@Override
+		public void run() {
+			runs++;
+		}
+	}
+}
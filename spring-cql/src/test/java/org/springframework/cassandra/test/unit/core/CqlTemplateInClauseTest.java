@@ -0,0 +1,163 @@
+/*
+ * Copyright 2013-2014 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.test.unit.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+import org.springframework.cassandra.core.CqlTemplate;
+import org.springframework.cassandra.core.SettableResultSetFuture;
+
+import com.datastax.driver.core.ProtocolVersion;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.SimpleStatement;
+import com.datastax.driver.core.Statement;
+import com.datastax.driver.core.querybuilder.QueryBuilder;
+import com.datastax.driver.core.querybuilder.Select;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CqlTemplateInClauseTest {
+
+	@Mock
+	private Session session;
+
+	private CqlTemplate template;
+
+	private List<Row> rows = new ArrayList<Row>();
+
+	@Before
+	public void setup() {
+
+		template = new CqlTemplate(session) {
+
+			@Override
+			protected boolean isPartitionKeyColumn(Session s, String keyspace, String table, String column) {
+				return "t".equals(table) && "id".equals(column);
+			}
+		};
+		template.setInClauseChunkSize(2);
+
+		given(session.executeAsync(any(Statement.class))).willAnswer(new Answer<ResultSetFuture>() {
+
+			@Override
+			public ResultSetFuture answer(InvocationOnMock invocation) {
+
+				Row row = mock(Row.class);
+				rows.add(row);
+
+				ResultSet rs = mock(ResultSet.class);
+				given(rs.all()).willReturn(Arrays.asList(row));
+
+				SettableResultSetFuture future = new SettableResultSetFuture();
+				future.set(rs);
+				return future;
+			}
+		});
+	}
+
+	@Test
+	public void splitsInClauseIntoConcurrentChunks() {
+
+		ResultSet rs = template.query("SELECT * FROM t WHERE id IN (1, 2, 3, 4, 5)");
+
+		ArgumentCaptor<Statement> statements = ArgumentCaptor.forClass(Statement.class);
+		verify(session, times(3)).executeAsync(statements.capture());
+
+		assertEquals("SELECT * FROM t WHERE id IN (1, 2)", cql(statements.getAllValues().get(0)));
+		assertEquals("SELECT * FROM t WHERE id IN (3, 4)", cql(statements.getAllValues().get(1)));
+		assertEquals("SELECT * FROM t WHERE id IN (5)", cql(statements.getAllValues().get(2)));
+
+		assertEquals(rows, rs.all());
+	}
+
+	@Test
+	public void assignsBoundValuesToChunks() {
+
+		Select select = QueryBuilder.select().all().from("t");
+		select.where(QueryBuilder.in("id", "a", "b", "c")).limit(2);
+
+		ResultSet rs = template.query(select);
+
+		ArgumentCaptor<Statement> statements = ArgumentCaptor.forClass(Statement.class);
+		verify(session, times(2)).executeAsync(statements.capture());
+
+		SimpleStatement first = (SimpleStatement) statements.getAllValues().get(0);
+		SimpleStatement second = (SimpleStatement) statements.getAllValues().get(1);
+
+		assertEquals("SELECT * FROM t WHERE id IN (?, ?) LIMIT 2;", first.getQueryString());
+		List<ByteBuffer> values = Arrays.asList(select.getValues(ProtocolVersion.NEWEST_SUPPORTED));
+		assertEquals(values.subList(0, 2), Arrays.asList(first.getValues(ProtocolVersion.NEWEST_SUPPORTED)));
+		assertEquals(values.subList(2, 3), Arrays.asList(second.getValues(ProtocolVersion.NEWEST_SUPPORTED)));
+
+		assertEquals(rows.subList(0, 2), rs.all());
+	}
+
+	@Test
+	public void cancelsSubmittedChunksIfSubmissionFails() {
+
+		SettableResultSetFuture first = new SettableResultSetFuture();
+		RuntimeException failure = new IllegalStateException("rejected");
+		doReturn(first).doThrow(failure).when(session).executeAsync(any(Statement.class));
+
+		try {
+			template.query("SELECT * FROM t WHERE id IN (1, 2, 3, 4, 5)");
+			fail("expected submission failure");
+		} catch (IllegalStateException e) {
+			assertSame(failure, e);
+		}
+
+		assertTrue(first.isCancelled());
+	}
+
+	@Test
+	public void doesNotSplitOtherColumnsOrSmallLists() {
+
+		given(session.execute(any(Statement.class))).willReturn(mock(ResultSet.class));
+
+		template.query("SELECT * FROM t WHERE c IN (1, 2, 3)");
+		template.query("SELECT * FROM t WHERE id IN (1, 2)");
+
+		verify(session, times(2)).execute(any(Statement.class));
+	}
+
+	private static String cql(Statement statement) {
+		return ((SimpleStatement) statement).getQueryString();
+	}
+}
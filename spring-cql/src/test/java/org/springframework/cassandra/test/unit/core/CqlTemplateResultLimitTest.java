@@ -0,0 +1,143 @@
+/*
+ * Copyright 2013-2014 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.test.unit.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.cassandra.core.CqlTemplate;
+import org.springframework.cassandra.core.LimitedResultList;
+import org.springframework.cassandra.core.QueryOptions;
+import org.springframework.cassandra.core.ResultLimitAction;
+import org.springframework.cassandra.core.RowMapper;
+import org.springframework.cassandra.support.exception.CassandraResultSizeLimitExceededException;
+
+import com.datastax.driver.core.ColumnDefinitions;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.Statement;
+import com.datastax.driver.core.exceptions.DriverException;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CqlTemplateResultLimitTest {
+
+	@Mock
+	private Session session;
+
+	@Mock
+	private ResultSet resultSet;
+
+	@Mock
+	private Row row;
+
+	@Mock
+	private ColumnDefinitions columnDefinitions;
+
+	private CqlTemplate template;
+
+	private RowMapper<Integer> rowMapper = new RowMapper<Integer>() {
+
+		@Override
+		public Integer mapRow(Row row, int rowNum) throws DriverException {
+			return rowNum;
+		}
+	};
+
+	@Before
+	public void setup() {
+
+		List<Row> rows = new ArrayList<Row>();
+		for (int i = 0; i < 10; i++) {
+			rows.add(row);
+		}
+
+		given(session.execute(any(Statement.class))).willReturn(resultSet);
+		given(resultSet.iterator()).willReturn(rows.iterator());
+		given(row.getColumnDefinitions()).willReturn(columnDefinitions);
+		given(columnDefinitions.size()).willReturn(1);
+		given(row.getBytesUnsafe(anyInt())).willReturn(ByteBuffer.allocate(100));
+
+		template = new CqlTemplate(session);
+	}
+
+	@Test
+	public void returnsAllRowsWithoutLimits() {
+
+		List<Integer> result = template.query("SELECT * FROM t", rowMapper, null);
+
+		assertEquals(10, result.size());
+		assertFalse(((LimitedResultList<Integer>) result).isTruncated());
+	}
+
+	@Test(expected = CassandraResultSizeLimitExceededException.class)
+	public void failsWhenRowLimitIsExceeded() {
+
+		QueryOptions options = new QueryOptions();
+		options.setMaxRows(5);
+
+		template.query("SELECT * FROM t", rowMapper, options);
+	}
+
+	@Test
+	public void truncatesAtRowLimit() {
+
+		QueryOptions options = new QueryOptions();
+		options.setMaxRows(5);
+		options.setResultLimitAction(ResultLimitAction.TRUNCATE);
+
+		List<Integer> result = template.query("SELECT * FROM t", rowMapper, options);
+
+		assertEquals(5, result.size());
+		assertTrue(((LimitedResultList<Integer>) result).isTruncated());
+	}
+
+	@Test
+	public void truncatesAtTemplateByteLimit() {
+
+		template.setMaxResultBytes(350);
+		template.setResultLimitAction(ResultLimitAction.TRUNCATE);
+
+		List<Integer> result = template.query("SELECT * FROM t", rowMapper, null);
+
+		assertEquals(3, result.size());
+		assertTrue(((LimitedResultList<Integer>) result).isTruncated());
+	}
+
+	@Test
+	public void exactlyReachingLimitIsNotTruncation() {
+
+		template.setMaxRows(10);
+
+		List<Integer> result = template.query("SELECT * FROM t", rowMapper, null);
+
+		assertEquals(10, result.size());
+		assertFalse(((LimitedResultList<Integer>) result).isTruncated());
+	}
+}
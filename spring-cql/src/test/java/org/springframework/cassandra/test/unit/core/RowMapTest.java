@@ -0,0 +1,224 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.test.unit.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+import org.springframework.cassandra.core.RowMap;
+import org.springframework.cassandra.core.converter.RowToMapConverter;
+import org.springframework.cassandra.test.inmemory.SyntheticRows;
+
+import com.datastax.driver.core.ColumnDefinitions;
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.ProtocolVersion;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.exceptions.InvalidTypeException;
+
+public class RowMapTest {
+
+	private ColumnDefinitions columns = SyntheticRows.columns("ks", "t", "id", DataType.text(), "count", DataType.cint(),
+			"note", DataType.text());
+
+	@Test
+	public void equalsMapOfSameEntries() {
+
+		RowMap map = RowMap.of(SyntheticRows.row(columns, "a", 1, null), null, ProtocolVersion.NEWEST_SUPPORTED);
+
+		Map<String, Object> expected = new HashMap<String, Object>();
+		expected.put("id", "a");
+		expected.put("count", 1);
+		expected.put("note", null);
+
+		assertEquals(3, map.size());
+		assertEquals(expected, map);
+		assertEquals(map, expected);
+		assertEquals(expected.hashCode(), map.hashCode());
+		assertTrue(map.containsKey("note"));
+		assertFalse(map.containsKey("other"));
+		assertNull(map.get("other"));
+	}
+
+	@Test
+	public void sharesSchemaBetweenRowsOfSameColumns() {
+
+		RowMap first = RowMap.of(SyntheticRows.row(columns, "a", 1, null), null, ProtocolVersion.NEWEST_SUPPORTED);
+		RowMap second = RowMap.of(SyntheticRows.row(columns, "b", 2, null), first.getSchema(),
+				ProtocolVersion.NEWEST_SUPPORTED);
+
+		ColumnDefinitions same = SyntheticRows.columns("ks", "t", "id", DataType.text(), "count", DataType.cint(), "note",
+				DataType.text());
+		RowMap third = RowMap.of(SyntheticRows.row(same, "c", 3, null), first.getSchema(),
+				ProtocolVersion.NEWEST_SUPPORTED);
+
+		ColumnDefinitions other = SyntheticRows.columns("ks", "t", "id", DataType.text(), "count", DataType.bigint(),
+				"note", DataType.text());
+		RowMap fourth = RowMap.of(SyntheticRows.row(other, "d", 4L, null), first.getSchema(),
+				ProtocolVersion.NEWEST_SUPPORTED);
+
+		assertSame(first.getSchema(), second.getSchema());
+		assertSame(first.getSchema(), third.getSchema());
+		assertNotSame(first.getSchema(), fourth.getSchema());
+		assertEquals(4L, fourth.get("count"));
+	}
+
+	@Test
+	public void decodesValuesOnFirstAccess() {
+
+		// a three byte int fails to decode, but only once it's read
+		Row row = SyntheticRows.serializedRow(columns,
+				Arrays.asList(ByteBuffer.wrap("a".getBytes()), ByteBuffer.wrap(new byte[3]), null));
+		RowMap map = RowMap.of(row, null, ProtocolVersion.NEWEST_SUPPORTED);
+
+		assertEquals("a", map.get("id"));
+		assertNull(map.get("note"));
+
+		try {
+			map.get("count");
+		} catch (InvalidTypeException expected) {
+			return;
+		}
+		throw new AssertionError("expected count to be decoded");
+	}
+
+	@Test
+	public void mapsLastOfDuplicateColumns() {
+
+		ColumnDefinitions duplicates = SyntheticRows.columns("ks", "t", "id", DataType.text(), "id", DataType.text());
+		RowMap map = RowMap.of(SyntheticRows.row(duplicates, "a", "b"), null, ProtocolVersion.NEWEST_SUPPORTED);
+
+		assertEquals(1, map.size());
+		assertEquals("b", map.get("id"));
+		assertEquals(1, map.entrySet().size());
+	}
+
+	@Test
+	public void releasesRowOnceEveryValueIsDecoded() {
+
+		WeakReference<Row> row = new WeakReference<Row>(SyntheticRows.row(columns, "a", 1, null));
+		RowMap map = RowMap.of(row.get(), null, ProtocolVersion.NEWEST_SUPPORTED);
+
+		assertEquals("a", map.get("id"));
+		assertEquals(1, map.get("count"));
+		assertFalse(collected(row));
+
+		assertNull(map.get("note"));
+		assertTrue(collected(row));
+		assertEquals("a", map.get("id"));
+		assertEquals(3, map.entrySet().size());
+	}
+
+	private static boolean collected(WeakReference<?> reference) {
+
+		for (int i = 0; i < 50 && reference.get() != null; i++) {
+			System.gc();
+			try {
+				Thread.sleep(10);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+		return reference.get() == null;
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void isImmutable() {
+		RowMap.of(SyntheticRows.row(columns, "a", 1, null), null, ProtocolVersion.NEWEST_SUPPORTED).put("id", "b");
+	}
+
+	@Test
+	public void converterReturnsRowMaps() {
+
+		RowToMapConverter converter = new RowToMapConverter();
+
+		RowMap first = (RowMap) converter.convert(SyntheticRows.row(columns, "a", 1, null));
+		RowMap second = (RowMap) converter.convert(SyntheticRows.row(columns, "b", 2, "x"));
+
+		assertSame(first.getSchema(), second.getSchema());
+		assertEquals("x", second.get("note"));
+		assertNull(converter.convert(null));
+	}
+
+	@Test
+	public void decodesConcurrentlyReadValuesOnce() throws Exception {
+
+		ColumnDefinitions listColumns = SyntheticRows.columns("ks", "t", "id", DataType.text(), "tags",
+				DataType.list(DataType.text()));
+
+		final List<RowMap> maps = new ArrayList<RowMap>();
+		for (int i = 0; i < 1000; i++) {
+			maps.add(RowMap.of(SyntheticRows.row(listColumns, "a" + i, Arrays.asList("x", "y")), null,
+					ProtocolVersion.NEWEST_SUPPORTED));
+		}
+
+		int threads = 4;
+		final CyclicBarrier start = new CyclicBarrier(threads);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+		try {
+
+			List<Future<List<Object>>> results = new ArrayList<Future<List<Object>>>();
+			for (int t = 0; t < threads; t++) {
+				results.add(executor.submit(new Callable<List<Object>>() {
+
+					@Override
+					public List<Object> call() throws Exception {
+
+						start.await();
+
+						List<Object> tags = new ArrayList<Object>();
+						for (RowMap map : maps) {
+							assertEquals(2, map.entrySet().size());
+							tags.add(map.get("tags"));
+							assertTrue(map.get("id").toString().startsWith("a"));
+						}
+						return tags;
+					}
+				}));
+			}
+
+			List<Object> first = results.get(0).get();
+			for (Future<List<Object>> result : results) {
+				List<Object> tags = result.get();
+				for (int i = 0; i < maps.size(); i++) {
+					assertSame(first.get(i), tags.get(i));
+				}
+			}
+
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright 2013-2014 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.test.unit.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.cassandra.core.CqlTemplate;
+import org.springframework.cassandra.core.QueryOptions;
+import org.springframework.cassandra.core.SettableResultSetFuture;
+import org.springframework.cassandra.core.StatementExecution;
+import org.springframework.cassandra.core.StatementInterceptor;
+import org.springframework.cassandra.core.StatementInterceptorAdapter;
+import org.springframework.cassandra.core.retry.BackoffRetryPolicy;
+import org.springframework.core.Ordered;
+
+import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.SimpleStatement;
+import com.datastax.driver.core.Statement;
+import com.datastax.driver.core.exceptions.NoHostAvailableException;
+import com.datastax.driver.core.exceptions.ReadTimeoutException;
+
+@RunWith(MockitoJUnitRunner.class)
+public class StatementInterceptorTest {
+
+	@Mock
+	private Session session;
+
+	@Mock
+	private ResultSet resultSet;
+
+	@Mock
+	private ResultSet cachedResultSet;
+
+	private CqlTemplate template;
+
+	private List<String> calls = new ArrayList<String>();
+
+	@Before
+	public void setup() {
+		given(session.execute(any(Statement.class))).willReturn(resultSet);
+		template = new CqlTemplate(session);
+	}
+
+	@Test
+	public void invokesBeforeInOrderAndAfterInReverseOrder() {
+
+		template.setStatementInterceptors(Arrays.asList(new RecordingInterceptor("a"), new RecordingInterceptor("b")));
+
+		assertSame(resultSet, template.query("SELECT * FROM t"));
+		assertEquals(Arrays.asList("before a", "before b", "after b", "after a"), calls);
+	}
+
+	@Test
+	public void sortsOrderedInterceptors() {
+
+		template.addStatementInterceptor(new RecordingInterceptor("late", 10));
+		template.addStatementInterceptor(new RecordingInterceptor("early", -10));
+
+		template.query("SELECT * FROM t");
+
+		assertEquals(Arrays.asList("before early", "before late", "after late", "after early"), calls);
+	}
+
+	@Test
+	public void canReplaceStatement() {
+
+		template.addStatementInterceptor(new StatementInterceptorAdapter() {
+
+			@Override
+			public void beforeExecution(StatementExecution execution) {
+				execution.setStatement(new SimpleStatement("SELECT * FROM u").setConsistencyLevel(ConsistencyLevel.QUORUM));
+			}
+		});
+
+		template.query("SELECT * FROM t");
+
+		ArgumentCaptor<Statement> statement = ArgumentCaptor.forClass(Statement.class);
+		verify(session).execute(statement.capture());
+		assertEquals("SELECT * FROM u", ((SimpleStatement) statement.getValue()).getQueryString());
+		assertEquals(ConsistencyLevel.QUORUM, statement.getValue().getConsistencyLevel());
+	}
+
+	@Test
+	public void suppliedResultSkipsExecution() {
+
+		template.addStatementInterceptor(new StatementInterceptorAdapter() {
+
+			@Override
+			public void beforeExecution(StatementExecution execution) {
+				execution.setResultSet(cachedResultSet);
+			}
+		});
+
+		assertSame(cachedResultSet, template.query("SELECT * FROM t"));
+		verify(session, never()).execute(any(Statement.class));
+	}
+
+	@Test
+	public void canRecoverFromError() {
+
+		given(session.execute(any(Statement.class))).willThrow(
+				new ReadTimeoutException(ConsistencyLevel.ONE, 0, 1, false));
+
+		template.addStatementInterceptor(new StatementInterceptorAdapter() {
+
+			@Override
+			public void afterExecution(StatementExecution execution) {
+				if (execution.getError() != null) {
+					execution.setResultSet(cachedResultSet);
+				}
+			}
+		});
+
+		assertSame(cachedResultSet, template.query("SELECT * FROM t"));
+	}
+
+	@Test
+	public void replacedOptionsDecideRetries() {
+
+		given(session.execute(any(Statement.class))).willThrow(
+				new NoHostAvailableException(Collections.<InetSocketAddress, Throwable> emptyMap())).willReturn(resultSet);
+
+		BackoffRetryPolicy policy = new BackoffRetryPolicy();
+		policy.setInitialDelayMillis(1);
+		template.setBackoffRetryPolicy(policy);
+
+		template.addStatementInterceptor(new StatementInterceptorAdapter() {
+
+			@Override
+			public void beforeExecution(StatementExecution execution) {
+
+				QueryOptions options = new QueryOptions();
+				options.setIdempotent(true);
+				execution.setQueryOptions(options);
+			}
+		});
+
+		template.execute("UPDATE t SET c = c + 1 WHERE id = 1");
+
+		verify(session, times(2)).execute(any(Statement.class));
+	}
+
+	@Test
+	public void suppliedResultSkipsAsynchronousExecution() throws Exception {
+
+		template.addStatementInterceptor(new StatementInterceptorAdapter() {
+
+			@Override
+			public void beforeExecution(StatementExecution execution) {
+				execution.setResultSet(cachedResultSet);
+			}
+		});
+
+		assertSame(cachedResultSet, template.executeAsynchronously(new SimpleStatement("SELECT * FROM t")).get());
+		verify(session, never()).executeAsync(any(Statement.class));
+	}
+
+	@Test
+	public void canRecoverFromAsynchronousError() throws Exception {
+
+		SettableResultSetFuture failed = new SettableResultSetFuture();
+		given(session.executeAsync(any(Statement.class))).willReturn(failed);
+
+		template.addStatementInterceptor(new StatementInterceptorAdapter() {
+
+			@Override
+			public void onAsyncCompletion(StatementExecution execution) {
+				if (execution.getError() != null) {
+					execution.setResultSet(cachedResultSet);
+				}
+			}
+		});
+
+		ResultSetFuture future = template.executeAsynchronously(new SimpleStatement("SELECT * FROM t"));
+		failed.setException(new ReadTimeoutException(ConsistencyLevel.ONE, 0, 1, false));
+
+		assertSame(cachedResultSet, future.get());
+	}
+
+	class RecordingInterceptor implements StatementInterceptor, Ordered {
+
+		final String name;
+		final int order;
+
+		RecordingInterceptor(String name) {
+			this(name, 0);
+		}
+
+		RecordingInterceptor(String name, int order) {
+			this.name = name;
+			this.order = order;
+		}
+
+		@Override
+		public void beforeExecution(StatementExecution execution) {
+			calls.add("before " + name);
+		}
+
+		@Override
+		public void afterExecution(StatementExecution execution) {
+			calls.add("after " + name);
+		}
+
+		@Override
+		public void onAsyncCompletion(StatementExecution execution) {
+			calls.add("completed " + name);
+		}
+
+		@Override
+		public int getOrder() {
+			return order;
+		}
+	}
+}
@@ -0,0 +1,320 @@
+/*
+ * Copyright 2013-2014 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.test.unit.core.coalesce;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+import org.springframework.cassandra.core.CqlTemplate;
+import org.springframework.cassandra.core.coalesce.ReadCoalescer;
+
+import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.SimpleStatement;
+import com.datastax.driver.core.Statement;
+import com.datastax.driver.core.exceptions.ReadTimeoutException;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ReadCoalescerTest {
+
+	private static final int READERS = 5;
+
+	@Mock
+	private Session session;
+
+	@Mock
+	private ResultSet resultSet;
+
+	private Row row = mock(Row.class);
+
+	private CqlTemplate template;
+
+	private ReadCoalescer coalescer = new ReadCoalescer();
+
+	private ExecutorService executor = Executors.newFixedThreadPool(READERS);
+
+	private CountDownLatch release = new CountDownLatch(1);
+
+	@Before
+	public void setup() {
+
+		given(resultSet.isFullyFetched()).willReturn(true);
+		given(resultSet.all()).willReturn(Arrays.asList(row));
+
+		template = new CqlTemplate(session) {
+
+			@Override
+			protected List<String> getPartitionKeyColumns(Session s, String keyspace, String table) {
+				return Arrays.asList("id");
+			}
+		};
+		template.setReadCoalescer(coalescer);
+	}
+
+	@After
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void identicalConcurrentReadsShareOneRequest() throws Exception {
+
+		given(session.execute(any(Statement.class))).willAnswer(blockingAnswer(resultSet));
+
+		List<ResultSet> results = new ArrayList<ResultSet>();
+		for (Future<ResultSet> future : readConcurrently("SELECT * FROM t WHERE id = 1")) {
+			results.add(future.get(5, TimeUnit.SECONDS));
+		}
+
+		verify(session, times(1)).execute(any(Statement.class));
+		assertEquals(READERS - 1, coalescer.getCoalescedCount());
+
+		for (ResultSet rs : results) {
+			assertSame(row, rs.one());
+		}
+		assertNotSame(results.get(0), results.get(1));
+	}
+
+	@Test
+	public void failureIsSharedWithWaiters() throws Exception {
+
+		given(session.execute(any(Statement.class))).willAnswer(
+				blockingAnswer(new ReadTimeoutException(ConsistencyLevel.ONE, 0, 1, false)));
+
+		for (Future<ResultSet> future : readConcurrently("SELECT * FROM t WHERE id = 1")) {
+			try {
+				future.get(5, TimeUnit.SECONDS);
+				fail("expected failure");
+			} catch (ExecutionException e) {
+				assertEquals(ReadTimeoutException.class, e.getCause().getClass());
+			}
+		}
+
+		verify(session, times(1)).execute(any(Statement.class));
+	}
+
+	@Test
+	public void waitersReadThemselvesIfResultSpansPages() throws Exception {
+
+		given(resultSet.isFullyFetched()).willReturn(false);
+		given(session.execute(any(Statement.class))).willAnswer(blockingAnswer(resultSet));
+
+		for (Future<ResultSet> future : readConcurrently("SELECT * FROM t WHERE id = 1")) {
+			assertSame(resultSet, future.get(5, TimeUnit.SECONDS));
+		}
+
+		assertEquals(0, coalescer.getCoalescedCount());
+		verify(session, times(1 + (int) coalescer.getFallbackCount())).execute(any(Statement.class));
+	}
+
+	@Test
+	public void doesNotCoalesceDifferentValuesOrWrites() {
+
+		given(session.execute(any(Statement.class))).willReturn(resultSet);
+
+		template.execute(new SimpleStatement("SELECT * FROM t WHERE id = ?", 1));
+		template.execute(new SimpleStatement("SELECT * FROM t WHERE id = ?", 2));
+		template.execute("INSERT INTO t (id) VALUES (1)");
+
+		assertEquals(2, coalescer.getReadCount());
+		assertEquals(0, coalescer.getCoalescedCount());
+		assertEquals(0, coalescer.getInFlightCount());
+	}
+
+	@Test
+	public void coalescesOnlySinglePartitionReads() {
+
+		given(session.execute(any(Statement.class))).willReturn(resultSet);
+
+		template.execute("SELECT * FROM t WHERE id IN (1, 2)");
+		template.execute("SELECT * FROM t WHERE v = 1 ALLOW FILTERING");
+		template.execute("SELECT * FROM t WHERE ck = 1");
+		template.execute("SELECT * FROM t");
+		template.execute("SELECT * FROM t WHERE id = 1 AND ck > 1");
+
+		assertEquals(1, coalescer.getReadCount());
+	}
+
+	@Test
+	public void doesNotJoinReadsSentBeforeJoinWindow() throws Exception {
+
+		coalescer = new ReadCoalescer(10);
+
+		final CountDownLatch started = new CountDownLatch(1);
+		final Statement statement = new SimpleStatement("SELECT * FROM t WHERE id = 1");
+
+		Future<ResultSet> first = executor.submit(new Callable<ResultSet>() {
+
+			@Override
+			public ResultSet call() {
+
+				return coalescer.execute(session, statement, new ReadCoalescer.Read() {
+
+					@Override
+					public ResultSet execute() {
+
+						started.countDown();
+
+						try {
+							release.await(5, TimeUnit.SECONDS);
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+						}
+						return resultSet;
+					}
+				});
+			}
+		});
+
+		started.await(5, TimeUnit.SECONDS);
+		Thread.sleep(50);
+
+		ResultSet second = coalescer.execute(session, statement, new ReadCoalescer.Read() {
+
+			@Override
+			public ResultSet execute() {
+				return resultSet;
+			}
+		});
+		release.countDown();
+
+		assertSame(row, second.one());
+		assertSame(row, first.get(5, TimeUnit.SECONDS).one());
+		assertEquals(0, coalescer.getCoalescedCount());
+	}
+
+	@Test
+	public void doesNotCoalesceReadsOnDifferentSessions() throws Exception {
+
+		final Session other = mock(Session.class);
+		final CountDownLatch started = new CountDownLatch(1);
+		final Statement statement = new SimpleStatement("SELECT * FROM t WHERE id = 1");
+
+		Future<ResultSet> first = executor.submit(new Callable<ResultSet>() {
+
+			@Override
+			public ResultSet call() {
+
+				return coalescer.execute(session, statement, new ReadCoalescer.Read() {
+
+					@Override
+					public ResultSet execute() {
+
+						started.countDown();
+
+						try {
+							release.await(5, TimeUnit.SECONDS);
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+						}
+						return resultSet;
+					}
+				});
+			}
+		});
+
+		started.await(5, TimeUnit.SECONDS);
+
+		ResultSet otherResultSet = mock(ResultSet.class);
+		given(otherResultSet.isFullyFetched()).willReturn(true);
+		given(otherResultSet.all()).willReturn(Arrays.<Row> asList());
+		given(other.execute(any(Statement.class))).willReturn(otherResultSet);
+
+		ResultSet second = coalescer.execute(other, statement, new ReadCoalescer.Read() {
+
+			@Override
+			public ResultSet execute() {
+				return other.execute(statement);
+			}
+		});
+		release.countDown();
+
+		assertEquals(0, second.all().size());
+		assertEquals(1, first.get(5, TimeUnit.SECONDS).all().size());
+		assertEquals(0, coalescer.getCoalescedCount());
+	}
+
+	private List<Future<ResultSet>> readConcurrently(final String cql) throws InterruptedException {
+
+		final CountDownLatch started = new CountDownLatch(READERS);
+		List<Future<ResultSet>> futures = new ArrayList<Future<ResultSet>>();
+
+		for (int i = 0; i < READERS; i++) {
+			futures.add(executor.submit(new Callable<ResultSet>() {
+
+				@Override
+				public ResultSet call() {
+					started.countDown();
+					return template.query(cql);
+				}
+			}));
+		}
+
+		started.await(5, TimeUnit.SECONDS);
+		while (coalescer.getReadCount() < READERS) {
+			Thread.sleep(1);
+		}
+		Thread.sleep(50); // let the last reader join the read in flight
+
+		release.countDown();
+		return futures;
+	}
+
+	private Answer<Object> blockingAnswer(final Object result) {
+
+		return new Answer<Object>() {
+
+			@Override
+			public Object answer(InvocationOnMock invocation) throws Throwable {
+
+				release.await(5, TimeUnit.SECONDS);
+
+				if (result instanceof Throwable) {
+					throw (Throwable) result;
+				}
+				return result;
+			}
+		};
+	}
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.test.unit.core.columnar;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cassandra.core.CqlTemplate;
+import org.springframework.cassandra.core.columnar.Column;
+import org.springframework.cassandra.core.columnar.ColumnarResult;
+import org.springframework.cassandra.core.columnar.ObjectColumn;
+import org.springframework.cassandra.core.columnar.TextColumn;
+import org.springframework.cassandra.test.inmemory.InMemoryCluster;
+
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.querybuilder.QueryBuilder;
+import com.datastax.driver.core.querybuilder.Select;
+
+public class ColumnarResultTest {
+
+	private InMemoryCluster cluster;
+	private CqlTemplate template;
+
+	@Before
+	public void setup() {
+
+		cluster = new InMemoryCluster();
+		Session session = cluster.connect();
+		session.execute("CREATE KEYSPACE ks WITH replication = { 'class' : 'SimpleStrategy', 'replication_factor' : 1 }");
+		session.execute("CREATE TABLE ks.readings (sensor text, seq int, value double, ratio float, total bigint, "
+				+ "at timestamp, ok boolean, unit ascii, tags set<text>, PRIMARY KEY (sensor, seq))");
+
+		template = new CqlTemplate(cluster.connect("ks"));
+	}
+
+	@After
+	public void teardown() {
+		cluster.close();
+	}
+
+	@Test
+	public void readsColumnsIntoPrimitiveArrays() {
+
+		template.execute("INSERT INTO readings (sensor, seq, value, ratio, total, at, ok, unit) "
+				+ "VALUES ('a', 1, 1.5, 0.25, 10000000000, 1000, true, 'C')");
+		template.execute("INSERT INTO readings (sensor, seq, value, ratio, total, at, ok, unit) "
+				+ "VALUES ('a', 2, -2.5, 0.5, 20000000000, 2000, false, 'F')");
+
+		ColumnarResult result = template.queryForColumns("SELECT seq, value, ratio, total, at, ok, unit FROM readings "
+				+ "WHERE sensor = 'a'");
+
+		assertEquals(2, result.size());
+		assertEquals(Arrays.asList("seq", "value", "ratio", "total", "at", "ok", "unit"), result.getColumnNames());
+		assertArrayEquals(new int[] { 1, 2 }, result.getInts("seq"));
+		assertArrayEquals(new double[] { 1.5, -2.5 }, result.getDoubles("value"), 0);
+		assertArrayEquals(new double[] { 0.25, 0.5 }, result.getDoubles("ratio"), 0);
+		assertArrayEquals(new long[] { 10000000000L, 20000000000L }, result.getLongs("total"));
+		assertArrayEquals(new long[] { 1000, 2000 }, result.getLongs("at"));
+		assertTrue(result.getBooleans("ok")[0]);
+		assertFalse(result.getBooleans("ok")[1]);
+		assertEquals("F", result.getText("unit").getString(1));
+
+		assertEquals(0.25f, result.getObject(0, "ratio"));
+		assertEquals(new Date(2000), result.getObject(1, "at"));
+	}
+
+	@Test
+	public void sharesDictionaryAcrossRows() {
+
+		for (int i = 0; i < 100; i++) {
+			template.execute(String.format("INSERT INTO readings (sensor, seq, unit) VALUES ('%s', %d, '%s')",
+					i % 2 == 0 ? "even" : "odd", i, i % 3 == 0 ? "C" : "F"));
+		}
+		template.execute("INSERT INTO readings (sensor, seq) VALUES ('none', 0)");
+
+		ColumnarResult result = template.queryForColumns(QueryBuilder.select("sensor", "unit").from("readings"));
+		TextColumn sensors = result.getText("sensor");
+		TextColumn units = result.getText("unit");
+
+		assertEquals(101, result.size());
+		assertEquals(3, sensors.getDictionary().size());
+		assertEquals(2, units.getDictionary().size());
+		assertEquals(101, units.getCodes().length);
+
+		int nulls = 0;
+		for (int row = 0; row < result.size(); row++) {
+			if (units.isNull(row)) {
+				assertEquals(TextColumn.NULL_CODE, units.getCode(row));
+				assertNull(units.getString(row));
+				assertEquals("none", sensors.getString(row));
+				nulls++;
+			}
+		}
+		assertEquals(1, nulls);
+	}
+
+	@Test
+	public void marksNullsAndKeepsDefaults() {
+
+		template.execute("INSERT INTO readings (sensor, seq, value) VALUES ('a', 1, 3.0)");
+		template.execute("INSERT INTO readings (sensor, seq) VALUES ('a', 2)");
+
+		ColumnarResult result = template.queryForColumns("SELECT value, total FROM readings WHERE sensor = 'a'");
+		Column values = result.getColumn("value");
+
+		assertFalse(values.isNull(0));
+		assertTrue(values.isNull(1));
+		assertNull(values.getObject(1));
+		assertArrayEquals(new double[] { 3.0, 0 }, result.getDoubles("value"), 0);
+		assertTrue(result.getColumn("total").isNull(0));
+	}
+
+	@Test
+	public void readsOtherTypesAsObjects() {
+
+		template.execute("INSERT INTO readings (sensor, seq, tags) VALUES ('a', 1, {'x', 'y'})");
+
+		ColumnarResult result = template.queryForColumns("SELECT tags FROM readings WHERE sensor = 'a'");
+
+		assertTrue(result.getColumn("tags") instanceof ObjectColumn);
+		assertEquals(2, ((Set<?>) result.getObject(0, "tags")).size());
+	}
+
+	@Test
+	public void readsAllPages() {
+
+		for (int i = 0; i < 250; i++) {
+			template.execute(String.format("INSERT INTO readings (sensor, seq, total) VALUES ('a', %d, %d)", i, i * 2L));
+		}
+
+		Select select = QueryBuilder.select("total").from("readings");
+		select.setFetchSize(100);
+
+		ColumnarResult result = template.queryForColumns(select);
+
+		long sum = 0;
+		for (long total : result.getLongs("total")) {
+			sum += total;
+		}
+
+		assertEquals(250, result.size());
+		assertEquals(249L * 250, sum);
+	}
+
+	@Test
+	public void readsEmptyResult() {
+
+		ColumnarResult result = template.queryForColumns("SELECT seq, unit FROM readings WHERE sensor = 'a'");
+
+		assertTrue(result.isEmpty());
+		assertEquals(0, result.getInts("seq").length);
+		assertEquals(0, result.getText("unit").getCodes().length);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsColumnOfOtherType() {
+		template.queryForColumns("SELECT seq FROM readings").getLongs("seq");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsUnknownColumn() {
+		template.queryForColumns("SELECT seq FROM readings").getColumn("nope");
+	}
+}
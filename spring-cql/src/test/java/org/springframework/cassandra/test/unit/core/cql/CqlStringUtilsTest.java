@@ -15,4 +15,30 @@
  */
 package org.springframework.cassandra.test.unit.core.cql;
 
-public class CqlStringUtilsTest {}
+import static org.junit.Assert.assertEquals;
+import static org.springframework.cassandra.core.cql.CqlStringUtils.normalize;
+
+import org.junit.Test;
+
+public class CqlStringUtilsTest {
+
+	@Test
+	public void normalizeReplacesLiterals() {
+
+		assertEquals("SELECT * FROM t1 WHERE name=? AND age>? AND id=? AND data=? LIMIT ?;",
+				normalize("SELECT * FROM t1 WHERE name='O''Brien' AND age>-4.5e3 "
+						+ "AND id=123e4567-e89b-12d3-a456-426655440000 AND data=0xCAFE LIMIT 10;"));
+	}
+
+	@Test
+	public void normalizeCollapsesInListsAndWhitespace() {
+
+		assertEquals("SELECT * FROM t WHERE id IN (?);", normalize("SELECT *   FROM t\n WHERE id in ( 1, 2,'x' );"));
+	}
+
+	@Test
+	public void normalizeKeepsIdentifiersWithDigits() {
+
+		assertEquals("SELECT col_2 FROM \"42\".t2 WHERE v3=?", normalize("SELECT col_2 FROM \"42\".t2 WHERE v3=7"));
+	}
+}
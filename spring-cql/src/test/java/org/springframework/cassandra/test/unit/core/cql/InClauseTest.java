@@ -0,0 +1,62 @@
+/*
+ * Copyright 2013-2014 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.test.unit.core.cql;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.springframework.cassandra.core.cql.InClause;
+
+public class InClauseTest {
+
+	@Test
+	public void findsLiteralsAndMarkers() {
+
+		InClause in = InClause.find("SELECT * FROM t WHERE a = ? AND \"Id\" IN (1, ?, 'x, y', ?) AND c > ?");
+
+		assertEquals("Id", in.getColumn());
+		assertEquals(Arrays.asList("1", "?", "'x, y'", "?"), in.getElements());
+		assertEquals(1, in.getMarkersBefore());
+		assertEquals("SELECT * FROM t WHERE a = ? AND \"Id\" IN (?, 'x, y') AND c > ?", in.toCql(Arrays.asList("?",
+				"'x, y'")));
+	}
+
+	@Test
+	public void findsOrderingsAndLimit() {
+
+		InClause in = InClause.find("select * from t where id in (1,2) order by c desc, \"D\" limit 10");
+
+		assertEquals("id", in.getColumn());
+		assertEquals(Arrays.asList("c", "D"), Arrays.asList(in.getOrderings().keySet().toArray()));
+		assertEquals(Arrays.asList(false, true), Arrays.asList(in.getOrderings().values().toArray()));
+		assertEquals(Integer.valueOf(10), in.getLimit());
+	}
+
+	@Test
+	public void ignoresUnsplittableQueries() {
+
+		assertNull(InClause.find("SELECT * FROM t WHERE id = 1"));
+		assertNull(InClause.find("SELECT * FROM t WHERE id IN ?"));
+		assertNull(InClause.find("SELECT * FROM t WHERE id IN (:ids)"));
+		assertNull(InClause.find("SELECT * FROM t WHERE id IN (1, 2) AND c IN (3, 4)"));
+		assertNull(InClause.find("SELECT * FROM t WHERE id IN (now(?))"));
+		assertNull(InClause.find("DELETE FROM t WHERE id IN (1, 2)"));
+		assertNull(InClause.find("SELECT * FROM t WHERE id = 'a IN (1, 2)'"));
+	}
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.test.unit.core.cql;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.junit.Test;
+import org.springframework.cassandra.core.cql.OperationType;
+import org.springframework.cassandra.core.cql.StatementInfo;
+
+import com.datastax.driver.core.BatchStatement;
+import com.datastax.driver.core.SimpleStatement;
+import com.datastax.driver.core.querybuilder.QueryBuilder;
+
+public class StatementInfoTest {
+
+	@Test
+	public void classifiesReadsAndScans() {
+
+		assertInfo(StatementInfo.of("SELECT * FROM person WHERE id = ?"), OperationType.READ, null, "person");
+		assertInfo(StatementInfo.of("select name from Shop.Person"), OperationType.SCAN, "shop", "person");
+		assertInfo(StatementInfo.of("SELECT * FROM t WHERE token(id) > ?"), OperationType.SCAN, null, "t");
+	}
+
+	@Test
+	public void findsColumnsRestrictedToSingleValue() {
+
+		assertEquals(new HashSet<String>(Arrays.asList("id", "Ck")),
+				StatementInfo.of("SELECT * FROM t WHERE id = ? AND \"Ck\"=1 AND v > 2 LIMIT 10").getEqualityRestrictedColumns());
+		assertEquals(new HashSet<String>(Arrays.asList("ck")),
+				StatementInfo.of("SELECT * FROM t WHERE ck = 1 AND token(id) = ?").getEqualityRestrictedColumns());
+		assertTrue(StatementInfo.of("SELECT * FROM t WHERE id IN (1, 2)").getEqualityRestrictedColumns().isEmpty());
+		assertTrue(StatementInfo.of("SELECT * FROM t WHERE v = 1 ALLOW FILTERING").getEqualityRestrictedColumns().isEmpty());
+		assertTrue(StatementInfo.of("SELECT * FROM t").getEqualityRestrictedColumns().isEmpty());
+		assertTrue(StatementInfo.of("UPDATE t SET v = 1 WHERE id = 1").getEqualityRestrictedColumns().isEmpty());
+	}
+
+	@Test
+	public void keepsCachingOnceManyQueryStringsWereDescribed() {
+
+		for (int i = 0; i < 2000; i++) {
+			StatementInfo.of("SELECT * FROM t WHERE id = " + i);
+		}
+
+		String cql = "SELECT * FROM t WHERE id = 'recent'";
+		assertSame(StatementInfo.of(cql), StatementInfo.of(cql));
+	}
+
+	@Test
+	public void classifiesWrites() {
+
+		assertInfo(StatementInfo.of("INSERT INTO ks.\"MixedCase\" (a) VALUES (1)"), OperationType.WRITE, "ks", "MixedCase");
+		assertInfo(StatementInfo.of("UPDATE t SET a = 1 WHERE id = 2"), OperationType.WRITE, null, "t");
+		assertInfo(StatementInfo.of("DELETE FROM t WHERE id = 2"), OperationType.WRITE, null, "t");
+		assertInfo(StatementInfo.of("BEGIN UNLOGGED BATCH INSERT INTO t (a) VALUES (1); APPLY BATCH;"),
+				OperationType.WRITE, null, "t");
+	}
+
+	@Test
+	public void describesBuiltStatements() {
+
+		StatementInfo info = StatementInfo.of(QueryBuilder.select().all().from("ks", "t").where(QueryBuilder.eq("id", 1)));
+
+		assertInfo(info, OperationType.READ, "ks", "t");
+	}
+
+	@Test
+	public void classifiesOtherStatements() {
+
+		StatementInfo info = StatementInfo.of("CREATE TABLE t (id int PRIMARY KEY)");
+
+		assertEquals(OperationType.OTHER, info.getOperationType());
+		assertNull(info.getKeyspace());
+	}
+
+	@Test
+	public void infersIdempotence() {
+
+		assertTrue(StatementInfo.of("SELECT * FROM t WHERE id = ?").isIdempotent());
+		assertTrue(StatementInfo.of("INSERT INTO t (id, a) VALUES (?, ?)").isIdempotent());
+		assertTrue(StatementInfo.of("UPDATE t SET a = ?, s = {1} WHERE id = ?").isIdempotent());
+		assertTrue(StatementInfo.of("UPDATE t SET l[0] = ? WHERE id = ?").isIdempotent());
+		assertTrue(StatementInfo.of("DELETE a FROM t WHERE id = ?").isIdempotent());
+
+		assertFalse(StatementInfo.of("INSERT INTO t (id) VALUES (?) IF NOT EXISTS").isIdempotent());
+		assertFalse(StatementInfo.of("UPDATE t SET a = ? WHERE id = ? IF a = ?").isIdempotent());
+		assertFalse(StatementInfo.of("UPDATE t SET c = c + 1 WHERE id = ?").isIdempotent());
+		assertFalse(StatementInfo.of("UPDATE t SET l = ? + l WHERE id = ?").isIdempotent());
+		assertFalse(StatementInfo.of("UPDATE t SET \"L\" = \"L\" + ? WHERE id = ?").isIdempotent());
+		assertFalse(StatementInfo.of("INSERT INTO t (id, at) VALUES (?, now())").isIdempotent());
+		assertFalse(StatementInfo.of("DELETE l[1] FROM t WHERE id = ?").isIdempotent());
+		assertFalse(StatementInfo.of("CREATE TABLE t (id int PRIMARY KEY)").isIdempotent());
+	}
+
+	@Test
+	public void infersBatchIdempotenceFromAllStatements() {
+
+		BatchStatement batch = new BatchStatement();
+		batch.add(new SimpleStatement("INSERT INTO t (id) VALUES (1)"));
+		assertTrue(StatementInfo.of(batch).isIdempotent());
+
+		batch.add(new SimpleStatement("UPDATE t SET c = c + 1 WHERE id = 1"));
+		assertFalse(StatementInfo.of(batch).isIdempotent());
+	}
+
+	private static void assertInfo(StatementInfo info, OperationType type, String keyspace, String table) {
+		assertEquals(type, info.getOperationType());
+		assertEquals(keyspace, info.getKeyspace());
+		assertEquals(table, info.getTable());
+	}
+}
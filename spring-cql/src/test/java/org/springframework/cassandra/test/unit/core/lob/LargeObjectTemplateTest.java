@@ -0,0 +1,231 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.test.unit.core.lob;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cassandra.core.CqlTemplate;
+import org.springframework.cassandra.core.lob.LargeObjectInputStream;
+import org.springframework.cassandra.core.lob.LargeObjectTemplate;
+import org.springframework.cassandra.test.inmemory.Failures;
+import org.springframework.cassandra.test.inmemory.InMemoryCluster;
+import org.springframework.cassandra.test.inmemory.Latency;
+import org.springframework.dao.DataAccessException;
+import org.springframework.util.StreamUtils;
+
+import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.Statement;
+import com.datastax.driver.core.WriteType;
+import com.datastax.driver.core.exceptions.DriverException;
+import com.datastax.driver.core.exceptions.WriteTimeoutException;
+
+public class LargeObjectTemplateTest {
+
+	private InMemoryCluster cluster;
+	private CqlTemplate template;
+	private LargeObjectTemplate lobs;
+
+	@Before
+	public void setup() {
+
+		cluster = new InMemoryCluster();
+		Session session = cluster.connect();
+		session.execute("CREATE KEYSPACE ks WITH replication = { 'class' : 'SimpleStrategy', 'replication_factor' : 1 }");
+
+		template = new CqlTemplate(cluster.connect("ks"));
+
+		lobs = new LargeObjectTemplate(template, "files");
+		lobs.setChunkSize(1000);
+		lobs.createTable(true);
+	}
+
+	@After
+	public void teardown() {
+		cluster.close();
+	}
+
+	private static byte[] bytes(int length) {
+
+		byte[] bytes = new byte[length];
+		new Random(length).nextBytes(bytes);
+		return bytes;
+	}
+
+	private long countRows(String id) {
+		return template.query("SELECT COUNT(*) FROM files WHERE id = '" + id + "'").one().getLong(0);
+	}
+
+	private UUID currentGeneration(String id) {
+
+		String cql = "SELECT current_generation FROM files WHERE id = '" + id + "' AND generation = " + new UUID(0, 0)
+				+ " AND chunk = -1";
+		return template.query(cql).one().getUUID(0);
+	}
+
+	@Test
+	public void writesAndReadsChunks() throws IOException {
+
+		byte[] content = bytes(10500);
+
+		assertEquals(10500, lobs.write("a", new ByteArrayInputStream(content)));
+		assertEquals(12, countRows("a"));
+		assertEquals(10500, lobs.getLength("a"));
+
+		LargeObjectInputStream in = lobs.read("a");
+		assertEquals(10500, in.getLength());
+		assertArrayEquals(content, StreamUtils.copyToByteArray(in));
+		assertEquals(-1, in.read());
+		in.close();
+	}
+
+	@Test
+	public void writesEmptyObjects() throws IOException {
+
+		assertEquals(0, lobs.write("empty", new ByteArrayInputStream(new byte[0])));
+
+		assertTrue(lobs.exists("empty"));
+		assertEquals(-1, lobs.read("empty").read());
+	}
+
+	@Test
+	public void replacesLongerObjectsWithoutLeftovers() throws IOException {
+
+		lobs.write("a", new ByteArrayInputStream(bytes(5000)));
+		lobs.write("a", new ByteArrayInputStream(bytes(2000)));
+
+		assertEquals(3, countRows("a"));
+		assertArrayEquals(bytes(2000), StreamUtils.copyToByteArray(lobs.read("a")));
+	}
+
+	@Test
+	public void keepsPreviousObjectIfStreamFails() throws IOException {
+
+		lobs.write("a", new ByteArrayInputStream(bytes(5000)));
+		UUID generation = currentGeneration("a");
+
+		InputStream failing = new SequenceInputStream(new ByteArrayInputStream(bytes(2500)), new InputStream() {
+
+			@Override
+			public int read() throws IOException {
+				throw new IOException("disconnected");
+			}
+		});
+
+		try {
+			lobs.write("a", failing);
+			fail("Missing IOException");
+		} catch (IOException expected) {}
+
+		assertEquals(generation, currentGeneration("a"));
+		assertEquals(6, countRows("a"));
+		assertArrayEquals(bytes(5000), StreamUtils.copyToByteArray(lobs.read("a")));
+	}
+
+	@Test
+	public void keepsPreviousObjectIfChunkWriteFails() throws IOException {
+
+		lobs.write("a", new ByteArrayInputStream(bytes(5000)));
+
+		cluster.setFailures(new Failures() {
+
+			@Override
+			public DriverException next(Statement statement, boolean write) {
+				return write ? new WriteTimeoutException(ConsistencyLevel.ONE, WriteType.SIMPLE, 0, 1) : null;
+			}
+		});
+
+		try {
+			lobs.write("a", new ByteArrayInputStream(bytes(3000)));
+			fail("Missing DataAccessException");
+		} catch (DataAccessException expected) {}
+
+		cluster.setFailures(Failures.none());
+
+		assertEquals(5000, lobs.getLength("a"));
+		assertArrayEquals(bytes(5000), StreamUtils.copyToByteArray(lobs.read("a")));
+	}
+
+	@Test
+	public void deletesObjects() throws IOException {
+
+		lobs.write("a", new ByteArrayInputStream(bytes(3000)));
+		lobs.delete("a");
+
+		assertFalse(lobs.exists("a"));
+		assertNull(lobs.read("a"));
+		assertEquals(-1, lobs.getLength("a"));
+	}
+
+	@Test
+	public void verifiesChecksums() throws IOException {
+
+		lobs.write("a", new ByteArrayInputStream(bytes(3000)));
+		template.execute("UPDATE files SET data = 0x" + repeat("00", 1000) + " WHERE id = 'a' AND generation = "
+				+ currentGeneration("a") + " AND chunk = 1");
+
+		InputStream in = lobs.read("a");
+		in.read(new byte[1000]);
+
+		try {
+			in.read();
+			fail("Missing IOException");
+		} catch (IOException expected) {
+			assertTrue(expected.getMessage().contains("checksum"));
+		}
+	}
+
+	@Test
+	public void boundsChunksInFlight() throws IOException {
+
+		cluster.setLatency(Latency.fixed(2, TimeUnit.MILLISECONDS));
+		lobs.setMaxChunksInFlight(2);
+		lobs.setPrefetchChunks(3);
+
+		byte[] content = bytes(20000);
+		lobs.write("a", new ByteArrayInputStream(content));
+
+		assertEquals(2, cluster.getMaxInFlight());
+
+		assertArrayEquals(content, StreamUtils.copyToByteArray(lobs.read("a")));
+		assertEquals(4, cluster.getMaxInFlight());
+	}
+
+	private static String repeat(String s, int times) {
+
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < times; i++) {
+			builder.append(s);
+		}
+		return builder.toString();
+	}
+}
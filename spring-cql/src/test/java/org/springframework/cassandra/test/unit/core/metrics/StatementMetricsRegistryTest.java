@@ -0,0 +1,98 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.test.unit.core.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.springframework.cassandra.core.metrics.LatencyHistogram;
+import org.springframework.cassandra.core.metrics.StatementMetrics;
+import org.springframework.cassandra.core.metrics.StatementMetricsRegistry;
+import org.springframework.dao.QueryTimeoutException;
+
+public class StatementMetricsRegistryTest {
+
+	@Test
+	public void histogramReportsPercentilesWithinPrecision() {
+
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (int i = 1; i <= 10000; i++) {
+			histogram.record(i, TimeUnit.MICROSECONDS);
+		}
+
+		assertEquals(10000, histogram.getCount());
+		assertEquals(10000, histogram.getMax());
+		assertEquals(5000.5, histogram.getMean(), 0.001);
+		assertWithin(5000, histogram.getValueAtPercentile(50));
+		assertWithin(9900, histogram.getValueAtPercentile(99));
+		assertEquals(10000, histogram.getValueAtPercentile(100));
+	}
+
+	@Test
+	public void histogramIsExactForSmallValues() {
+
+		LatencyHistogram histogram = new LatencyHistogram();
+		histogram.record(3, TimeUnit.MICROSECONDS);
+		histogram.record(7, TimeUnit.MICROSECONDS);
+
+		assertEquals(3, histogram.getValueAtPercentile(50));
+		assertEquals(7, histogram.getValueAtPercentile(99));
+	}
+
+	@Test
+	public void registryKeysByStatementAndSource() {
+
+		StatementMetricsRegistry registry = new StatementMetricsRegistry();
+
+		registry.record("SELECT * FROM t WHERE id=?", "Person.findOne", 2, TimeUnit.MILLISECONDS, 1, null);
+		registry.record("SELECT * FROM t WHERE id=?", "Person.findOne", 4, TimeUnit.MILLISECONDS, 0,
+				new QueryTimeoutException("timeout"));
+		registry.record("SELECT * FROM t WHERE id=?", null, 1, TimeUnit.MILLISECONDS, 1, null);
+
+		assertEquals(2, registry.getStatementCount());
+		assertEquals(3, registry.getExecutions());
+		assertEquals(1, registry.getErrors());
+
+		StatementMetrics metrics = registry.getMetrics("SELECT * FROM t WHERE id=?", "Person.findOne");
+		assertNotNull(metrics);
+		assertEquals(2, metrics.getExecutions());
+		assertEquals(1, metrics.getRows());
+		assertEquals(Long.valueOf(1), metrics.getErrors().get("QueryTimeoutException"));
+		assertWithin(4000, registry.getLatencyAtPercentile("SELECT * FROM t WHERE id=?", 99));
+	}
+
+	@Test
+	public void registryBoundsTrackedStatements() {
+
+		StatementMetricsRegistry registry = new StatementMetricsRegistry();
+		registry.setMaxStatements(2);
+
+		for (int i = 0; i < 5; i++) {
+			registry.record("SELECT * FROM t" + i, null, 1, TimeUnit.MILLISECONDS, 0, null);
+		}
+
+		assertEquals(3, registry.getStatementCount());
+		assertEquals(3, registry.getMetrics(StatementMetricsRegistry.OTHER_STATEMENTS, null).getExecutions());
+	}
+
+	private static void assertWithin(long expected, long actual) {
+		assertTrue("expected about " + expected + " but was " + actual, Math.abs(expected - actual) <= expected / 50);
+	}
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright 2013-2014 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.test.unit.core.retry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.net.InetSocketAddress;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.cassandra.core.CqlTemplate;
+import org.springframework.cassandra.core.QueryOptions;
+import org.springframework.cassandra.core.SettableResultSetFuture;
+import org.springframework.cassandra.core.metrics.StatementMetricsSink;
+import org.springframework.cassandra.core.metrics.StatementSource;
+import org.springframework.cassandra.core.retry.BackoffRetryPolicy;
+import org.springframework.cassandra.core.retry.RetryBudget;
+import org.springframework.cassandra.support.exception.CassandraAdmissionRejectedException;
+import org.springframework.dao.DataAccessException;
+
+import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.SimpleStatement;
+import com.datastax.driver.core.Statement;
+import com.datastax.driver.core.exceptions.NoHostAvailableException;
+import com.datastax.driver.core.exceptions.ReadTimeoutException;
+import com.datastax.driver.core.exceptions.SyntaxError;
+
+@RunWith(MockitoJUnitRunner.class)
+public class BackoffRetryPolicyTest {
+
+	@Mock
+	private Session session;
+
+	@Mock
+	private ResultSet resultSet;
+
+	private CqlTemplate template;
+
+	private BackoffRetryPolicy policy;
+
+	@Before
+	public void setup() {
+
+		policy = new BackoffRetryPolicy();
+		policy.setInitialDelayMillis(1);
+
+		template = new CqlTemplate(session);
+		template.setBackoffRetryPolicy(policy);
+	}
+
+	@Test
+	public void retriesIdempotentStatements() {
+
+		given(session.execute(any(Statement.class))).willThrow(noHostAvailable()).willReturn(resultSet);
+
+		assertSame(resultSet, template.query("SELECT * FROM t WHERE id = 1"));
+		verify(session, times(2)).execute(any(Statement.class));
+	}
+
+	@Test
+	public void doesNotRetryNonIdempotentStatements() {
+
+		given(session.execute(any(Statement.class))).willThrow(noHostAvailable()).willReturn(resultSet);
+
+		try {
+			template.execute("UPDATE t SET c = c + 1 WHERE id = 1");
+			fail("expected failure");
+		} catch (NoHostAvailableException e) {
+			verify(session, times(1)).execute(any(Statement.class));
+		}
+	}
+
+	@Test
+	public void honorsExplicitIdempotence() {
+
+		given(session.execute(any(Statement.class))).willThrow(noHostAvailable()).willReturn(resultSet);
+
+		QueryOptions options = new QueryOptions();
+		options.setIdempotent(true);
+
+		assertSame(resultSet, template.query("UPDATE t SET c = c + 1 WHERE id = 1", options));
+	}
+
+	@Test
+	public void doesNotRetryPermanentFailuresAndStopsAfterMaxAttempts() {
+
+		given(session.execute(any(Statement.class))).willThrow(new SyntaxError("bad"));
+
+		try {
+			template.query("SELECT * FROM t WHERE id = 1");
+			fail("expected failure");
+		} catch (SyntaxError e) {
+			verify(session, times(1)).execute(any(Statement.class));
+		}
+
+		willThrow(readTimeout()).given(session).execute(any(Statement.class));
+
+		try {
+			template.query("SELECT * FROM t WHERE id = 1");
+			fail("expected failure");
+		} catch (ReadTimeoutException e) {
+			verify(session, times(1 + policy.getMaxAttempts())).execute(any(Statement.class));
+		}
+	}
+
+	@Test
+	public void retriesAsynchronouslyWithoutBlocking() throws Exception {
+
+		SettableResultSetFuture first = new SettableResultSetFuture();
+		SettableResultSetFuture second = new SettableResultSetFuture();
+		given(session.executeAsync(any(Statement.class))).willReturn(first, second);
+
+		ResultSetFuture future = template.executeAsynchronously(new SimpleStatement("SELECT * FROM t WHERE id = 1"));
+
+		first.setException(readTimeout());
+		assertFalse(future.isDone());
+
+		verify(session, timeout(5000).times(2)).executeAsync(any(Statement.class));
+
+		second.set(resultSet);
+		assertSame(resultSet, future.get());
+	}
+
+	@Test
+	public void recordsSourceOfAsynchronousRetries() throws Exception {
+
+		StatementMetricsSink sink = mock(StatementMetricsSink.class);
+		template.setMetricsSink(sink);
+
+		SettableResultSetFuture first = new SettableResultSetFuture();
+		SettableResultSetFuture second = new SettableResultSetFuture();
+		given(session.executeAsync(any(Statement.class))).willReturn(first, second);
+
+		String previous = StatementSource.push("PersonRepository.findOne");
+		ResultSetFuture future;
+		try {
+			future = template.executeAsynchronously(new SimpleStatement("SELECT * FROM t WHERE id = 1"));
+		} finally {
+			StatementSource.pop(previous);
+		}
+
+		first.setException(readTimeout());
+		verify(session, timeout(5000).times(2)).executeAsync(any(Statement.class));
+
+		second.set(resultSet);
+		future.get();
+
+		verify(sink, times(2)).record(anyString(), eq("PersonRepository.findOne"), anyLong(), any(TimeUnit.class),
+				anyInt(), any(DataAccessException.class));
+	}
+
+	@Test
+	public void doesNotRetryRejectedStatements() {
+		assertFalse(policy.shouldRetry(1, new CassandraAdmissionRejectedException(1, "statement rejected")));
+	}
+
+	@Test
+	public void budgetLimitsRetries() {
+
+		RetryBudget budget = new RetryBudget(0.5, 0, 2);
+
+		assertTrue(budget.tryRetry());
+		assertTrue(budget.tryRetry());
+		assertFalse(budget.tryRetry());
+
+		budget.onExecution();
+		budget.onExecution();
+
+		assertTrue(budget.tryRetry());
+		assertEquals(0, budget.getBalance(), 0.001);
+	}
+
+	@Test
+	public void delaysGrowExponentiallyWithinBounds() {
+
+		policy.setInitialDelayMillis(10);
+		policy.setMaxDelayMillis(50);
+
+		for (int i = 0; i < 100; i++) {
+			assertTrue(policy.getDelayNanos(1) <= 10000000L);
+			assertTrue(policy.getDelayNanos(2) <= 20000000L);
+			assertTrue(policy.getDelayNanos(10) <= 50000000L);
+		}
+	}
+
+	private static NoHostAvailableException noHostAvailable() {
+		return new NoHostAvailableException(Collections.<InetSocketAddress, Throwable> emptyMap());
+	}
+
+	private static ReadTimeoutException readTimeout() {
+		return new ReadTimeoutException(ConsistencyLevel.ONE, 0, 1, false);
+	}
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2013-2014 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.test.unit.core.retry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.cassandra.core.CqlTemplate;
+import org.springframework.cassandra.core.SettableResultSetFuture;
+import org.springframework.cassandra.core.retry.HedgingPolicy;
+
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.SimpleStatement;
+import com.datastax.driver.core.Statement;
+
+@RunWith(MockitoJUnitRunner.class)
+public class HedgingPolicyTest {
+
+	@Mock
+	private Session session;
+
+	@Mock
+	private ResultSet resultSet;
+
+	@Mock
+	private ResultSet hedgedResultSet;
+
+	@Test
+	public void derivesDelayFromCompletedWindow() {
+
+		HedgingPolicy policy = new HedgingPolicy();
+		policy.setWindowSize(10);
+		policy.setPercentile(90);
+
+		assertEquals(-1, policy.beginExecution("q"));
+
+		for (int i = 1; i <= 10; i++) {
+			policy.recordLatency("q", TimeUnit.MILLISECONDS.toNanos(i), false);
+		}
+
+		long delay = policy.getDelayMicros("q");
+		assertTrue("unexpected delay " + delay, delay >= 8900 && delay <= 9200);
+		assertEquals(TimeUnit.MICROSECONDS.toNanos(delay), policy.beginExecution("q"));
+	}
+
+	@Test
+	public void keepsHedgeWonLatenciesOutOfWindow() {
+
+		HedgingPolicy policy = new HedgingPolicy();
+		policy.setWindowSize(10);
+		policy.setPercentile(50);
+
+		for (int i = 0; i < 10; i++) {
+			policy.recordLatency("q", TimeUnit.MILLISECONDS.toNanos(10), false);
+		}
+
+		long delay = policy.getDelayMicros("q");
+
+		for (int i = 0; i < 10; i++) {
+			policy.recordLatency("q", TimeUnit.MILLISECONDS.toNanos(1), true);
+		}
+
+		assertEquals(delay, policy.getDelayMicros("q"));
+		assertEquals(10, policy.getHedgesWonCount());
+	}
+
+	@Test
+	public void budgetsHedgesPerStatement() {
+
+		HedgingPolicy policy = new HedgingPolicy();
+		policy.setWindowSize(10);
+		policy.setMaxHedgeRatio(0.1);
+
+		assertTrue(policy.tryHedge("q"));
+		assertFalse(policy.tryHedge("q"));
+		assertTrue(policy.tryHedge("other"));
+
+		for (int i = 0; i < 10; i++) {
+			policy.beginExecution("q");
+		}
+
+		assertTrue(policy.tryHedge("q"));
+		assertEquals(3, policy.getHedgeCount());
+	}
+
+	@Test
+	public void hedgedResponseWinsAndOriginalIsCancelled() throws Exception {
+
+		SettableResultSetFuture warmup = new SettableResultSetFuture();
+		warmup.set(resultSet);
+		SettableResultSetFuture original = new SettableResultSetFuture();
+		SettableResultSetFuture hedge = new SettableResultSetFuture();
+		given(session.executeAsync(any(Statement.class))).willReturn(warmup, original, hedge);
+
+		HedgingPolicy policy = new HedgingPolicy();
+		policy.setWindowSize(1);
+
+		CqlTemplate template = new CqlTemplate(session);
+		template.setHedgingPolicy(policy);
+
+		template.executeAsynchronously(new SimpleStatement("SELECT * FROM t WHERE id = 1")).get();
+
+		ResultSetFuture future = template.executeAsynchronously(new SimpleStatement("SELECT * FROM t WHERE id = 1"));
+
+		verify(session, timeout(5000).times(3)).executeAsync(any(Statement.class));
+		hedge.set(hedgedResultSet);
+
+		assertSame(hedgedResultSet, future.get());
+		assertTrue(original.isCancelled());
+		assertEquals(1, policy.getHedgesWonCount());
+	}
+
+	@Test
+	public void doesNotHedgeWrites() throws Exception {
+
+		SettableResultSetFuture write = new SettableResultSetFuture();
+		write.set(resultSet);
+		given(session.executeAsync(any(Statement.class))).willReturn(write);
+
+		HedgingPolicy policy = new HedgingPolicy();
+		policy.setWindowSize(1);
+
+		CqlTemplate template = new CqlTemplate(session);
+		template.setHedgingPolicy(policy);
+
+		assertSame(write, template.executeAsynchronously(new SimpleStatement("INSERT INTO t (id) VALUES (1)")));
+		assertEquals(0, policy.getHedgeCount());
+	}
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2013-2014 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.test.unit.core.throttle;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.cassandra.core.CqlTemplate;
+import org.springframework.cassandra.core.SettableResultSetFuture;
+import org.springframework.cassandra.core.throttle.AdaptiveConcurrencyLimiter;
+import org.springframework.cassandra.support.exception.CassandraAdmissionRejectedException;
+
+import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.SimpleStatement;
+import com.datastax.driver.core.Statement;
+import com.datastax.driver.core.WriteType;
+import com.datastax.driver.core.exceptions.WriteTimeoutException;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AdaptiveConcurrencyLimiterTest {
+
+	private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+	@Mock
+	private Session session;
+
+	@Mock
+	private ResultSet resultSet;
+
+	@Test
+	public void rejectsBeyondLimit() {
+
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2);
+
+		assertTrue(limiter.tryAcquire());
+		assertTrue(limiter.tryAcquire());
+		assertFalse(limiter.tryAcquire());
+		assertEquals(1, limiter.getRejectedCount());
+
+		limiter.release(MILLIS, false);
+
+		assertTrue(limiter.tryAcquire());
+	}
+
+	@Test
+	public void growsWhileLatencyIsStable() {
+
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10);
+
+		for (int i = 0; i < 1000; i++) {
+			for (int j = 0; j < limiter.getLimit(); j++) {
+				limiter.tryAcquire();
+			}
+			while (limiter.getInFlight() > 0) {
+				limiter.release(MILLIS, false);
+			}
+		}
+
+		assertTrue("limit did not grow: " + limiter.getLimit(), limiter.getLimit() > 20);
+		assertEquals(1000, limiter.getMinRttMicros());
+	}
+
+	@Test
+	public void backsOffOnTimeoutsAndLatency() throws InterruptedException {
+
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(100);
+
+		limiter.tryAcquire();
+		limiter.release(MILLIS, false);
+		assertEquals(100, limiter.getLimit());
+
+		limiter.tryAcquire();
+		limiter.release(MILLIS, true);
+		assertEquals(90, limiter.getLimit());
+
+		Thread.sleep(2);
+
+		limiter.tryAcquire();
+		limiter.release(10 * MILLIS, false);
+		assertEquals(81, limiter.getLimit());
+	}
+
+	@Test
+	public void templateRejectsAndReleasesAsynchronousExecutions() throws Exception {
+
+		SettableResultSetFuture first = new SettableResultSetFuture();
+		SettableResultSetFuture second = new SettableResultSetFuture();
+		given(session.executeAsync(any(Statement.class))).willReturn(first, second);
+
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1);
+		CqlTemplate template = new CqlTemplate(session);
+		template.setConcurrencyLimiter(limiter);
+
+		template.executeAsynchronously(new SimpleStatement("INSERT INTO t (id) VALUES (1)"));
+
+		ResultSetFuture rejected = template.executeAsynchronously(new SimpleStatement("INSERT INTO t (id) VALUES (2)"));
+
+		try {
+			rejected.get();
+			fail("expected rejection");
+		} catch (ExecutionException e) {
+			assertEquals(1, ((CassandraAdmissionRejectedException) e.getCause()).getLimit());
+		}
+
+		first.setException(new WriteTimeoutException(ConsistencyLevel.ONE, WriteType.SIMPLE, 0, 1));
+		assertEquals(0, limiter.getInFlight());
+
+		template.executeAsynchronously(new SimpleStatement("INSERT INTO t (id) VALUES (2)"));
+		second.set(resultSet);
+		assertEquals(0, limiter.getInFlight());
+	}
+}
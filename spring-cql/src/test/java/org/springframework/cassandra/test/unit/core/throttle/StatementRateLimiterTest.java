@@ -0,0 +1,96 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.test.unit.core.throttle;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.springframework.cassandra.core.cql.OperationType;
+import org.springframework.cassandra.core.throttle.RateLimit;
+import org.springframework.cassandra.core.throttle.StatementRateLimiter;
+import org.springframework.cassandra.core.throttle.TokenBucket;
+
+import com.datastax.driver.core.SimpleStatement;
+
+public class StatementRateLimiterTest {
+
+	@Test
+	public void bucketAllowsBurstThenDelays() {
+
+		TokenBucket bucket = new TokenBucket(10);
+
+		for (int i = 0; i < 10; i++) {
+			assertEquals(0, bucket.reserve(1));
+		}
+
+		long delay = bucket.reserve(1);
+		assertTrue("unexpected delay " + delay, delay > 50000000L && delay <= 100000000L);
+	}
+
+	@Test
+	public void unlimitedBucketNeverDelays() {
+
+		TokenBucket bucket = new TokenBucket(0);
+
+		assertEquals(0, bucket.reserve(1000000));
+	}
+
+	@Test
+	public void appliesOnlyMatchingLimits() {
+
+		StatementRateLimiter limiter = new StatementRateLimiter();
+		limiter.addRateLimit(new RateLimit("ks", "t", OperationType.WRITE, 1, 0));
+
+		SimpleStatement write = new SimpleStatement("INSERT INTO t (id) VALUES (1)");
+		SimpleStatement read = new SimpleStatement("SELECT * FROM t WHERE id = 1");
+
+		assertEquals(0, limiter.reserve(write, "ks"));
+		assertEquals(0, limiter.reserve(read, "ks"));
+		assertEquals(0, limiter.reserve(write, "other"));
+		assertTrue(limiter.reserve(write, "ks") > 0);
+		assertEquals(1, limiter.getThrottledCount());
+	}
+
+	@Test
+	public void limitsCanBeChangedAtRuntime() {
+
+		StatementRateLimiter limiter = new StatementRateLimiter();
+		limiter.setLimit("*", "*", "scan", 1, 0);
+		limiter.setLimit("*", "*", "SCAN", 0, 0);
+
+		assertEquals(1, limiter.getLimits().length);
+
+		SimpleStatement scan = new SimpleStatement("SELECT * FROM t");
+		assertEquals(0, limiter.reserve(scan, null));
+		assertEquals(0, limiter.reserve(scan, null));
+
+		assertTrue(limiter.removeLimit(null, null, "SCAN"));
+		assertEquals(0, limiter.getLimits().length);
+	}
+
+	@Test
+	public void limitsRequestBytes() {
+
+		StatementRateLimiter limiter = new StatementRateLimiter();
+		limiter.setLimit("*", "*", "*", 0, 40);
+
+		SimpleStatement write = new SimpleStatement("INSERT INTO t (id) VALUES (1)");
+
+		assertEquals(0, limiter.reserve(write, null));
+		assertTrue(limiter.reserve(write, null) > 0);
+	}
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2013-2014 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cassandra.test.unit.core.tracing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+import org.springframework.cassandra.core.CqlTemplate;
+import org.springframework.cassandra.core.tracing.SlowQueryLog;
+import org.springframework.cassandra.core.tracing.TracedQuery;
+import org.springframework.cassandra.test.inmemory.InMemoryCluster;
+
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.ExecutionInfo;
+import com.datastax.driver.core.QueryTrace;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.SimpleStatement;
+import com.datastax.driver.core.Statement;
+import com.google.common.util.concurrent.Uninterruptibles;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SlowQueryLogTest {
+
+	@Mock
+	private Session session;
+
+	@Mock
+	private ResultSet resultSet;
+
+	@Mock
+	private ExecutionInfo executionInfo;
+
+	@Mock
+	private QueryTrace trace;
+
+	private CqlTemplate template;
+	private SlowQueryLog slowQueryLog;
+
+	private boolean tracingEnabled;
+	private Statement executed;
+
+	@Before
+	public void setup() {
+
+		given(session.execute(any(Statement.class))).willAnswer(new Answer<ResultSet>() {
+
+			@Override
+			public ResultSet answer(InvocationOnMock invocation) throws Throwable {
+				executed = (Statement) invocation.getArguments()[0];
+				tracingEnabled = executed.isTracing();
+				return resultSet;
+			}
+		});
+		given(resultSet.getExecutionInfo()).willReturn(executionInfo);
+		given(executionInfo.getQueryTrace()).willReturn(trace);
+		given(trace.getTraceId()).willReturn(UUID.randomUUID());
+		given(trace.getEvents()).willReturn(Collections.<QueryTrace.Event> emptyList());
+
+		slowQueryLog = new SlowQueryLog();
+		slowQueryLog.setExecutor(new Executor() {
+
+			@Override
+			public void execute(Runnable command) {
+				command.run();
+			}
+		});
+
+		template = new CqlTemplate(session);
+		template.addStatementInterceptor(slowQueryLog);
+	}
+
+	@Test
+	public void countsStatementsAboveThreshold() {
+
+		slowQueryLog.setThresholdMillis(0);
+		template.query("SELECT * FROM t");
+		template.query("SELECT * FROM t");
+
+		assertEquals(2, slowQueryLog.getSlowQueryCount());
+		assertEquals(0, slowQueryLog.getTraceCount());
+	}
+
+	@Test
+	public void ignoresFastStatementsWithoutSampling() {
+
+		template.query("SELECT * FROM t");
+
+		assertEquals(0, slowQueryLog.getSlowQueryCount());
+		assertFalse(tracingEnabled);
+	}
+
+	@Test
+	public void tracesSampledStatementsIntoBuffer() {
+
+		slowQueryLog.setTraceSampleRate(1);
+		slowQueryLog.setRedactLiterals(true);
+
+		SimpleStatement statement = new SimpleStatement("SELECT * FROM t WHERE id = 42");
+		template.execute(statement);
+
+		assertTrue(tracingEnabled);
+		assertNotSame("a copy must be traced", statement, executed);
+		assertFalse("the given statement must not be traced", statement.isTracing());
+		assertEquals(1, slowQueryLog.getTraceCount());
+
+		TracedQuery traced = slowQueryLog.getTraces().get(0);
+		assertEquals("SELECT * FROM t WHERE id = ?", traced.getStatement());
+		assertEquals(1, slowQueryLog.getRecentTraces().length);
+	}
+
+	@Test
+	public void rendersValuesOfReusedBoundStatementsOnExecutor() {
+
+		InMemoryCluster cluster = new InMemoryCluster(1);
+
+		try {
+
+			Session session = cluster.connect();
+			session.execute("CREATE KEYSPACE ks WITH replication = { 'class' : 'SimpleStrategy', 'replication_factor' : 1 }");
+			session.execute("CREATE TABLE ks.person (id text PRIMARY KEY, name text)");
+
+			final List<Runnable> queued = new ArrayList<Runnable>();
+			final List<String> descriptions = new ArrayList<String>();
+			final List<Thread> renderers = new ArrayList<Thread>();
+
+			SlowQueryLog log = new SlowQueryLog() {
+
+				@Override
+				protected String describe(StatementSnapshot snapshot) {
+
+					String description = super.describe(snapshot);
+					descriptions.add(description);
+					renderers.add(Thread.currentThread());
+					return description;
+				}
+			};
+			log.setThresholdMillis(0);
+			log.setTraceSampleRate(1);
+			log.setExecutor(new Executor() {
+
+				@Override
+				public void execute(Runnable command) {
+					queued.add(command);
+				}
+			});
+
+			CqlTemplate template = new CqlTemplate(session);
+			template.addStatementInterceptor(log);
+
+			BoundStatement bound = session.prepare("INSERT INTO ks.person (id, name) VALUES (?, ?)").bind("1", "Walter");
+			template.execute(bound);
+
+			assertFalse(bound.isTracing());
+			assertEquals("Walter", session.execute("SELECT name FROM ks.person WHERE id = '1'").one().getString(0));
+			assertTrue(descriptions.isEmpty());
+
+			bound.bind("2", "Jesse");
+
+			final Thread executor = new Thread(new Runnable() {
+
+				@Override
+				public void run() {
+					for (Runnable command : queued) {
+						command.run();
+					}
+				}
+			});
+			executor.start();
+			Uninterruptibles.joinUninterruptibly(executor);
+
+			assertEquals(Arrays.asList("INSERT INTO ks.person (id, name) VALUES (?, ?) [id=1, name=Walter]"), descriptions);
+			assertSame(executor, renderers.get(0));
+
+		} finally {
+			cluster.close();
+		}
+	}
+}
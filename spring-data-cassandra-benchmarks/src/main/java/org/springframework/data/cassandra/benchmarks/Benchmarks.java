@@ -0,0 +1,42 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.cassandra.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the {@link GCProfiler}, so that each reports its allocation rate per operation
+ * (<code>gc.alloc.rate.norm</code>) next to its throughput. Takes the usual JMH command line options, for example a
+ * regular expression selecting the benchmarks to run:
+ * 
+ * <pre>
+ * mvn -pl spring-data-cassandra-benchmarks -am package
+ * java -jar spring-data-cassandra-benchmarks/target/benchmarks.jar ConverterRead
+ * </pre>
+ */
+public class Benchmarks {
+
+	public static void main(String[] args) throws Exception {
+
+		new Runner(new OptionsBuilder() //
+				.parent(new CommandLineOptions(args)) //
+				.addProfiler(GCProfiler.class) //
+				.build()).run();
+	}
+}
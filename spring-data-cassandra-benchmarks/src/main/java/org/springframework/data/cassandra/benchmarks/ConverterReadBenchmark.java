@@ -0,0 +1,102 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.cassandra.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cassandra.core.cql.CqlIdentifier;
+import org.springframework.data.cassandra.benchmarks.domain.Event;
+import org.springframework.data.cassandra.benchmarks.domain.Person;
+import org.springframework.data.cassandra.benchmarks.domain.Reading;
+import org.springframework.data.cassandra.convert.ColumnReader;
+import org.springframework.data.cassandra.convert.MappingCassandraConverter;
+
+import com.datastax.driver.core.Row;
+
+/**
+ * Reading entities from {@link Row}s with {@link MappingCassandraConverter#readRow(Class, Row)} and reading single
+ * columns with {@link ColumnReader}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConverterReadBenchmark {
+
+	private static final CqlIdentifier FIRST_NAME = CqlIdentifier.cqlId("firstName");
+
+	private MappingCassandraConverter converter;
+
+	private Row personRow;
+	private Row eventRow;
+	private Row readingRow;
+
+	private ColumnReader personReader;
+
+	@Setup
+	public void setup() {
+
+		converter = Fixtures.converter();
+
+		personRow = Fixtures.personRow(Fixtures.person(1));
+		eventRow = Fixtures.eventRow(Fixtures.event(1));
+		readingRow = Fixtures.readingRow(Fixtures.reading(1));
+
+		personReader = new ColumnReader(personRow);
+	}
+
+	@Benchmark
+	public Person readRow() {
+		return converter.readRow(Person.class, personRow);
+	}
+
+	@Benchmark
+	public Event readRowCompositeKey() {
+		return converter.readRow(Event.class, eventRow);
+	}
+
+	@Benchmark
+	public Reading readRowMapId() {
+		return converter.readRow(Reading.class, readingRow);
+	}
+
+	@Benchmark
+	public Object columnReaderGetByName() {
+		return personReader.get(FIRST_NAME);
+	}
+
+	@Benchmark
+	public Object columnReaderGetByIndex() {
+		return personReader.get(1);
+	}
+
+	@Benchmark
+	public Object columnReaderGetCollection() {
+		return personReader.get(6);
+	}
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.cassandra.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.cassandra.benchmarks.domain.Event;
+import org.springframework.data.cassandra.benchmarks.domain.Person;
+import org.springframework.data.cassandra.benchmarks.domain.Reading;
+import org.springframework.data.cassandra.convert.MappingCassandraConverter;
+
+import com.datastax.driver.core.querybuilder.Delete;
+import com.datastax.driver.core.querybuilder.Insert;
+import com.datastax.driver.core.querybuilder.QueryBuilder;
+import com.datastax.driver.core.querybuilder.Update;
+
+/**
+ * Writing entities into {@link Insert}, {@link Update} and {@link Delete.Where} sinks with
+ * {@link MappingCassandraConverter#write(Object, Object)}. Each benchmark creates its own sink, as the template does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConverterWriteBenchmark {
+
+	private MappingCassandraConverter converter;
+
+	private Person person;
+	private Event event;
+	private Reading reading;
+
+	@Setup
+	public void setup() {
+
+		converter = Fixtures.converter();
+
+		person = Fixtures.person(1);
+		event = Fixtures.event(1);
+		reading = Fixtures.reading(1);
+	}
+
+	@Benchmark
+	public Insert writeInsert() {
+
+		Insert insert = QueryBuilder.insertInto("person");
+		converter.write(person, insert);
+		return insert;
+	}
+
+	@Benchmark
+	public Update writeUpdate() {
+
+		Update update = QueryBuilder.update("person");
+		converter.write(person, update);
+		return update;
+	}
+
+	@Benchmark
+	public Delete.Where writeWhere() {
+
+		Delete.Where where = QueryBuilder.delete().from("person").where();
+		converter.write(person, where);
+		return where;
+	}
+
+	@Benchmark
+	public Insert writeInsertCompositeKey() {
+
+		Insert insert = QueryBuilder.insertInto("event");
+		converter.write(event, insert);
+		return insert;
+	}
+
+	@Benchmark
+	public Update writeUpdateCompositeKey() {
+
+		Update update = QueryBuilder.update("event");
+		converter.write(event, update);
+		return update;
+	}
+
+	@Benchmark
+	public Delete.Where writeWhereCompositeKey() {
+
+		Delete.Where where = QueryBuilder.delete().from("event").where();
+		converter.write(event, where);
+		return where;
+	}
+
+	@Benchmark
+	public Delete.Where writeWhereMapId() {
+
+		Delete.Where where = QueryBuilder.delete().from("reading").where();
+		converter.write(reading, where);
+		return where;
+	}
+
+	@Benchmark
+	public String writeInsertAndRender() {
+
+		Insert insert = QueryBuilder.insertInto("person");
+		converter.write(person, insert);
+		return insert.getQueryString();
+	}
+}
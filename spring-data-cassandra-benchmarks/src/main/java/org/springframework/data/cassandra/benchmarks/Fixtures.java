@@ -0,0 +1,124 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.cassandra.benchmarks;
+
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.cassandra.test.inmemory.SyntheticRows;
+import org.springframework.data.cassandra.benchmarks.domain.Event;
+import org.springframework.data.cassandra.benchmarks.domain.EventKey;
+import org.springframework.data.cassandra.benchmarks.domain.Person;
+import org.springframework.data.cassandra.benchmarks.domain.Reading;
+import org.springframework.data.cassandra.convert.MappingCassandraConverter;
+
+import com.datastax.driver.core.ColumnDefinitions;
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.Row;
+
+/**
+ * Entities and matching synthetic {@link Row}s shared by the benchmarks.
+ */
+public abstract class Fixtures {
+
+	public static final String KEYSPACE = "benchmarks";
+
+	public static final ColumnDefinitions PERSON_COLUMNS = SyntheticRows.columns(KEYSPACE, "person", //
+			"id", DataType.uuid(), //
+			"firstname", DataType.text(), //
+			"lastname", DataType.text(), //
+			"age", DataType.cint(), //
+			"birthdate", DataType.timestamp(), //
+			"score", DataType.cdouble(), //
+			"emails", DataType.set(DataType.text()));
+
+	public static final ColumnDefinitions EVENT_COLUMNS = SyntheticRows.columns(KEYSPACE, "event", //
+			"source", DataType.text(), //
+			"time", DataType.timestamp(), //
+			"type", DataType.text(), //
+			"payload", DataType.text());
+
+	public static final ColumnDefinitions READING_COLUMNS = SyntheticRows.columns(KEYSPACE, "reading", //
+			"sensor", DataType.text(), //
+			"time", DataType.timestamp(), //
+			"value", DataType.cdouble());
+
+	/**
+	 * @return A {@link MappingCassandraConverter} whose mapping context already knows the benchmark entities, so that
+	 *         benchmarks don't measure building the mapping metadata.
+	 */
+	public static MappingCassandraConverter converter() {
+
+		MappingCassandraConverter converter = new MappingCassandraConverter();
+		converter.afterPropertiesSet();
+
+		converter.getMappingContext().getPersistentEntity(Person.class);
+		converter.getMappingContext().getPersistentEntity(Event.class);
+		converter.getMappingContext().getPersistentEntity(Reading.class);
+
+		return converter;
+	}
+
+	public static Person person(int i) {
+
+		Set<String> emails = new LinkedHashSet<String>();
+		emails.add("person" + i + "@example.com");
+		emails.add("person" + i + "@example.org");
+
+		Person person = new Person(new UUID(i, i));
+		person.setFirstName("First" + i);
+		person.setLastName("Last" + i);
+		person.setAge(20 + i % 60);
+		person.setBirthDate(new Date(1000000000000L + i));
+		person.setScore(i / 7.0);
+		person.setEmails(emails);
+
+		return person;
+	}
+
+	public static Row personRow(Person person) {
+		return SyntheticRows.row(PERSON_COLUMNS, person.getId(), person.getFirstName(), person.getLastName(),
+				person.getAge(), person.getBirthDate(), person.getScore(), person.getEmails());
+	}
+
+	public static Event event(int i) {
+
+		Event event = new Event(new EventKey("source" + i % 16, new Date(1000000000000L + i)));
+		event.setType("type" + i % 4);
+		event.setPayload("payload of event " + i);
+
+		return event;
+	}
+
+	public static Row eventRow(Event event) {
+		return SyntheticRows.row(EVENT_COLUMNS, event.getKey().getSource(), event.getKey().getTime(), event.getType(),
+				event.getPayload());
+	}
+
+	public static Reading reading(int i) {
+
+		Reading reading = new Reading("sensor" + i % 16, new Date(1000000000000L + i));
+		reading.setValue(i / 3.0);
+
+		return reading;
+	}
+
+	public static Row readingRow(Reading reading) {
+		return SyntheticRows.row(READING_COLUMNS, reading.getSensor(), reading.getTime(), reading.getValue());
+	}
+}
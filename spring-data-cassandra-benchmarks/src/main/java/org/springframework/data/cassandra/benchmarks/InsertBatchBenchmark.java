@@ -0,0 +1,79 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.cassandra.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.cassandra.benchmarks.domain.Person;
+import org.springframework.data.cassandra.convert.MappingCassandraConverter;
+import org.springframework.data.cassandra.core.CassandraTemplate;
+
+import com.datastax.driver.core.querybuilder.Batch;
+
+/**
+ * Building, and rendering, batches of inserts with
+ * {@link CassandraTemplate#createInsertBatchQuery(String, List, org.springframework.cassandra.core.WriteOptions, org.springframework.data.convert.EntityWriter)}
+ * .
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InsertBatchBenchmark {
+
+	@Param({ "1", "10", "100" })
+	private int size;
+
+	private MappingCassandraConverter converter;
+
+	private List<Person> people;
+
+	@Setup
+	public void setup() {
+
+		converter = Fixtures.converter();
+
+		people = new ArrayList<Person>(size);
+		for (int i = 0; i < size; i++) {
+			people.add(Fixtures.person(i));
+		}
+	}
+
+	@Benchmark
+	public Batch createInsertBatchQuery() {
+		return CassandraTemplate.createInsertBatchQuery("person", people, null, converter);
+	}
+
+	@Benchmark
+	public String createInsertBatchQueryAndRender() {
+		return CassandraTemplate.createInsertBatchQuery("person", people, null, converter).getQueryString();
+	}
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.cassandra.benchmarks;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.cassandra.benchmarks.domain.Reading;
+import org.springframework.data.cassandra.convert.MappingCassandraConverter;
+import org.springframework.data.cassandra.core.CassandraTemplate;
+import org.springframework.data.cassandra.mapping.CassandraPersistentEntity;
+import org.springframework.data.cassandra.repository.MapId;
+import org.springframework.data.cassandra.repository.support.BasicMapId;
+import org.springframework.data.cassandra.repository.support.MapIdFactory;
+
+import com.datastax.driver.core.querybuilder.QueryBuilder;
+import com.datastax.driver.core.querybuilder.Select;
+
+/**
+ * Extracting a {@link MapId} from an entity, creating one, including through a {@link MapIdFactory} proxy, and turning
+ * one into query criteria.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapIdBenchmark {
+
+	public interface ReadingId extends MapId {
+
+		ReadingId sensor(String sensor);
+
+		ReadingId time(Date time);
+	}
+
+	/**
+	 * Exposes the template's id criteria, which need no session.
+	 */
+	static class IdCriteriaTemplate extends CassandraTemplate {
+
+		IdCriteriaTemplate(MappingCassandraConverter converter) {
+			setConverter(converter);
+		}
+
+		Select.Where select(CassandraPersistentEntity<?> entity, Object id) {
+
+			Select.Where where = QueryBuilder.select().all().from(entity.getTableName().toCql()).where();
+			appendIdCriteria(where, entity, id);
+			return where;
+		}
+	}
+
+	private MappingCassandraConverter converter;
+	private IdCriteriaTemplate template;
+	private CassandraPersistentEntity<?> entity;
+
+	private Reading reading;
+	private MapId id;
+
+	@Setup
+	public void setup() {
+
+		converter = Fixtures.converter();
+		template = new IdCriteriaTemplate(converter);
+		entity = converter.getMappingContext().getPersistentEntity(Reading.class);
+
+		reading = Fixtures.reading(1);
+		id = (MapId) converter.getId(reading, entity);
+	}
+
+	@Benchmark
+	public Object getId() {
+		return converter.getId(reading, entity);
+	}
+
+	@Benchmark
+	public MapId basicMapId() {
+		return BasicMapId.id("sensor", reading.getSensor()).with("time", reading.getTime());
+	}
+
+	@Benchmark
+	public MapId mapIdFactoryProxy() {
+		return MapIdFactory.id(ReadingId.class).sensor(reading.getSensor()).time(reading.getTime());
+	}
+
+	@Benchmark
+	public Select.Where idCriteria() {
+		return template.select(entity, id);
+	}
+}
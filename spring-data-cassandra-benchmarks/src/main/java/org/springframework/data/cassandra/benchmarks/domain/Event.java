@@ -0,0 +1,66 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.cassandra.benchmarks.domain;
+
+import org.springframework.data.cassandra.mapping.Column;
+import org.springframework.data.cassandra.mapping.PrimaryKey;
+import org.springframework.data.cassandra.mapping.Table;
+
+/**
+ * Entity with a composite primary key, {@link EventKey}.
+ */
+@Table
+public class Event {
+
+	@PrimaryKey
+	private EventKey key;
+
+	@Column
+	private String type;
+
+	@Column
+	private String payload;
+
+	/**
+	 * @deprecated Only for use by persistence infrastructure
+	 */
+	@Deprecated
+	protected Event() {}
+
+	public Event(EventKey key) {
+		this.key = key;
+	}
+
+	public EventKey getKey() {
+		return key;
+	}
+
+	public String getType() {
+		return type;
+	}
+
+	public void setType(String type) {
+		this.type = type;
+	}
+
+	public String getPayload() {
+		return payload;
+	}
+
+	public void setPayload(String payload) {
+		this.payload = payload;
+	}
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.cassandra.benchmarks.domain;
+
+import java.io.Serializable;
+import java.util.Date;
+
+import org.springframework.cassandra.core.Ordering;
+import org.springframework.cassandra.core.PrimaryKeyType;
+import org.springframework.data.cassandra.mapping.PrimaryKeyClass;
+import org.springframework.data.cassandra.mapping.PrimaryKeyColumn;
+
+/**
+ * Composite primary key of an {@link Event}: a partition key and a descending clustering column.
+ */
+@PrimaryKeyClass
+public class EventKey implements Serializable {
+
+	private static final long serialVersionUID = 4613426830563364452L;
+
+	@PrimaryKeyColumn(ordinal = 0, type = PrimaryKeyType.PARTITIONED)
+	private String source;
+
+	@PrimaryKeyColumn(ordinal = 1, ordering = Ordering.DESCENDING)
+	private Date time;
+
+	/**
+	 * @deprecated Only for use by persistence infrastructure
+	 */
+	@Deprecated
+	protected EventKey() {}
+
+	public EventKey(String source, Date time) {
+		this.source = source;
+		this.time = time;
+	}
+
+	public String getSource() {
+		return source;
+	}
+
+	public Date getTime() {
+		return time;
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * source.hashCode() + time.hashCode();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof EventKey)) {
+			return false;
+		}
+		EventKey other = (EventKey) obj;
+		return source.equals(other.source) && time.equals(other.time);
+	}
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.cassandra.benchmarks.domain;
+
+import java.util.Date;
+
+import org.springframework.cassandra.core.PrimaryKeyType;
+import org.springframework.data.cassandra.mapping.Column;
+import org.springframework.data.cassandra.mapping.PrimaryKeyColumn;
+import org.springframework.data.cassandra.mapping.Table;
+import org.springframework.data.cassandra.repository.MapId;
+
+/**
+ * Entity without an id property, whose primary key columns are annotated directly and identified by a {@link MapId}.
+ */
+@Table
+public class Reading {
+
+	@PrimaryKeyColumn(ordinal = 0, type = PrimaryKeyType.PARTITIONED)
+	private String sensor;
+
+	@PrimaryKeyColumn(ordinal = 1)
+	private Date time;
+
+	@Column
+	private double value;
+
+	/**
+	 * @deprecated Only for use by persistence infrastructure
+	 */
+	@Deprecated
+	protected Reading() {}
+
+	public Reading(String sensor, Date time) {
+		this.sensor = sensor;
+		this.time = time;
+	}
+
+	public String getSensor() {
+		return sensor;
+	}
+
+	public Date getTime() {
+		return time;
+	}
+
+	public double getValue() {
+		return value;
+	}
+
+	public void setValue(double value) {
+		this.value = value;
+	}
+}
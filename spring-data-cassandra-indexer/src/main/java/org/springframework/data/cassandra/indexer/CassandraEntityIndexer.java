@@ -0,0 +1,213 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.cassandra.indexer;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Annotation processor writing the names of the Cassandra entity classes being compiled to
+ * {@value #INDEX_LOCATION}, so that packages needn't be scanned for them at startup. Entity classes are the concrete,
+ * independent classes that Spring Data Cassandra's entity class scanner finds: those annotated with <code>@Table</code>,
+ * <code>@PrimaryKeyClass</code> or <code>@Persistent</code>, directly or as a meta-annotation.
+ * <p>
+ * The processor is registered as a service, so that it runs when it is on the compiler's classpath. Once an index is
+ * present, entities are looked up in the indexes on the classpath only, so every archive containing entities needs
+ * one.
+ */
+public class CassandraEntityIndexer extends AbstractProcessor {
+
+	public static final String INDEX_LOCATION = "META-INF/spring-data-cassandra.entities";
+
+	static final Set<String> ENTITY_ANNOTATIONS = Collections.unmodifiableSet(new HashSet<String>(Arrays.asList(
+			"org.springframework.data.cassandra.mapping.Table", "org.springframework.data.cassandra.mapping.PrimaryKeyClass",
+			"org.springframework.data.annotation.Persistent")));
+
+	private final Set<String> entities = new TreeSet<String>();
+	private boolean previousIndexRead;
+
+	@Override
+	public Set<String> getSupportedAnnotationTypes() {
+		return Collections.singleton("*");
+	}
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+
+		if (!previousIndexRead) {
+			readPreviousIndex();
+			previousIndexRead = true;
+		}
+
+		for (Element element : roundEnv.getRootElements()) {
+			collect(element);
+		}
+
+		if (roundEnv.processingOver()) {
+			writeIndex();
+		}
+
+		return false;
+	}
+
+	private void collect(Element element) {
+
+		if (!(element instanceof TypeElement)) {
+			return;
+		}
+
+		TypeElement type = (TypeElement) element;
+
+		if (isEntity(type)) {
+			entities.add(processingEnv.getElementUtils().getBinaryName(type).toString());
+		}
+
+		for (Element enclosed : type.getEnclosedElements()) {
+			collect(enclosed);
+		}
+	}
+
+	private boolean isEntity(TypeElement type) {
+
+		if (type.getKind() != ElementKind.CLASS || type.getModifiers().contains(Modifier.ABSTRACT)) {
+			return false;
+		}
+
+		if (type.getNestingKind() != NestingKind.TOP_LEVEL
+				&& (type.getNestingKind() != NestingKind.MEMBER || !type.getModifiers().contains(Modifier.STATIC))) {
+			return false;
+		}
+
+		return isAnnotatedWithEntityAnnotation(type, new HashSet<String>());
+	}
+
+	private boolean isAnnotatedWithEntityAnnotation(Element element, Set<String> visited) {
+
+		for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+
+			TypeElement annotation = (TypeElement) mirror.getAnnotationType().asElement();
+			String name = annotation.getQualifiedName().toString();
+
+			if (ENTITY_ANNOTATIONS.contains(name)) {
+				return true;
+			}
+
+			if (!name.startsWith("java.lang.") && visited.add(name) && isAnnotatedWithEntityAnnotation(annotation, visited)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Keeps the entities of the index written by a previous, incremental compilation that are still entities.
+	 */
+	private void readPreviousIndex() {
+
+		BufferedReader reader = null;
+		try {
+
+			FileObject index = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", INDEX_LOCATION);
+			reader = new BufferedReader(new InputStreamReader(index.openInputStream(), "UTF-8"));
+
+			String line;
+			while ((line = reader.readLine()) != null) {
+
+				line = line.trim();
+				if (line.length() == 0 || line.startsWith("#")) {
+					continue;
+				}
+
+				TypeElement type = processingEnv.getElementUtils().getTypeElement(line.replace('$', '.'));
+				if (type != null && isEntity(type)) {
+					entities.add(line);
+				}
+			}
+
+		} catch (IOException e) {
+			// no previous index; some compilers report it as an IOException other than FileNotFoundException
+		} catch (IllegalArgumentException e) {
+			// the compiler doesn't support reading from the class output
+		} finally {
+			close(reader);
+		}
+	}
+
+	private void writeIndex() {
+
+		if (entities.isEmpty()) {
+			return;
+		}
+
+		Writer writer = null;
+		try {
+
+			FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_LOCATION);
+			writer = index.openWriter();
+
+			for (String entity : entities) {
+				writer.write(entity);
+				writer.write('\n');
+			}
+
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Kind.ERROR,
+					"could not write Cassandra entity index " + INDEX_LOCATION + ": " + e);
+		} finally {
+			close(writer);
+		}
+	}
+
+	private static void close(Closeable closeable) {
+
+		if (closeable == null) {
+			return;
+		}
+
+		try {
+			closeable.close();
+		} catch (IOException e) {
+			// ignore
+		}
+	}
+}
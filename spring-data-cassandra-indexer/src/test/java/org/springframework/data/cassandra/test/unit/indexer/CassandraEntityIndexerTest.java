@@ -0,0 +1,156 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.cassandra.test.unit.indexer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.cassandra.config.CassandraEntityIndex;
+import org.springframework.data.cassandra.indexer.CassandraEntityIndexer;
+import org.springframework.util.FileSystemUtils;
+
+public class CassandraEntityIndexerTest {
+
+	private File output;
+
+	@Before
+	public void setup() throws IOException {
+
+		output = File.createTempFile("indexer", "");
+		output.delete();
+		output.mkdirs();
+	}
+
+	@After
+	public void teardown() {
+		FileSystemUtils.deleteRecursively(output);
+	}
+
+	@Test
+	public void indexLocationMatchesRuntime() {
+		assertEquals(CassandraEntityIndex.INDEX_LOCATION, CassandraEntityIndexer.INDEX_LOCATION);
+	}
+
+	@Test
+	public void indexesConcreteIndependentEntities() throws IOException {
+
+		compile(source("sample.Person", "@org.springframework.data.cassandra.mapping.Table public class Person {}"),
+				source("sample.AbstractPerson",
+						"@org.springframework.data.cassandra.mapping.Table public abstract class AbstractPerson {}"),
+				source("sample.Plain", "public class Plain {}"),
+				source("sample.Keys", "public class Keys {" //
+						+ " @org.springframework.data.cassandra.mapping.PrimaryKeyClass public static class Key {}" //
+						+ " @org.springframework.data.cassandra.mapping.PrimaryKeyClass public class Inner {} }"),
+				source("sample.Entity", "@java.lang.annotation.Retention(java.lang.annotation.RetentionPolicy.RUNTIME)" //
+						+ " @org.springframework.data.annotation.Persistent public @interface Entity {}"),
+				source("sample.Event", "@Entity class Event {}"));
+
+		assertEquals(Arrays.asList("sample.Event", "sample.Keys$Key", "sample.Person"), readIndex());
+	}
+
+	@Test
+	public void writesNoIndexWithoutEntities() {
+
+		compile(source("sample.Plain", "public class Plain {}"));
+
+		assertFalse(new File(output, CassandraEntityIndexer.INDEX_LOCATION).exists());
+	}
+
+	@Test
+	public void mergesIndexOfIncrementalCompilation() throws IOException {
+
+		compile(source("sample.Person", "@org.springframework.data.cassandra.mapping.Table public class Person {}"),
+				source("sample.Removed", "@org.springframework.data.cassandra.mapping.Table public class Removed {}"));
+
+		assertTrue(new File(output, "sample/Removed.class").delete());
+
+		compile(source("sample.Event", "@org.springframework.data.cassandra.mapping.Table class Event {}"));
+
+		assertEquals(Arrays.asList("sample.Event", "sample.Person"), readIndex());
+	}
+
+	private void compile(JavaFileObject... sources) {
+
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null);
+
+		List<String> options = new ArrayList<String>();
+		options.add("-d");
+		options.add(output.getPath());
+		options.add("-classpath");
+		options.add(System.getProperty("java.class.path") + File.pathSeparator + output.getPath());
+
+		JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null, options, null,
+				Arrays.asList(sources));
+		task.setProcessors(Collections.singletonList(new CassandraEntityIndexer()));
+
+		assertTrue("compilation failed", task.call());
+	}
+
+	private List<String> readIndex() throws IOException {
+
+		List<String> lines = new ArrayList<String>();
+		BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(new File(output,
+				CassandraEntityIndexer.INDEX_LOCATION)), "UTF-8"));
+		try {
+
+			String line;
+			while ((line = reader.readLine()) != null) {
+				lines.add(line);
+			}
+
+		} finally {
+			reader.close();
+		}
+
+		return lines;
+	}
+
+	private static JavaFileObject source(String className, final String body) {
+
+		final String packageName = className.substring(0, className.lastIndexOf('.'));
+
+		return new SimpleJavaFileObject(URI.create("string:///" + className.replace('.', '/') + ".java"),
+				JavaFileObject.Kind.SOURCE) {
+
+			@Override
+			public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+				return "package " + packageName + ";\n" + body;
+			}
+		};
+	}
+}
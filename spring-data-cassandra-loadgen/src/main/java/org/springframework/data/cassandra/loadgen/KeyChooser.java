@@ -0,0 +1,109 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.cassandra.loadgen;
+
+import java.util.Random;
+
+/**
+ * Chooses which of a number of items an operation targets, as YCSB's request distributions do.
+ */
+abstract class KeyChooser {
+
+	/**
+	 * @return An index between 0 inclusive and the number of items exclusive.
+	 */
+	abstract int next(Random random);
+
+	static KeyChooser uniform(final int items) {
+
+		return new KeyChooser() {
+
+			@Override
+			int next(Random random) {
+				return random.nextInt(items);
+			}
+		};
+	}
+
+	/**
+	 * Zipfian distribution with YCSB's constant of 0.99, computed as in Gray et al., "Quickly Generating Billion-Record
+	 * Synthetic Databases". Ranks are scrambled by hashing, so that the popular items are spread over the key space
+	 * rather than clustered at its start.
+	 */
+	static KeyChooser zipfian(final int items) {
+		return new Zipfian(items);
+	}
+
+	static class Zipfian extends KeyChooser {
+
+		private static final double THETA = 0.99;
+
+		private final int items;
+		private final double alpha;
+		private final double zetan;
+		private final double eta;
+		private final double half;
+
+		Zipfian(int items) {
+
+			this.items = items;
+
+			double zeta2 = zeta(2);
+			zetan = zeta(items);
+			alpha = 1.0 / (1.0 - THETA);
+			eta = (1 - Math.pow(2.0 / items, 1 - THETA)) / (1 - zeta2 / zetan);
+			half = 1 + Math.pow(0.5, THETA);
+		}
+
+		private static double zeta(int n) {
+
+			double sum = 0;
+			for (int i = 1; i <= n; i++) {
+				sum += 1 / Math.pow(i, THETA);
+			}
+			return sum;
+		}
+
+		@Override
+		int next(Random random) {
+
+			double u = random.nextDouble();
+			double uz = u * zetan;
+
+			long rank;
+			if (uz < 1.0) {
+				rank = 0;
+			} else if (uz < half) {
+				rank = 1;
+			} else {
+				rank = Math.min(items - 1, (long) (items * Math.pow(eta * u - eta + 1, alpha)));
+			}
+
+			return (int) ((fnv(rank) & Long.MAX_VALUE) % items);
+		}
+
+		private static long fnv(long value) {
+
+			long hash = 0xCBF29CE484222325L;
+			for (int i = 0; i < 8; i++) {
+				hash ^= value & 0xFF;
+				hash *= 0x100000001B3L;
+				value >>>= 8;
+			}
+			return hash;
+		}
+	}
+}
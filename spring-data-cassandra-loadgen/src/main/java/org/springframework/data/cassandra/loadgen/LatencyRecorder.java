@@ -0,0 +1,166 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.cassandra.loadgen;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Records latencies in nanoseconds per {@link Operation} in HdrHistograms, which are sampled once per interval,
+ * optionally written to an HdrHistogram interval log tagged with the operation's name, and summed up for the final
+ * report. The log can be processed with HdrHistogram's <code>HistogramLogProcessor</code> or plotted with the
+ * HdrHistogram plotter.
+ */
+public class LatencyRecorder {
+
+	private static final int SIGNIFICANT_DIGITS = 3;
+
+	private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+	private final Map<Operation, Recorder> recorders = new EnumMap<Operation, Recorder>(Operation.class);
+	private final Map<Operation, Histogram> totals = new EnumMap<Operation, Histogram>(Operation.class);
+	private final Map<Operation, AtomicLong> errors = new EnumMap<Operation, AtomicLong>(Operation.class);
+
+	private final HistogramLogWriter log;
+
+	/**
+	 * @param log The HdrHistogram interval log to write, or null.
+	 */
+	public LatencyRecorder(Set<Operation> operations, File log) throws FileNotFoundException {
+
+		for (Operation operation : operations) {
+			recorders.put(operation, new Recorder(SIGNIFICANT_DIGITS));
+			totals.put(operation, new Histogram(SIGNIFICANT_DIGITS));
+			errors.put(operation, new AtomicLong());
+		}
+
+		this.log = log == null ? null : new HistogramLogWriter(log);
+	}
+
+	/**
+	 * Records the latency of a completed operation.
+	 */
+	public void record(Operation operation, long nanos) {
+		recorders.get(operation).recordValue(nanos);
+	}
+
+	/**
+	 * Counts an operation that failed. Its latency isn't recorded.
+	 */
+	public void failed(Operation operation) {
+		errors.get(operation).incrementAndGet();
+	}
+
+	/**
+	 * Discards what was recorded so far, such as during warmup, and starts the log.
+	 */
+	public synchronized void start(String description) {
+
+		for (Operation operation : recorders.keySet()) {
+			recorders.get(operation).getIntervalHistogram();
+			totals.get(operation).reset();
+			errors.get(operation).set(0);
+		}
+
+		if (log != null) {
+
+			long now = System.currentTimeMillis();
+
+			log.outputComment("[" + description + "]");
+			log.outputComment("[Latencies in nanoseconds, tagged by operation]");
+			log.outputLogFormatVersion();
+			log.outputStartTime(now);
+			log.outputBaseTime(now);
+			log.outputLegend();
+		}
+	}
+
+	/**
+	 * Samples what was recorded since the previous interval, logs it and adds it to the totals.
+	 * 
+	 * @return A line describing the interval: per operation, its throughput and 99th percentile.
+	 */
+	public synchronized String interval(long intervalNanos) {
+
+		StringBuilder line = new StringBuilder();
+
+		for (Map.Entry<Operation, Recorder> entry : recorders.entrySet()) {
+
+			Histogram interval = entry.getValue().getIntervalHistogram();
+			interval.setTag(tag(entry.getKey()));
+
+			totals.get(entry.getKey()).add(interval);
+			if (log != null) {
+				log.outputIntervalHistogram(interval);
+			}
+
+			line.append(String.format(Locale.ENGLISH, "  %s %.0f/s p99 %.3fms", tag(entry.getKey()),
+					perSecond(interval.getTotalCount(), intervalNanos), millis(interval.getValueAtPercentile(99))));
+		}
+
+		return line.toString();
+	}
+
+	/**
+	 * Prints count, errors, throughput and latency percentiles in milliseconds of each operation.
+	 */
+	public synchronized void report(PrintStream out, long elapsedNanos) {
+
+		out.println(String.format("%-8s %10s %8s %10s %9s %9s %9s %9s %9s %9s", "op", "count", "errors", "ops/s",
+				"mean", "p50", "p90", "p99", "p99.9", "max"));
+
+		for (Map.Entry<Operation, Histogram> entry : totals.entrySet()) {
+
+			Histogram total = entry.getValue();
+
+			out.println(String.format(Locale.ENGLISH, "%-8s %10d %8d %10.0f %9.3f %9.3f %9.3f %9.3f %9.3f %9.3f",
+					tag(entry.getKey()), total.getTotalCount(), errors.get(entry.getKey()).get(),
+					perSecond(total.getTotalCount(), elapsedNanos), total.getMean() / NANOS_PER_MILLI,
+					millis(total.getValueAtPercentile(50)), millis(total.getValueAtPercentile(90)),
+					millis(total.getValueAtPercentile(99)), millis(total.getValueAtPercentile(99.9)),
+					millis(total.getMaxValue())));
+		}
+	}
+
+	public synchronized void close() {
+		if (log != null) {
+			log.close();
+		}
+	}
+
+	private static String tag(Operation operation) {
+		return operation.name().toLowerCase(Locale.ENGLISH);
+	}
+
+	private static double perSecond(long count, long nanos) {
+		return nanos <= 0 ? 0 : count * (double) TimeUnit.SECONDS.toNanos(1) / nanos;
+	}
+
+	private static double millis(long nanos) {
+		return nanos / NANOS_PER_MILLI;
+	}
+}
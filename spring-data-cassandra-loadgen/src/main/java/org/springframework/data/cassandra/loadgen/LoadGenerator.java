@@ -0,0 +1,101 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.cassandra.loadgen;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.data.cassandra.convert.MappingCassandraConverter;
+import org.springframework.data.cassandra.core.CassandraAdminTemplate;
+import org.springframework.data.cassandra.loadgen.LoadOptions.Loop;
+
+import com.datastax.driver.core.Session;
+
+/**
+ * Runs a YCSB-style workload through <code>CassandraTemplate</code>, repositories or prepared statements against the
+ * in-memory <code>Session</code>, an embedded Cassandra or a running cluster, and reports throughput and latency
+ * percentiles per operation, for example:
+ * 
+ * <pre>
+ * mvn -pl spring-data-cassandra-loadgen -am package
+ * java -jar spring-data-cassandra-loadgen/target/loadgen.jar --workload=batch --writes=fanout \
+ *     --loop=open --rate=2000 --histogram=fanout.hlog
+ * </pre>
+ * 
+ * See {@link LoadOptions#usage()} for all options.
+ */
+public class LoadGenerator {
+
+	public static void main(String[] args) throws Exception {
+
+		LoadOptions options;
+		try {
+			options = LoadOptions.parse(args);
+		} catch (IllegalArgumentException e) {
+			if (e.getMessage().length() > 0) {
+				System.err.println(e.getMessage());
+			}
+			System.err.println(LoadOptions.usage());
+			System.exit(1);
+			return;
+		}
+
+		Target target = Target.of(options.getTarget(), options);
+
+		try {
+			run(target, options);
+		} finally {
+			target.close();
+		}
+
+		System.exit(0);
+	}
+
+	private static void run(Target target, LoadOptions options) throws Exception {
+
+		Workload workload = Workload.create(options);
+
+		Session admin = target.connect();
+		admin.execute("CREATE KEYSPACE IF NOT EXISTS " + options.getKeyspace()
+				+ " WITH replication = { 'class' : 'SimpleStrategy', 'replication_factor' : 1 }");
+		admin.close();
+
+		MappingCassandraConverter converter = new MappingCassandraConverter();
+		converter.afterPropertiesSet();
+
+		CassandraAdminTemplate template = new CassandraAdminTemplate(target.connect(options.getKeyspace()), converter);
+		workload.createTables(template);
+
+		Store store = Store.create(options.getAccess(), options.getWrites(), template);
+
+		System.out.println(String.format("Loading %d records of %s into %s", options.getRecords(), workload, target));
+		long loading = System.nanoTime();
+		workload.load(store);
+		System.out.println(String.format("Loaded in %d ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - loading)));
+
+		System.out.println(String.format("Running %s, %s loop%s, %d threads, through %s", workload, options.getLoop()
+				.name().toLowerCase(), options.getLoop() == Loop.OPEN ? " at " + options.getRate() + " ops/s" : "",
+				options.getThreads(), store));
+
+		LatencyRecorder recorder = new LatencyRecorder(workload.getOperations(), options.getHistogram());
+
+		try {
+			long elapsed = new LoadRunner(options, workload, store, recorder).run(System.out);
+			recorder.report(System.out, elapsed);
+		} finally {
+			recorder.close();
+		}
+	}
+}
@@ -0,0 +1,321 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.cassandra.loadgen;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Options of a {@link LoadGenerator} run, parsed from <code>--name=value</code> arguments. Durations are given as a
+ * number followed by <code>ms</code>, <code>s</code> or <code>m</code>.
+ */
+public class LoadOptions {
+
+	/**
+	 * How operations are issued.
+	 */
+	public enum Loop {
+
+		/**
+		 * Each thread issues its next operation as soon as the previous one completed; latencies are service times.
+		 */
+		CLOSED,
+
+		/**
+		 * Operations are scheduled at a fixed arrival rate regardless of how long earlier ones took; latencies are measured
+		 * from the scheduled start, so that stalls are charged to every operation they delayed.
+		 */
+		OPEN
+	}
+
+	/**
+	 * Which API the operations go through.
+	 */
+	public enum Access {
+		TEMPLATE, REPOSITORY, PREPARED
+	}
+
+	/**
+	 * How multi-row writes are issued.
+	 */
+	public enum Writes {
+
+		/**
+		 * One batch statement.
+		 */
+		BATCH,
+
+		/**
+		 * One asynchronous statement per row, awaited together.
+		 */
+		FANOUT
+	}
+
+	private static final String USAGE = "Usage: java -jar loadgen.jar [--option=value ...]\n\n" //
+			+ "  --target=inmemory|embedded|host[:port]  where to send the load (inmemory)\n" //
+			+ "  --keyspace=name                          keyspace to create and use (loadgen)\n" //
+			+ "  --workload=read-heavy|write-heavy|scan|wide-partition|batch (read-heavy)\n" //
+			+ "  --access=template|repository|prepared    API the operations go through (template)\n" //
+			+ "  --writes=batch|fanout                    how multi-row writes are issued (batch)\n" //
+			+ "  --loop=closed|open                       closed loop or fixed arrival rate (closed)\n" //
+			+ "  --rate=n                                 operations per second of the open loop\n" //
+			+ "  --threads=n                              worker threads (16)\n" //
+			+ "  --duration=30s                           measured run time\n" //
+			+ "  --warmup=5s                              unmeasured run time before it\n" //
+			+ "  --records=n                              records loaded before the run (10000)\n" //
+			+ "  --distribution=zipfian|uniform           key popularity (zipfian)\n" //
+			+ "  --field-length=n                         characters per text field (100)\n" //
+			+ "  --batch-size=n                           rows per batch operation (10)\n" //
+			+ "  --scan-length=n                          maximum rows per scan (100)\n" //
+			+ "  --partitions=n                           partitions of the wide-partition workload (10)\n" //
+			+ "  --histogram=file                         HdrHistogram interval log to write\n" //
+			+ "  --interval=1s                            interval of the histogram log and progress lines\n" //
+			+ "  --latency=0ms                            mean latency added by the in-memory target\n" //
+			+ "  --timeouts=0                             fraction of in-memory requests that time out\n";
+
+	private String target = "inmemory";
+	private String keyspace = "loadgen";
+	private String workload = "read-heavy";
+	private Access access = Access.TEMPLATE;
+	private Writes writes = Writes.BATCH;
+	private Loop loop = Loop.CLOSED;
+	private int rate;
+	private int threads = 16;
+	private long durationNanos = TimeUnit.SECONDS.toNanos(30);
+	private long warmupNanos = TimeUnit.SECONDS.toNanos(5);
+	private int records = 10000;
+	private boolean zipfian = true;
+	private int fieldLength = 100;
+	private int batchSize = 10;
+	private int scanLength = 100;
+	private int partitions = 10;
+	private File histogram;
+	private long intervalNanos = TimeUnit.SECONDS.toNanos(1);
+	private long latencyNanos;
+	private double timeouts;
+
+	/**
+	 * @throws IllegalArgumentException If an argument is unknown or malformed, or <code>--help</code> is given.
+	 */
+	public static LoadOptions parse(String... args) {
+
+		Map<String, String> values = new LinkedHashMap<String, String>();
+
+		for (String arg : args) {
+
+			if (!arg.startsWith("--") || "--help".equals(arg)) {
+				throw new IllegalArgumentException(arg.startsWith("--") ? "" : "unexpected argument " + arg);
+			}
+
+			int equals = arg.indexOf('=');
+			if (equals < 0) {
+				throw new IllegalArgumentException("missing value of " + arg);
+			}
+
+			values.put(arg.substring(2, equals), arg.substring(equals + 1));
+		}
+
+		LoadOptions options = new LoadOptions();
+
+		for (Map.Entry<String, String> entry : values.entrySet()) {
+			try {
+				options.set(entry.getKey(), entry.getValue());
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException("malformed value of --" + entry.getKey() + ": " + entry.getValue());
+			}
+		}
+
+		if (options.loop == Loop.OPEN && options.rate <= 0) {
+			throw new IllegalArgumentException("--loop=open requires a --rate");
+		}
+
+		return options;
+	}
+
+	public static String usage() {
+		return USAGE;
+	}
+
+	private void set(String name, String value) {
+
+		if ("target".equals(name)) {
+			target = value;
+		} else if ("keyspace".equals(name)) {
+			keyspace = value;
+		} else if ("workload".equals(name)) {
+			workload = value;
+		} else if ("access".equals(name)) {
+			access = toEnum(Access.class, name, value);
+		} else if ("writes".equals(name)) {
+			writes = toEnum(Writes.class, name, value);
+		} else if ("loop".equals(name)) {
+			loop = toEnum(Loop.class, name, value);
+		} else if ("rate".equals(name)) {
+			rate = toPositive(name, value);
+		} else if ("threads".equals(name)) {
+			threads = toPositive(name, value);
+		} else if ("duration".equals(name)) {
+			durationNanos = toNanos(value);
+		} else if ("warmup".equals(name)) {
+			warmupNanos = toNanos(value);
+		} else if ("records".equals(name)) {
+			records = toPositive(name, value);
+		} else if ("distribution".equals(name)) {
+			if (!"zipfian".equals(value) && !"uniform".equals(value)) {
+				throw new IllegalArgumentException("unknown --distribution " + value);
+			}
+			zipfian = "zipfian".equals(value);
+		} else if ("field-length".equals(name)) {
+			fieldLength = toPositive(name, value);
+		} else if ("batch-size".equals(name)) {
+			batchSize = toPositive(name, value);
+		} else if ("scan-length".equals(name)) {
+			scanLength = toPositive(name, value);
+		} else if ("partitions".equals(name)) {
+			partitions = toPositive(name, value);
+		} else if ("histogram".equals(name)) {
+			histogram = new File(value);
+		} else if ("interval".equals(name)) {
+			intervalNanos = toNanos(value);
+		} else if ("latency".equals(name)) {
+			latencyNanos = toNanos(value);
+		} else if ("timeouts".equals(name)) {
+			timeouts = Double.parseDouble(value);
+		} else {
+			throw new IllegalArgumentException("unknown option --" + name);
+		}
+	}
+
+	private static <E extends Enum<E>> E toEnum(Class<E> type, String name, String value) {
+		try {
+			return Enum.valueOf(type, value.toUpperCase(Locale.ENGLISH));
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("unknown --" + name + " " + value);
+		}
+	}
+
+	private static int toPositive(String name, String value) {
+
+		int number = Integer.parseInt(value);
+		if (number <= 0) {
+			throw new IllegalArgumentException("--" + name + " must be positive");
+		}
+		return number;
+	}
+
+	private static long toNanos(String value) {
+
+		if (value.endsWith("ms")) {
+			return TimeUnit.MILLISECONDS.toNanos(Long.parseLong(value.substring(0, value.length() - 2)));
+		}
+		if (value.endsWith("s")) {
+			return TimeUnit.SECONDS.toNanos(Long.parseLong(value.substring(0, value.length() - 1)));
+		}
+		if (value.endsWith("m")) {
+			return TimeUnit.MINUTES.toNanos(Long.parseLong(value.substring(0, value.length() - 1)));
+		}
+		return TimeUnit.SECONDS.toNanos(Long.parseLong(value));
+	}
+
+	public String getTarget() {
+		return target;
+	}
+
+	public String getKeyspace() {
+		return keyspace;
+	}
+
+	public String getWorkload() {
+		return workload;
+	}
+
+	public Access getAccess() {
+		return access;
+	}
+
+	public Writes getWrites() {
+		return writes;
+	}
+
+	public Loop getLoop() {
+		return loop;
+	}
+
+	/**
+	 * @return The operations per second of an {@link Loop#OPEN open} loop.
+	 */
+	public int getRate() {
+		return rate;
+	}
+
+	public int getThreads() {
+		return threads;
+	}
+
+	public long getDurationNanos() {
+		return durationNanos;
+	}
+
+	public long getWarmupNanos() {
+		return warmupNanos;
+	}
+
+	public int getRecords() {
+		return records;
+	}
+
+	public boolean isZipfian() {
+		return zipfian;
+	}
+
+	public int getFieldLength() {
+		return fieldLength;
+	}
+
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	public int getScanLength() {
+		return scanLength;
+	}
+
+	public int getPartitions() {
+		return partitions;
+	}
+
+	/**
+	 * @return The HdrHistogram interval log to write, or null.
+	 */
+	public File getHistogram() {
+		return histogram;
+	}
+
+	public long getIntervalNanos() {
+		return intervalNanos;
+	}
+
+	public long getLatencyNanos() {
+		return latencyNanos;
+	}
+
+	public double getTimeouts() {
+		return timeouts;
+	}
+}
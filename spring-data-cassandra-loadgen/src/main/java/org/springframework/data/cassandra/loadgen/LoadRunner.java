@@ -0,0 +1,156 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.cassandra.loadgen;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.data.cassandra.loadgen.LoadOptions.Loop;
+
+/**
+ * Runs a {@link Workload} against a {@link Store} from a number of worker threads for the warmup and measured
+ * duration, recording into a {@link LatencyRecorder}.
+ * <p/>
+ * In a {@link Loop#CLOSED closed} loop, each worker issues its next operation once the previous one completed, so a
+ * stall delays the operations that would have been issued meanwhile without them being measured: the recorded
+ * latencies are service times. In an {@link Loop#OPEN open} loop, operation <code>n</code> is due at
+ * <code>start + n / rate</code> and its latency is measured from then rather than from when a worker got to issue it,
+ * correcting for this coordinated omission. Operations fall behind schedule once the workers can't keep up, which
+ * shows in the latencies; the number of threads then bounds the concurrency, not the rate.
+ */
+public class LoadRunner {
+
+	private final LoadOptions options;
+	private final Workload workload;
+	private final Store store;
+	private final LatencyRecorder recorder;
+
+	public LoadRunner(LoadOptions options, Workload workload, Store store, LatencyRecorder recorder) {
+		this.options = options;
+		this.workload = workload;
+		this.store = store;
+		this.recorder = recorder;
+	}
+
+	/**
+	 * Runs the workload, printing a progress line per interval.
+	 * 
+	 * @return The measured time in nanoseconds.
+	 */
+	public long run(PrintStream out) throws InterruptedException {
+
+		final long start = System.nanoTime();
+		final long measured = start + options.getWarmupNanos();
+		final long end = measured + options.getDurationNanos();
+		final AtomicLong due = new AtomicLong();
+
+		List<Thread> workers = new ArrayList<Thread>(options.getThreads());
+
+		for (int i = 0; i < options.getThreads(); i++) {
+
+			Thread worker = new Thread(new Runnable() {
+
+				@Override
+				public void run() {
+					if (options.getLoop() == Loop.OPEN) {
+						runOpen(start, end, due);
+					} else {
+						runClosed(end);
+					}
+				}
+			}, "loadgen-worker-" + i);
+
+			worker.setDaemon(true);
+			worker.start();
+			workers.add(worker);
+		}
+
+		waitUntil(measured);
+		recorder.start(workload + " " + options.getLoop().name().toLowerCase() + " loop, " + store);
+
+		long interval = options.getIntervalNanos();
+		long sampled = measured;
+
+		for (long next = measured + interval; next < end; next += interval) {
+			waitUntil(next);
+			out.println(String.format("%6ds%s", TimeUnit.NANOSECONDS.toSeconds(next - measured),
+					recorder.interval(interval)));
+			sampled = next;
+		}
+
+		for (Thread worker : workers) {
+			worker.join();
+		}
+
+		long now = System.nanoTime();
+		recorder.interval(now - sampled);
+
+		return now - measured;
+	}
+
+	private void runClosed(long end) {
+
+		Random random = new Random();
+
+		while (System.nanoTime() < end) {
+
+			Operation operation = workload.next(random);
+			long begin = System.nanoTime();
+
+			execute(operation, random, begin);
+		}
+	}
+
+	private void runOpen(long start, long end, AtomicLong due) {
+
+		Random random = new Random();
+		double interval = TimeUnit.SECONDS.toNanos(1) / (double) options.getRate();
+
+		while (true) {
+
+			long intended = start + (long) (due.getAndIncrement() * interval);
+			if (intended >= end) {
+				return;
+			}
+
+			waitUntil(intended);
+			execute(workload.next(random), random, intended);
+		}
+	}
+
+	private void execute(Operation operation, Random random, long since) {
+
+		try {
+			workload.execute(operation, store, random);
+			recorder.record(operation, System.nanoTime() - since);
+		} catch (RuntimeException e) {
+			recorder.failed(operation);
+		}
+	}
+
+	private static void waitUntil(long deadline) {
+
+		long remaining;
+		while ((remaining = deadline - System.nanoTime()) > 0) {
+			LockSupport.parkNanos(remaining);
+		}
+	}
+}
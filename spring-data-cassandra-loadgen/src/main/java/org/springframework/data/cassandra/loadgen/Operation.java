@@ -0,0 +1,47 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.cassandra.loadgen;
+
+/**
+ * Kinds of operations a {@link Workload} is made of, each recorded in its own histogram.
+ */
+public enum Operation {
+
+	/**
+	 * Read of a single row by primary key.
+	 */
+	READ,
+
+	/**
+	 * Update of a single column of an existing row.
+	 */
+	UPDATE,
+
+	/**
+	 * Insert of a single row.
+	 */
+	INSERT,
+
+	/**
+	 * Read of a range of rows of a partition.
+	 */
+	SCAN,
+
+	/**
+	 * Insert of several rows, as a batch or fanned out.
+	 */
+	BATCH
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.cassandra.loadgen;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.cassandra.core.PreparedStatementBinder;
+import org.springframework.cassandra.core.PreparedStatementCallback;
+import org.springframework.cassandra.core.RowMapper;
+import org.springframework.data.cassandra.core.CassandraOperations;
+import org.springframework.data.cassandra.loadgen.LoadOptions.Writes;
+import org.springframework.data.cassandra.loadgen.domain.UserRecord;
+import org.springframework.data.cassandra.loadgen.domain.WideRow;
+import org.springframework.data.cassandra.loadgen.domain.WideRowKey;
+
+import com.datastax.driver.core.BatchStatement;
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.ResultSetFuture;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.exceptions.DriverException;
+import com.google.common.util.concurrent.Futures;
+
+/**
+ * {@link Store} binding prepared statements and mapping rows by hand, bypassing the mapping layer.
+ */
+class PreparedStore extends Store {
+
+	private static final String READ = "SELECT * FROM usertable WHERE id = ?";
+	private static final String INSERT_RECORD = "INSERT INTO usertable (id, field0, field1, field2, field3, field4) VALUES (?, ?, ?, ?, ?, ?)";
+	private static final String INSERT_ROW = "INSERT INTO widerow (partition, sequence, payload) VALUES (?, ?, ?)";
+	private static final String SCAN = "SELECT * FROM widerow WHERE partition = ? AND sequence <= ? LIMIT ?";
+
+	private static final RowMapper<UserRecord> RECORD_MAPPER = new RowMapper<UserRecord>() {
+
+		@Override
+		public UserRecord mapRow(Row row, int rowNum) throws DriverException {
+
+			UserRecord record = new UserRecord(row.getString("id"));
+			for (int field = 0; field < UserRecord.FIELDS; field++) {
+				record.setField(field, row.getString("field" + field));
+			}
+			return record;
+		}
+	};
+
+	private static final RowMapper<WideRow> ROW_MAPPER = new RowMapper<WideRow>() {
+
+		@Override
+		public WideRow mapRow(Row row, int rowNum) throws DriverException {
+			return new WideRow(new WideRowKey(row.getString("partition"), row.getLong("sequence")),
+					row.getString("payload"));
+		}
+	};
+
+	private static final String[] UPDATES = new String[UserRecord.FIELDS];
+
+	static {
+		for (int field = 0; field < UserRecord.FIELDS; field++) {
+			UPDATES[field] = "UPDATE usertable SET field" + field + " = ? WHERE id = ?";
+		}
+	}
+
+	PreparedStore(CassandraOperations template, Writes writes) {
+		super(template, writes);
+	}
+
+	/**
+	 * @return The prepared statement of the given CQL, prepared once and cached by the template.
+	 */
+	private PreparedStatement prepare(String cql) {
+
+		return template.execute(cql, new PreparedStatementCallback<PreparedStatement>() {
+
+			@Override
+			public PreparedStatement doInPreparedStatement(PreparedStatement ps) {
+				return ps;
+			}
+		});
+	}
+
+	@Override
+	public UserRecord read(final String id) {
+
+		List<UserRecord> records = template.query(READ, new PreparedStatementBinder() {
+
+			@Override
+			public BoundStatement bindValues(PreparedStatement ps) {
+				return ps.bind(id);
+			}
+		}, RECORD_MAPPER);
+
+		return records.isEmpty() ? null : records.get(0);
+	}
+
+	@Override
+	public void update(String id, int field, String value) {
+		template.execute(prepare(UPDATES[field]).bind(value, id));
+	}
+
+	@Override
+	public void insert(UserRecord record) {
+		template.execute(bind(record));
+	}
+
+	@Override
+	public void insert(WideRow row) {
+		template.execute(bind(row));
+	}
+
+	@Override
+	public List<WideRow> scan(final String partition, final long from, final int limit) {
+
+		return template.query(SCAN, new PreparedStatementBinder() {
+
+			@Override
+			public BoundStatement bindValues(PreparedStatement ps) {
+				return ps.bind(partition, from, limit);
+			}
+		}, ROW_MAPPER);
+	}
+
+	@Override
+	protected <T> void insertBatch(List<T> entities) {
+
+		BatchStatement batch = new BatchStatement();
+		for (T entity : entities) {
+			batch.add(bind(entity));
+		}
+
+		template.execute(batch);
+	}
+
+	@Override
+	protected <T> void insertFannedOut(List<T> entities) {
+
+		List<ResultSetFuture> futures = new ArrayList<ResultSetFuture>(entities.size());
+		for (T entity : entities) {
+			futures.add(template.executeAsynchronously(bind(entity)));
+		}
+
+		Futures.getUnchecked(Futures.allAsList(futures));
+	}
+
+	private BoundStatement bind(Object entity) {
+
+		if (entity instanceof WideRow) {
+			WideRow row = (WideRow) entity;
+			return prepare(INSERT_ROW).bind(row.getKey().getPartition(), row.getKey().getSequence(), row.getPayload());
+		}
+
+		UserRecord record = (UserRecord) entity;
+		return prepare(INSERT_RECORD).bind(record.getId(), record.getField(0), record.getField(1), record.getField(2),
+				record.getField(3), record.getField(4));
+	}
+}
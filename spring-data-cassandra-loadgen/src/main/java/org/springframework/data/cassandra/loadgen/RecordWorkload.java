@@ -0,0 +1,113 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.cassandra.loadgen;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.data.cassandra.core.CassandraAdminOperations;
+import org.springframework.data.cassandra.loadgen.domain.UserRecord;
+
+/**
+ * {@link Workload} over the {@link UserRecord}s of the YCSB <code>usertable</code>. Reads and updates choose among the
+ * loaded records; inserts add new ones.
+ */
+class RecordWorkload extends Workload {
+
+	private final int records;
+	private final int fieldLength;
+	private final int batchSize;
+	private final KeyChooser keys;
+	private final AtomicLong inserted;
+
+	RecordWorkload(String name, LoadOptions options) {
+
+		super(name);
+
+		records = options.getRecords();
+		fieldLength = options.getFieldLength();
+		batchSize = options.getBatchSize();
+		keys = options.isZipfian() ? KeyChooser.zipfian(records) : KeyChooser.uniform(records);
+		inserted = new AtomicLong(records);
+	}
+
+	@Override
+	public void createTables(CassandraAdminOperations admin) {
+		admin.createTable(true, admin.getTableName(UserRecord.class), UserRecord.class, null);
+	}
+
+	@Override
+	public void load(Store store) {
+
+		List<UserRecord> chunk = new ArrayList<UserRecord>(batchSize);
+
+		for (int i = 0; i < records; i++) {
+
+			chunk.add(record(i));
+
+			if (chunk.size() == batchSize || i == records - 1) {
+				store.insertAll(chunk);
+				chunk.clear();
+			}
+		}
+	}
+
+	@Override
+	public void execute(Operation operation, Store store, Random random) {
+
+		switch (operation) {
+
+			case READ:
+				store.read(id(keys.next(random)));
+				break;
+
+			case UPDATE:
+				int field = random.nextInt(UserRecord.FIELDS);
+				store.update(id(keys.next(random)), field, text(random.nextLong(), fieldLength));
+				break;
+
+			case INSERT:
+				store.insert(record(inserted.getAndIncrement()));
+				break;
+
+			case BATCH:
+				List<UserRecord> batch = new ArrayList<UserRecord>(batchSize);
+				for (int i = 0; i < batchSize; i++) {
+					batch.add(record(inserted.getAndIncrement()));
+				}
+				store.insertAll(batch);
+				break;
+
+			default:
+				throw new IllegalArgumentException("unsupported operation " + operation);
+		}
+	}
+
+	private UserRecord record(long number) {
+
+		UserRecord record = new UserRecord(id(number));
+		for (int field = 0; field < UserRecord.FIELDS; field++) {
+			record.setField(field, text(number * UserRecord.FIELDS + field, fieldLength));
+		}
+		return record;
+	}
+
+	private static String id(long number) {
+		return "user" + number;
+	}
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.cassandra.loadgen;
+
+import java.util.List;
+
+import org.springframework.data.cassandra.core.CassandraOperations;
+import org.springframework.data.cassandra.loadgen.LoadOptions.Writes;
+import org.springframework.data.cassandra.loadgen.domain.UserRecord;
+import org.springframework.data.cassandra.loadgen.domain.UserRecordRepository;
+import org.springframework.data.cassandra.loadgen.domain.WideRow;
+import org.springframework.data.cassandra.loadgen.domain.WideRowRepository;
+import org.springframework.data.cassandra.repository.support.CassandraRepositoryFactory;
+
+/**
+ * {@link Store} going through repository interfaces. Updates read the record and save it whole, as repository clients
+ * do. Repositories have no asynchronous operations, so fanned out inserts go through the template.
+ */
+class RepositoryStore extends Store {
+
+	private final UserRecordRepository records;
+	private final WideRowRepository rows;
+
+	RepositoryStore(CassandraOperations template, Writes writes) {
+
+		super(template, writes);
+
+		CassandraRepositoryFactory factory = new CassandraRepositoryFactory(template);
+		records = factory.getRepository(UserRecordRepository.class);
+		rows = factory.getRepository(WideRowRepository.class);
+	}
+
+	@Override
+	public UserRecord read(String id) {
+		return records.findOne(id);
+	}
+
+	@Override
+	public void update(String id, int field, String value) {
+
+		UserRecord record = records.findOne(id);
+		if (record == null) {
+			record = new UserRecord(id);
+		}
+
+		record.setField(field, value);
+		records.save(record);
+	}
+
+	@Override
+	public void insert(UserRecord record) {
+		records.save(record);
+	}
+
+	@Override
+	public void insert(WideRow row) {
+		rows.save(row);
+	}
+
+	@Override
+	public List<WideRow> scan(String partition, long from, int limit) {
+		return rows.findRange(partition, from, limit);
+	}
+
+	@Override
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	protected <T> void insertBatch(List<T> entities) {
+
+		if (!entities.isEmpty() && entities.get(0) instanceof WideRow) {
+			rows.save((List) entities);
+		} else {
+			records.save((List) entities);
+		}
+	}
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.cassandra.loadgen;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.data.cassandra.core.CassandraAdminOperations;
+import org.springframework.data.cassandra.loadgen.domain.WideRow;
+import org.springframework.data.cassandra.loadgen.domain.WideRowKey;
+
+/**
+ * {@link Workload} over partitions of {@link WideRow}s, to which inserts append. Scans read up to the configured scan
+ * length of rows of a partition, starting at a random row or, for the wide-partition workload, at the latest one.
+ */
+class RowWorkload extends Workload {
+
+	private final int records;
+	private final int partitions;
+	private final int fieldLength;
+	private final int batchSize;
+	private final int scanLength;
+	private final boolean latest;
+	private final KeyChooser keys;
+	private final AtomicLongArray sequences;
+
+	RowWorkload(String name, LoadOptions options, boolean latest) {
+
+		super(name);
+
+		this.latest = latest;
+
+		records = options.getRecords();
+		partitions = options.getPartitions();
+		fieldLength = options.getFieldLength();
+		batchSize = options.getBatchSize();
+		scanLength = options.getScanLength();
+		keys = options.isZipfian() ? KeyChooser.zipfian(partitions) : KeyChooser.uniform(partitions);
+		sequences = new AtomicLongArray(partitions);
+	}
+
+	@Override
+	public void createTables(CassandraAdminOperations admin) {
+		admin.createTable(true, admin.getTableName(WideRow.class), WideRow.class, null);
+	}
+
+	@Override
+	public void load(Store store) {
+
+		List<WideRow> chunk = new ArrayList<WideRow>(batchSize);
+
+		for (int i = 0; i < records; i++) {
+
+			chunk.add(append(i % partitions));
+
+			if (chunk.size() == batchSize || i == records - 1) {
+				store.insertAll(chunk);
+				chunk.clear();
+			}
+		}
+	}
+
+	@Override
+	public void execute(Operation operation, Store store, Random random) {
+
+		int partition = keys.next(random);
+
+		switch (operation) {
+
+			case SCAN:
+				long size = sequences.get(partition);
+				long from = latest || size == 0 ? Long.MAX_VALUE : (long) (random.nextDouble() * size);
+				store.scan(partition(partition), from, 1 + random.nextInt(scanLength));
+				break;
+
+			case INSERT:
+				store.insert(append(partition));
+				break;
+
+			default:
+				throw new IllegalArgumentException("unsupported operation " + operation);
+		}
+	}
+
+	private WideRow append(int partition) {
+
+		long sequence = sequences.getAndIncrement(partition);
+		return new WideRow(new WideRowKey(partition(partition), sequence), text(sequence * partitions + partition,
+				fieldLength));
+	}
+
+	private static String partition(int partition) {
+		return "partition" + partition;
+	}
+}
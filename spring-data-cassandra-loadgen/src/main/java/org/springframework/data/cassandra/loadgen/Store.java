@@ -0,0 +1,152 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.cassandra.loadgen;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.data.cassandra.core.CassandraOperations;
+import org.springframework.data.cassandra.core.WriteListener;
+import org.springframework.data.cassandra.loadgen.LoadOptions.Access;
+import org.springframework.data.cassandra.loadgen.LoadOptions.Writes;
+import org.springframework.data.cassandra.loadgen.domain.UserRecord;
+import org.springframework.data.cassandra.loadgen.domain.WideRow;
+
+/**
+ * The operations of the workloads, implemented through one of the APIs to compare, see {@link Access}. Multi-row
+ * inserts are issued as one batch or fanned out as concurrent single-row inserts, see {@link Writes}.
+ */
+public abstract class Store {
+
+	protected final CassandraOperations template;
+	private final Writes writes;
+
+	protected Store(CassandraOperations template, Writes writes) {
+		this.template = template;
+		this.writes = writes;
+	}
+
+	public static Store create(Access access, Writes writes, CassandraOperations template) {
+
+		switch (access) {
+			case REPOSITORY:
+				return new RepositoryStore(template, writes);
+			case PREPARED:
+				return new PreparedStore(template, writes);
+			default:
+				return new TemplateStore(template, writes);
+		}
+	}
+
+	/**
+	 * @return The record with the given id, or null.
+	 */
+	public abstract UserRecord read(String id);
+
+	/**
+	 * Sets one field of the record with the given id.
+	 */
+	public abstract void update(String id, int field, String value);
+
+	public abstract void insert(UserRecord record);
+
+	public abstract void insert(WideRow row);
+
+	/**
+	 * @return Up to <code>limit</code> rows of the given partition, starting at sequence <code>from</code> and going
+	 *         down.
+	 */
+	public abstract List<WideRow> scan(String partition, long from, int limit);
+
+	/**
+	 * Inserts the given entities as one batch or fanned out, as configured.
+	 */
+	public final <T> void insertAll(List<T> entities) {
+
+		if (writes == Writes.BATCH) {
+			insertBatch(entities);
+		} else {
+			insertFannedOut(entities);
+		}
+	}
+
+	protected <T> void insertBatch(List<T> entities) {
+		template.insert(entities);
+	}
+
+	protected <T> void insertFannedOut(List<T> entities) {
+
+		FanOut<T> fanOut = new FanOut<T>(entities.size());
+
+		for (T entity : entities) {
+			template.insertAsynchronously(entity, fanOut);
+		}
+
+		fanOut.await();
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + " with " + writes.name().toLowerCase() + " writes";
+	}
+
+	/**
+	 * {@link WriteListener} awaiting a number of asynchronous writes.
+	 */
+	static class FanOut<T> implements WriteListener<T> {
+
+		private final CountDownLatch pending;
+		private final AtomicReference<Exception> failure = new AtomicReference<Exception>();
+
+		FanOut(int writes) {
+			pending = new CountDownLatch(writes);
+		}
+
+		@Override
+		public void onWriteComplete(Collection<T> entities) {
+			pending.countDown();
+		}
+
+		@Override
+		public void onException(Exception x) {
+			failure.compareAndSet(null, x);
+			pending.countDown();
+		}
+
+		/**
+		 * Waits for all writes and rethrows the first failure, if any.
+		 */
+		void await() {
+
+			try {
+				pending.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("interrupted while awaiting writes", e);
+			}
+
+			Exception x = failure.get();
+			if (x instanceof RuntimeException) {
+				throw (RuntimeException) x;
+			}
+			if (x != null) {
+				throw new IllegalStateException(x);
+			}
+		}
+	}
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.cassandra.loadgen;
+
+import java.util.concurrent.TimeUnit;
+
+import org.cassandraunit.utils.EmbeddedCassandraServerHelper;
+import org.springframework.cassandra.test.inmemory.Failures;
+import org.springframework.cassandra.test.inmemory.InMemoryCluster;
+import org.springframework.cassandra.test.inmemory.Latency;
+
+import com.datastax.driver.core.Cluster;
+import com.datastax.driver.core.Session;
+
+/**
+ * What the load is sent to: the in-memory stand-in of <code>spring-cql-test-support</code>, an embedded Cassandra
+ * started through cassandra-unit, or a running cluster.
+ */
+public abstract class Target {
+
+	/**
+	 * Native transport port of the embedded Cassandra configured by cassandra-unit.
+	 */
+	public static final int EMBEDDED_PORT = 9142;
+
+	public static final int DEFAULT_PORT = 9042;
+
+	/**
+	 * @param target <code>inmemory</code>, <code>embedded</code> or <code>host[:port]</code>.
+	 */
+	public static Target of(String target, LoadOptions options) throws Exception {
+
+		if ("inmemory".equals(target)) {
+			return new InMemory(options);
+		}
+
+		if ("embedded".equals(target)) {
+			EmbeddedCassandraServerHelper.startEmbeddedCassandra();
+			return new Remote("127.0.0.1", EMBEDDED_PORT);
+		}
+
+		int colon = target.lastIndexOf(':');
+		return colon < 0 ? new Remote(target, DEFAULT_PORT) : new Remote(target.substring(0, colon),
+				Integer.parseInt(target.substring(colon + 1)));
+	}
+
+	/**
+	 * @return A session without keyspace, used to create it.
+	 */
+	public abstract Session connect();
+
+	public abstract Session connect(String keyspace);
+
+	public abstract void close();
+
+	static class InMemory extends Target {
+
+		private final InMemoryCluster cluster = new InMemoryCluster();
+
+		InMemory(LoadOptions options) {
+
+			if (options.getLatencyNanos() > 0) {
+				cluster.setLatency(Latency.exponential(options.getLatencyNanos(), TimeUnit.NANOSECONDS));
+			}
+			if (options.getTimeouts() > 0) {
+				cluster.setFailures(Failures.timeouts(options.getTimeouts()));
+			}
+		}
+
+		@Override
+		public Session connect() {
+			return cluster.connect();
+		}
+
+		@Override
+		public Session connect(String keyspace) {
+			return cluster.connect(keyspace);
+		}
+
+		@Override
+		public void close() {
+			cluster.close();
+		}
+
+		@Override
+		public String toString() {
+			return "in-memory";
+		}
+	}
+
+	static class Remote extends Target {
+
+		private final Cluster cluster;
+
+		Remote(String host, int port) {
+			cluster = Cluster.builder().addContactPoint(host).withPort(port).build();
+		}
+
+		@Override
+		public Session connect() {
+			return cluster.connect();
+		}
+
+		@Override
+		public Session connect(String keyspace) {
+			return cluster.connect(keyspace);
+		}
+
+		@Override
+		public void close() {
+			cluster.close();
+		}
+
+		@Override
+		public String toString() {
+			return cluster.getMetadata().getClusterName() + " " + cluster.getMetadata().getAllHosts();
+		}
+	}
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.cassandra.loadgen;
+
+import static com.datastax.driver.core.querybuilder.QueryBuilder.eq;
+import static com.datastax.driver.core.querybuilder.QueryBuilder.lte;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.data.cassandra.core.CassandraOperations;
+import org.springframework.data.cassandra.loadgen.LoadOptions.Writes;
+import org.springframework.data.cassandra.loadgen.domain.UserRecord;
+import org.springframework.data.cassandra.loadgen.domain.WideRow;
+
+import com.datastax.driver.core.querybuilder.QueryBuilder;
+import com.datastax.driver.core.querybuilder.Select;
+
+/**
+ * {@link Store} going through {@link CassandraOperations}, which issues simple statements built from the mapping
+ * metadata.
+ */
+class TemplateStore extends Store {
+
+	TemplateStore(CassandraOperations template, Writes writes) {
+		super(template, writes);
+	}
+
+	@Override
+	public UserRecord read(String id) {
+		return template.selectOneById(UserRecord.class, id);
+	}
+
+	@Override
+	public void update(String id, int field, String value) {
+		template.update(UserRecord.class, id, Collections.<String, Object> singletonMap("field" + field, value));
+	}
+
+	@Override
+	public void insert(UserRecord record) {
+		template.insert(record);
+	}
+
+	@Override
+	public void insert(WideRow row) {
+		template.insert(row);
+	}
+
+	@Override
+	public List<WideRow> scan(String partition, long from, int limit) {
+
+		Select select = QueryBuilder.select().all().from("widerow");
+		select.where(eq("partition", partition)).and(lte("sequence", from));
+		select.limit(limit);
+
+		return template.select(select, WideRow.class);
+	}
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.cassandra.loadgen;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.springframework.data.cassandra.core.CassandraAdminOperations;
+import org.springframework.util.Assert;
+
+/**
+ * Mix of {@link Operation}s against the tables it creates and loads, after the core workloads of YCSB:
+ * <ul>
+ * <li><code>read-heavy</code>: 95% reads and 5% updates of records (YCSB workload B),</li>
+ * <li><code>write-heavy</code>: 10% reads, 45% updates and 45% inserts of records,</li>
+ * <li><code>batch</code>: inserts of several new records at a time,</li>
+ * <li><code>scan</code>: 95% short range reads and 5% appends to partitions of rows (YCSB workload E),</li>
+ * <li><code>wide-partition</code>: 80% appends to and 20% reads of the latest rows of a few ever-growing partitions.</li>
+ * </ul>
+ * Implementations are shared by all worker threads, each passing its own {@link Random}.
+ */
+public abstract class Workload {
+
+	private final String name;
+	private final List<Operation> operations = new ArrayList<Operation>();
+	private final List<Double> cumulative = new ArrayList<Double>();
+
+	protected Workload(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * @throws IllegalArgumentException If the workload named in the options is unknown.
+	 */
+	public static Workload create(LoadOptions options) {
+
+		String name = options.getWorkload();
+
+		if ("read-heavy".equals(name)) {
+			return new RecordWorkload(name, options).mix(Operation.READ, 0.95).mix(Operation.UPDATE, 0.05);
+		}
+		if ("write-heavy".equals(name)) {
+			return new RecordWorkload(name, options).mix(Operation.READ, 0.10).mix(Operation.UPDATE, 0.45)
+					.mix(Operation.INSERT, 0.45);
+		}
+		if ("batch".equals(name)) {
+			return new RecordWorkload(name, options).mix(Operation.BATCH, 1.0);
+		}
+		if ("scan".equals(name)) {
+			return new RowWorkload(name, options, false).mix(Operation.SCAN, 0.95).mix(Operation.INSERT, 0.05);
+		}
+		if ("wide-partition".equals(name)) {
+			return new RowWorkload(name, options, true).mix(Operation.INSERT, 0.80).mix(Operation.SCAN, 0.20);
+		}
+
+		throw new IllegalArgumentException("unknown --workload " + name);
+	}
+
+	/**
+	 * Adds the given operation to the mix with the given proportion; the proportions must add up to one.
+	 */
+	protected Workload mix(Operation operation, double proportion) {
+
+		Assert.isTrue(proportion > 0);
+
+		double total = cumulative.isEmpty() ? 0 : cumulative.get(cumulative.size() - 1);
+		operations.add(operation);
+		cumulative.add(total + proportion);
+
+		return this;
+	}
+
+	public Set<Operation> getOperations() {
+		return EnumSet.copyOf(operations);
+	}
+
+	/**
+	 * @return The next operation of the mix.
+	 */
+	public Operation next(Random random) {
+
+		double p = random.nextDouble();
+		for (int i = 0; i < operations.size() - 1; i++) {
+			if (p < cumulative.get(i)) {
+				return operations.get(i);
+			}
+		}
+		return operations.get(operations.size() - 1);
+	}
+
+	/**
+	 * Creates the tables of this workload if they don't exist yet.
+	 */
+	public abstract void createTables(CassandraAdminOperations admin);
+
+	/**
+	 * Inserts the initial data of this workload.
+	 */
+	public abstract void load(Store store);
+
+	/**
+	 * Executes one operation of this workload.
+	 */
+	public abstract void execute(Operation operation, Store store, Random random);
+
+	/**
+	 * @return Text of the given length, different for different seeds.
+	 */
+	protected static String text(long seed, int length) {
+
+		StringBuilder text = new StringBuilder(length);
+		long value = seed * 0x9E3779B97F4A7C15L;
+
+		while (text.length() < length) {
+			text.append((char) ('a' + (int) ((value >>> 59) % 26)));
+			value = value * 6364136223846793005L + 1442695040888963407L;
+		}
+
+		return text.toString();
+	}
+
+	@Override
+	public String toString() {
+		return name;
+	}
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.cassandra.loadgen.domain;
+
+import org.springframework.data.cassandra.mapping.Column;
+import org.springframework.data.cassandra.mapping.PrimaryKey;
+import org.springframework.data.cassandra.mapping.Table;
+
+/**
+ * Record of the YCSB <code>usertable</code>: a key and {@link #FIELDS} text fields.
+ */
+@Table("usertable")
+public class UserRecord {
+
+	public static final int FIELDS = 5;
+
+	@PrimaryKey
+	private String id;
+
+	@Column
+	private String field0;
+
+	@Column
+	private String field1;
+
+	@Column
+	private String field2;
+
+	@Column
+	private String field3;
+
+	@Column
+	private String field4;
+
+	/**
+	 * @deprecated Only for use by persistence infrastructure
+	 */
+	@Deprecated
+	protected UserRecord() {}
+
+	public UserRecord(String id) {
+		this.id = id;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public String getField(int field) {
+
+		switch (field) {
+			case 0:
+				return field0;
+			case 1:
+				return field1;
+			case 2:
+				return field2;
+			case 3:
+				return field3;
+			case 4:
+				return field4;
+			default:
+				throw new IndexOutOfBoundsException("field" + field);
+		}
+	}
+
+	public void setField(int field, String value) {
+
+		switch (field) {
+			case 0:
+				field0 = value;
+				break;
+			case 1:
+				field1 = value;
+				break;
+			case 2:
+				field2 = value;
+				break;
+			case 3:
+				field3 = value;
+				break;
+			case 4:
+				field4 = value;
+				break;
+			default:
+				throw new IndexOutOfBoundsException("field" + field);
+		}
+	}
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.cassandra.loadgen.domain;
+
+import org.springframework.data.cassandra.mapping.Column;
+import org.springframework.data.cassandra.mapping.PrimaryKey;
+import org.springframework.data.cassandra.mapping.Table;
+
+/**
+ * Row of a partition that grows by appending, read back as ranges of its latest rows.
+ */
+@Table("widerow")
+public class WideRow {
+
+	@PrimaryKey
+	private WideRowKey key;
+
+	@Column
+	private String payload;
+
+	/**
+	 * @deprecated Only for use by persistence infrastructure
+	 */
+	@Deprecated
+	protected WideRow() {}
+
+	public WideRow(WideRowKey key, String payload) {
+		this.key = key;
+		this.payload = payload;
+	}
+
+	public WideRowKey getKey() {
+		return key;
+	}
+
+	public String getPayload() {
+		return payload;
+	}
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.cassandra.loadgen.domain;
+
+import java.io.Serializable;
+
+import org.springframework.cassandra.core.Ordering;
+import org.springframework.cassandra.core.PrimaryKeyType;
+import org.springframework.data.cassandra.mapping.CassandraType;
+import org.springframework.data.cassandra.mapping.PrimaryKeyClass;
+import org.springframework.data.cassandra.mapping.PrimaryKeyColumn;
+
+import com.datastax.driver.core.DataType.Name;
+
+/**
+ * Primary key of a {@link WideRow}: a partition and a descending sequence number, so that the latest rows of a
+ * partition come first.
+ */
+@PrimaryKeyClass
+public class WideRowKey implements Serializable {
+
+	private static final long serialVersionUID = -2715029446413338231L;
+
+	@PrimaryKeyColumn(ordinal = 0, type = PrimaryKeyType.PARTITIONED)
+	private String partition;
+
+	@PrimaryKeyColumn(ordinal = 1, ordering = Ordering.DESCENDING)
+	@CassandraType(type = Name.BIGINT)
+	private long sequence;
+
+	/**
+	 * @deprecated Only for use by persistence infrastructure
+	 */
+	@Deprecated
+	protected WideRowKey() {}
+
+	public WideRowKey(String partition, long sequence) {
+		this.partition = partition;
+		this.sequence = sequence;
+	}
+
+	public String getPartition() {
+		return partition;
+	}
+
+	public long getSequence() {
+		return sequence;
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * partition.hashCode() + (int) (sequence ^ (sequence >>> 32));
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof WideRowKey)) {
+			return false;
+		}
+		WideRowKey other = (WideRowKey) obj;
+		return partition.equals(other.partition) && sequence == other.sequence;
+	}
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.cassandra.loadgen.domain;
+
+import java.util.List;
+
+import org.springframework.data.cassandra.repository.Query;
+import org.springframework.data.cassandra.repository.TypedIdCassandraRepository;
+
+/**
+ * Repository of {@link WideRow}s.
+ */
+public interface WideRowRepository extends TypedIdCassandraRepository<WideRow, WideRowKey> {
+
+	@Query("SELECT * FROM widerow WHERE partition = ?0 AND sequence <= ?1 LIMIT ?2")
+	List<WideRow> findRange(String partition, long from, int limit);
+}
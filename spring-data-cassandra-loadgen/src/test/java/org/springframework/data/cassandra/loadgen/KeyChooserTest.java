@@ -0,0 +1,103 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.cassandra.loadgen;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class KeyChooserTest {
+
+	static final int ITEMS = 1000;
+	static final int DRAWS = 200000;
+
+	@Test
+	public void uniformChoosesEveryItemAboutEquallyOften() {
+
+		int[] counts = draw(KeyChooser.uniform(ITEMS));
+		int expected = DRAWS / ITEMS;
+
+		for (int i = 0; i < ITEMS; i++) {
+			assertTrue("item " + i + " chosen " + counts[i] + " times", counts[i] > expected / 2 && counts[i] < expected * 2);
+		}
+	}
+
+	@Test
+	public void zipfianFavorsFewItems() {
+
+		int[] counts = draw(KeyChooser.zipfian(ITEMS));
+		int[] sorted = counts.clone();
+		Arrays.sort(sorted);
+
+		// with a constant of 0.99, the most popular item is chosen about 1 / zeta(1000) = 13% of the time and the ten
+		// most popular ones about 38% of the time
+		int top = sorted[ITEMS - 1];
+		int topTen = 0;
+		for (int i = ITEMS - 10; i < ITEMS; i++) {
+			topTen += sorted[i];
+		}
+
+		assertTrue("most popular item chosen " + top + " times", top > DRAWS * 0.10 && top < DRAWS * 0.16);
+		assertTrue("ten most popular items chosen " + topTen + " times", topTen > DRAWS * 0.30 && topTen < DRAWS * 0.45);
+	}
+
+	@Test
+	public void zipfianScramblesPopularItemsOverKeySpace() {
+
+		int[] counts = draw(KeyChooser.zipfian(ITEMS));
+
+		int mostPopular = 0;
+		for (int i = 1; i < ITEMS; i++) {
+			if (counts[i] > counts[mostPopular]) {
+				mostPopular = i;
+			}
+		}
+
+		assertFalse("most popular item is the first", mostPopular == 0);
+	}
+
+	@Test
+	public void choosesOnlyItemForSingleItem() {
+
+		Random random = new Random(42);
+
+		for (int i = 0; i < 100; i++) {
+			assertEquals(0, KeyChooser.zipfian(1).next(random));
+			assertEquals(0, KeyChooser.uniform(1).next(random));
+		}
+	}
+
+	private static int[] draw(KeyChooser chooser) {
+
+		Random random = new Random(42);
+		int[] counts = new int[ITEMS];
+
+		for (int i = 0; i < DRAWS; i++) {
+
+			int item = chooser.next(random);
+
+			assertTrue("item out of range: " + item, item >= 0 && item < ITEMS);
+			counts[item]++;
+		}
+
+		return counts;
+	}
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.cassandra.loadgen;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class LatencyRecorderTest {
+
+	static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+	// columns of the report
+	static final int COUNT = 1, ERRORS = 2, RATE = 3, MEAN = 4, P50 = 5, P99 = 7, MAX = 9;
+
+	@Test
+	public void discardsWhatWasRecordedBeforeStart() throws Exception {
+
+		LatencyRecorder recorder = new LatencyRecorder(EnumSet.of(Operation.READ), null);
+
+		recorder.record(Operation.READ, millis(100));
+		recorder.failed(Operation.READ);
+		recorder.start("test");
+
+		recorder.record(Operation.READ, millis(1));
+		recorder.interval(SECOND);
+
+		String[] read = row(report(recorder, SECOND), "read");
+
+		assertEquals("1", read[COUNT]);
+		assertEquals("0", read[ERRORS]);
+		assertEquals(1.0, Double.parseDouble(read[MAX]), 0.01);
+	}
+
+	@Test
+	public void sumsIntervalsPerOperation() throws Exception {
+
+		LatencyRecorder recorder = new LatencyRecorder(EnumSet.of(Operation.READ, Operation.UPDATE), null);
+		recorder.start("test");
+
+		for (int i = 1; i <= 100; i++) {
+			recorder.record(Operation.READ, millis(i));
+		}
+		String line = recorder.interval(SECOND);
+
+		recorder.record(Operation.UPDATE, millis(5));
+		recorder.failed(Operation.UPDATE);
+		recorder.interval(SECOND);
+
+		assertTrue(line, line.contains("read 100/s p99 99."));
+		assertTrue(line, line.contains("update 0/s"));
+
+		String report = report(recorder, 2 * SECOND);
+		String[] read = row(report, "read");
+		String[] update = row(report, "update");
+
+		assertEquals("100", read[COUNT]);
+		assertEquals("50", read[RATE]);
+		assertEquals(99, Double.parseDouble(read[P99]), 0.5);
+		assertEquals("1", update[COUNT]);
+		assertEquals("1", update[ERRORS]);
+	}
+
+	@Test
+	public void reportsLatenciesAsRecorded() throws Exception {
+
+		LatencyRecorder recorder = new LatencyRecorder(EnumSet.of(Operation.READ), null);
+		recorder.start("test");
+
+		// what an open loop records for operations delayed by a stall of 100ms
+		for (int i = 0; i < 10; i++) {
+			recorder.record(Operation.READ, millis(100 - 10 * i));
+		}
+		recorder.interval(SECOND);
+
+		String[] read = row(report(recorder, SECOND), "read");
+
+		assertEquals(55, Double.parseDouble(read[MEAN]), 0.5);
+		assertEquals(50, Double.parseDouble(read[P50]), 0.5);
+		assertEquals(100, Double.parseDouble(read[MAX]), 0.5);
+	}
+
+	private static String report(LatencyRecorder recorder, long elapsedNanos) {
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		recorder.report(new PrintStream(bytes, true), elapsedNanos);
+
+		return bytes.toString();
+	}
+
+	static String[] row(String report, String operation) {
+
+		for (String line : report.split("\\r?\\n")) {
+
+			String[] columns = line.trim().split(" +");
+			if (columns[0].equals(operation)) {
+				return columns;
+			}
+		}
+
+		throw new AssertionError("no row of " + operation + " in\n" + report);
+	}
+
+	private static long millis(long millis) {
+		return TimeUnit.MILLISECONDS.toNanos(millis);
+	}
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.cassandra.loadgen;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.data.cassandra.convert.MappingCassandraConverter;
+import org.springframework.data.cassandra.core.CassandraAdminOperations;
+import org.springframework.data.cassandra.core.CassandraAdminTemplate;
+
+import com.datastax.driver.core.Session;
+
+public class LoadRunnerTest {
+
+	Target target;
+
+	@After
+	public void tearDown() {
+		if (target != null) {
+			target.close();
+		}
+	}
+
+	@Test
+	public void runsClosedLoopAgainstInMemorySession() throws Exception {
+
+		LoadOptions options = LoadOptions.parse("--workload=write-heavy", "--records=100", "--threads=2",
+				"--warmup=100ms", "--duration=300ms", "--interval=100ms");
+
+		String report = run(options);
+
+		for (String operation : new String[] { "read", "update", "insert" }) {
+
+			String[] row = LatencyRecorderTest.row(report, operation);
+
+			assertTrue(operation + " not run", Long.parseLong(row[1]) > 0);
+			assertEquals(operation + " failed", "0", row[2]);
+		}
+	}
+
+	@Test
+	public void runsOpenLoopAtRateAgainstInMemorySession() throws Exception {
+
+		LoadOptions options = LoadOptions.parse("--workload=read-heavy", "--records=100", "--threads=4", "--loop=open",
+				"--rate=200", "--warmup=100ms", "--duration=500ms", "--interval=100ms");
+
+		String report = run(options);
+		String[] read = LatencyRecorderTest.row(report, "read");
+		String[] update = LatencyRecorderTest.row(report, "update");
+
+		long count = Long.parseLong(read[1]) + Long.parseLong(update[1]);
+
+		// 100 operations are due in the measured 500ms, give or take the ones issued around its start
+		assertTrue("ran " + count + " operations", count >= 90 && count <= 105);
+		assertEquals("0", read[2]);
+		assertEquals("0", update[2]);
+	}
+
+	@Test
+	public void openLoopChargesStallToDelayedOperations() throws Exception {
+
+		LoadOptions options = LoadOptions.parse("--loop=open", "--rate=100", "--threads=1", "--warmup=0ms",
+				"--duration=1s");
+
+		// operations due every 10ms queue up behind the stall and are measured from when they were due
+		List<Long> latencies = runStalled(options);
+
+		assertTrue(latencies.toString(), count(latencies, TimeUnit.MILLISECONDS.toNanos(200)) >= 10);
+	}
+
+	@Test
+	public void closedLoopMeasuresServiceTimes() throws Exception {
+
+		LoadOptions options = LoadOptions.parse("--threads=1", "--warmup=0ms", "--duration=1s");
+
+		// operations that would have been issued during the stall aren't measured
+		List<Long> latencies = runStalled(options);
+
+		assertEquals(latencies.toString(), 1, count(latencies, TimeUnit.MILLISECONDS.toNanos(200)));
+	}
+
+	private String run(LoadOptions options) throws Exception {
+
+		target = Target.of("inmemory", options);
+
+		Session admin = target.connect();
+		admin.execute("CREATE KEYSPACE " + options.getKeyspace()
+				+ " WITH replication = { 'class' : 'SimpleStrategy', 'replication_factor' : 1 }");
+
+		MappingCassandraConverter converter = new MappingCassandraConverter();
+		converter.afterPropertiesSet();
+
+		CassandraAdminTemplate template = new CassandraAdminTemplate(target.connect(options.getKeyspace()), converter);
+
+		Workload workload = Workload.create(options);
+		workload.createTables(template);
+
+		Store store = Store.create(options.getAccess(), options.getWrites(), template);
+		workload.load(store);
+
+		LatencyRecorder recorder = new LatencyRecorder(workload.getOperations(), null);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		PrintStream out = new PrintStream(bytes, true);
+
+		long elapsed = new LoadRunner(options, workload, store, recorder).run(out);
+		recorder.report(out, elapsed);
+
+		return bytes.toString();
+	}
+
+	private static List<Long> runStalled(LoadOptions options) throws Exception {
+
+		StallingWorkload workload = new StallingWorkload(TimeUnit.MILLISECONDS.toNanos(400));
+		CapturingRecorder recorder = new CapturingRecorder(workload);
+
+		new LoadRunner(options, workload, null, recorder).run(new PrintStream(new ByteArrayOutputStream()));
+
+		return recorder.latencies;
+	}
+
+	private static int count(List<Long> latencies, long above) {
+
+		int count = 0;
+		for (long latency : latencies) {
+			if (latency > above) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Reads that take no time, except for the first one, which stalls.
+	 */
+	static class StallingWorkload extends Workload {
+
+		private final long stallNanos;
+		private final AtomicBoolean stalled = new AtomicBoolean();
+
+		StallingWorkload(long stallNanos) {
+
+			super("stalling");
+			mix(Operation.READ, 1.0);
+
+			this.stallNanos = stallNanos;
+		}
+
+		@Override
+		public void createTables(CassandraAdminOperations admin) {}
+
+		@Override
+		public void load(Store store) {}
+
+		@Override
+		public void execute(Operation operation, Store store, Random random) {
+
+			if (stalled.compareAndSet(false, true)) {
+				try {
+					TimeUnit.NANOSECONDS.sleep(stallNanos);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		}
+	}
+
+	static class CapturingRecorder extends LatencyRecorder {
+
+		final List<Long> latencies = Collections.synchronizedList(new ArrayList<Long>());
+
+		CapturingRecorder(Workload workload) throws FileNotFoundException {
+			super(workload.getOperations(), null);
+		}
+
+		@Override
+		public void record(Operation operation, long nanos) {
+
+			super.record(operation, nanos);
+			latencies.add(nanos);
+		}
+	}
+}
@@ -32,7 +32,9 @@ import org.springframework.util.ClassUtils;
 import org.springframework.util.StringUtils;
 
 /**
- * Scans packages for Cassandra entities.
+ * Scans packages for Cassandra entities. If the classpath contains a {@link CassandraEntityIndex}, written at build time
+ * by the <code>spring-data-cassandra-indexer</code> annotation processor, the entities are looked up in the index
+ * instead of scanning the classpath.
  * 
  * @author Matthew T. Adams
  */
@@ -128,16 +130,28 @@ public class CassandraEntityClassScanner {
 
 		HashSet<Class<?>> classes = new HashSet<Class<?>>();
 
-		if (StringUtils.hasText(basePackage)) {
-			ClassPathScanningCandidateComponentProvider componentProvider = new ClassPathScanningCandidateComponentProvider(
-					false);
-			for (Class<? extends Annotation> annoClass : getEntityAnnotations()) {
-				componentProvider.addIncludeFilter(new AnnotationTypeFilter(annoClass));
-			}
+		if (!StringUtils.hasText(basePackage)) {
+			return classes;
+		}
 
-			for (BeanDefinition candidate : componentProvider.findCandidateComponents(basePackage)) {
-				classes.add(ClassUtils.forName(candidate.getBeanClassName(), beanClassLoader));
+		CassandraEntityIndex index = CassandraEntityIndex.load(beanClassLoader);
+		if (index != null) {
+
+			for (String entityClassName : index.getEntityClassNames(basePackage)) {
+				classes.add(ClassUtils.forName(entityClassName, beanClassLoader));
 			}
+
+			return classes;
+		}
+
+		ClassPathScanningCandidateComponentProvider componentProvider = new ClassPathScanningCandidateComponentProvider(
+				false);
+		for (Class<? extends Annotation> annoClass : getEntityAnnotations()) {
+			componentProvider.addIncludeFilter(new AnnotationTypeFilter(annoClass));
+		}
+
+		for (BeanDefinition candidate : componentProvider.findCandidateComponents(basePackage)) {
+			classes.add(ClassUtils.forName(candidate.getBeanClassName(), beanClassLoader));
 		}
 
 		return classes;
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.cassandra.config;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.springframework.core.SpringProperties;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+/**
+ * The entity class names recorded at build time in {@value #INDEX_LOCATION} resources by the
+ * <code>spring-data-cassandra-indexer</code> annotation processor, which {@link CassandraEntityClassScanner} uses instead
+ * of scanning packages. The index is ignored if the system or Spring property {@value #IGNORE_INDEX_PROPERTY} is
+ * <code>true</code>.
+ */
+public class CassandraEntityIndex {
+
+	public static final String INDEX_LOCATION = "META-INF/spring-data-cassandra.entities";
+
+	public static final String IGNORE_INDEX_PROPERTY = "spring.data.cassandra.index.ignore";
+
+	private static final CassandraEntityIndex NONE = new CassandraEntityIndex(Collections.<String> emptySet());
+
+	private static final Map<ClassLoader, CassandraEntityIndex> CACHE = new ConcurrentReferenceHashMap<ClassLoader, CassandraEntityIndex>();
+
+	/**
+	 * Loads the entity index of the given {@link ClassLoader}, merging all {@value #INDEX_LOCATION} resources it can see.
+	 * 
+	 * @param classLoader The {@link ClassLoader}; if null, the default {@link ClassLoader} is used.
+	 * @return The index, or null if there is none or it is ignored.
+	 */
+	public static CassandraEntityIndex load(ClassLoader classLoader) {
+
+		if (SpringProperties.getFlag(IGNORE_INDEX_PROPERTY)) {
+			return null;
+		}
+
+		ClassLoader loader = classLoader == null ? ClassUtils.getDefaultClassLoader() : classLoader;
+
+		CassandraEntityIndex index = CACHE.get(loader);
+		if (index == null) {
+			index = doLoad(loader);
+			CACHE.put(loader, index);
+		}
+
+		return index == NONE ? null : index;
+	}
+
+	private static CassandraEntityIndex doLoad(ClassLoader classLoader) {
+
+		try {
+
+			Enumeration<URL> urls = classLoader.getResources(INDEX_LOCATION);
+			if (!urls.hasMoreElements()) {
+				return NONE;
+			}
+
+			Set<String> entityClassNames = new TreeSet<String>();
+			while (urls.hasMoreElements()) {
+				read(urls.nextElement(), entityClassNames);
+			}
+
+			return new CassandraEntityIndex(entityClassNames);
+
+		} catch (IOException e) {
+			throw new IllegalStateException(String.format("could not load entity index [%s]", INDEX_LOCATION), e);
+		}
+	}
+
+	private static void read(URL url, Set<String> entityClassNames) throws IOException {
+
+		BufferedReader reader = new BufferedReader(new InputStreamReader(url.openStream(), "UTF-8"));
+		try {
+
+			String line;
+			while ((line = reader.readLine()) != null) {
+
+				line = line.trim();
+				if (line.length() > 0 && !line.startsWith("#")) {
+					entityClassNames.add(line);
+				}
+			}
+
+		} finally {
+			reader.close();
+		}
+	}
+
+	private final Set<String> entityClassNames;
+
+	protected CassandraEntityIndex(Set<String> entityClassNames) {
+		this.entityClassNames = Collections.unmodifiableSet(entityClassNames);
+	}
+
+	/**
+	 * Returns the names of all indexed entity classes.
+	 */
+	public Set<String> getEntityClassNames() {
+		return entityClassNames;
+	}
+
+	/**
+	 * Returns the names of the indexed entity classes in the given package or its subpackages.
+	 */
+	public Set<String> getEntityClassNames(String basePackage) {
+
+		String prefix = basePackage.endsWith(".") ? basePackage : basePackage + ".";
+		Set<String> names = new TreeSet<String>();
+
+		for (String name : entityClassNames) {
+			if (name.startsWith(prefix)) {
+				names.add(name);
+			}
+		}
+
+		return names;
+	}
+}
@@ -15,8 +15,11 @@
  */
 package org.springframework.data.cassandra.config;
 
+import java.util.List;
+
 import org.springframework.beans.factory.FactoryBean;
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.cassandra.core.StatementInterceptor;
 import org.springframework.data.cassandra.convert.CassandraConverter;
 import org.springframework.data.cassandra.core.CassandraOperations;
 import org.springframework.data.cassandra.core.CassandraTemplate;
@@ -28,6 +31,7 @@ public class CassandraTemplateFactoryBean implements FactoryBean<CassandraOperat
 
 	protected Session session;
 	protected CassandraConverter converter;
+	protected List<StatementInterceptor> statementInterceptors;
 
 	@Override
 	public void afterPropertiesSet() throws Exception {
@@ -37,7 +41,10 @@ public class CassandraTemplateFactoryBean implements FactoryBean<CassandraOperat
 
 	@Override
 	public CassandraOperations getObject() throws Exception {
-		return new CassandraTemplate(session, converter);
+		CassandraTemplate template = new CassandraTemplate(session, converter);
+		template.setStatementInterceptors(statementInterceptors);
+
+		return template;
 	}
 
 	@Override
@@ -59,4 +66,8 @@ public class CassandraTemplateFactoryBean implements FactoryBean<CassandraOperat
 		Assert.notNull(converter);
 		this.converter = converter;
 	}
+
+	public void setStatementInterceptors(List<StatementInterceptor> statementInterceptors) {
+		this.statementInterceptors = statementInterceptors;
+	}
 }
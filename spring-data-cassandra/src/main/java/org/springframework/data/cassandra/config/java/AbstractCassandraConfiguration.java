@@ -94,7 +94,10 @@ public abstract class AbstractCassandraConfiguration extends AbstractClusterConf
 	public CassandraMappingContext cassandraMapping() throws ClassNotFoundException {
 
 		BasicCassandraMappingContext bean = new BasicCassandraMappingContext();
-		bean.setInitialEntitySet(CassandraEntityClassScanner.scan(getEntityBasePackages()));
+		CassandraEntityClassScanner scanner = new CassandraEntityClassScanner(getEntityBasePackages());
+		scanner.setBeanClassLoader(beanClassLoader);
+
+		bean.setInitialEntitySet(scanner.scanForEntityClasses());
 		bean.setBeanClassLoader(beanClassLoader);
 
 		return bean;
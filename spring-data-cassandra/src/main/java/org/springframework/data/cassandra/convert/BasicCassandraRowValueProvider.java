@@ -15,8 +15,13 @@
  */
 package org.springframework.data.cassandra.convert;
 
+import java.nio.ByteBuffer;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cassandra.core.util.ByteBufferInputStreamSource;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.data.cassandra.core.CassandraValue;
 import org.springframework.data.cassandra.mapping.CassandraPersistentProperty;
 import org.springframework.data.mapping.model.DefaultSpELExpressionEvaluator;
 import org.springframework.data.mapping.model.PropertyValueProvider;
@@ -61,6 +66,17 @@ public class BasicCassandraRowValueProvider implements CassandraRowValueProvider
 			return evaluator.evaluate(expression);
 		}
 
+		Class<?> type = property.getType();
+
+		if (CassandraValue.class.equals(type)) {
+			return reader.getCassandraValue(property.getColumnName());
+		}
+
+		if (InputStreamSource.class.equals(type) || ByteBufferInputStreamSource.class.equals(type)) {
+			ByteBuffer bytes = reader.getBytes(property.getColumnName());
+			return bytes == null ? null : new ByteBufferInputStreamSource(bytes);
+		}
+
 		return reader.get(property.getColumnName());
 	}
 
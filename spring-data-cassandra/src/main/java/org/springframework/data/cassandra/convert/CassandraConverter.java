@@ -33,4 +33,9 @@ public interface CassandraConverter extends
 	CassandraMappingContext getMappingContext();
 
 	Object getId(Object object, CassandraPersistentEntity<?> entity);
+
+	/**
+	 * Converts the given value of the given property to the value written to its column, as writing the entity would.
+	 */
+	Object convertToColumnValue(CassandraPersistentProperty property, Object value);
 }
@@ -1,8 +1,10 @@
 package org.springframework.data.cassandra.convert;
 
+import java.nio.ByteBuffer;
 import java.util.List;
 
 import org.springframework.cassandra.core.cql.CqlIdentifier;
+import org.springframework.data.cassandra.core.CassandraValue;
 
 import com.datastax.driver.core.ColumnDefinitions;
 import com.datastax.driver.core.DataType;
@@ -92,7 +94,7 @@ public class ColumnReader {
 			return row.getDate(i);
 		}
 		if (type.equals(DataType.blob())) {
-			return row.getBytes(i);
+			return getBytes(i);
 		}
 		if (type.equals(DataType.inet())) {
 			return row.getInet(i);
@@ -104,6 +106,38 @@ public class ColumnReader {
 		return row.getBytesUnsafe(i);
 	}
 
+	/**
+	 * Returns a read-only view of the row's serialized column value, without copying or decoding it.
+	 */
+	public ByteBuffer getBytes(CqlIdentifier name) {
+		return getBytes(getColumnIndex(name.toCql()));
+	}
+
+	/**
+	 * Returns a read-only view of the row's serialized column value, without copying or decoding it.
+	 */
+	public ByteBuffer getBytes(int i) {
+
+		ByteBuffer bytes = row.getBytesUnsafe(i);
+		return bytes == null ? null : bytes.asReadOnlyBuffer();
+	}
+
+	/**
+	 * Returns the row's serialized column value along with its type, without copying or decoding it.
+	 */
+	public CassandraValue getCassandraValue(CqlIdentifier name) {
+		return getCassandraValue(getColumnIndex(name.toCql()));
+	}
+
+	/**
+	 * Returns the row's serialized column value along with its type, without copying or decoding it.
+	 */
+	public CassandraValue getCassandraValue(int i) {
+
+		ByteBuffer bytes = getBytes(i);
+		return bytes == null ? null : new CassandraValue(bytes, columns.getType(i));
+	}
+
 	public Row getRow() {
 		return row;
 	}
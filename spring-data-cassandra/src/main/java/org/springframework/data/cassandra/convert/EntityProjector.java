@@ -0,0 +1,271 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.cassandra.convert;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cassandra.core.cql.CqlIdentifier;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.data.cassandra.mapping.CassandraMappingContext;
+import org.springframework.data.cassandra.mapping.CassandraPersistentEntity;
+import org.springframework.data.cassandra.mapping.CassandraPersistentProperty;
+import org.springframework.data.cassandra.mapping.CassandraSimpleTypeHolder;
+import org.springframework.data.cassandra.mapping.PrimaryKeyClass;
+import org.springframework.data.cassandra.mapping.Table;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.data.mapping.PreferredConstructor;
+import org.springframework.data.mapping.PreferredConstructor.Parameter;
+import org.springframework.data.mapping.model.MappingException;
+import org.springframework.data.mapping.model.PreferredConstructorDiscoverer;
+import org.springframework.data.mapping.model.SimpleTypeHolder;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Projects entities onto projection types, and computes from the mapping metadata which columns a projection needs so
+ * that only those are selected and decoded.
+ * <p>
+ * A projection type is either an interface whose getters are named like properties of the entity, backed by the
+ * entity read from the row, or a DTO class whose constructor parameters and fields are named like properties of the
+ * entity. Interfaces with getters annotated with {@link Value} may evaluate expressions against any property of the
+ * entity, so they need all columns.
+ */
+public class EntityProjector {
+
+	private static final SimpleTypeHolder SIMPLE_TYPES = new CassandraSimpleTypeHolder();
+
+	private final CassandraMappingContext mappingContext;
+	private final ConversionService conversionService;
+	private final ProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+	private final ConcurrentMap<Class<?>, ProjectionType> projectionTypes = new ConcurrentHashMap<Class<?>, ProjectionType>();
+
+	public EntityProjector(CassandraConverter converter) {
+
+		Assert.notNull(converter);
+
+		this.mappingContext = converter.getMappingContext();
+		this.conversionService = converter.getConversionService();
+	}
+
+	/**
+	 * Returns whether the given type is a projection of the given entity type, that is, neither the entity type, one of
+	 * its supertypes, a simple or JDK type, nor another entity type.
+	 */
+	public boolean isProjection(Class<?> type, Class<?> entityType) {
+
+		if (type == null || type.isPrimitive() || type.isArray() || ClassUtils.isAssignable(type, entityType)) {
+			return false;
+		}
+
+		if (SIMPLE_TYPES.isSimpleType(type) || type.getName().startsWith("java.")
+				|| type.getName().startsWith("com.datastax.")) {
+			return false;
+		}
+
+		return !type.isAnnotationPresent(Table.class) && !type.isAnnotationPresent(PrimaryKeyClass.class);
+	}
+
+	/**
+	 * Returns the columns of the given entity's table that the given projection type needs, or <code>null</code> if it
+	 * needs all columns. The columns of the entity's persistence constructor arguments come first, as the entity can't be
+	 * instantiated without them.
+	 */
+	public List<CqlIdentifier> getRequiredColumns(CassandraPersistentEntity<?> entity, Class<?> projectionType) {
+
+		Assert.notNull(entity);
+		Assert.notNull(projectionType);
+
+		ProjectionType projection = getProjectionType(projectionType);
+
+		if (projection.properties == null) {
+			return null;
+		}
+
+		Set<CqlIdentifier> columns = new LinkedHashSet<CqlIdentifier>();
+
+		PreferredConstructor<?, CassandraPersistentProperty> constructor = entity.getPersistenceConstructor();
+		if (constructor != null) {
+			for (Parameter<Object, CassandraPersistentProperty> parameter : constructor.getParameters()) {
+				addColumns(entity, parameter.getName(), columns);
+			}
+		}
+
+		for (String property : projection.properties) {
+			addColumns(entity, property, columns);
+		}
+
+		return new ArrayList<CqlIdentifier>(columns);
+	}
+
+	protected void addColumns(CassandraPersistentEntity<?> entity, String propertyName, Set<CqlIdentifier> columns) {
+
+		CassandraPersistentProperty property = propertyName == null ? null : entity.getPersistentProperty(propertyName);
+
+		// not a property of the entity, e.g. a getter computed by the projection itself
+		if (property == null) {
+			return;
+		}
+
+		columns.addAll(property.getColumnNames());
+	}
+
+	/**
+	 * Projects the given entity onto the given projection type.
+	 */
+	@SuppressWarnings("unchecked")
+	public <P> P project(Object source, Class<P> projectionType) {
+
+		Assert.notNull(projectionType);
+
+		if (source == null || projectionType.isInstance(source)) {
+			return (P) source;
+		}
+
+		if (projectionType.isInterface()) {
+			return projectionFactory.createProjection(projectionType, source);
+		}
+
+		// DTOs are populated through the entity's fields, which might not have been loaded
+		LazyPropertyLoader.loadAll(source);
+
+		CassandraPersistentEntity<?> entity = mappingContext.getPersistentEntity(ClassUtils.getUserClass(source));
+		PersistentPropertyAccessor accessor = entity.getPropertyAccessor(source);
+		ProjectionType projection = getProjectionType(projectionType);
+
+		List<Object> args = new ArrayList<Object>();
+		for (Parameter<Object, CassandraPersistentProperty> parameter : projection.constructor.getParameters()) {
+			args.add(getValue(entity, accessor, parameter.getName(), parameter.getRawType()));
+		}
+
+		P projected = (P) BeanUtils.instantiateClass(projection.constructor.getConstructor(), args.toArray());
+
+		for (Field field : projection.fields) {
+			ReflectionUtils.setField(field, projected, getValue(entity, accessor, field.getName(), field.getType()));
+		}
+
+		return projected;
+	}
+
+	protected Object getValue(CassandraPersistentEntity<?> entity, PersistentPropertyAccessor accessor,
+			String propertyName, Class<?> type) {
+
+		CassandraPersistentProperty property = entity.getPersistentProperty(propertyName);
+		Object value = property == null ? null : accessor.getProperty(property);
+
+		if (value == null) {
+			return type.isPrimitive() ? conversionService.convert(0, type) : null;
+		}
+
+		return ClassUtils.isAssignableValue(type, value) ? value : conversionService.convert(value, type);
+	}
+
+	protected ProjectionType getProjectionType(Class<?> type) {
+
+		ProjectionType projection = projectionTypes.get(type);
+
+		if (projection == null) {
+			projection = type.isInterface() ? forInterface(type) : forClass(type);
+			projectionTypes.putIfAbsent(type, projection);
+		}
+
+		return projection;
+	}
+
+	protected ProjectionType forInterface(Class<?> type) {
+
+		for (Method method : type.getMethods()) {
+			if (method.isAnnotationPresent(Value.class)) {
+				return new ProjectionType(null, null, null);
+			}
+		}
+
+		return new ProjectionType(projectionFactory.getInputProperties(type), null, null);
+	}
+
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	protected ProjectionType forClass(Class<?> type) {
+
+		PreferredConstructor<?, ?> constructor = new PreferredConstructorDiscoverer(type).getConstructor();
+		if (constructor == null) {
+			throw new MappingException(String.format("projection class [%s] has no usable constructor", type.getName()));
+		}
+
+		List<String> properties = new ArrayList<String>();
+		Set<String> constructorProperties = new LinkedHashSet<String>();
+
+		for (Parameter<?, ?> parameter : constructor.getParameters()) {
+			if (parameter.getName() == null) {
+				throw new MappingException(String.format(
+						"can't determine the parameter names of the constructor of projection class [%s]; compile with debug information",
+						type.getName()));
+			}
+			constructorProperties.add(parameter.getName());
+		}
+		properties.addAll(constructorProperties);
+
+		List<Field> fields = new ArrayList<Field>();
+		for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+			for (Field field : current.getDeclaredFields()) {
+
+				int modifiers = field.getModifiers();
+				if (Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers) || Modifier.isTransient(modifiers)
+						|| field.isSynthetic() || constructorProperties.contains(field.getName())) {
+					continue;
+				}
+
+				ReflectionUtils.makeAccessible(field);
+				fields.add(field);
+				properties.add(field.getName());
+			}
+		}
+
+		return new ProjectionType(properties, (PreferredConstructor<Object, CassandraPersistentProperty>) constructor,
+				fields);
+	}
+
+	/**
+	 * The properties a projection type reads, <code>null</code> if it may read any, and for DTO classes, how they are
+	 * instantiated and populated.
+	 */
+	protected static class ProjectionType {
+
+		final List<String> properties;
+		final PreferredConstructor<Object, CassandraPersistentProperty> constructor;
+		final List<Field> fields;
+
+		ProjectionType(List<String> properties, PreferredConstructor<Object, CassandraPersistentProperty> constructor,
+				List<Field> fields) {
+
+			this.properties = properties == null ? null : Collections.unmodifiableList(properties);
+			this.constructor = constructor;
+			this.fields = fields;
+		}
+	}
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.cassandra.convert;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.cglib.proxy.Callback;
+import org.springframework.cglib.proxy.Enhancer;
+import org.springframework.cglib.proxy.MethodInterceptor;
+import org.springframework.data.cassandra.mapping.CassandraPersistentEntity;
+import org.springframework.data.cassandra.mapping.CassandraPersistentProperty;
+import org.springframework.data.cassandra.mapping.LazyLoad;
+import org.springframework.data.mapping.PreferredConstructor;
+import org.springframework.data.mapping.PreferredConstructor.Parameter;
+import org.springframework.data.mapping.PropertyHandler;
+import org.springframework.data.mapping.model.MappingException;
+import org.springframework.data.mapping.model.ParameterValueProvider;
+
+/**
+ * Instantiates entities with {@link LazyLoad lazy} properties as instances of a subclass generated per entity, whose
+ * methods are intercepted by a {@link LazyPropertyLoader} that reads the lazy properties from the row on first access.
+ */
+public class LazyEntityInstantiator {
+
+	private final ConcurrentMap<CassandraPersistentEntity<?>, LazyEntityType> types = new ConcurrentHashMap<CassandraPersistentEntity<?>, LazyEntityType>();
+
+	/**
+	 * Creates an instance of the generated subclass of the given entity through its persistence constructor, whose lazy
+	 * properties are to be loaded by the given {@link LazyPropertyLoader}.
+	 * 
+	 * @throws MappingException If the entity can't be subclassed.
+	 */
+	@SuppressWarnings("unchecked")
+	public <S> S createInstance(CassandraPersistentEntity<S> entity,
+			ParameterValueProvider<CassandraPersistentProperty> parameters, LazyPropertyLoader loader) {
+
+		LazyEntityType type = getType(entity);
+
+		PreferredConstructor<S, CassandraPersistentProperty> constructor = entity.getPersistenceConstructor();
+		List<Object> args = new ArrayList<Object>();
+		if (constructor != null) {
+			for (Parameter<Object, CassandraPersistentProperty> parameter : constructor.getParameters()) {
+				args.add(parameters.getParameterValue(parameter));
+			}
+		}
+
+		loader.initialize(type);
+
+		// callbacks registered for the current thread are those of instances created by it
+		Enhancer.registerCallbacks(type.proxyClass, new Callback[] { loader });
+		try {
+			return (S) BeanUtils.instantiateClass(type.constructor, args.toArray());
+		} finally {
+			Enhancer.registerCallbacks(type.proxyClass, null);
+		}
+	}
+
+	protected LazyEntityType getType(CassandraPersistentEntity<?> entity) {
+
+		LazyEntityType type = types.get(entity);
+
+		if (type == null) {
+			LazyEntityType created = new LazyEntityType(entity);
+			type = types.putIfAbsent(entity, created);
+			if (type == null) {
+				type = created;
+			}
+		}
+
+		return type;
+	}
+
+	/**
+	 * The generated subclass of an entity and the accessor methods of its properties.
+	 */
+	static class LazyEntityType {
+
+		final CassandraPersistentEntity<?> entity;
+		final Class<?> proxyClass;
+		final Constructor<?> constructor;
+		final List<CassandraPersistentProperty> lazyProperties;
+		final Map<Method, CassandraPersistentProperty> getters = new HashMap<Method, CassandraPersistentProperty>();
+		final Map<Method, CassandraPersistentProperty> setters = new HashMap<Method, CassandraPersistentProperty>();
+		final Set<Method> eagerAccessors = new HashSet<Method>();
+
+		LazyEntityType(final CassandraPersistentEntity<?> entity) {
+
+			this.entity = entity;
+
+			Class<?> type = entity.getType();
+			if (Modifier.isFinal(type.getModifiers())) {
+				throw new MappingException(String.format("entity [%s] with lazy properties must not be final", type.getName()));
+			}
+
+			Enhancer enhancer = new Enhancer();
+			enhancer.setSuperclass(type);
+			enhancer.setCallbackType(MethodInterceptor.class);
+			enhancer.setClassLoader(type.getClassLoader());
+			this.proxyClass = enhancer.createClass();
+
+			PreferredConstructor<?, CassandraPersistentProperty> persistenceConstructor = entity.getPersistenceConstructor();
+			Class<?>[] parameterTypes = persistenceConstructor == null ? new Class<?>[0] : persistenceConstructor
+					.getConstructor().getParameterTypes();
+
+			try {
+				this.constructor = proxyClass.getDeclaredConstructor(parameterTypes);
+			} catch (NoSuchMethodException e) {
+				throw new MappingException(String.format(
+						"entity [%s] with lazy properties must not have a private persistence constructor", type.getName()), e);
+			}
+
+			final List<CassandraPersistentProperty> lazy = new ArrayList<CassandraPersistentProperty>();
+
+			entity.doWithProperties(new PropertyHandler<CassandraPersistentProperty>() {
+
+				@Override
+				public void doWithPersistentProperty(CassandraPersistentProperty prop) {
+
+					if (prop.isLazy() && !entity.isConstructorArgument(prop)) {
+
+						lazy.add(prop);
+						put(getters, prop.getGetter(), prop);
+						put(setters, prop.getSetter(), prop);
+
+					} else {
+
+						if (prop.getGetter() != null) {
+							eagerAccessors.add(prop.getGetter());
+						}
+						if (prop.getSetter() != null) {
+							eagerAccessors.add(prop.getSetter());
+						}
+					}
+				}
+			});
+
+			this.lazyProperties = Collections.unmodifiableList(lazy);
+		}
+
+		private static void put(Map<Method, CassandraPersistentProperty> map, Method method,
+				CassandraPersistentProperty prop) {
+			if (method != null) {
+				map.put(method, prop);
+			}
+		}
+	}
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.cassandra.convert;
+
+import java.lang.reflect.Method;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.springframework.cglib.proxy.Factory;
+import org.springframework.cglib.proxy.MethodInterceptor;
+import org.springframework.cglib.proxy.MethodProxy;
+import org.springframework.data.cassandra.convert.LazyEntityInstantiator.LazyEntityType;
+import org.springframework.data.cassandra.mapping.CassandraPersistentEntity;
+import org.springframework.data.cassandra.mapping.CassandraPersistentProperty;
+import org.springframework.data.cassandra.mapping.LazyLoad;
+import org.springframework.data.mapping.model.ConvertingPropertyAccessor;
+
+/**
+ * Loads the {@link LazyLoad lazy} properties of one entity read by a {@link MappingCassandraConverter} from the row it
+ * was read from: a lazy property when its getter is called, and all lazy properties when a method other than an
+ * accessor of a property is called, such as <code>equals</code> or <code>toString</code>. Calling the setter of a
+ * lazy property marks it loaded. The row is released once all lazy properties are loaded.
+ */
+public class LazyPropertyLoader implements MethodInterceptor {
+
+	private final MappingCassandraConverter converter;
+	private final CassandraPersistentEntity<?> entity;
+
+	private LazyEntityType type;
+	private BasicCassandraRowValueProvider row;
+	private Set<String> pending;
+
+	public LazyPropertyLoader(MappingCassandraConverter converter, CassandraPersistentEntity<?> entity,
+			BasicCassandraRowValueProvider row) {
+
+		this.converter = converter;
+		this.entity = entity;
+		this.row = row;
+	}
+
+	synchronized void initialize(LazyEntityType type) {
+
+		this.type = type;
+		this.pending = new HashSet<String>(type.lazyProperties.size() * 4 / 3 + 1);
+
+		for (CassandraPersistentProperty prop : type.lazyProperties) {
+			pending.add(prop.getName());
+		}
+	}
+
+	@Override
+	public Object intercept(Object object, Method method, Object[] args, MethodProxy proxy) throws Throwable {
+
+		if (!type.eagerAccessors.contains(method)) {
+
+			CassandraPersistentProperty prop;
+
+			if ((prop = type.getters.get(method)) != null) {
+				loadProperty(object, prop);
+			} else if ((prop = type.setters.get(method)) != null) {
+				markLoaded(prop);
+			} else {
+				loadProperties(object);
+			}
+		}
+
+		return proxy.invokeSuper(object, args);
+	}
+
+	/**
+	 * Returns whether the given property of the given entity is loaded; <code>true</code> unless the entity was read
+	 * with lazy properties and the property is one of them that has not been accessed yet.
+	 */
+	public static boolean isLoaded(Object object, CassandraPersistentProperty prop) {
+
+		LazyPropertyLoader loader = getLoader(object);
+		return loader == null || loader.isLoaded(prop);
+	}
+
+	/**
+	 * Loads the given property of the given entity if it is lazy and not loaded yet.
+	 */
+	public static void load(Object object, CassandraPersistentProperty prop) {
+
+		LazyPropertyLoader loader = getLoader(object);
+		if (loader != null) {
+			loader.loadProperty(object, prop);
+		}
+	}
+
+	/**
+	 * Loads all lazy properties of the given entity that are not loaded yet.
+	 */
+	public static void loadAll(Object object) {
+
+		LazyPropertyLoader loader = getLoader(object);
+		if (loader != null) {
+			loader.loadProperties(object);
+		}
+	}
+
+	/**
+	 * Returns the {@link LazyPropertyLoader} of the given entity, or null if it was read without lazy properties.
+	 */
+	public static LazyPropertyLoader getLoader(Object object) {
+
+		if (!(object instanceof Factory)) {
+			return null;
+		}
+
+		for (Object callback : ((Factory) object).getCallbacks()) {
+			if (callback instanceof LazyPropertyLoader) {
+				return (LazyPropertyLoader) callback;
+			}
+		}
+
+		return null;
+	}
+
+	public synchronized boolean isLoaded(CassandraPersistentProperty prop) {
+		return pending.isEmpty() || !pending.contains(prop.getName());
+	}
+
+	protected synchronized void loadProperty(Object object, CassandraPersistentProperty prop) {
+
+		if (pending.remove(prop.getName())) {
+			converter.readPropertyFromRow(entity, prop, row, getAccessor(object));
+			releaseRowIfLoaded();
+		}
+	}
+
+	protected synchronized void loadProperties(Object object) {
+
+		if (pending.isEmpty()) {
+			return;
+		}
+
+		ConvertingPropertyAccessor accessor = getAccessor(object);
+
+		for (CassandraPersistentProperty prop : type.lazyProperties) {
+			if (pending.remove(prop.getName())) {
+				converter.readPropertyFromRow(entity, prop, row, accessor);
+			}
+		}
+
+		releaseRowIfLoaded();
+	}
+
+	protected synchronized void markLoaded(CassandraPersistentProperty prop) {
+
+		if (pending.remove(prop.getName())) {
+			releaseRowIfLoaded();
+		}
+	}
+
+	private void releaseRowIfLoaded() {
+		if (pending.isEmpty()) {
+			row = null;
+		}
+	}
+
+	private ConvertingPropertyAccessor getAccessor(Object object) {
+		return new ConvertingPropertyAccessor(entity.getPropertyAccessor(object), converter.getConversionService());
+	}
+}
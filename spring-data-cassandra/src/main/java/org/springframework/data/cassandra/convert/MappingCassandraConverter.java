@@ -15,16 +15,27 @@
  */
 package org.springframework.data.cassandra.convert;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.BeanClassLoaderAware;
+import org.springframework.cassandra.core.util.ByteBufferInputStreamSource;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.data.cassandra.core.CassandraValue;
 import org.springframework.data.cassandra.mapping.BasicCassandraMappingContext;
 import org.springframework.data.cassandra.mapping.CassandraMappingContext;
 import org.springframework.data.cassandra.mapping.CassandraPersistentEntity;
@@ -43,12 +54,17 @@ import org.springframework.data.util.ClassTypeInformation;
 import org.springframework.data.util.TypeInformation;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.StreamUtils;
 
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.ProtocolVersion;
 import com.datastax.driver.core.Row;
 import com.datastax.driver.core.querybuilder.Delete.Where;
 import com.datastax.driver.core.querybuilder.Insert;
 import com.datastax.driver.core.querybuilder.QueryBuilder;
 import com.datastax.driver.core.querybuilder.Update;
+import com.google.common.collect.MapMaker;
 
 import static org.springframework.data.cassandra.repository.support.BasicMapId.id;
 
@@ -71,6 +87,21 @@ public class MappingCassandraConverter extends AbstractCassandraConverter implem
 
 	protected ClassLoader beanClassLoader;
 
+	protected final LazyEntityInstantiator lazyInstantiator = new LazyEntityInstantiator();
+
+	protected boolean dirtyTrackingEnabled = false;
+	protected final Map<Object, Map<String, Object>> snapshots = new MapMaker().weakKeys().makeMap();
+
+	/**
+	 * Snapshot value of a lazy property that hasn't been loaded, and therefore not changed, yet.
+	 */
+	protected static final Object NOT_LOADED = new Object();
+
+	/**
+	 * Snapshot entry holding the primary key column values, which can't clash with a property name.
+	 */
+	protected static final String KEY_SNAPSHOT = "#key";
+
 	/**
 	 * Creates a new {@link MappingCassandraConverter} with a {@link BasicCassandraMappingContext}.
 	 */
@@ -130,24 +161,212 @@ public class MappingCassandraConverter extends AbstractCassandraConverter implem
 		CassandraPersistentEntityParameterValueProvider parameterProvider = new CassandraPersistentEntityParameterValueProvider(
 				entity, rowValueProvider, null);
 
-		EntityInstantiator instantiator = instantiators.getInstantiatorFor(entity);
-		S instance = instantiator.createInstance(entity, parameterProvider);
+		boolean lazy = entity.hasLazyProperties();
+
+		S instance;
+		if (lazy) {
+			instance = lazyInstantiator.createInstance(entity, parameterProvider, new LazyPropertyLoader(this, entity,
+					rowValueProvider));
+		} else {
+			instance = instantiators.getInstantiatorFor(entity).createInstance(entity, parameterProvider);
+		}
 
 		ConvertingPropertyAccessor wrapper = getWrapper(instance, entity);
 
-		readPropertiesFromRow(entity, rowValueProvider, wrapper);
+		readPropertiesFromRow(entity, rowValueProvider, wrapper, lazy);
+
+		if (dirtyTrackingEnabled) {
+			snapshots.put(wrapper.getBean(), takeSnapshot(wrapper, entity));
+		}
 
 		return (S) wrapper.getBean();
 	}
 
+	/**
+	 * Whether entities read by this converter remember the values they were loaded with, so that updating them only
+	 * writes the columns that have changed since.
+	 */
+	public boolean isDirtyTrackingEnabled() {
+		return dirtyTrackingEnabled;
+	}
+
+	/**
+	 * Enables or disables dirty tracking. When enabled, this converter keeps a snapshot of the property values of every
+	 * entity it reads for as long as the entity is reachable, and {@link #write(Object, Object)} into an {@link Update}
+	 * only sets properties whose values differ from that snapshot. Changed collection properties are written as deltas
+	 * where possible. Entities without a snapshot, or whose primary key has changed, are written in full. Defaults to
+	 * <code>false</code>.
+	 */
+	public void setDirtyTrackingEnabled(boolean dirtyTrackingEnabled) {
+		this.dirtyTrackingEnabled = dirtyTrackingEnabled;
+		if (!dirtyTrackingEnabled) {
+			snapshots.clear();
+		}
+	}
+
+	/**
+	 * Returns <code>false</code> if dirty tracking is enabled and the given entity has not changed since it was read or
+	 * last {@link #markClean(Object) marked clean}, otherwise <code>true</code>.
+	 */
+	public boolean isDirty(Object object) {
+
+		if (!dirtyTrackingEnabled || object == null) {
+			return true;
+		}
+
+		Map<String, Object> snapshot = snapshots.get(object);
+		if (snapshot == null) {
+			return true;
+		}
+
+		CassandraPersistentEntity<?> entity = mappingContext.getPersistentEntity(transformClassToBeanClassLoaderClass(object
+				.getClass()));
+
+		return !snapshot.equals(takeSnapshot(getWrapper(object, entity), entity));
+	}
+
+	/**
+	 * Records the current state of the given entity as persisted. Call this after successfully writing the entity so
+	 * that subsequent updates only contain later changes. Does nothing unless dirty tracking is enabled.
+	 */
+	public void markClean(Object object) {
+		markClean(object, snapshot(object));
+	}
+
+	/**
+	 * Returns the current state of the given entity, to be {@link #markClean(Object, Object) recorded as persisted} once
+	 * it has been written as it is now. Take it in the thread that builds the statement, so that changes made while the
+	 * write is in flight are still written by the next update. Returns <code>null</code> unless dirty tracking is enabled.
+	 */
+	public Object snapshot(Object object) {
+
+		if (!dirtyTrackingEnabled || object == null) {
+			return null;
+		}
+
+		CassandraPersistentEntity<?> entity = mappingContext.getPersistentEntity(transformClassToBeanClassLoaderClass(object
+				.getClass()));
+
+		return entity == null ? null : takeSnapshot(getWrapper(object, entity), entity);
+	}
+
+	/**
+	 * Records the given {@link #snapshot(Object) snapshot} as the persisted state of the given entity. Does nothing
+	 * unless dirty tracking is enabled.
+	 */
+	@SuppressWarnings("unchecked")
+	public void markClean(Object object, Object snapshot) {
+
+		if (!dirtyTrackingEnabled || object == null || snapshot == null) {
+			return;
+		}
+
+		snapshots.put(object, (Map<String, Object>) snapshot);
+	}
+
+	protected Map<String, Object> takeSnapshot(final ConvertingPropertyAccessor wrapper,
+			CassandraPersistentEntity<?> entity) {
+
+		final Map<String, Object> snapshot = new HashMap<String, Object>();
+		snapshot.put(KEY_SNAPSHOT, getKeyValues(wrapper, entity));
+
+		entity.doWithProperties(new PropertyHandler<CassandraPersistentProperty>() {
+
+			@Override
+			public void doWithPersistentProperty(CassandraPersistentProperty prop) {
+
+				if (prop.isCompositePrimaryKey() || prop.isIdProperty() || prop.isPrimaryKeyColumn()) {
+					return;
+				}
+
+				if (prop.isLazy() && !LazyPropertyLoader.isLoaded(wrapper.getBean(), prop)) {
+					snapshot.put(prop.getName(), NOT_LOADED);
+					return;
+				}
+
+				snapshot.put(prop.getName(), copyOf(wrapper.getProperty(prop)));
+			}
+		});
+
+		return snapshot;
+	}
+
+	/**
+	 * Returns the values of the given entity's primary key columns by column name, including those of its composite
+	 * primary key.
+	 */
+	protected Map<String, Object> getKeyValues(ConvertingPropertyAccessor wrapper, CassandraPersistentEntity<?> entity) {
+
+		Map<String, Object> values = new HashMap<String, Object>();
+		collectKeyValues(wrapper, entity, values);
+		return values;
+	}
+
+	private void collectKeyValues(final ConvertingPropertyAccessor wrapper, final CassandraPersistentEntity<?> entity,
+			final Map<String, Object> values) {
+
+		entity.doWithProperties(new PropertyHandler<CassandraPersistentProperty>() {
+
+			@Override
+			public void doWithPersistentProperty(CassandraPersistentProperty prop) {
+
+				if (prop.isCompositePrimaryKey()) {
+
+					Object key = wrapper.getProperty(prop);
+					if (key != null) {
+						collectKeyValues(getWrapper(key, prop.getCompositePrimaryKeyEntity()),
+								prop.getCompositePrimaryKeyEntity(), values);
+					}
+					return;
+				}
+
+				if (prop.isIdProperty() || entity.isCompositePrimaryKey() || prop.isPrimaryKeyColumn()) {
+					values.put(prop.getColumnName().toCql(), copyOf(wrapper.getProperty(prop)));
+				}
+			}
+		});
+	}
+
+	/**
+	 * Copies collection values so that in-place modifications are detected as changes.
+	 */
+	private static Object copyOf(Object value) {
+
+		if (value instanceof List) {
+			return new ArrayList<Object>((List<?>) value);
+		}
+		if (value instanceof Set) {
+			return new HashSet<Object>((Set<?>) value);
+		}
+		if (value instanceof Map) {
+			return new HashMap<Object, Object>((Map<?, ?>) value);
+		}
+
+		return value;
+	}
+
 	protected void readPropertiesFromRow(final CassandraPersistentEntity<?> entity,
 			final BasicCassandraRowValueProvider row, final ConvertingPropertyAccessor wrapper) {
+		readPropertiesFromRow(entity, row, wrapper, false);
+	}
+
+	/**
+	 * Reads the properties of the given entity from the given row, except for {@link CassandraPersistentProperty#isLazy()
+	 * lazy} properties if <code>skipLazy</code> is <code>true</code>; those are left to the entity's
+	 * {@link LazyPropertyLoader}.
+	 */
+	protected void readPropertiesFromRow(final CassandraPersistentEntity<?> entity,
+			final BasicCassandraRowValueProvider row, final ConvertingPropertyAccessor wrapper, final boolean skipLazy) {
 
 		entity.doWithProperties(new PropertyHandler<CassandraPersistentProperty>() {
 
 			@Override
 			public void doWithPersistentProperty(CassandraPersistentProperty prop) {
 
+				if (skipLazy && prop.isLazy()) {
+					return;
+				}
+
 				MappingCassandraConverter.this.readPropertyFromRow(entity, prop, row, wrapper);
 			}
 		});
@@ -242,19 +461,25 @@ public class MappingCassandraConverter extends AbstractCassandraConverter implem
 			@Override
 			public void doWithPersistentProperty(CassandraPersistentProperty prop) {
 
+				if (prop.isLazy()) {
+					LazyPropertyLoader.load(wrapper.getBean(), prop);
+				}
+
 			        Class<?> dataClass;
 			        if (prop.isCompositePrimaryKey()) {
 			            dataClass = prop.getType();
 			        } else {
 			            dataClass = prop.getDataType().getName().asJavaClass();
 			        }
-                                Object value = wrapper.getProperty(prop, dataClass);
+                                Object value = isSerializedValue(prop) ? toSerializedValue(prop, wrapper.getProperty(prop))
+                                                : wrapper.getProperty(prop, dataClass);
 
-				log.debug("prop.type -> " + prop.getType().getName());
-				log.debug("prop.value -> " + value);
+				if (log.isDebugEnabled()) {
+					log.debug("prop.type -> " + prop.getType().getName());
+					log.debug("prop.value -> " + value);
+				}
 
 				if (prop.isCompositePrimaryKey()) {
-					log.debug("prop is a compositeKey");
                                         writeInsertFromWrapper(
                                                 getWrapper(value, prop.getCompositePrimaryKeyEntity()),
                                                 insert,
@@ -263,8 +488,11 @@ public class MappingCassandraConverter extends AbstractCassandraConverter implem
 				}
 
 				if (value != null) {
-					log.debug(String.format("Adding insert.value [%s] - [%s]", prop.getColumnName().toCql(), value));
-					insert.value(prop.getColumnName().toCql(), value);
+					String column = prop.getColumnName().toCql();
+					if (log.isDebugEnabled()) {
+						log.debug(String.format("Adding insert.value [%s] - [%s]", column, value));
+					}
+					insert.value(column, value);
 				}
 			}
 		});
@@ -277,11 +505,27 @@ public class MappingCassandraConverter extends AbstractCassandraConverter implem
 	protected void writeUpdateFromWrapper(final ConvertingPropertyAccessor wrapper, final Update update,
 			final CassandraPersistentEntity<?> entity) {
 
+		Map<String, Object> tracked = dirtyTrackingEnabled ? snapshots.get(wrapper.getBean()) : null;
+
+		if (tracked != null && !tracked.get(KEY_SNAPSHOT).equals(getKeyValues(wrapper, entity))) {
+			// the entity now refers to another row, none of whose columns may have been written yet
+			tracked = null;
+		}
+
+		final Map<String, Object> snapshot = tracked;
+
 		entity.doWithProperties(new PropertyHandler<CassandraPersistentProperty>() {
 
 			@Override
 			public void doWithPersistentProperty(CassandraPersistentProperty prop) {
 
+				if (prop.isLazy() && !LazyPropertyLoader.isLoaded(wrapper.getBean(), prop)) {
+					if (snapshot != null && snapshot.get(prop.getName()) == NOT_LOADED) {
+						return; // unchanged since read
+					}
+					LazyPropertyLoader.load(wrapper.getBean(), prop);
+				}
+
 				Object value = wrapper.getProperty(prop, prop.getType());
 
 				if (prop.isCompositePrimaryKey()) {
@@ -291,17 +535,178 @@ public class MappingCassandraConverter extends AbstractCassandraConverter implem
 					return;
 				}
 
+				boolean key = prop.isIdProperty() || entity.isCompositePrimaryKey() || prop.isPrimaryKeyColumn();
+
+				if (!key && snapshot != null && snapshot.containsKey(prop.getName())) {
+					// dirty tracking: write changed columns only, including those changed to null
+					Object previous = snapshot.get(prop.getName());
+					if (!ObjectUtils.nullSafeEquals(previous, value) && !writeCollectionDelta(prop, previous, value, update)) {
+						update.with(QueryBuilder.set(prop.getColumnName().toCql(), toColumnValue(prop, value)));
+					}
+					return;
+				}
+
 				if (value != null) {
-					if (prop.isIdProperty() || entity.isCompositePrimaryKey() || prop.isPrimaryKeyColumn()) {
-						update.where(QueryBuilder.eq(prop.getColumnName().toCql(), value));
+					if (key) {
+						update.where(QueryBuilder.eq(prop.getColumnName().toCql(), toColumnValue(prop, value)));
 					} else {
-						update.with(QueryBuilder.set(prop.getColumnName().toCql(), value));
+						update.with(QueryBuilder.set(prop.getColumnName().toCql(), toColumnValue(prop, value)));
 					}
 				}
 			}
 		});
 	}
 
+	@Override
+	public Object convertToColumnValue(CassandraPersistentProperty prop, Object value) {
+
+		if (value == null) {
+			return null;
+		}
+		if (isSerializedValue(prop)) {
+			return toSerializedValue(prop, value);
+		}
+
+		return getConversionService().convert(value, prop.getDataType().getName().asJavaClass());
+	}
+
+	/**
+	 * Returns whether the given property holds a serialized column value, read from the row without copying or decoding
+	 * it, that is, a {@link CassandraValue} or an {@link InputStreamSource}.
+	 */
+	protected boolean isSerializedValue(CassandraPersistentProperty prop) {
+		return CassandraValue.class.equals(prop.getType()) || InputStreamSource.class.isAssignableFrom(prop.getType());
+	}
+
+	/**
+	 * Returns the value to write to the given property's column for the given property value, which is the property
+	 * value itself unless the property holds a {@link #isSerializedValue(CassandraPersistentProperty) serialized value}.
+	 */
+	protected Object toColumnValue(CassandraPersistentProperty prop, Object value) {
+		return isSerializedValue(prop) ? toSerializedValue(prop, value) : value;
+	}
+
+	/**
+	 * Returns the bytes of the given {@link CassandraValue} or {@link InputStreamSource}, or, for a
+	 * {@link CassandraValue} of a non-blob type, its decoded value, as statements built by the {@link QueryBuilder}
+	 * only accept blob literals for blob columns.
+	 */
+	protected Object toSerializedValue(CassandraPersistentProperty prop, Object value) {
+
+		if (value == null) {
+			return null;
+		}
+
+		if (value instanceof ByteBufferInputStreamSource) {
+			return ((ByteBufferInputStreamSource) value).getByteBuffer();
+		}
+
+		if (value instanceof InputStreamSource) {
+
+			InputStream in = null;
+
+			try {
+				in = ((InputStreamSource) value).getInputStream();
+				return ByteBuffer.wrap(StreamUtils.copyToByteArray(in));
+			} catch (IOException e) {
+				throw new MappingException(String.format("could not read the stream of property [%s]", prop.getName()), e);
+			} finally {
+				if (in != null) {
+					try {
+						in.close();
+					} catch (IOException e) {
+						log.debug("could not close the stream of property [{}]", prop.getName(), e);
+					}
+				}
+			}
+		}
+
+		CassandraValue cassandraValue = (CassandraValue) value;
+		DataType type = cassandraValue.getType();
+
+		if (type == null || type.getName() == DataType.Name.BLOB) {
+			return cassandraValue.getValue();
+		}
+
+		if (type.isCollection()) {
+			// the serialized form of collections depends on the protocol version the row was read with
+			throw new MappingException(String.format(
+					"can't write property [%s] holding a serialized value of collection type [%s]", prop.getName(), type));
+		}
+
+		return type.deserialize(cassandraValue.getValue().duplicate(), ProtocolVersion.NEWEST_SUPPORTED);
+	}
+
+	/**
+	 * Expresses the change of a collection property from <code>previous</code> to <code>current</code> as a collection
+	 * delta instead of a full overwrite, if possible: appended list elements, added or removed set elements and added or
+	 * changed map entries. Overwriting a collection writes a tombstone for its previous contents, which deltas avoid.
+	 * 
+	 * @return <code>true</code> if a delta was added to the given {@link Update}, <code>false</code> if the property has
+	 *         to be written in full.
+	 */
+	protected boolean writeCollectionDelta(CassandraPersistentProperty prop, Object previous, Object current,
+			Update update) {
+
+		if (previous == null || current == null) {
+			return false;
+		}
+
+		String column = prop.getColumnName().toCql();
+
+		if (previous instanceof List && current instanceof List) {
+
+			List<?> before = (List<?>) previous;
+			List<?> after = (List<?>) current;
+
+			if (after.size() <= before.size() || !before.equals(after.subList(0, before.size()))) {
+				return false;
+			}
+
+			update.with(QueryBuilder.appendAll(column, new ArrayList<Object>(after.subList(before.size(), after.size()))));
+			return true;
+		}
+
+		if (previous instanceof Set && current instanceof Set) {
+
+			Set<Object> added = new HashSet<Object>((Set<?>) current);
+			added.removeAll((Set<?>) previous);
+
+			Set<Object> removed = new HashSet<Object>((Set<?>) previous);
+			removed.removeAll((Set<?>) current);
+
+			// a single statement can't both add to and remove from the same collection
+			if (!added.isEmpty() && !removed.isEmpty()) {
+				return false;
+			}
+
+			update.with(added.isEmpty() ? QueryBuilder.removeAll(column, removed) : QueryBuilder.addAll(column, added));
+			return true;
+		}
+
+		if (previous instanceof Map && current instanceof Map) {
+
+			Map<?, ?> before = (Map<?, ?>) previous;
+			Map<?, ?> after = (Map<?, ?>) current;
+
+			if (!after.keySet().containsAll(before.keySet())) {
+				return false;
+			}
+
+			Map<Object, Object> changed = new HashMap<Object, Object>();
+			for (Map.Entry<?, ?> entry : after.entrySet()) {
+				if (!ObjectUtils.nullSafeEquals(before.get(entry.getKey()), entry.getValue())) {
+					changed.put(entry.getKey(), entry.getValue());
+				}
+			}
+
+			update.with(QueryBuilder.putAll(column, changed));
+			return true;
+		}
+
+		return false;
+	}
+
 	protected void writeDeleteWhereFromObject(final Object object, final Where where, CassandraPersistentEntity<?> entity) {
             writeDeleteWhereFromWrapper(getWrapper(object, entity), where, entity);
 	}
@@ -401,6 +806,7 @@ public class MappingCassandraConverter extends AbstractCassandraConverter implem
 
 	@SuppressWarnings("unchecked")
 	protected <T> Class<T> transformClassToBeanClassLoaderClass(Class<T> entity) {
+		entity = (Class<T>) ClassUtils.getUserClass(entity); // generated subclass of an entity with lazy properties
 		try {
 			return (Class<T>) ClassUtils.forName(entity.getName(), beanClassLoader);
 		} catch (ClassNotFoundException e) {
@@ -16,6 +16,8 @@
 package org.springframework.data.cassandra.core;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.springframework.cassandra.core.CqlOperations;
 import org.springframework.cassandra.core.Cancellable;
@@ -63,8 +65,79 @@ public interface CassandraOperations extends CqlOperations {
 	 */
 	<T> List<T> select(Select select, Class<T> type);
 
+	/**
+	 * Execute query and convert ResultSet to the list of entities, enforcing the result limits of the given
+	 * {@link QueryOptions}.
+	 * 
+	 * @param cql must not be {@literal null}.
+	 * @param type must not be {@literal null}, mapped entity type.
+	 * @param options may be {@literal null}.
+	 * @return
+	 * @see QueryOptions#setMaxRows(Integer)
+	 * @see QueryOptions#setMaxResultBytes(Long)
+	 */
+	<T> List<T> select(String cql, Class<T> type, QueryOptions options);
+
+	/**
+	 * Execute the Select Query and convert to the list of entities, enforcing the result limits of the given
+	 * {@link QueryOptions}.
+	 * 
+	 * @param select must not be {@literal null}.
+	 * @param type must not be {@literal null}, mapped entity type.
+	 * @param options may be {@literal null}.
+	 * @return
+	 * @see QueryOptions#setMaxRows(Integer)
+	 * @see QueryOptions#setMaxResultBytes(Long)
+	 */
+	<T> List<T> select(Select select, Class<T> type, QueryOptions options);
+
 	<T> T selectOneById(Class<T> type, Object id);
 
+	/**
+	 * Returns a {@link Select} of the columns of the given entity type's table that the given projection type needs, to
+	 * which restrictions can be added before passing it to {@link #select(Select, Class, Class)}. Projection types are
+	 * interfaces whose getters, or classes whose constructor parameters and fields, are named like properties of the
+	 * entity; for the entity type itself, all columns are selected.
+	 * 
+	 * @param entityType must not be {@literal null}, mapped entity type.
+	 * @param projectionType must not be {@literal null}.
+	 * @return
+	 */
+	Select createSelect(Class<?> entityType, Class<?> projectionType);
+
+	/**
+	 * Execute query, convert ResultSet to the list of entities and project them onto the given projection type.
+	 * 
+	 * @param cql must not be {@literal null}.
+	 * @param entityType must not be {@literal null}, mapped entity type.
+	 * @param projectionType must not be {@literal null}.
+	 * @return
+	 * @see #createSelect(Class, Class)
+	 */
+	<T> List<T> select(String cql, Class<?> entityType, Class<T> projectionType);
+
+	/**
+	 * Execute the Select Query, convert to the list of entities and project them onto the given projection type.
+	 * 
+	 * @param select must not be {@literal null}, typically created by {@link #createSelect(Class, Class)}.
+	 * @param entityType must not be {@literal null}, mapped entity type.
+	 * @param projectionType must not be {@literal null}.
+	 * @return
+	 */
+	<T> List<T> select(Select select, Class<?> entityType, Class<T> projectionType);
+
+	/**
+	 * Selects the entity with the given id, reading only the columns the given projection type needs, and projects it
+	 * onto the projection type.
+	 * 
+	 * @param entityType must not be {@literal null}, mapped entity type.
+	 * @param id must not be {@literal null}.
+	 * @param projectionType must not be {@literal null}.
+	 * @return
+	 * @see #createSelect(Class, Class)
+	 */
+	<T> T selectOneById(Class<?> entityType, Object id, Class<T> projectionType);
+
 	/**
 	 * Execute CQL and convert ResultSet to the entity
 	 * 
@@ -281,6 +354,178 @@ public interface CassandraOperations extends CqlOperations {
 	 */
 	<T> List<T> update(List<T> entities, WriteOptions options);
 
+	/**
+	 * Updates only the given columns of the entity with the given id. Properties not named in <code>changes</code> are
+	 * left untouched; a <code>null</code> value deletes the column. Values are converted as when writing the entity.
+	 * 
+	 * @param type The type of entity to update.
+	 * @param id The id of the entity to update.
+	 * @param changes The new values, keyed by property name. Must not contain primary key properties.
+	 */
+	<T> void update(Class<T> type, Object id, Map<String, Object> changes);
+
+	/**
+	 * Updates only the given columns of the entity with the given id. Properties not named in <code>changes</code> are
+	 * left untouched; a <code>null</code> value deletes the column. Values are converted as when writing the entity.
+	 * 
+	 * @param type The type of entity to update.
+	 * @param id The id of the entity to update.
+	 * @param changes The new values, keyed by property name. Must not contain primary key properties.
+	 * @param options The {@link WriteOptions} to use.
+	 */
+	<T> void update(Class<T> type, Object id, Map<String, Object> changes, WriteOptions options);
+
+	/**
+	 * Appends the given elements to the list property of the entity with the given id, using <code>col = col + ?</code>.
+	 * 
+	 * @param type The type of entity to update.
+	 * @param id The id of the entity to update.
+	 * @param property The name of the collection property.
+	 * @param elements The elements to add.
+	 */
+	<T> void appendToList(Class<T> type, Object id, String property, List<?> elements);
+
+	/**
+	 * Appends the given elements to the list property of the entity with the given id, using <code>col = col + ?</code>.
+	 * 
+	 * @param type The type of entity to update.
+	 * @param id The id of the entity to update.
+	 * @param property The name of the collection property.
+	 * @param elements The elements to add.
+	 * @param options The {@link WriteOptions} to use.
+	 */
+	<T> void appendToList(Class<T> type, Object id, String property, List<?> elements, WriteOptions options);
+
+	/**
+	 * Prepends the given elements to the list property of the entity with the given id, using <code>col = ? + col</code>.
+	 * 
+	 * @param type The type of entity to update.
+	 * @param id The id of the entity to update.
+	 * @param property The name of the collection property.
+	 * @param elements The elements to add.
+	 */
+	<T> void prependToList(Class<T> type, Object id, String property, List<?> elements);
+
+	/**
+	 * Prepends the given elements to the list property of the entity with the given id, using <code>col = ? + col</code>.
+	 * 
+	 * @param type The type of entity to update.
+	 * @param id The id of the entity to update.
+	 * @param property The name of the collection property.
+	 * @param elements The elements to add.
+	 * @param options The {@link WriteOptions} to use.
+	 */
+	<T> void prependToList(Class<T> type, Object id, String property, List<?> elements, WriteOptions options);
+
+	/**
+	 * Removes all occurrences of the given elements from the list property of the entity with the given id, using
+	 * <code>col = col - ?</code>.
+	 * 
+	 * @param type The type of entity to update.
+	 * @param id The id of the entity to update.
+	 * @param property The name of the collection property.
+	 * @param elements The elements to remove.
+	 */
+	<T> void removeFromList(Class<T> type, Object id, String property, List<?> elements);
+
+	/**
+	 * Removes all occurrences of the given elements from the list property of the entity with the given id, using
+	 * <code>col = col - ?</code>.
+	 * 
+	 * @param type The type of entity to update.
+	 * @param id The id of the entity to update.
+	 * @param property The name of the collection property.
+	 * @param elements The elements to remove.
+	 * @param options The {@link WriteOptions} to use.
+	 */
+	<T> void removeFromList(Class<T> type, Object id, String property, List<?> elements, WriteOptions options);
+
+	/**
+	 * Adds the given elements to the set property of the entity with the given id, using <code>col = col + ?</code>.
+	 * 
+	 * @param type The type of entity to update.
+	 * @param id The id of the entity to update.
+	 * @param property The name of the collection property.
+	 * @param elements The elements to add.
+	 */
+	<T> void addToSet(Class<T> type, Object id, String property, Set<?> elements);
+
+	/**
+	 * Adds the given elements to the set property of the entity with the given id, using <code>col = col + ?</code>.
+	 * 
+	 * @param type The type of entity to update.
+	 * @param id The id of the entity to update.
+	 * @param property The name of the collection property.
+	 * @param elements The elements to add.
+	 * @param options The {@link WriteOptions} to use.
+	 */
+	<T> void addToSet(Class<T> type, Object id, String property, Set<?> elements, WriteOptions options);
+
+	/**
+	 * Removes the given elements from the set property of the entity with the given id, using <code>col = col - ?</code>.
+	 * 
+	 * @param type The type of entity to update.
+	 * @param id The id of the entity to update.
+	 * @param property The name of the collection property.
+	 * @param elements The elements to remove.
+	 */
+	<T> void removeFromSet(Class<T> type, Object id, String property, Set<?> elements);
+
+	/**
+	 * Removes the given elements from the set property of the entity with the given id, using <code>col = col - ?</code>.
+	 * 
+	 * @param type The type of entity to update.
+	 * @param id The id of the entity to update.
+	 * @param property The name of the collection property.
+	 * @param elements The elements to remove.
+	 * @param options The {@link WriteOptions} to use.
+	 */
+	<T> void removeFromSet(Class<T> type, Object id, String property, Set<?> elements, WriteOptions options);
+
+	/**
+	 * Puts the given entries into the map property of the entity with the given id, using <code>col = col + ?</code>.
+	 * 
+	 * @param type The type of entity to update.
+	 * @param id The id of the entity to update.
+	 * @param property The name of the collection property.
+	 * @param entries The entries to put.
+	 */
+	<T> void putInMap(Class<T> type, Object id, String property, Map<?, ?> entries);
+
+	/**
+	 * Puts the given entries into the map property of the entity with the given id, using <code>col = col + ?</code>.
+	 * 
+	 * @param type The type of entity to update.
+	 * @param id The id of the entity to update.
+	 * @param property The name of the collection property.
+	 * @param entries The entries to put.
+	 * @param options The {@link WriteOptions} to use.
+	 */
+	<T> void putInMap(Class<T> type, Object id, String property, Map<?, ?> entries, WriteOptions options);
+
+	/**
+	 * Removes the entries with the given keys from the map property of the entity with the given id, using
+	 * <code>DELETE col[?]</code>.
+	 * 
+	 * @param type The type of entity to update.
+	 * @param id The id of the entity to update.
+	 * @param property The name of the collection property.
+	 * @param keys The keys of the entries to remove.
+	 */
+	<T> void removeFromMap(Class<T> type, Object id, String property, Set<?> keys);
+
+	/**
+	 * Removes the entries with the given keys from the map property of the entity with the given id, using
+	 * <code>DELETE col[?]</code>.
+	 * 
+	 * @param type The type of entity to update.
+	 * @param id The id of the entity to update.
+	 * @param property The name of the collection property.
+	 * @param keys The keys of the entries to remove.
+	 * @param options The {@link WriteOptions} to use. Deletes can't expire, so their TTL is ignored.
+	 */
+	<T> void removeFromMap(Class<T> type, Object id, String property, Set<?> keys, WriteOptions options);
+
 	/**
 	 * Updates the given entity asynchronously.
 	 * 
@@ -470,6 +715,14 @@ public interface CassandraOperations extends CqlOperations {
 
 	<T> List<T> selectBySimpleIds(Class<T> type, Iterable<?> ids);
 
+	/**
+	 * Selects the entities with the given ids, reading only the columns the given projection type needs, and projects
+	 * them onto the projection type.
+	 * 
+	 * @see #createSelect(Class, Class)
+	 */
+	<T> List<T> selectBySimpleIds(Class<?> entityType, Iterable<?> ids, Class<T> projectionType);
+
 	/**
 	 * @deprecated Calling this method could result in {@link OutOfMemoryError}, as this is a brute force selection.
 	 * @param type The type of entity to select.
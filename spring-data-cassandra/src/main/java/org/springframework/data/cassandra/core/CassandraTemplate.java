@@ -15,18 +15,27 @@
  */
 package org.springframework.data.cassandra.core;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.cassandra.core.AsynchronousQueryListener;
 import org.springframework.cassandra.core.CqlOperations;
 import org.springframework.cassandra.core.CqlTemplate;
 import org.springframework.cassandra.core.Cancellable;
+import org.springframework.cassandra.core.PreparedStatementBinder;
 import org.springframework.cassandra.core.QueryForObjectListener;
 import org.springframework.cassandra.core.QueryOptions;
+import org.springframework.cassandra.core.RowMapper;
+import org.springframework.cassandra.core.ResultSetExtractor;
 import org.springframework.cassandra.core.SessionCallback;
 import org.springframework.cassandra.core.WriteOptions;
 import org.springframework.cassandra.core.cql.CqlIdentifier;
@@ -35,6 +44,7 @@ import org.springframework.core.convert.ConversionService;
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.cassandra.convert.CassandraConverter;
+import org.springframework.data.cassandra.convert.EntityProjector;
 import org.springframework.data.cassandra.convert.MappingCassandraConverter;
 import org.springframework.data.cassandra.mapping.CassandraMappingContext;
 import org.springframework.data.cassandra.mapping.CassandraPersistentEntity;
@@ -44,13 +54,20 @@ import org.springframework.data.mapping.PersistentPropertyAccessor;
 import org.springframework.data.mapping.PropertyHandler;
 import org.springframework.data.mapping.model.ConvertingPropertyAccessor;
 import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
 
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.DataType.Name;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.ProtocolVersion;
 import com.datastax.driver.core.ResultSet;
 import com.datastax.driver.core.ResultSetFuture;
 import com.datastax.driver.core.Row;
 import com.datastax.driver.core.Session;
 import com.datastax.driver.core.SimpleStatement;
 import com.datastax.driver.core.Statement;
+import com.datastax.driver.core.exceptions.DriverException;
+import com.datastax.driver.core.querybuilder.Assignment;
 import com.datastax.driver.core.querybuilder.Batch;
 import com.datastax.driver.core.querybuilder.Clause;
 import com.datastax.driver.core.querybuilder.Delete;
@@ -72,8 +89,18 @@ import com.datastax.driver.core.querybuilder.Update;
  */
 public class CassandraTemplate extends CqlTemplate implements CassandraOperations {
 
+	private static final Comparator<CassandraPersistentProperty> KEY_COLUMN_ORDER = new Comparator<CassandraPersistentProperty>() {
+
+		@Override
+		public int compare(CassandraPersistentProperty left, CassandraPersistentProperty right) {
+			return left.getColumnName().toCql().compareTo(right.getColumnName().toCql());
+		}
+	};
+
 	protected CassandraConverter cassandraConverter;
 	protected CassandraMappingContext mappingContext;
+	protected EntityProjector entityProjector;
+	protected final Map<Class<?>, PrimaryKeyBloomFilter> existenceFilters = new ConcurrentHashMap<Class<?>, PrimaryKeyBloomFilter>();
 
 	/**
 	 * Default Constructor for wiring in the required components later
@@ -101,6 +128,7 @@ public class CassandraTemplate extends CqlTemplate implements CassandraOperation
 
 		this.cassandraConverter = cassandraConverter;
 		mappingContext = cassandraConverter.getMappingContext();
+		entityProjector = new EntityProjector(cassandraConverter);
 	}
 
 	@Override
@@ -120,6 +148,103 @@ public class CassandraTemplate extends CqlTemplate implements CassandraOperation
 		Assert.notNull(mappingContext);
 	}
 
+	/**
+	 * Registers a {@link PrimaryKeyBloomFilter} for the given entity type. Once registered, {@link #exists(Class, Object)}
+	 * answers <code>false</code> without querying Cassandra for complete primary keys that the filter has never seen.
+	 * The filter is fed with the keys of entities inserted or updated through this template, via
+	 * {@link #recordExistence(Class, Object)} and via {@link #populateExistenceFilter(Class, int)}.
+	 * 
+	 * @param type The entity type; must not be {@literal null}.
+	 * @param filter The filter, or {@literal null} to remove any filter registered for the type.
+	 */
+	public void setExistenceFilter(Class<?> type, PrimaryKeyBloomFilter filter) {
+
+		Assert.notNull(type);
+
+		if (filter == null) {
+			existenceFilters.remove(type);
+		} else {
+			existenceFilters.put(type, filter);
+		}
+	}
+
+	/**
+	 * Returns the {@link PrimaryKeyBloomFilter} registered for the given entity type, or {@literal null} if none is.
+	 */
+	public PrimaryKeyBloomFilter getExistenceFilter(Class<?> type) {
+		return existenceFilters.get(type);
+	}
+
+	/**
+	 * Records the given id in the {@link PrimaryKeyBloomFilter} registered for the given entity type, if any. Use this
+	 * when rows are written by means other than this template, for example via {@link #ingest(String, List)}.
+	 * 
+	 * @param type The entity type; must not be {@literal null}.
+	 * @param id The complete primary key of the entity; must not be {@literal null}.
+	 */
+	public void recordExistence(Class<?> type, Object id) {
+
+		Assert.notNull(type);
+		Assert.notNull(id);
+
+		PrimaryKeyBloomFilter filter = existenceFilters.get(type);
+		if (filter == null) {
+			return;
+		}
+
+		CassandraPersistentEntity<?> entity = mappingContext.getPersistentEntity(type);
+		Map<CassandraPersistentProperty, Object> idValues = getIdColumnValues(entity, id);
+
+		if (isCompletePrimaryKey(entity, idValues.keySet())) {
+			filter.put(toKeyBytes(idValues));
+		}
+	}
+
+	/**
+	 * Feeds the {@link PrimaryKeyBloomFilter} registered for the given entity type with every primary key in the
+	 * entity's table. Only the primary key columns are selected, and the table is read page by page in token order.
+	 * 
+	 * @param type The entity type; must not be {@literal null} and must have a registered filter.
+	 * @param fetchSize The number of rows per page.
+	 * @return The number of keys recorded.
+	 */
+	public long populateExistenceFilter(Class<?> type, int fetchSize) {
+
+		Assert.notNull(type);
+
+		PrimaryKeyBloomFilter filter = existenceFilters.get(type);
+		if (filter == null) {
+			throw new IllegalStateException(String.format("no existence filter registered for entity class [%s]",
+					type.getName()));
+		}
+
+		CassandraPersistentEntity<?> entity = mappingContext.getPersistentEntity(type);
+		List<CassandraPersistentProperty> keyProperties = getPrimaryKeyProperties(entity);
+		Collections.sort(keyProperties, KEY_COLUMN_ORDER);
+
+		Select select = QueryBuilder.select(getColumnNames(keyProperties)).from(entity.getTableName().toCql());
+		select.setFetchSize(fetchSize);
+
+		long count = 0;
+		for (Row row : query(select)) {
+
+			ByteBuffer[] values = new ByteBuffer[keyProperties.size()];
+			for (int i = 0; i < values.length; i++) {
+				values[i] = row.getBytesUnsafe(i);
+			}
+
+			filter.put(toKeyBytes(values));
+			count++;
+		}
+
+		return count;
+	}
+
+	/**
+	 * Checks whether a row with the given id exists by selecting only the primary key columns with <code>LIMIT 1</code>
+	 * through a cached prepared statement. If a {@link PrimaryKeyBloomFilter} is registered for the type and the id is a
+	 * complete primary key, negative lookups are answered locally.
+	 */
 	@Override
 	public boolean exists(Class<?> type, Object id) {
 
@@ -127,13 +252,38 @@ public class CassandraTemplate extends CqlTemplate implements CassandraOperation
 		Assert.notNull(id);
 
 		CassandraPersistentEntity<?> entity = mappingContext.getPersistentEntity(type);
+		Map<CassandraPersistentProperty, Object> idValues = getIdColumnValues(entity, id);
 
-		Select select = QueryBuilder.select().countAll().from(entity.getTableName().toCql());
-		appendIdCriteria(select.where(), entity, id);
+		PrimaryKeyBloomFilter filter = existenceFilters.get(type);
+		if (filter != null && isCompletePrimaryKey(entity, idValues.keySet())
+				&& !filter.mightContain(toKeyBytes(idValues))) {
+			return false;
+		}
+
+		List<CassandraPersistentProperty> properties = new ArrayList<CassandraPersistentProperty>(idValues.keySet());
+		final Object[] values = new Object[properties.size()];
+
+		Select select = QueryBuilder.select(getColumnNames(properties)).from(entity.getTableName().toCql());
+		for (int i = 0; i < values.length; i++) {
+			CassandraPersistentProperty property = properties.get(i);
+			select.where(QueryBuilder.eq(property.getColumnName().toCql(), QueryBuilder.bindMarker()));
+			values[i] = idValues.get(property);
+		}
+		select.limit(1);
+
+		return query(select.getQueryString(), new PreparedStatementBinder() {
 
-		Long count = queryForObject(select, Long.class);
+			@Override
+			public BoundStatement bindValues(PreparedStatement ps) throws DriverException {
+				return ps.bind(values);
+			}
+		}, new ResultSetExtractor<Boolean>() {
 
-		return count != 0;
+			@Override
+			public Boolean extractData(ResultSet rs) throws DriverException, DataAccessException {
+				return rs.one() != null;
+			}
+		});
 	}
 
 	@Override
@@ -215,9 +365,47 @@ public class CassandraTemplate extends CqlTemplate implements CassandraOperation
 		return doDeleteAsync(entity, listener, options);
 	}
 
+	/**
+	 * Tells partition key columns from the mapping of the entity mapped to the given table, if any, and otherwise from
+	 * the cluster metadata.
+	 */
+	@Override
+	protected boolean isPartitionKeyColumn(Session s, String keyspace, String table, final String column) {
+
+		for (CassandraPersistentEntity<?> entity : mappingContext.getPersistentEntities()) {
+
+			if (!entity.getTableName().getUnquoted().equals(table)) {
+				continue;
+			}
+
+			final boolean[] partitionKeyColumn = new boolean[1];
+
+			entity.doWithProperties(new PropertyHandler<CassandraPersistentProperty>() {
+
+				@Override
+				public void doWithPersistentProperty(CassandraPersistentProperty property) {
+
+					if (property.isCompositePrimaryKey()) {
+						for (CassandraPersistentProperty keyProperty : property.getCompositePrimaryKeyProperties()) {
+							partitionKeyColumn[0] |= keyProperty.isPartitionKeyColumn()
+									&& keyProperty.getColumnName().getUnquoted().equals(column);
+						}
+					} else {
+						partitionKeyColumn[0] |= (property.isPartitionKeyColumn() || property.isIdProperty())
+								&& property.getColumnName().getUnquoted().equals(column);
+					}
+				}
+			});
+
+			return partitionKeyColumn[0];
+		}
+
+		return super.isPartitionKeyColumn(s, keyspace, table, column);
+	}
+
 	@Override
 	public CqlIdentifier getTableName(Class<?> type) {
-		return mappingContext.getPersistentEntity(type).getTableName();
+		return mappingContext.getPersistentEntity(ClassUtils.getUserClass(type)).getTableName();
 	}
 
 	@Override
@@ -331,6 +519,23 @@ public class CassandraTemplate extends CqlTemplate implements CassandraOperation
 		return select(select, new CassandraConverterRowCallback<T>(cassandraConverter, type));
 	}
 
+	@Override
+	public <T> List<T> select(String cql, Class<T> type, QueryOptions options) {
+
+		Assert.hasText(cql);
+		Assert.notNull(type);
+
+		return select(cql, new CassandraConverterRowCallback<T>(cassandraConverter, type), options);
+	}
+
+	@Override
+	public <T> List<T> select(Select select, Class<T> type, QueryOptions options) {
+
+		Assert.notNull(select);
+
+		return select(select, new CassandraConverterRowCallback<T>(cassandraConverter, type), options);
+	}
+
 	@Override
 	public <T> List<T> selectBySimpleIds(Class<T> type, Iterable<?> ids) {
 
@@ -365,6 +570,100 @@ public class CassandraTemplate extends CqlTemplate implements CassandraOperation
 		return selectOne(select, type);
 	}
 
+	@Override
+	public Select createSelect(Class<?> entityType, Class<?> projectionType) {
+
+		Assert.notNull(entityType);
+		Assert.notNull(projectionType);
+
+		CassandraPersistentEntity<?> entity = getRequiredEntity(entityType);
+
+		List<CqlIdentifier> columns = entityProjector.isProjection(projectionType, entityType) ? entityProjector
+				.getRequiredColumns(entity, projectionType) : null;
+
+		if (columns == null) {
+			return QueryBuilder.select().all().from(entity.getTableName().toCql());
+		}
+
+		Select.Selection selection = QueryBuilder.select();
+		for (CqlIdentifier column : columns) {
+			selection.column(column.toCql());
+		}
+
+		return selection.from(entity.getTableName().toCql());
+	}
+
+	@Override
+	public <T> List<T> select(String cql, Class<?> entityType, Class<T> projectionType) {
+
+		Assert.hasText(cql);
+
+		return select(cql, getRowCallback(entityType, projectionType));
+	}
+
+	@Override
+	public <T> List<T> select(Select select, Class<?> entityType, Class<T> projectionType) {
+
+		Assert.notNull(select);
+
+		return select(select, getRowCallback(entityType, projectionType));
+	}
+
+	@Override
+	public <T> List<T> selectBySimpleIds(Class<?> entityType, Iterable<?> ids, Class<T> projectionType) {
+
+		CassandraPersistentEntity<?> entity = getRequiredEntity(entityType);
+
+		if (entity.getIdProperty().isCompositePrimaryKey()) {
+			throw new IllegalArgumentException(String.format(
+					"entity class [%s] uses a composite primary key class [%s] which this method can't support",
+					entityType.getName(), entity.getIdProperty().getCompositePrimaryKeyEntity().getType().getName()));
+		}
+
+		Select select = createSelect(entityType, projectionType);
+		select.where(QueryBuilder.in(entity.getIdProperty().getColumnName().toCql(), CollectionUtils.toArray(ids)));
+
+		return select(select, entityType, projectionType);
+	}
+
+	@Override
+	public <T> T selectOneById(Class<?> entityType, Object id, Class<T> projectionType) {
+
+		Assert.notNull(id);
+
+		Select select = createSelect(entityType, projectionType);
+		appendIdCriteria(select.where(), getRequiredEntity(entityType), id);
+
+		return selectOne(select, getRowCallback(entityType, projectionType));
+	}
+
+	protected CassandraPersistentEntity<?> getRequiredEntity(Class<?> type) {
+
+		CassandraPersistentEntity<?> entity = mappingContext.getPersistentEntity(type);
+		if (entity == null) {
+			throw new IllegalArgumentException(String.format("unknown entity class [%s]", type.getName()));
+		}
+
+		return entity;
+	}
+
+	/**
+	 * Returns the callback that reads rows into the given entity type and projects them onto the given projection type,
+	 * or reads them into the given entity type if the projection type is the entity type or one of its supertypes.
+	 */
+	@SuppressWarnings("unchecked")
+	protected <T> CassandraConverterRowCallback<T> getRowCallback(Class<?> entityType, Class<T> projectionType) {
+
+		Assert.notNull(entityType);
+		Assert.notNull(projectionType);
+
+		if (!entityProjector.isProjection(projectionType, entityType)) {
+			return new CassandraConverterRowCallback<T>(cassandraConverter, (Class<T>) entityType);
+		}
+
+		return new ProjectingRowCallback<T>(cassandraConverter, entityType, projectionType, entityProjector);
+	}
+
 	protected interface ClauseCallback {
 		void doWithClause(Clause clause);
 	}
@@ -387,6 +686,30 @@ public class CassandraTemplate extends CqlTemplate implements CassandraOperation
 			return;
 		}
 
+		for (Map.Entry<CassandraPersistentProperty, Object> entry : getIdColumnValues(entity, id).entrySet()) {
+			clauseCallback.doWithClause(QueryBuilder.eq(entry.getKey().getColumnName().toCql(), entry.getValue()));
+		}
+	}
+
+	/**
+	 * Returns the primary key column values of the given id, keyed by the property mapped to each column, in the order
+	 * the columns are declared.
+	 */
+	protected Map<CassandraPersistentProperty, Object> getIdColumnValues(CassandraPersistentEntity<?> entity, Object id) {
+
+		final Map<CassandraPersistentProperty, Object> values = new LinkedHashMap<CassandraPersistentProperty, Object>();
+
+		if (id instanceof Map<?, ?>) {
+
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) id).entrySet()) {
+
+				CassandraPersistentProperty property = entity.getPersistentProperty(entry.getKey().toString());
+				values.put(property, toColumnValue(property, entry.getValue()));
+			}
+
+			return values;
+		}
+
 		CassandraPersistentProperty idProperty = entity.getIdProperty();
 
 		if (idProperty.isCompositePrimaryKey()) {
@@ -399,16 +722,106 @@ public class CassandraTemplate extends CqlTemplate implements CassandraOperation
 
 				@Override
 				public void doWithPersistentProperty(CassandraPersistentProperty p) {
-
-					clauseCallback.doWithClause(QueryBuilder.eq(p.getColumnName().toCql(),
-							idWrapper.getProperty(p, p.getDataType().asJavaClass())));
+					values.put(p, idWrapper.getProperty(p, p.getDataType().asJavaClass()));
 				}
 			});
 
-			return;
+			return values;
+		}
+
+		values.put(idProperty, toColumnValue(idProperty, id));
+
+		return values;
+	}
+
+	/**
+	 * Returns all properties mapped to primary key columns of the given entity, flattening composite primary keys.
+	 */
+	protected List<CassandraPersistentProperty> getPrimaryKeyProperties(CassandraPersistentEntity<?> entity) {
+
+		final List<CassandraPersistentProperty> properties = new ArrayList<CassandraPersistentProperty>();
+
+		entity.doWithProperties(new PropertyHandler<CassandraPersistentProperty>() {
+
+			@Override
+			public void doWithPersistentProperty(CassandraPersistentProperty p) {
+
+				if (p.isCompositePrimaryKey()) {
+					properties.addAll(p.getCompositePrimaryKeyEntity().getCompositePrimaryKeyProperties());
+				} else if (p.isIdProperty() || p.isPrimaryKeyColumn()) {
+					properties.add(p);
+				}
+			}
+		});
+
+		return properties;
+	}
+
+	private boolean isCompletePrimaryKey(CassandraPersistentEntity<?> entity, Collection<CassandraPersistentProperty> keys) {
+		return keys.size() == getPrimaryKeyProperties(entity).size();
+	}
+
+	private Object toColumnValue(CassandraPersistentProperty property, Object value) {
+
+		if (value == null || property.getDataType() == null) {
+			return value;
+		}
+
+		Class<?> columnType = property.getDataType().asJavaClass();
+
+		if (columnType.isInstance(value) || !getConversionService().canConvert(value.getClass(), columnType)) {
+			return value;
 		}
 
-		clauseCallback.doWithClause(QueryBuilder.eq(idProperty.getColumnName().toCql(), id));
+		return getConversionService().convert(value, columnType);
+	}
+
+	private static String[] getColumnNames(List<CassandraPersistentProperty> properties) {
+
+		String[] names = new String[properties.size()];
+		for (int i = 0; i < names.length; i++) {
+			names[i] = properties.get(i).getColumnName().toCql();
+		}
+
+		return names;
+	}
+
+	/**
+	 * Serializes the given id column values into the representation used by {@link PrimaryKeyBloomFilter}, which is the
+	 * same as the one {@link #populateExistenceFilter(Class, int)} builds from raw row bytes.
+	 */
+	private static byte[] toKeyBytes(Map<CassandraPersistentProperty, Object> idValues) {
+
+		List<CassandraPersistentProperty> properties = new ArrayList<CassandraPersistentProperty>(idValues.keySet());
+		Collections.sort(properties, KEY_COLUMN_ORDER);
+
+		ByteBuffer[] values = new ByteBuffer[properties.size()];
+		for (int i = 0; i < values.length; i++) {
+			CassandraPersistentProperty property = properties.get(i);
+			values[i] = property.getDataType().serialize(idValues.get(property), ProtocolVersion.NEWEST_SUPPORTED);
+		}
+
+		return toKeyBytes(values);
+	}
+
+	private static byte[] toKeyBytes(ByteBuffer[] values) {
+
+		int size = 0;
+		for (ByteBuffer value : values) {
+			size += 4 + (value == null ? 0 : value.remaining());
+		}
+
+		ByteBuffer key = ByteBuffer.allocate(size);
+		for (ByteBuffer value : values) {
+			if (value == null) {
+				key.putInt(-1);
+			} else {
+				key.putInt(value.remaining());
+				key.put(value.duplicate());
+			}
+		}
+
+		return key.array();
 	}
 
 	protected void appendIdCriteria(final com.datastax.driver.core.querybuilder.Select.Where where,
@@ -423,6 +836,148 @@ public class CassandraTemplate extends CqlTemplate implements CassandraOperation
 		}, entity, id);
 	}
 
+	@Override
+	public <T> void appendToList(Class<T> type, Object id, String property, List<?> elements) {
+		appendToList(type, id, property, elements, null);
+	}
+
+	@Override
+	public <T> void appendToList(Class<T> type, Object id, String property, List<?> elements, WriteOptions options) {
+		doUpdateCollection(type, id, QueryBuilder.appendAll(getCollectionColumnName(type, property, Name.LIST), elements),
+				options);
+	}
+
+	@Override
+	public <T> void prependToList(Class<T> type, Object id, String property, List<?> elements) {
+		prependToList(type, id, property, elements, null);
+	}
+
+	@Override
+	public <T> void prependToList(Class<T> type, Object id, String property, List<?> elements, WriteOptions options) {
+		doUpdateCollection(type, id, QueryBuilder.prependAll(getCollectionColumnName(type, property, Name.LIST), elements),
+				options);
+	}
+
+	@Override
+	public <T> void removeFromList(Class<T> type, Object id, String property, List<?> elements) {
+		removeFromList(type, id, property, elements, null);
+	}
+
+	@Override
+	public <T> void removeFromList(Class<T> type, Object id, String property, List<?> elements, WriteOptions options) {
+		doUpdateCollection(type, id, QueryBuilder.discardAll(getCollectionColumnName(type, property, Name.LIST), elements),
+				options);
+	}
+
+	@Override
+	public <T> void addToSet(Class<T> type, Object id, String property, Set<?> elements) {
+		addToSet(type, id, property, elements, null);
+	}
+
+	@Override
+	public <T> void addToSet(Class<T> type, Object id, String property, Set<?> elements, WriteOptions options) {
+		doUpdateCollection(type, id, QueryBuilder.addAll(getCollectionColumnName(type, property, Name.SET), elements),
+				options);
+	}
+
+	@Override
+	public <T> void removeFromSet(Class<T> type, Object id, String property, Set<?> elements) {
+		removeFromSet(type, id, property, elements, null);
+	}
+
+	@Override
+	public <T> void removeFromSet(Class<T> type, Object id, String property, Set<?> elements, WriteOptions options) {
+		doUpdateCollection(type, id, QueryBuilder.removeAll(getCollectionColumnName(type, property, Name.SET), elements),
+				options);
+	}
+
+	@Override
+	public <T> void putInMap(Class<T> type, Object id, String property, Map<?, ?> entries) {
+		putInMap(type, id, property, entries, null);
+	}
+
+	@Override
+	public <T> void putInMap(Class<T> type, Object id, String property, Map<?, ?> entries, WriteOptions options) {
+		doUpdateCollection(type, id, QueryBuilder.putAll(getCollectionColumnName(type, property, Name.MAP), entries),
+				options);
+	}
+
+	@Override
+	public <T> void removeFromMap(Class<T> type, Object id, String property, Set<?> keys) {
+		removeFromMap(type, id, property, keys, null);
+	}
+
+	@Override
+	public <T> void removeFromMap(Class<T> type, Object id, String property, Set<?> keys, WriteOptions options) {
+
+		Assert.notNull(id);
+		Assert.notEmpty(keys);
+
+		String column = getCollectionColumnName(type, property, Name.MAP);
+		CassandraPersistentEntity<?> entity = mappingContext.getPersistentEntity(type);
+
+		Delete.Selection selection = QueryBuilder.delete();
+		for (Object key : keys) {
+			selection.mapElt(column, key);
+		}
+
+		Delete delete = selection.from(entity.getTableName().toCql());
+		appendIdCriteria(delete.where(), entity, id);
+		CqlTemplate.addQueryOptions(delete, options);
+
+		execute(delete);
+	}
+
+	/**
+	 * Returns the column name of the given collection property, verifying that it is mapped to a collection of the given
+	 * kind.
+	 */
+	protected String getCollectionColumnName(Class<?> type, String propertyName, Name collectionType) {
+
+		Assert.notNull(type);
+		Assert.hasText(propertyName);
+
+		CassandraPersistentProperty property = mappingContext.getPersistentEntity(type).getPersistentProperty(propertyName);
+
+		if (property == null) {
+			throw new IllegalArgumentException(String.format("unknown property [%s] of entity class [%s]", propertyName,
+					type.getName()));
+		}
+		if (property.getDataType() == null || property.getDataType().getName() != collectionType) {
+			throw new IllegalArgumentException(String.format("property [%s] of entity class [%s] is not of type %s",
+					propertyName, type.getName(), collectionType));
+		}
+
+		return property.getColumnName().toCql();
+	}
+
+	protected void doUpdateCollection(Class<?> type, Object id, Assignment assignment, WriteOptions options) {
+
+		Assert.notNull(id);
+
+		CassandraPersistentEntity<?> entity = mappingContext.getPersistentEntity(type);
+
+		Update update = QueryBuilder.update(entity.getTableName().toCql());
+		update.with(assignment);
+		appendIdCriteria(update.where(), entity, id);
+		CqlTemplate.addWriteOptions(update, options);
+
+		execute(update);
+		recordExistence(type, id);
+	}
+
+	protected void appendIdCriteria(final com.datastax.driver.core.querybuilder.Update.Where where,
+			CassandraPersistentEntity<?> entity, Object id) {
+
+		appendIdCriteria(new ClauseCallback() {
+
+			@Override
+			public void doWithClause(Clause clause) {
+				where.and(clause);
+			}
+		}, entity, id);
+	}
+
 	protected void appendIdCriteria(final Where where, CassandraPersistentEntity<?> entity, Object id) {
 
 		appendIdCriteria(new ClauseCallback() {
@@ -464,6 +1019,46 @@ public class CassandraTemplate extends CqlTemplate implements CassandraOperation
 		return doUpdate(entity, options);
 	}
 
+	@Override
+	public <T> void update(Class<T> type, Object id, Map<String, Object> changes) {
+		update(type, id, changes, null);
+	}
+
+	@Override
+	public <T> void update(Class<T> type, Object id, Map<String, Object> changes, WriteOptions options) {
+
+		Assert.notNull(type);
+		Assert.notNull(id);
+		Assert.notEmpty(changes);
+
+		CassandraPersistentEntity<?> entity = mappingContext.getPersistentEntity(type);
+
+		Update update = QueryBuilder.update(entity.getTableName().toCql());
+
+		for (Map.Entry<String, Object> change : changes.entrySet()) {
+
+			CassandraPersistentProperty property = entity.getPersistentProperty(change.getKey());
+
+			if (property == null) {
+				throw new IllegalArgumentException(String.format("unknown property [%s] of entity class [%s]",
+						change.getKey(), type.getName()));
+			}
+			if (property.isCompositePrimaryKey() || property.isIdProperty() || property.isPrimaryKeyColumn()) {
+				throw new IllegalArgumentException(String.format("can't update primary key property [%s] of entity class [%s]",
+						change.getKey(), type.getName()));
+			}
+
+			update.with(QueryBuilder.set(property.getColumnName().toCql(),
+					cassandraConverter.convertToColumnValue(property, change.getValue())));
+		}
+
+		appendIdCriteria(update.where(), entity, id);
+		CqlTemplate.addWriteOptions(update, options);
+
+		execute(update);
+		recordExistence(type, id);
+	}
+
 	@Override
 	public <T> List<T> updateAsynchronously(List<T> entities) {
 		doUpdateAsynchronously(entities, null, null);
@@ -521,52 +1116,34 @@ public class CassandraTemplate extends CqlTemplate implements CassandraOperation
 		return obj == null ? null : determineTableName(obj.getClass());
 	}
 
-	protected <T> List<T> select(final String query, CassandraConverterRowCallback<T> readRowCallback) {
+	protected <T> List<T> select(String query, CassandraConverterRowCallback<T> readRowCallback) {
+		return select(query, readRowCallback, null);
+	}
 
-		ResultSet resultSet = doExecute(new SessionCallback<ResultSet>() {
+	protected <T> List<T> select(String query, CassandraConverterRowCallback<T> readRowCallback, QueryOptions options) {
 
-			@Override
-			public ResultSet doInSession(Session s) throws DataAccessException {
-				return s.execute(query);
-			}
-		});
+		ResultSet resultSet = doExecute(query, options);
 
 		if (resultSet == null) {
 			return null;
 		}
 
-		List<T> result = new ArrayList<T>();
-		Iterator<Row> iterator = resultSet.iterator();
-		while (iterator.hasNext()) {
-			Row row = iterator.next();
-			result.add(readRowCallback.doWith(row));
-		}
-
-		return result;
+		return process(resultSet, new ConverterRowMapper<T>(readRowCallback), options);
 	}
 
-	protected <T> List<T> select(final Select query, CassandraConverterRowCallback<T> readRowCallback) {
+	protected <T> List<T> select(Select query, CassandraConverterRowCallback<T> readRowCallback) {
+		return select(query, readRowCallback, null);
+	}
 
-		ResultSet resultSet = doExecute(new SessionCallback<ResultSet>() {
+	protected <T> List<T> select(Select query, CassandraConverterRowCallback<T> readRowCallback, QueryOptions options) {
 
-			@Override
-			public ResultSet doInSession(Session s) throws DataAccessException {
-				return s.execute(query);
-			}
-		});
+		ResultSet resultSet = doExecute(query, options);
 
 		if (resultSet == null) {
 			return null;
 		}
 
-		List<T> result = new ArrayList<T>();
-		Iterator<Row> iterator = resultSet.iterator();
-		while (iterator.hasNext()) {
-			Row row = iterator.next();
-			result.add(readRowCallback.doWith(row));
-		}
-
-		return result;
+		return process(resultSet, new ConverterRowMapper<T>(readRowCallback), options);
 	}
 
 	/**
@@ -640,6 +1217,7 @@ public class CassandraTemplate extends CqlTemplate implements CassandraOperation
 
 		Assert.notNull(entity);
 		Insert insert = createInsertQuery(getTableName(entity.getClass()).toCql(), entity, options, cassandraConverter);
+		updateExistenceFilter(entity);
 		execute(insert);
 		return entity;
 	}
@@ -649,6 +1227,7 @@ public class CassandraTemplate extends CqlTemplate implements CassandraOperation
 		Assert.notNull(entity);
 
 		Insert insert = createInsertQuery(getTableName(entity.getClass()).toCql(), entity, options, cassandraConverter);
+		updateExistenceFilter(entity);
 
 		AsynchronousQueryListener aql = listener == null ? null : new AsynchronousQueryListener() {
 
@@ -684,10 +1263,20 @@ public class CassandraTemplate extends CqlTemplate implements CassandraOperation
 			return entities;
 		}
 
-		String tableName = getTableName(entities.get(0).getClass()).toCql();
-		Batch b = insert ? createInsertBatchQuery(tableName, entities, options, cassandraConverter)
-				: createUpdateBatchQuery(tableName, entities, options, cassandraConverter);
+		List<T> toWrite = insert ? entities : getDirtyEntities(entities);
+		if (toWrite.isEmpty()) {
+			return entities;
+		}
+
+		String tableName = getTableName(toWrite.get(0).getClass()).toCql();
+		Batch b = insert ? createInsertBatchQuery(tableName, toWrite, options, cassandraConverter)
+				: createUpdateBatchQuery(tableName, toWrite, options, cassandraConverter);
+		List<Object> snapshots = snapshot(toWrite);
+		for (T entity : toWrite) {
+			updateExistenceFilter(entity);
+		}
 		execute(b);
+		markClean(toWrite, snapshots);
 
 		return entities;
 	}
@@ -748,26 +1337,135 @@ public class CassandraTemplate extends CqlTemplate implements CassandraOperation
 			};
 		}
 
-		String tableName = getTableName(entities.get(0).getClass()).toCql();
-		Batch b = insert ? createInsertBatchQuery(tableName, entities, options, cassandraConverter)
-				: createUpdateBatchQuery(tableName, entities, options, cassandraConverter);
+		final List<T> toWrite = insert ? entities : getDirtyEntities(entities);
+		if (toWrite.isEmpty()) {
+			if (listener != null) {
+				listener.onWriteComplete(entities);
+			}
+			return new Cancellable() {
 
-		AsynchronousQueryListener aql = listener == null ? null : new AsynchronousQueryListener() {
+				@Override
+				public void cancel() {}
+			};
+		}
 
-			@Override
-			public void onQueryComplete(ResultSetFuture rsf) {
-				try {
-					rsf.getUninterruptibly();
-					listener.onWriteComplete(entities);
-				} catch (Exception e) {
-					listener.onException(translateExceptionIfPossible(e));
-				}
-			}
-		};
+		String tableName = getTableName(toWrite.get(0).getClass()).toCql();
+		Batch b = insert ? createInsertBatchQuery(tableName, toWrite, options, cassandraConverter)
+				: createUpdateBatchQuery(tableName, toWrite, options, cassandraConverter);
+		final List<Object> snapshots = snapshot(toWrite);
+		for (T entity : toWrite) {
+			updateExistenceFilter(entity);
+		}
+
+		AsynchronousQueryListener aql = listener == null && !isDirtyTrackingEnabled() ? null
+				: new AsynchronousQueryListener() {
+
+					@Override
+					public void onQueryComplete(ResultSetFuture rsf) {
+						try {
+							rsf.getUninterruptibly();
+							markClean(toWrite, snapshots);
+							if (listener != null) {
+								listener.onWriteComplete(entities);
+							}
+						} catch (Exception e) {
+							if (listener != null) {
+								listener.onException(translateExceptionIfPossible(e));
+							}
+						}
+					}
+				};
 
 		return executeAsynchronously(b, aql);
 	}
 
+	/**
+	 * Returns whether the converter tracks changes to the entities it reads.
+	 * 
+	 * @see MappingCassandraConverter#setDirtyTrackingEnabled(boolean)
+	 */
+	protected boolean isDirtyTrackingEnabled() {
+		return cassandraConverter instanceof MappingCassandraConverter
+				&& ((MappingCassandraConverter) cassandraConverter).isDirtyTrackingEnabled();
+	}
+
+	/**
+	 * Returns <code>false</code> only if the converter tracks changes and the given entity has none to write.
+	 */
+	protected boolean isDirty(Object entity) {
+		return !isDirtyTrackingEnabled() || ((MappingCassandraConverter) cassandraConverter).isDirty(entity);
+	}
+
+	protected <T> List<T> getDirtyEntities(List<T> entities) {
+
+		if (!isDirtyTrackingEnabled()) {
+			return entities;
+		}
+
+		List<T> dirty = new ArrayList<T>(entities.size());
+		for (T entity : entities) {
+			if (isDirty(entity)) {
+				dirty.add(entity);
+			}
+		}
+
+		return dirty;
+	}
+
+	/**
+	 * Returns the current state of the given entity if the converter tracks changes, otherwise <code>null</code>.
+	 * 
+	 * @see MappingCassandraConverter#snapshot(Object)
+	 */
+	protected Object snapshot(Object entity) {
+		return isDirtyTrackingEnabled() ? ((MappingCassandraConverter) cassandraConverter).snapshot(entity) : null;
+	}
+
+	protected <T> List<Object> snapshot(List<T> entities) {
+
+		if (!isDirtyTrackingEnabled()) {
+			return null;
+		}
+
+		List<Object> snapshots = new ArrayList<Object>(entities.size());
+		for (T entity : entities) {
+			snapshots.add(snapshot(entity));
+		}
+
+		return snapshots;
+	}
+
+	protected void markClean(Object entity, Object snapshot) {
+		if (isDirtyTrackingEnabled()) {
+			((MappingCassandraConverter) cassandraConverter).markClean(entity, snapshot);
+		}
+	}
+
+	protected <T> void markClean(List<T> entities, List<Object> snapshots) {
+		if (snapshots != null) {
+			for (int i = 0; i < entities.size(); i++) {
+				markClean(entities.get(i), snapshots.get(i));
+			}
+		}
+	}
+
+	/**
+	 * Records the id of the given entity in the {@link PrimaryKeyBloomFilter} registered for its type, if any.
+	 */
+	protected void updateExistenceFilter(Object entity) {
+
+		if (entity == null || existenceFilters.isEmpty()) {
+			return;
+		}
+
+		Class<?> type = ClassUtils.getUserClass(entity);
+		if (!existenceFilters.containsKey(type)) {
+			return;
+		}
+
+		recordExistence(type, cassandraConverter.getId(entity, mappingContext.getPersistentEntity(type)));
+	}
+
 	protected <T> void doDelete(T entity, QueryOptions options) {
 
 		Assert.notNull(entity);
@@ -799,8 +1497,16 @@ public class CassandraTemplate extends CqlTemplate implements CassandraOperation
 	protected <T> T doUpdate(T entity, WriteOptions options) {
 
 		Assert.notNull(entity);
+
+		if (!isDirty(entity)) {
+			return entity;
+		}
+
 		Update update = createUpdateQuery(getTableName(entity.getClass()).toCql(), entity, options, cassandraConverter);
+		Object snapshot = snapshot(entity);
+		updateExistenceFilter(entity);
 		execute(update);
+		markClean(entity, snapshot);
 		return entity;
 	}
 
@@ -808,21 +1514,33 @@ public class CassandraTemplate extends CqlTemplate implements CassandraOperation
 
 		Assert.notNull(entity);
 
-		Update update = createUpdateQuery(getTableName(entity.getClass()).toCql(), entity, options, cassandraConverter);
-
-		AsynchronousQueryListener aql = listener == null ? null : new AsynchronousQueryListener() {
+		if (!isDirty(entity)) {
+			return doBatchWriteAsync(Collections.singletonList(entity), listener, options, false);
+		}
 
-			@SuppressWarnings("unchecked")
-			@Override
-			public void onQueryComplete(ResultSetFuture rsf) {
-				try {
-					rsf.getUninterruptibly();
-					listener.onWriteComplete((Collection<T>) CollectionUtils.toList(entity));
-				} catch (Exception x) {
-					listener.onException(translateExceptionIfPossible(x));
-				}
-			}
-		};
+		Update update = createUpdateQuery(getTableName(entity.getClass()).toCql(), entity, options, cassandraConverter);
+		final Object snapshot = snapshot(entity);
+		updateExistenceFilter(entity);
+
+		AsynchronousQueryListener aql = listener == null && !isDirtyTrackingEnabled() ? null
+				: new AsynchronousQueryListener() {
+
+					@SuppressWarnings("unchecked")
+					@Override
+					public void onQueryComplete(ResultSetFuture rsf) {
+						try {
+							rsf.getUninterruptibly();
+							markClean(entity, snapshot);
+							if (listener != null) {
+								listener.onWriteComplete((Collection<T>) CollectionUtils.toList(entity));
+							}
+						} catch (Exception x) {
+							if (listener != null) {
+								listener.onException(translateExceptionIfPossible(x));
+							}
+						}
+					}
+				};
 
 		return executeAsynchronously(update, aql);
 	}
@@ -1056,5 +1774,21 @@ public class CassandraTemplate extends CqlTemplate implements CassandraOperation
             return cassandraConverter.getConversionService();
         }
 
+	/**
+	 * Adapts a {@link CassandraConverterRowCallback} to a {@link RowMapper} so entity reads share the result limits
+	 * enforced by {@link #process(ResultSet, RowMapper, QueryOptions)}.
+	 */
+	private static class ConverterRowMapper<T> implements RowMapper<T> {
+
+		private final CassandraConverterRowCallback<T> callback;
+
+		ConverterRowMapper(CassandraConverterRowCallback<T> callback) {
+			this.callback = callback;
+		}
 
+		@Override
+		public T mapRow(Row row, int rowNum) throws DriverException {
+			return callback.doWith(row);
+		}
+	}
 }
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2013-2014 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.cassandra.core;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.util.Assert;
+
+/**
+ * Thread-safe Bloom filter over serialized primary keys. A {@link CassandraTemplate} consults a filter registered for an
+ * entity type in {@link CassandraTemplate#exists(Class, Object)} so that lookups of keys that were never written can be
+ * answered without a round trip. The filter never yields false negatives for keys that were {@link #put(byte[]) put},
+ * but may yield false positives at roughly the configured probability.
+ *
+ * @see CassandraTemplate#setExistenceFilter(Class, PrimaryKeyBloomFilter)
+ */
+public class PrimaryKeyBloomFilter {
+
+	public static final double DEFAULT_FALSE_POSITIVE_PROBABILITY = 0.01;
+
+	private static final long SEED1 = 0x9E3779B97F4A7C15L;
+	private static final long SEED2 = 0xC2B2AE3D27D4EB4FL;
+
+	private final AtomicLongArray bits;
+	private final long bitCount;
+	private final int hashFunctionCount;
+
+	/**
+	 * Creates a new {@link PrimaryKeyBloomFilter} sized for the given number of keys with a false positive probability of
+	 * {@value #DEFAULT_FALSE_POSITIVE_PROBABILITY}.
+	 *
+	 * @param expectedInsertions The expected number of keys; must be positive.
+	 */
+	public PrimaryKeyBloomFilter(long expectedInsertions) {
+		this(expectedInsertions, DEFAULT_FALSE_POSITIVE_PROBABILITY);
+	}
+
+	/**
+	 * Creates a new {@link PrimaryKeyBloomFilter} sized for the given number of keys and false positive probability.
+	 *
+	 * @param expectedInsertions The expected number of keys; must be positive.
+	 * @param falsePositiveProbability The desired false positive probability; must be between 0 and 1, exclusive.
+	 */
+	public PrimaryKeyBloomFilter(long expectedInsertions, double falsePositiveProbability) {
+
+		Assert.isTrue(expectedInsertions > 0, "expectedInsertions must be positive");
+		Assert.isTrue(falsePositiveProbability > 0 && falsePositiveProbability < 1,
+				"falsePositiveProbability must be between 0 and 1");
+
+		long optimalBits = (long) (-expectedInsertions * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+		int words = (int) Math.min(Integer.MAX_VALUE, Math.max(1, (optimalBits + 63) / 64));
+
+		this.bits = new AtomicLongArray(words);
+		this.bitCount = words * 64L;
+		this.hashFunctionCount = (int) Math.max(1, Math.round((double) optimalBits / expectedInsertions * Math.log(2)));
+	}
+
+	/**
+	 * Records the given serialized key.
+	 */
+	public void put(byte[] key) {
+
+		Assert.notNull(key);
+
+		long h1 = hash(key, SEED1);
+		long h2 = hash(key, SEED2);
+
+		for (int i = 0; i < hashFunctionCount; i++) {
+			set(index(h1, h2, i));
+		}
+	}
+
+	/**
+	 * Returns <code>false</code> if the given serialized key has definitely never been {@link #put(byte[]) put}, or
+	 * <code>true</code> if it might have been.
+	 */
+	public boolean mightContain(byte[] key) {
+
+		Assert.notNull(key);
+
+		long h1 = hash(key, SEED1);
+		long h2 = hash(key, SEED2);
+
+		for (int i = 0; i < hashFunctionCount; i++) {
+			long index = index(h1, h2, i);
+			if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Removes all recorded keys. Lookups racing with this call may see keys as absent that are present in the table.
+	 */
+	public void clear() {
+		for (int i = 0; i < bits.length(); i++) {
+			bits.set(i, 0);
+		}
+	}
+
+	public long getBitCount() {
+		return bitCount;
+	}
+
+	public int getHashFunctionCount() {
+		return hashFunctionCount;
+	}
+
+	private long index(long h1, long h2, int i) {
+		return ((h1 + i * h2) & Long.MAX_VALUE) % bitCount;
+	}
+
+	private void set(long index) {
+
+		int word = (int) (index >>> 6);
+		long mask = 1L << index;
+
+		for (;;) {
+			long current = bits.get(word);
+			if ((current & mask) != 0 || bits.compareAndSet(word, current, current | mask)) {
+				return;
+			}
+		}
+	}
+
+	private static long hash(byte[] key, long seed) {
+
+		long h = seed ^ (key.length * 0x100000001B3L);
+
+		for (byte b : key) {
+			h ^= b & 0xff;
+			h *= 0x100000001B3L;
+		}
+
+		h ^= h >>> 33;
+		h *= 0xFF51AFD7ED558CCDL;
+		h ^= h >>> 33;
+		h *= 0xC4CEB9FE1A85EC53L;
+		h ^= h >>> 33;
+
+		return h;
+	}
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.cassandra.core;
+
+import org.springframework.data.cassandra.convert.CassandraConverter;
+import org.springframework.data.cassandra.convert.EntityProjector;
+import org.springframework.util.Assert;
+
+import com.datastax.driver.core.Row;
+
+/**
+ * {@link CassandraConverterRowCallback} that reads a {@link Row} into the given entity type and projects the entity onto
+ * the given projection type.
+ * 
+ * @see EntityProjector
+ */
+public class ProjectingRowCallback<T> extends CassandraConverterRowCallback<T> {
+
+	private final CassandraConverter reader;
+	private final Class<?> entityType;
+	private final Class<T> projectionType;
+	private final EntityProjector projector;
+
+	public ProjectingRowCallback(CassandraConverter reader, Class<?> entityType, Class<T> projectionType,
+			EntityProjector projector) {
+
+		super(reader, projectionType);
+
+		Assert.notNull(entityType);
+		Assert.notNull(projector);
+
+		this.reader = reader;
+		this.entityType = entityType;
+		this.projectionType = projectionType;
+		this.projector = projector;
+	}
+
+	@Override
+	public T doWith(Row row) {
+		return projector.project(reader.read(entityType, row), projectionType);
+	}
+}
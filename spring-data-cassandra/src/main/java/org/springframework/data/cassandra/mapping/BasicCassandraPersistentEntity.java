@@ -55,6 +55,7 @@ public class BasicCassandraPersistentEntity<T> extends BasicPersistentEntity<T,
 	protected CassandraPersistentEntityMetadataVerifier verifier = DEFAULT_VERIFIER;
 	protected ApplicationContext context;
 	protected Boolean forceQuote;
+	protected Boolean lazyProperties;
 
 	public BasicCassandraPersistentEntity(TypeInformation<T> typeInformation) {
 		this(typeInformation, null);
@@ -159,6 +160,27 @@ public class BasicCassandraPersistentEntity<T> extends BasicPersistentEntity<T,
 		return getType().isAnnotationPresent(PrimaryKeyClass.class);
 	}
 
+	@Override
+	public boolean hasLazyProperties() {
+
+		if (lazyProperties == null) {
+
+			final boolean[] found = new boolean[1];
+
+			doWithProperties(new PropertyHandler<CassandraPersistentProperty>() {
+
+				@Override
+				public void doWithPersistentProperty(CassandraPersistentProperty prop) {
+					found[0] |= prop.isLazy() && !isConstructorArgument(prop);
+				}
+			});
+
+			lazyProperties = found[0];
+		}
+
+		return lazyProperties;
+	}
+
 	@Override
 	public List<CassandraPersistentProperty> getCompositePrimaryKeyProperties() {
 
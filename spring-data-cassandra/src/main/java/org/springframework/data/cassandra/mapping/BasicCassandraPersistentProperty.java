@@ -32,6 +32,7 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 import org.springframework.context.expression.BeanFactoryAccessor;
 import org.springframework.context.expression.BeanFactoryResolver;
+import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.cassandra.util.SpelUtils;
 import org.springframework.data.mapping.Association;
@@ -68,6 +69,10 @@ public class BasicCassandraPersistentProperty extends AnnotationBasedPersistentP
 	 * Whether this property has been explicitly instructed to force quote column names.
 	 */
 	protected Boolean forceQuote;
+	/**
+	 * Whether this property is lazy; determined on first use.
+	 */
+	protected Boolean lazy;
 
 	/**
 	 * Creates a new {@link BasicCassandraPersistentProperty}.
@@ -228,6 +233,31 @@ public class BasicCassandraPersistentProperty extends AnnotationBasedPersistentP
 		return isAnnotationPresent(Indexed.class);
 	}
 
+	@Override
+	public boolean isLazy() {
+
+		if (lazy == null) {
+			lazy = determineLazy();
+		}
+
+		return lazy;
+	}
+
+	protected boolean determineLazy() {
+
+		if (isIdProperty() || isCompositePrimaryKey() || isPrimaryKeyColumn() || isTransient()
+				|| getOwner().isCompositePrimaryKey()) {
+			return false;
+		}
+
+		LazyLoad anno = findAnnotation(LazyLoad.class);
+		if (anno == null) {
+			anno = AnnotationUtils.findAnnotation(getOwner().getType(), LazyLoad.class);
+		}
+
+		return anno != null && anno.value();
+	}
+
 	@Override
 	public boolean isPartitionKeyColumn() {
 
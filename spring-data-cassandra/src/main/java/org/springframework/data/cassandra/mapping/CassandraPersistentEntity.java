@@ -37,6 +37,12 @@ public interface CassandraPersistentEntity<T> extends MutablePersistentEntity<T,
 	 */
 	boolean isCompositePrimaryKey();
 
+	/**
+	 * Returns whether any property of this entity that isn't set through its persistence constructor is
+	 * {@link CassandraPersistentProperty#isLazy() lazy}.
+	 */
+	boolean hasLazyProperties();
+
 	List<CassandraPersistentProperty> getCompositePrimaryKeyProperties();
 
 	/**
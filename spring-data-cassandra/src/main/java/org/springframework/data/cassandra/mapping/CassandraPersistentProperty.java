@@ -105,6 +105,14 @@ public interface CassandraPersistentProperty extends PersistentProperty<Cassandr
 	 */
 	boolean isPrimaryKeyColumn();
 
+	/**
+	 * Whether the property is read from the row on first access rather than when its entity is read. Primary key
+	 * properties are never lazy.
+	 * 
+	 * @see LazyLoad
+	 */
+	boolean isLazy();
+
 	@Override
 	CassandraPersistentEntity<?> getOwner();
 
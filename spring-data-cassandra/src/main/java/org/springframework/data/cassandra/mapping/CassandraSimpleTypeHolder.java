@@ -22,7 +22,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import org.springframework.cassandra.core.util.ByteBufferInputStreamSource;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.cassandra.core.CassandraValue;
 import org.springframework.data.mapping.model.SimpleTypeHolder;
 import org.springframework.data.util.TypeInformation;
 
@@ -74,6 +77,13 @@ public class CassandraSimpleTypeHolder extends SimpleTypeHolder {
 
 		dataTypesByJavaClass.put(String.class, DataType.text());
 
+		// serialized values, read without copying or decoding them
+		for (Class<?> javaClass : new Class<?>[] { CassandraValue.class, InputStreamSource.class,
+				ByteBufferInputStreamSource.class }) {
+			simpleTypes.add(javaClass);
+			dataTypesByJavaClass.put(javaClass, DataType.blob());
+		}
+
 		CASSANDRA_SIMPLE_TYPES = Collections.unmodifiableSet(simpleTypes);
 	}
 
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.cassandra.mapping;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a property, or all properties of an entity, to be deserialized from the row it was read from on first access
+ * instead of when the entity is read, so that columns that are selected but seldom used, such as large blobs or
+ * collections, cost nothing unless they are used. Primary key properties and properties set through the persistence
+ * constructor are always read eagerly.
+ * <p>
+ * Entities with lazy properties are read as instances of a generated subclass that loads a lazy property when its
+ * getter is called, and all of them when any other method but an accessor of an eager property is called. The entity
+ * class must therefore be neither final nor have a private persistence constructor, and code accessing lazy fields
+ * directly rather than through methods of the entity sees them unloaded.
+ */
+@Retention(value = RetentionPolicy.RUNTIME)
+@Target(value = { ElementType.TYPE, ElementType.FIELD, ElementType.METHOD, ElementType.ANNOTATION_TYPE })
+public @interface LazyLoad {
+
+	/**
+	 * Whether to load lazily. A property annotated with <code>@LazyLoad(false)</code> is loaded eagerly even if its entity
+	 * is annotated with {@link LazyLoad}.
+	 */
+	boolean value() default true;
+}
@@ -41,12 +41,14 @@ import org.springframework.cassandra.core.converter.ResultSetToLongConverter;
 import org.springframework.cassandra.core.converter.ResultSetToStringConverter;
 import org.springframework.cassandra.core.converter.ResultSetToUuidConverter;
 import org.springframework.cassandra.core.converter.RowToMapConverter;
+import org.springframework.cassandra.core.metrics.StatementSource;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.core.convert.support.ConfigurableConversionService;
 import org.springframework.core.convert.support.DefaultConversionService;
 import org.springframework.data.cassandra.convert.CassandraConverter;
+import org.springframework.data.cassandra.convert.EntityProjector;
 import org.springframework.data.cassandra.core.CassandraOperations;
 import org.springframework.data.repository.query.ParameterAccessor;
 import org.springframework.data.repository.query.RepositoryQuery;
@@ -76,6 +78,7 @@ public abstract class AbstractCassandraQuery implements RepositoryQuery {
 
 	private final CassandraQueryMethod method;
 	private final CassandraOperations template;
+	private EntityProjector projector;
 
 	protected RowToMapConverter rowToMapConverter = new RowToMapConverter();
 
@@ -119,7 +122,13 @@ public abstract class AbstractCassandraQuery implements RepositoryQuery {
 		CassandraParameterAccessor accessor = new CassandraParametersParameterAccessor(method, parameters);
 		String query = createQuery(accessor);
 
-		ResultSet resultSet = template.query(query);
+		ResultSet resultSet;
+		String previousSource = StatementSource.push(getStatementSource());
+		try {
+			resultSet = template.query(query);
+		} finally {
+			StatementSource.pop(previousSource);
+		}
 
 		// return raw result set if requested
 		if (method.isResultSetQuery()) {
@@ -133,6 +142,12 @@ public abstract class AbstractCassandraQuery implements RepositoryQuery {
 			return getSingleEntity(resultSet, returnedUnwrappedObjectType);
 		}
 
+		// projections are read as partial entities, from whichever columns the query selected
+		if (isProjection(returnedUnwrappedObjectType)) {
+			return method.isCollectionQuery() ? getCollectionOfEntity(resultSet, declaredReturnType,
+					returnedUnwrappedObjectType) : getSingleEntity(resultSet, returnedUnwrappedObjectType);
+		}
+
 		Object retval = resultSet;
 
 		if (method.isCollectionOfEntityQuery()) {
@@ -146,6 +161,14 @@ public abstract class AbstractCassandraQuery implements RepositoryQuery {
 				TypeDescriptor.valueOf(declaredReturnType));
 	}
 
+	/**
+	 * Returns the {@link StatementSource} statements of this query are recorded under, composed of the simple names of
+	 * the entity type and the query method.
+	 */
+	protected String getStatementSource() {
+		return method.getEntityInformation().getJavaType().getSimpleName() + "." + method.getName();
+	}
+
 	public Object getCollectionOfEntity(ResultSet resultSet, Class<?> declaredReturnType,
 			Class<?> returnedUnwrappedObjectType) {
 
@@ -159,9 +182,8 @@ public abstract class AbstractCassandraQuery implements RepositoryQuery {
 			results = new ArrayList<Object>();
 		}
 
-		CassandraConverter converter = template.getConverter();
 		for (Row row : resultSet) {
-			results.add(converter.read(returnedUnwrappedObjectType, row));
+			results.add(read(returnedUnwrappedObjectType, row));
 		}
 
 		return results;
@@ -173,13 +195,44 @@ public abstract class AbstractCassandraQuery implements RepositoryQuery {
 		}
 
 		Iterator<Row> iterator = resultSet.iterator();
-		Object object = template.getConverter().read(type, iterator.next());
+		Object object = read(type, iterator.next());
 
 		warnIfMoreResults(iterator);
 
 		return object;
 	}
 
+	protected EntityProjector getProjector() {
+
+		if (projector == null) {
+			projector = new EntityProjector(template.getConverter());
+		}
+
+		return projector;
+	}
+
+	/**
+	 * Returns whether the given type is a projection of this query's entity type.
+	 */
+	protected boolean isProjection(Class<?> type) {
+		return getProjector().isProjection(type, method.getEntityInformation().getJavaType());
+	}
+
+	/**
+	 * Reads the given row into the given type, or into this query's entity type projected onto the given type if it is a
+	 * projection.
+	 */
+	protected Object read(Class<?> type, Row row) {
+
+		CassandraConverter converter = template.getConverter();
+
+		if (!isProjection(type)) {
+			return converter.read(type, row);
+		}
+
+		return getProjector().project(converter.read(method.getEntityInformation().getJavaType(), row), type);
+	}
+
 	protected void warnIfMoreResults(Iterator<Row> iterator) {
 		if (log.isWarnEnabled() && iterator.hasNext()) {
 
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.cassandra.test.unit.allocation;
+
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Measures the bytes an operation allocates on the calling thread, using the allocation counters of HotSpot's
+ * {@link com.sun.management.ThreadMXBean}. The operation is warmed up first, so that class loading, caches filled on
+ * first use and compilation don't count, and the lowest of several rounds is taken. Because only the calling thread is
+ * measured, tests using this can run in parallel.
+ * <p>
+ * Budgets are calibrated on Java 17 and checked with {@link #HEADROOM} to spare. Before Java 9, strings are stored as
+ * UTF-16 rather than Latin-1, so the same operation allocates noticeably more there, and budgets are scaled by
+ * {@link #LEGACY_JVM_FACTOR}.
+ */
+public class AllocationMeter {
+
+	private static final int WARMUP = 5000;
+	private static final int OPERATIONS = 2000;
+	private static final int ROUNDS = 5;
+
+	/**
+	 * The fraction by which an operation may exceed its budget, absorbing differences between JVM builds and
+	 * collectors.
+	 */
+	public static final double HEADROOM = 0.1;
+
+	/**
+	 * The factor budgets are scaled by on JVMs before Java 9.
+	 */
+	public static final double LEGACY_JVM_FACTOR = 1.5;
+
+	/**
+	 * @return Whether this JVM counts allocated bytes per thread; if not, allocation tests should be skipped.
+	 */
+	public static boolean isSupported() {
+
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+			return false;
+		}
+
+		com.sun.management.ThreadMXBean hotspot = (com.sun.management.ThreadMXBean) threads;
+		if (!hotspot.isThreadAllocatedMemorySupported()) {
+			return false;
+		}
+
+		hotspot.setThreadAllocatedMemoryEnabled(true);
+		return hotspot.isThreadAllocatedMemoryEnabled();
+	}
+
+	/**
+	 * @return The bytes allocated per run of the given operation.
+	 */
+	public static long bytesPerOperation(Runnable operation) {
+
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long thread = Thread.currentThread().getId();
+
+		for (int i = 0; i < WARMUP; i++) {
+			operation.run();
+		}
+
+		long least = Long.MAX_VALUE;
+
+		for (int round = 0; round < ROUNDS; round++) {
+
+			long before = threads.getThreadAllocatedBytes(thread);
+			for (int i = 0; i < OPERATIONS; i++) {
+				operation.run();
+			}
+			long after = threads.getThreadAllocatedBytes(thread);
+
+			least = Math.min(least, (after - before) / OPERATIONS);
+		}
+
+		return least;
+	}
+
+	/**
+	 * Fails if a run of the given operation allocates more than the given budget.
+	 * 
+	 * @param path Describes the operation in the failure message.
+	 */
+	public static void assertAllocatesAtMost(long budget, String path, Runnable operation) {
+
+		long bytes = bytesPerOperation(operation);
+		long limit = getLimit(budget);
+
+		assertTrue(String.format("%s allocates %d bytes per operation, more than its budget of %d (%d on this JVM)", path,
+				bytes, budget, limit), bytes <= limit);
+	}
+
+	/**
+	 * @return The bytes an operation with the given budget, calibrated on Java 17, may allocate on this JVM.
+	 */
+	public static long getLimit(long budget) {
+
+		double factor = 1 + HEADROOM;
+		if (isLegacyJvm()) {
+			factor *= LEGACY_JVM_FACTOR;
+		}
+
+		return (long) (budget * factor);
+	}
+
+	/**
+	 * @return Whether this JVM predates Java 9, whose specification versions start with <code>1.</code>.
+	 */
+	static boolean isLegacyJvm() {
+		return System.getProperty("java.specification.version", "").startsWith("1.");
+	}
+}
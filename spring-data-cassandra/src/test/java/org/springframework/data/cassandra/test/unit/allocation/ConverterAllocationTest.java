@@ -0,0 +1,159 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.cassandra.test.unit.allocation;
+
+import static org.junit.Assume.assumeTrue;
+import static org.springframework.data.cassandra.test.unit.allocation.AllocationMeter.assertAllocatesAtMost;
+
+import java.io.Serializable;
+import java.util.Date;
+import java.util.UUID;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cassandra.core.PrimaryKeyType;
+import org.springframework.cassandra.test.inmemory.SyntheticRows;
+import org.springframework.data.cassandra.convert.MappingCassandraConverter;
+import org.springframework.data.cassandra.mapping.PrimaryKey;
+import org.springframework.data.cassandra.mapping.PrimaryKeyClass;
+import org.springframework.data.cassandra.mapping.PrimaryKeyColumn;
+import org.springframework.data.cassandra.mapping.Table;
+
+import com.datastax.driver.core.ColumnDefinitions;
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.querybuilder.QueryBuilder;
+
+/**
+ * Allocation budgets of reading and writing entities with the {@link MappingCassandraConverter}.
+ */
+public class ConverterAllocationTest {
+
+	@Table
+	public static class Person {
+
+		@PrimaryKey
+		UUID id;
+
+		String firstName;
+		String lastName;
+		int age;
+	}
+
+	@PrimaryKeyClass
+	public static class EventKey implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		@PrimaryKeyColumn(ordinal = 0, type = PrimaryKeyType.PARTITIONED)
+		String source;
+
+		@PrimaryKeyColumn(ordinal = 1)
+		Date time;
+	}
+
+	@Table
+	public static class Event {
+
+		@PrimaryKey
+		EventKey key;
+
+		String payload;
+	}
+
+	static final ColumnDefinitions PERSON_COLUMNS = SyntheticRows.columns("ks", "person", //
+			"id", DataType.uuid(), //
+			"firstname", DataType.text(), //
+			"lastname", DataType.text(), //
+			"age", DataType.cint());
+
+	MappingCassandraConverter converter;
+	Person person;
+	Event event;
+	Row row;
+
+	@Before
+	public void setUp() {
+
+		assumeTrue(AllocationMeter.isSupported());
+
+		converter = new MappingCassandraConverter();
+		converter.afterPropertiesSet();
+
+		person = new Person();
+		person.id = new UUID(42, 42);
+		person.firstName = "Walter";
+		person.lastName = "White";
+		person.age = 50;
+
+		event = new Event();
+		event.key = new EventKey();
+		event.key.source = "sensor";
+		event.key.time = new Date(1000000000000L);
+		event.payload = "payload";
+
+		row = SyntheticRows.row(PERSON_COLUMNS, person.id, person.firstName, person.lastName, person.age);
+	}
+
+	@Test
+	public void readsEntity() {
+
+		assertAllocatesAtMost(500, "MappingCassandraConverter.read", new Runnable() {
+
+			@Override
+			public void run() {
+				converter.read(Person.class, row);
+			}
+		});
+	}
+
+	@Test
+	public void writesInsert() {
+
+		assertAllocatesAtMost(600, "MappingCassandraConverter.write to Insert", new Runnable() {
+
+			@Override
+			public void run() {
+				converter.write(person, QueryBuilder.insertInto("person"));
+			}
+		});
+	}
+
+	@Test
+	public void writesInsertWithCompositePrimaryKey() {
+
+		assertAllocatesAtMost(750, "MappingCassandraConverter.write to Insert with composite primary key",
+				new Runnable() {
+
+					@Override
+					public void run() {
+						converter.write(event, QueryBuilder.insertInto("event"));
+					}
+				});
+	}
+
+	@Test
+	public void writesUpdate() {
+
+		assertAllocatesAtMost(1000, "MappingCassandraConverter.write to Update", new Runnable() {
+
+			@Override
+			public void run() {
+				converter.write(person, QueryBuilder.update("person"));
+			}
+		});
+	}
+}
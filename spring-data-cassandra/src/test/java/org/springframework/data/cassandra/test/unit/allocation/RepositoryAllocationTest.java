@@ -0,0 +1,110 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.cassandra.test.unit.allocation;
+
+import static org.junit.Assume.assumeTrue;
+import static org.springframework.data.cassandra.test.unit.allocation.AllocationMeter.assertAllocatesAtMost;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cassandra.test.inmemory.InMemoryCluster;
+import org.springframework.data.cassandra.convert.MappingCassandraConverter;
+import org.springframework.data.cassandra.core.CassandraAdminTemplate;
+import org.springframework.data.cassandra.mapping.PrimaryKey;
+import org.springframework.data.cassandra.mapping.Table;
+import org.springframework.data.cassandra.repository.TypedIdCassandraRepository;
+import org.springframework.data.cassandra.repository.support.CassandraRepositoryFactory;
+
+/**
+ * Allocation budgets of repository operations, run against an {@link InMemoryCluster}, whose share of the allocations
+ * is included in the budgets.
+ */
+public class RepositoryAllocationTest {
+
+	@Table
+	public static class Person {
+
+		@PrimaryKey
+		String id;
+
+		String firstName;
+		String lastName;
+		int age;
+	}
+
+	public interface PersonRepository extends TypedIdCassandraRepository<Person, String> {}
+
+	InMemoryCluster cluster;
+	PersonRepository repository;
+	Person person;
+
+	@Before
+	public void setUp() {
+
+		assumeTrue(AllocationMeter.isSupported());
+
+		cluster = new InMemoryCluster();
+		cluster.connect().execute("CREATE KEYSPACE ks WITH replication = { 'class' : 'SimpleStrategy', 'replication_factor' : 1 }");
+
+		MappingCassandraConverter converter = new MappingCassandraConverter();
+		converter.afterPropertiesSet();
+
+		CassandraAdminTemplate template = new CassandraAdminTemplate(cluster.connect("ks"), converter);
+		template.createTable(true, template.getTableName(Person.class), Person.class, null);
+
+		repository = new CassandraRepositoryFactory(template).getRepository(PersonRepository.class);
+
+		person = new Person();
+		person.id = "42";
+		person.firstName = "Walter";
+		person.lastName = "White";
+		person.age = 50;
+
+		repository.save(person);
+	}
+
+	@After
+	public void tearDown() {
+		if (cluster != null) {
+			cluster.close();
+		}
+	}
+
+	@Test
+	public void findsOne() {
+
+		assertAllocatesAtMost(4400, "CassandraRepository.findOne", new Runnable() {
+
+			@Override
+			public void run() {
+				repository.findOne(person.id);
+			}
+		});
+	}
+
+	@Test
+	public void saves() {
+
+		assertAllocatesAtMost(4400, "CassandraRepository.save", new Runnable() {
+
+			@Override
+			public void run() {
+				repository.save(person);
+			}
+		});
+	}
+}
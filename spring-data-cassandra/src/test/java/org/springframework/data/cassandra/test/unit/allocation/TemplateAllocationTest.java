@@ -0,0 +1,153 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.cassandra.test.unit.allocation;
+
+import static org.junit.Assume.assumeTrue;
+import static org.springframework.data.cassandra.test.unit.allocation.AllocationMeter.assertAllocatesAtMost;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cassandra.core.PreparedStatementBinder;
+import org.springframework.cassandra.core.RowMapper;
+import org.springframework.cassandra.test.inmemory.InMemoryCluster;
+import org.springframework.data.cassandra.convert.MappingCassandraConverter;
+import org.springframework.data.cassandra.core.CassandraAdminTemplate;
+import org.springframework.data.cassandra.mapping.PrimaryKey;
+import org.springframework.data.cassandra.mapping.Table;
+
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.Row;
+
+/**
+ * Allocation budgets of <code>CqlTemplate</code> and <code>CassandraTemplate</code> operations, run against an
+ * {@link InMemoryCluster}, whose share of the allocations is included in the budgets.
+ */
+public class TemplateAllocationTest {
+
+	@Table
+	public static class Person {
+
+		@PrimaryKey
+		String id;
+
+		String firstName;
+		String lastName;
+		int age;
+	}
+
+	static final String SELECT = "SELECT * FROM person WHERE id = '42'";
+	static final String SELECT_PREPARED = "SELECT * FROM person WHERE id = ?";
+
+	InMemoryCluster cluster;
+	CassandraAdminTemplate template;
+	Person person;
+
+	@Before
+	public void setUp() {
+
+		assumeTrue(AllocationMeter.isSupported());
+
+		cluster = new InMemoryCluster();
+		cluster.connect().execute("CREATE KEYSPACE ks WITH replication = { 'class' : 'SimpleStrategy', 'replication_factor' : 1 }");
+
+		MappingCassandraConverter converter = new MappingCassandraConverter();
+		converter.afterPropertiesSet();
+
+		template = new CassandraAdminTemplate(cluster.connect("ks"), converter);
+		template.createTable(true, template.getTableName(Person.class), Person.class, null);
+
+		person = new Person();
+		person.id = "42";
+		person.firstName = "Walter";
+		person.lastName = "White";
+		person.age = 50;
+
+		template.insert(person);
+	}
+
+	@After
+	public void tearDown() {
+		if (cluster != null) {
+			cluster.close();
+		}
+	}
+
+	@Test
+	public void queriesForMap() {
+
+		assertAllocatesAtMost(2700, "CqlTemplate.queryForMap", new Runnable() {
+
+			@Override
+			public void run() {
+				template.queryForMap(SELECT);
+			}
+		});
+	}
+
+	@Test
+	public void queriesWithCachedPreparedStatement() {
+
+		final PreparedStatementBinder binder = new PreparedStatementBinder() {
+
+			@Override
+			public BoundStatement bindValues(PreparedStatement ps) {
+				return ps.bind(person.id);
+			}
+		};
+
+		final RowMapper<String> mapper = new RowMapper<String>() {
+
+			@Override
+			public String mapRow(Row row, int rowNum) {
+				return row.getString("firstname");
+			}
+		};
+
+		assertAllocatesAtMost(2400, "CqlTemplate.query with cached prepared statement", new Runnable() {
+
+			@Override
+			public void run() {
+				template.query(SELECT_PREPARED, binder, mapper);
+			}
+		});
+	}
+
+	@Test
+	public void selectsOneById() {
+
+		assertAllocatesAtMost(4000, "CassandraTemplate.selectOneById", new Runnable() {
+
+			@Override
+			public void run() {
+				template.selectOneById(Person.class, person.id);
+			}
+		});
+	}
+
+	@Test
+	public void insertsEntity() {
+
+		assertAllocatesAtMost(4000, "CassandraTemplate.insert", new Runnable() {
+
+			@Override
+			public void run() {
+				template.insert(person);
+			}
+		});
+	}
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.cassandra.test.unit.config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.cassandra.config.CassandraEntityClassScanner;
+import org.springframework.data.cassandra.config.CassandraEntityIndex;
+import org.springframework.data.cassandra.mapping.PrimaryKey;
+import org.springframework.data.cassandra.mapping.Table;
+import org.springframework.util.FileSystemUtils;
+
+public class CassandraEntityIndexTest {
+
+	private File root;
+	private URLClassLoader classLoader;
+
+	@Before
+	public void setup() throws IOException {
+
+		root = File.createTempFile("entity-index", "");
+		root.delete();
+
+		File index = new File(root, CassandraEntityIndex.INDEX_LOCATION);
+		index.getParentFile().mkdirs();
+
+		OutputStream out = new FileOutputStream(index);
+		try {
+			out.write(("# written by the indexer\n" + Indexed.class.getName() + "\n\n"
+					+ "org.example.domain.Elsewhere\n").getBytes("UTF-8"));
+		} finally {
+			out.close();
+		}
+
+		classLoader = new URLClassLoader(new URL[] { root.toURI().toURL() }, getClass().getClassLoader());
+	}
+
+	@After
+	public void teardown() throws IOException {
+
+		System.clearProperty(CassandraEntityIndex.IGNORE_INDEX_PROPERTY);
+		FileSystemUtils.deleteRecursively(root);
+	}
+
+	@Test
+	public void loadsIndexedEntityClassNamesByPackage() {
+
+		CassandraEntityIndex index = CassandraEntityIndex.load(classLoader);
+
+		assertEquals(2, index.getEntityClassNames().size());
+		assertEquals(Collections.singleton(Indexed.class.getName()),
+				index.getEntityClassNames(getClass().getPackage().getName()));
+		assertEquals(Collections.singleton("org.example.domain.Elsewhere"), index.getEntityClassNames("org.example"));
+		assertEquals(0, index.getEntityClassNames("org.example.dom").size());
+	}
+
+	@Test
+	public void scannerUsesIndexIfPresent() throws ClassNotFoundException {
+
+		CassandraEntityClassScanner scanner = new CassandraEntityClassScanner(getClass().getPackage().getName());
+		scanner.setBeanClassLoader(classLoader);
+
+		assertEquals(Collections.<Class<?>> singleton(Indexed.class), scanner.scanForEntityClasses());
+	}
+
+	@Test
+	public void scannerScansPackagesIfIndexIgnored() throws ClassNotFoundException {
+
+		System.setProperty(CassandraEntityIndex.IGNORE_INDEX_PROPERTY, "true");
+
+		assertNull(CassandraEntityIndex.load(classLoader));
+
+		CassandraEntityClassScanner scanner = new CassandraEntityClassScanner(getClass().getPackage().getName());
+		scanner.setBeanClassLoader(classLoader);
+
+		Set<Class<?>> expected = new HashSet<Class<?>>();
+		expected.add(Indexed.class);
+		expected.add(NotIndexed.class);
+
+		assertEquals(expected, scanner.scanForEntityClasses());
+	}
+
+	@Test
+	public void scannerScansPackagesWithoutIndex() throws ClassNotFoundException {
+
+		assertNotNull(CassandraEntityIndex.load(classLoader));
+		assertNull(CassandraEntityIndex.load(new URLClassLoader(new URL[0], null)));
+		assertEquals(2, CassandraEntityClassScanner.scan(getClass().getPackage().getName()).size());
+	}
+
+	@Table
+	public static class Indexed {
+
+		@PrimaryKey
+		String id;
+	}
+
+	@Table
+	public static class NotIndexed {
+
+		@PrimaryKey
+		String id;
+	}
+}
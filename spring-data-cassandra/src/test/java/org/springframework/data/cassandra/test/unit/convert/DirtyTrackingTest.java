@@ -0,0 +1,196 @@
+/*
+ * Copyright 2013-2014 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.cassandra.test.unit.convert;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Serializable;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cassandra.core.PrimaryKeyType;
+import org.springframework.data.cassandra.convert.MappingCassandraConverter;
+import org.springframework.data.cassandra.mapping.PrimaryKey;
+import org.springframework.data.cassandra.mapping.PrimaryKeyClass;
+import org.springframework.data.cassandra.mapping.PrimaryKeyColumn;
+import org.springframework.data.cassandra.mapping.Table;
+
+import com.datastax.driver.core.querybuilder.QueryBuilder;
+import com.datastax.driver.core.querybuilder.Update;
+
+public class DirtyTrackingTest {
+
+	@Table
+	public static class Person {
+
+		@PrimaryKey
+		String id;
+
+		String firstName;
+		String lastName;
+		Set<String> tags = new HashSet<String>();
+	}
+
+	@PrimaryKeyClass
+	public static class EventKey implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		@PrimaryKeyColumn(ordinal = 0, type = PrimaryKeyType.PARTITIONED)
+		String source;
+
+		@PrimaryKeyColumn(ordinal = 1)
+		int sequence;
+	}
+
+	@Table
+	public static class Event {
+
+		@PrimaryKey
+		EventKey key;
+
+		String type;
+	}
+
+	MappingCassandraConverter converter;
+	Person person;
+
+	@Before
+	public void setUp() {
+
+		converter = new MappingCassandraConverter();
+		converter.setDirtyTrackingEnabled(true);
+
+		person = new Person();
+		person.id = "42";
+		person.firstName = "Walter";
+		person.lastName = "White";
+	}
+
+	@Test
+	public void writesAllColumnsWithoutSnapshot() {
+
+		Update update = QueryBuilder.update("person");
+		converter.write(person, update);
+
+		assertTrue(update.toString().contains("firstname"));
+		assertTrue(update.toString().contains("lastname"));
+	}
+
+	@Test
+	public void writesChangedColumnsOnly() {
+
+		converter.markClean(person);
+		assertFalse(converter.isDirty(person));
+
+		person.lastName = "Heisenberg";
+		assertTrue(converter.isDirty(person));
+
+		Update update = QueryBuilder.update("person");
+		converter.write(person, update);
+
+		assertEquals("UPDATE person SET lastname='Heisenberg' WHERE id='42';", update.toString());
+	}
+
+	@Test
+	public void detectsInPlaceCollectionChanges() {
+
+		converter.markClean(person);
+		person.tags.add("chemist");
+
+		assertTrue(converter.isDirty(person));
+	}
+
+	@Test
+	public void writesSetAdditionsAsDelta() {
+
+		person.tags.add("teacher");
+		converter.markClean(person);
+		person.tags.add("chemist");
+
+		Update update = QueryBuilder.update("person");
+		converter.write(person, update);
+
+		assertEquals("UPDATE person SET tags=tags+{'chemist'} WHERE id='42';", update.toString());
+	}
+
+	@Test
+	public void writesSetRemovalsAsDelta() {
+
+		person.tags.add("teacher");
+		converter.markClean(person);
+		person.tags.remove("teacher");
+
+		Update update = QueryBuilder.update("person");
+		converter.write(person, update);
+
+		assertEquals("UPDATE person SET tags=tags-{'teacher'} WHERE id='42';", update.toString());
+	}
+
+	@Test
+	public void writesAllColumnsWhenDisabled() {
+
+		converter.markClean(person);
+		converter.setDirtyTrackingEnabled(false);
+
+		Update update = QueryBuilder.update("person");
+		converter.write(person, update);
+
+		assertTrue(update.toString().contains("firstname"));
+	}
+
+	@Test
+	public void writesAllColumnsWhenIdChanged() {
+
+		converter.markClean(person);
+		person.id = "43";
+
+		assertTrue(converter.isDirty(person));
+
+		Update update = QueryBuilder.update("person");
+		converter.write(person, update);
+
+		assertTrue(update.toString().contains("firstname='Walter'"));
+		assertTrue(update.toString().contains("lastname='White'"));
+		assertTrue(update.toString().contains("WHERE id='43'"));
+	}
+
+	@Test
+	public void writesAllColumnsWhenCompositeKeyChanged() {
+
+		Event event = new Event();
+		event.key = new EventKey();
+		event.key.source = "sensor";
+		event.key.sequence = 1;
+		event.type = "reading";
+
+		converter.markClean(event);
+		assertFalse(converter.isDirty(event));
+
+		event.key.sequence = 2;
+		assertTrue(converter.isDirty(event));
+
+		Update update = QueryBuilder.update("event");
+		converter.write(event, update);
+
+		assertTrue(update.toString().contains("type='reading'"));
+		assertTrue(update.toString().contains("sequence=2"));
+	}
+}
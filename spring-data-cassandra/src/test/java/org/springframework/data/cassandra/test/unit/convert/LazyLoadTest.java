@@ -0,0 +1,235 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.cassandra.test.unit.convert;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cassandra.test.inmemory.SyntheticRows;
+import org.springframework.data.cassandra.convert.LazyPropertyLoader;
+import org.springframework.data.cassandra.convert.MappingCassandraConverter;
+import org.springframework.data.cassandra.core.CassandraTemplate;
+import org.springframework.data.cassandra.mapping.CassandraPersistentEntity;
+import org.springframework.data.cassandra.mapping.LazyLoad;
+import org.springframework.data.cassandra.mapping.PrimaryKey;
+import org.springframework.data.cassandra.mapping.Table;
+
+import com.datastax.driver.core.ColumnDefinitions;
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.querybuilder.Insert;
+import com.datastax.driver.core.querybuilder.QueryBuilder;
+import com.datastax.driver.core.querybuilder.Update;
+
+public class LazyLoadTest {
+
+	@Table
+	public static class Document {
+
+		@PrimaryKey
+		String id;
+
+		String title;
+
+		@LazyLoad
+		ByteBuffer content;
+
+		@LazyLoad
+		Set<String> tags;
+
+		public String getId() {
+			return id;
+		}
+
+		public String getTitle() {
+			return title;
+		}
+
+		public ByteBuffer getContent() {
+			return content;
+		}
+
+		public void setContent(ByteBuffer content) {
+			this.content = content;
+		}
+
+		public Set<String> getTags() {
+			return tags;
+		}
+
+		@Override
+		public String toString() {
+			return id + " " + title + " " + tags;
+		}
+	}
+
+	@Table
+	@LazyLoad
+	public static class Note {
+
+		@PrimaryKey
+		String id;
+
+		@LazyLoad(false)
+		String title;
+
+		String body;
+
+		public String getBody() {
+			return body;
+		}
+	}
+
+	MappingCassandraConverter converter;
+	ColumnDefinitions columns = SyntheticRows.columns("ks", "document", "id", DataType.text(), "title", DataType.text(),
+			"content", DataType.blob(), "tags", DataType.set(DataType.text()));
+	Row row = SyntheticRows.row(columns, "42", "Report", ByteBuffer.wrap(new byte[] { 1, 2, 3 }),
+			new HashSet<String>(Arrays.asList("a", "b")));
+
+	@Before
+	public void setUp() {
+		converter = new MappingCassandraConverter();
+	}
+
+	@Test
+	public void determinesLazyProperties() {
+
+		CassandraPersistentEntity<?> document = converter.getMappingContext().getPersistentEntity(Document.class);
+		CassandraPersistentEntity<?> note = converter.getMappingContext().getPersistentEntity(Note.class);
+
+		assertTrue(document.hasLazyProperties());
+		assertTrue(document.getPersistentProperty("content").isLazy());
+		assertFalse(document.getPersistentProperty("title").isLazy());
+		assertFalse(document.getIdProperty().isLazy());
+
+		assertTrue(note.getPersistentProperty("body").isLazy());
+		assertFalse(note.getPersistentProperty("title").isLazy());
+		assertFalse(note.getIdProperty().isLazy());
+	}
+
+	@Test
+	public void readsLazyPropertiesOnFirstAccess() {
+
+		Document document = converter.read(Document.class, row);
+		CassandraPersistentEntity<?> entity = converter.getMappingContext().getPersistentEntity(Document.class);
+
+		assertTrue(document instanceof Document);
+		assertNotSame(Document.class, document.getClass());
+		assertEquals("Report", document.title);
+		assertNull(document.content);
+		assertFalse(LazyPropertyLoader.isLoaded(document, entity.getPersistentProperty("content")));
+
+		assertEquals(ByteBuffer.wrap(new byte[] { 1, 2, 3 }), document.getContent());
+		assertTrue(LazyPropertyLoader.isLoaded(document, entity.getPersistentProperty("content")));
+		assertFalse(LazyPropertyLoader.isLoaded(document, entity.getPersistentProperty("tags")));
+		assertNull(document.tags);
+
+		assertEquals(2, document.getTags().size());
+	}
+
+	@Test
+	public void loadsAllOnOtherMethods() {
+
+		Document document = converter.read(Document.class, row);
+		document.toString();
+
+		assertEquals(2, document.tags.size());
+		assertEquals(3, document.content.remaining());
+	}
+
+	@Test
+	public void keepsValueSetBeforeLoading() {
+
+		Document document = converter.read(Document.class, row);
+		ByteBuffer replaced = ByteBuffer.wrap(new byte[0]);
+		document.setContent(replaced);
+
+		assertSame(replaced, document.getContent());
+	}
+
+	@Test
+	public void loadsUnloadedPropertiesOnWrite() {
+
+		Document document = converter.read(Document.class, row);
+
+		Insert insert = QueryBuilder.insertInto("document");
+		converter.write(document, insert);
+
+		assertTrue(insert.toString().contains("content"));
+		assertTrue(insert.toString().contains("tags"));
+	}
+
+	@Test
+	public void mapsGeneratedSubclassToEntityTable() {
+
+		Document document = converter.read(Document.class, row);
+		CassandraTemplate template = new CassandraTemplate(mock(Session.class), converter);
+
+		assertEquals("document", template.getTableName(document.getClass()).toCql());
+	}
+
+	@Test
+	public void skipsUnloadedPropertiesOnDirtyTrackedUpdate() {
+
+		converter.setDirtyTrackingEnabled(true);
+
+		Document document = converter.read(Document.class, row);
+		document.title = "Summary";
+
+		Update update = QueryBuilder.update("document");
+		converter.write(document, update);
+
+		assertEquals("UPDATE document SET title='Summary' WHERE id='42';", update.toString());
+		assertFalse(LazyPropertyLoader.isLoaded(document,
+				converter.getMappingContext().getPersistentEntity(Document.class).getPersistentProperty("tags")));
+	}
+
+	@Test
+	public void readsEntityLevelLazyProperties() {
+
+		ColumnDefinitions noteColumns = SyntheticRows.columns("ks", "note", "id", DataType.text(), "title",
+				DataType.text(), "body", DataType.text());
+		Note note = converter.read(Note.class, SyntheticRows.row(noteColumns, "1", "Title", "Body"));
+
+		assertEquals("Title", note.title);
+		assertNull(note.body);
+		assertEquals("Body", note.getBody());
+	}
+
+	@Test
+	public void readsMissingColumnsAsUnset() {
+
+		ColumnDefinitions partial = SyntheticRows.columns("ks", "document", "id", DataType.text(), "title",
+				DataType.text());
+		Document document = converter.read(Document.class, SyntheticRows.row(partial, "42", "Report"));
+
+		assertNull(document.getContent());
+		assertNull(document.getTags());
+	}
+}
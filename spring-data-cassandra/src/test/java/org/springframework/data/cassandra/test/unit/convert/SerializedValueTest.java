@@ -0,0 +1,168 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.cassandra.test.unit.convert;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cassandra.core.util.ByteBufferInputStreamSource;
+import org.springframework.cassandra.test.inmemory.SyntheticRows;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.data.cassandra.convert.MappingCassandraConverter;
+import org.springframework.data.cassandra.core.CassandraValue;
+import org.springframework.data.cassandra.mapping.CassandraType;
+import org.springframework.data.cassandra.mapping.PrimaryKey;
+import org.springframework.data.cassandra.mapping.Table;
+import org.springframework.util.StreamUtils;
+
+import com.datastax.driver.core.ColumnDefinitions;
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.DataType.Name;
+import com.datastax.driver.core.ProtocolVersion;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.querybuilder.Insert;
+import com.datastax.driver.core.querybuilder.QueryBuilder;
+
+public class SerializedValueTest {
+
+	@Table
+	public static class Attachment {
+
+		@PrimaryKey
+		String id;
+
+		ByteBuffer content;
+
+		InputStreamSource stream;
+
+		@CassandraType(type = Name.TEXT)
+		CassandraValue name;
+	}
+
+	MappingCassandraConverter converter;
+	ColumnDefinitions columns = SyntheticRows.columns("ks", "attachment", "id", DataType.text(), "content",
+			DataType.blob(), "stream", DataType.blob(), "name", DataType.text());
+	ByteBuffer bytes = ByteBuffer.wrap(new byte[] { 1, 2, 3 });
+	Row row = SyntheticRows.row(columns, "42", bytes, bytes, "report.pdf");
+
+	@Before
+	public void setUp() {
+		converter = new MappingCassandraConverter();
+	}
+
+	@Test
+	public void readsBlobsAsReadOnlyViews() {
+
+		Attachment attachment = converter.read(Attachment.class, row);
+
+		assertTrue(attachment.content.isReadOnly());
+		assertEquals(bytes, attachment.content);
+
+		// views share the bytes of the row
+		bytes.put(0, (byte) 9);
+		assertEquals(9, attachment.content.get(0));
+	}
+
+	@Test
+	public void readsStreamSources() throws Exception {
+
+		Attachment attachment = converter.read(Attachment.class, row);
+
+		assertArrayEquals(new byte[] { 1, 2, 3 }, StreamUtils.copyToByteArray(attachment.stream.getInputStream()));
+
+		InputStream in = attachment.stream.getInputStream();
+		assertEquals(1, in.read());
+		assertEquals(2, in.available());
+		assertEquals(3, ((ByteBufferInputStreamSource) attachment.stream).size());
+	}
+
+	@Test
+	public void readsSerializedValues() {
+
+		Attachment attachment = converter.read(Attachment.class, row);
+
+		assertEquals(DataType.text(), attachment.name.getType());
+		assertEquals("report.pdf", DataType.text().deserialize(attachment.name.getValue(), ProtocolVersion.V3));
+	}
+
+	@Test
+	public void readsNullsAsNull() {
+
+		Attachment attachment = converter.read(Attachment.class,
+				SyntheticRows.row(columns, "42", null, null, null));
+
+		assertNull(attachment.content);
+		assertNull(attachment.stream);
+		assertNull(attachment.name);
+	}
+
+	@Test
+	public void writesSerializedValues() {
+
+		Attachment attachment = new Attachment();
+		attachment.id = "42";
+		attachment.stream = new InputStreamSource() {
+
+			@Override
+			public InputStream getInputStream() {
+				return new ByteArrayInputStream(new byte[] { 4, 5 });
+			}
+		};
+		attachment.name = new CassandraValue(DataType.text().serialize("a.txt", ProtocolVersion.V3), DataType.text());
+
+		Insert insert = QueryBuilder.insertInto("attachment");
+		converter.write(attachment, insert);
+
+		assertEquals("INSERT INTO attachment(id,name,stream) VALUES ('42','a.txt',0x0405);", insert.toString());
+	}
+
+	@Test
+	public void closesWrittenStreams() {
+
+		final AtomicBoolean closed = new AtomicBoolean();
+
+		Attachment attachment = new Attachment();
+		attachment.id = "42";
+		attachment.stream = new InputStreamSource() {
+
+			@Override
+			public InputStream getInputStream() {
+				return new ByteArrayInputStream(new byte[] { 4, 5 }) {
+
+					@Override
+					public void close() throws IOException {
+						closed.set(true);
+						super.close();
+					}
+				};
+			}
+		};
+
+		converter.write(attachment, QueryBuilder.insertInto("attachment"));
+
+		assertTrue(closed.get());
+	}
+}
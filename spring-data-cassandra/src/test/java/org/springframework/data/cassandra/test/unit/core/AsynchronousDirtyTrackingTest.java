@@ -0,0 +1,134 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.cassandra.test.unit.core;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.cassandra.core.SettableResultSetFuture;
+import org.springframework.data.cassandra.convert.MappingCassandraConverter;
+import org.springframework.data.cassandra.core.CassandraTemplate;
+import org.springframework.data.cassandra.core.WriteListener;
+import org.springframework.data.cassandra.mapping.PrimaryKey;
+import org.springframework.data.cassandra.mapping.Table;
+
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.Statement;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AsynchronousDirtyTrackingTest {
+
+	@Table
+	public static class Person {
+
+		@PrimaryKey
+		String id;
+
+		String firstName;
+		String lastName;
+	}
+
+	@Mock
+	private Session session;
+
+	private SettableResultSetFuture future = new SettableResultSetFuture();
+
+	private MappingCassandraConverter converter;
+	private CassandraTemplate template;
+	private Person person;
+
+	@Before
+	public void setUp() {
+
+		given(session.executeAsync(any(Statement.class))).willReturn(future);
+
+		converter = new MappingCassandraConverter();
+		converter.setDirtyTrackingEnabled(true);
+		converter.afterPropertiesSet();
+
+		template = new CassandraTemplate(session, converter);
+
+		person = new Person();
+		person.id = "42";
+		person.firstName = "Walter";
+		person.lastName = "White";
+
+		converter.markClean(person);
+	}
+
+	@Test
+	public void recordsStateAsWrittenByAsynchronousUpdate() {
+
+		person.firstName = "Heisenberg";
+		template.updateAsynchronously(person, new NoopListener<Person>());
+
+		// changed while the update is in flight, so not part of it
+		person.lastName = "Black";
+		future.set(mock(ResultSet.class));
+
+		assertTrue(converter.isDirty(person));
+
+		person.lastName = "White";
+		assertFalse(converter.isDirty(person));
+	}
+
+	@Test
+	public void recordsStateAsWrittenByAsynchronousBatchUpdate() {
+
+		person.firstName = "Heisenberg";
+		template.updateAsynchronously(Arrays.asList(person), new NoopListener<Person>());
+
+		person.lastName = "Black";
+		future.set(mock(ResultSet.class));
+
+		assertTrue(converter.isDirty(person));
+
+		person.lastName = "White";
+		assertFalse(converter.isDirty(person));
+	}
+
+	@Test
+	public void keepsPreviousStateIfAsynchronousUpdateFails() {
+
+		person.firstName = "Heisenberg";
+		template.updateAsynchronously(person, new NoopListener<Person>());
+
+		future.setException(new IllegalStateException());
+
+		assertTrue(converter.isDirty(person));
+	}
+
+	static class NoopListener<T> implements WriteListener<T> {
+
+		@Override
+		public void onWriteComplete(Collection<T> entities) {}
+
+		@Override
+		public void onException(Exception x) {}
+	}
+}
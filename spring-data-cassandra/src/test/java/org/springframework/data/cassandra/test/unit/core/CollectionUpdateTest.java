@@ -0,0 +1,199 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.cassandra.test.unit.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.cassandra.core.ConsistencyLevel;
+import org.springframework.cassandra.core.WriteOptions;
+import org.springframework.data.cassandra.convert.MappingCassandraConverter;
+import org.springframework.data.cassandra.core.CassandraTemplate;
+import org.springframework.data.cassandra.mapping.PrimaryKey;
+import org.springframework.data.cassandra.mapping.Table;
+
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.Statement;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CollectionUpdateTest {
+
+	@Table
+	public static class Profile {
+
+		@PrimaryKey
+		String id;
+
+		List<String> visits;
+		Set<String> tags;
+		Map<String, String> links;
+		String name;
+	}
+
+	@Mock
+	private Session session;
+
+	private CassandraTemplate template;
+
+	@Before
+	public void setUp() {
+
+		given(session.execute(any(Statement.class))).willReturn(mock(ResultSet.class));
+
+		MappingCassandraConverter converter = new MappingCassandraConverter();
+		converter.afterPropertiesSet();
+
+		template = new CassandraTemplate(session, converter);
+	}
+
+	@Test
+	public void appendsToList() {
+
+		template.appendToList(Profile.class, "42", "visits", Arrays.asList("a", "b"));
+
+		assertEquals("UPDATE profile SET visits=visits+['a','b'] WHERE id='42';", executed().toString());
+	}
+
+	@Test
+	public void prependsToList() {
+
+		template.prependToList(Profile.class, "42", "visits", Arrays.asList("a", "b"));
+
+		assertEquals("UPDATE profile SET visits=['a','b']+visits WHERE id='42';", executed().toString());
+	}
+
+	@Test
+	public void removesFromList() {
+
+		template.removeFromList(Profile.class, "42", "visits", Arrays.asList("a"));
+
+		assertEquals("UPDATE profile SET visits=visits-['a'] WHERE id='42';", executed().toString());
+	}
+
+	@Test
+	public void addsToSet() {
+
+		template.addToSet(Profile.class, "42", "tags", set("x", "y"));
+
+		assertEquals("UPDATE profile SET tags=tags+{'x','y'} WHERE id='42';", executed().toString());
+	}
+
+	@Test
+	public void removesFromSet() {
+
+		template.removeFromSet(Profile.class, "42", "tags", set("x"));
+
+		assertEquals("UPDATE profile SET tags=tags-{'x'} WHERE id='42';", executed().toString());
+	}
+
+	@Test
+	public void putsInMap() {
+
+		template.putInMap(Profile.class, "42", "links", Collections.singletonMap("home", "http://example.com"));
+
+		assertEquals("UPDATE profile SET links=links+{'home':'http://example.com'} WHERE id='42';", executed()
+				.toString());
+	}
+
+	@Test
+	public void removesFromMap() {
+
+		template.removeFromMap(Profile.class, "42", "links", set("home", "work"));
+
+		assertEquals("DELETE links['home'],links['work'] FROM profile WHERE id='42';", executed().toString());
+	}
+
+	@Test
+	public void appliesWriteOptions() {
+
+		WriteOptions options = new WriteOptions();
+		options.setConsistencyLevel(ConsistencyLevel.QUOROM);
+		options.setTtl(60);
+
+		template.appendToList(Profile.class, "42", "visits", Arrays.asList("a"), options);
+		assertWritten("UPDATE profile USING TTL 60 SET visits=visits+['a'] WHERE id='42';");
+
+		template.prependToList(Profile.class, "42", "visits", Arrays.asList("a"), options);
+		assertWritten("UPDATE profile USING TTL 60 SET visits=['a']+visits WHERE id='42';");
+
+		template.removeFromList(Profile.class, "42", "visits", Arrays.asList("a"), options);
+		assertWritten("UPDATE profile USING TTL 60 SET visits=visits-['a'] WHERE id='42';");
+
+		template.addToSet(Profile.class, "42", "tags", set("x"), options);
+		assertWritten("UPDATE profile USING TTL 60 SET tags=tags+{'x'} WHERE id='42';");
+
+		template.removeFromSet(Profile.class, "42", "tags", set("x"), options);
+		assertWritten("UPDATE profile USING TTL 60 SET tags=tags-{'x'} WHERE id='42';");
+
+		template.putInMap(Profile.class, "42", "links", Collections.singletonMap("home", "h"), options);
+		assertWritten("UPDATE profile USING TTL 60 SET links=links+{'home':'h'} WHERE id='42';");
+
+		// deletes can't expire
+		template.removeFromMap(Profile.class, "42", "links", set("home"), options);
+		assertWritten("DELETE links['home'] FROM profile WHERE id='42';");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsPropertiesOfOtherCollectionTypes() {
+		template.addToSet(Profile.class, "42", "visits", set("a"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsNonCollectionProperties() {
+		template.appendToList(Profile.class, "42", "name", Arrays.asList("a"));
+	}
+
+	private Statement executed() {
+
+		ArgumentCaptor<Statement> statement = ArgumentCaptor.forClass(Statement.class);
+		verify(session).execute(statement.capture());
+
+		return statement.getValue();
+	}
+
+	private void assertWritten(String cql) {
+
+		ArgumentCaptor<Statement> statement = ArgumentCaptor.forClass(Statement.class);
+		verify(session, atLeastOnce()).execute(statement.capture());
+
+		Statement last = statement.getValue();
+
+		assertEquals(cql, last.toString());
+		assertEquals(com.datastax.driver.core.ConsistencyLevel.QUORUM, last.getConsistencyLevel());
+	}
+
+	private static Set<String> set(String... elements) {
+		return new LinkedHashSet<String>(Arrays.asList(elements));
+	}
+}
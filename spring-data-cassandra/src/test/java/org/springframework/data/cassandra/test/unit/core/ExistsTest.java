@@ -0,0 +1,248 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.cassandra.test.unit.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cassandra.core.PrimaryKeyType;
+import org.springframework.cassandra.core.StatementExecution;
+import org.springframework.cassandra.core.StatementInterceptorAdapter;
+import org.springframework.cassandra.test.inmemory.InMemoryCluster;
+import org.springframework.data.cassandra.convert.MappingCassandraConverter;
+import org.springframework.data.cassandra.core.CassandraAdminTemplate;
+import org.springframework.data.cassandra.core.PrimaryKeyBloomFilter;
+import org.springframework.data.cassandra.mapping.PrimaryKey;
+import org.springframework.data.cassandra.mapping.PrimaryKeyClass;
+import org.springframework.data.cassandra.mapping.PrimaryKeyColumn;
+import org.springframework.data.cassandra.mapping.Table;
+
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.Statement;
+
+public class ExistsTest {
+
+	@Table
+	public static class Person {
+
+		@PrimaryKey
+		String id;
+
+		String name;
+		Set<String> tags;
+	}
+
+	@PrimaryKeyClass
+	public static class EventKey implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		@PrimaryKeyColumn(ordinal = 0, type = PrimaryKeyType.PARTITIONED)
+		String source;
+
+		@PrimaryKeyColumn(ordinal = 1)
+		int sequence;
+	}
+
+	@Table
+	public static class Event {
+
+		@PrimaryKey
+		EventKey key;
+
+		String type;
+	}
+
+	InMemoryCluster cluster;
+	CassandraAdminTemplate template;
+	List<String> executed = new ArrayList<String>();
+
+	@Before
+	public void setUp() {
+
+		cluster = new InMemoryCluster();
+		cluster.connect().execute("CREATE KEYSPACE ks WITH replication = { 'class' : 'SimpleStrategy', 'replication_factor' : 1 }");
+
+		MappingCassandraConverter converter = new MappingCassandraConverter();
+		converter.afterPropertiesSet();
+
+		template = new CassandraAdminTemplate(cluster.connect("ks"), converter);
+		template.createTable(true, template.getTableName(Person.class), Person.class, null);
+		template.createTable(true, template.getTableName(Event.class), Event.class, null);
+
+		template.insert(person("1"));
+		template.insert(event("sensor", 1));
+
+		template.addStatementInterceptor(new StatementInterceptorAdapter() {
+
+			@Override
+			public void beforeExecution(StatementExecution execution) {
+
+				Statement statement = execution.getStatement();
+
+				executed.add(statement instanceof BoundStatement ? ((BoundStatement) statement).preparedStatement()
+						.getQueryString() : statement.toString());
+			}
+		});
+	}
+
+	@After
+	public void tearDown() {
+		cluster.close();
+	}
+
+	@Test
+	public void selectsOnlyKeyColumnsWithLimitOne() {
+
+		assertTrue(template.exists(Person.class, "1"));
+		assertFalse(template.exists(Person.class, "2"));
+
+		assertEquals(2, executed.size());
+		assertEquals("SELECT id FROM person WHERE id=? LIMIT 1;", executed.get(0));
+		assertEquals(executed.get(0), executed.get(1));
+	}
+
+	@Test
+	public void selectsOnlyCompositeKeyColumnsWithLimitOne() {
+
+		assertTrue(template.exists(Event.class, key("sensor", 1)));
+		assertFalse(template.exists(Event.class, key("sensor", 2)));
+
+		assertEquals(2, executed.size());
+		assertEquals("SELECT source,sequence FROM event WHERE source=? AND sequence=? LIMIT 1;", executed.get(0));
+	}
+
+	@Test
+	public void answersUnrecordedKeysWithoutQuerying() {
+
+		template.setExistenceFilter(Person.class, new PrimaryKeyBloomFilter(100));
+
+		assertFalse(template.exists(Person.class, "2"));
+		assertTrue(executed.isEmpty());
+	}
+
+	@Test
+	public void queriesKeysRecordedOnWrite() {
+
+		template.setExistenceFilter(Person.class, new PrimaryKeyBloomFilter(100));
+
+		template.insert(person("2"));
+		executed.clear();
+
+		assertTrue(template.exists(Person.class, "2"));
+		assertEquals(1, executed.size());
+
+		// rows inserted before the filter was registered are unknown to it
+		assertFalse(template.exists(Person.class, "1"));
+		assertEquals(1, executed.size());
+	}
+
+	@Test
+	public void queriesKeysRecordedOnCollectionUpdate() {
+
+		template.setExistenceFilter(Person.class, new PrimaryKeyBloomFilter(100));
+
+		template.addToSet(Person.class, "2", "tags", Collections.singleton("new"));
+		executed.clear();
+
+		assertTrue(template.exists(Person.class, "2"));
+		assertEquals(1, executed.size());
+	}
+
+	@Test
+	public void queriesExplicitlyRecordedKeys() {
+
+		template.setExistenceFilter(Person.class, new PrimaryKeyBloomFilter(100));
+		template.recordExistence(Person.class, "1");
+
+		assertTrue(template.exists(Person.class, "1"));
+		assertEquals(1, executed.size());
+	}
+
+	@Test
+	public void populatesFilterFromTable() {
+
+		template.insert(person("2"));
+		template.setExistenceFilter(Person.class, new PrimaryKeyBloomFilter(100));
+
+		assertEquals(2, template.populateExistenceFilter(Person.class, 1));
+		executed.clear();
+
+		assertTrue(template.exists(Person.class, "1"));
+		assertTrue(template.exists(Person.class, "2"));
+		assertEquals(2, executed.size());
+
+		assertFalse(template.exists(Person.class, "3"));
+		assertEquals(2, executed.size());
+	}
+
+	@Test
+	public void populatesFilterWithCompositeKeysMatchingIds() {
+
+		template.setExistenceFilter(Event.class, new PrimaryKeyBloomFilter(100));
+
+		assertEquals(1, template.populateExistenceFilter(Event.class, 10));
+		executed.clear();
+
+		assertTrue(template.exists(Event.class, key("sensor", 1)));
+		assertEquals(1, executed.size());
+
+		assertFalse(template.exists(Event.class, key("sensor", 2)));
+		assertEquals(1, executed.size());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void cannotPopulateUnregisteredFilter() {
+		template.populateExistenceFilter(Person.class, 10);
+	}
+
+	Person person(String id) {
+
+		Person person = new Person();
+		person.id = id;
+		person.name = "name " + id;
+
+		return person;
+	}
+
+	Event event(String source, int sequence) {
+
+		Event event = new Event();
+		event.key = key(source, sequence);
+		event.type = "reading";
+
+		return event;
+	}
+
+	EventKey key(String source, int sequence) {
+
+		EventKey key = new EventKey();
+		key.source = source;
+		key.sequence = sequence;
+
+		return key;
+	}
+}
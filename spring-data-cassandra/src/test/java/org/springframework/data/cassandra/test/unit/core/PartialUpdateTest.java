@@ -0,0 +1,152 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.cassandra.test.unit.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.data.cassandra.convert.MappingCassandraConverter;
+import org.springframework.data.cassandra.core.CassandraTemplate;
+import org.springframework.data.cassandra.core.CassandraValue;
+import org.springframework.data.cassandra.core.PrimaryKeyBloomFilter;
+import org.springframework.data.cassandra.mapping.CassandraType;
+import org.springframework.data.cassandra.mapping.PrimaryKey;
+import org.springframework.data.cassandra.mapping.Table;
+
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.DataType.Name;
+import com.datastax.driver.core.ProtocolVersion;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.Statement;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PartialUpdateTest {
+
+	public enum Status {
+		ACTIVE, RETIRED
+	}
+
+	@Table
+	public static class Account {
+
+		@PrimaryKey
+		String id;
+
+		@CassandraType(type = Name.TEXT)
+		Status status;
+
+		@CassandraType(type = Name.TEXT)
+		CassandraValue nickname;
+
+		InputStreamSource avatar;
+
+		int logins;
+	}
+
+	@Mock
+	private Session session;
+
+	private CassandraTemplate template;
+
+	@Before
+	public void setUp() {
+
+		given(session.execute(any(Statement.class))).willReturn(mock(ResultSet.class));
+
+		MappingCassandraConverter converter = new MappingCassandraConverter();
+		converter.afterPropertiesSet();
+
+		template = new CassandraTemplate(session, converter);
+	}
+
+	@Test
+	public void convertsValuesAsWhenWritingEntities() {
+
+		Map<String, Object> changes = new HashMap<String, Object>();
+		changes.put("status", Status.RETIRED);
+		changes.put("nickname", new CassandraValue(DataType.text().serialize("heisenberg", ProtocolVersion.V3),
+				DataType.text()));
+		changes.put("avatar", new InputStreamSource() {
+
+			@Override
+			public InputStream getInputStream() {
+				return new ByteArrayInputStream(new byte[] { 1, 2 });
+			}
+		});
+
+		template.update(Account.class, "42", changes);
+
+		String cql = executed().toString();
+
+		assertTrue(cql, cql.contains("status='RETIRED'"));
+		assertTrue(cql, cql.contains("nickname='heisenberg'"));
+		assertTrue(cql, cql.contains("avatar=0x0102"));
+		assertTrue(cql, cql.endsWith(" WHERE id='42';"));
+	}
+
+	@Test
+	public void writesNullsAsNull() {
+
+		template.update(Account.class, "42", Collections.<String, Object> singletonMap("status", null));
+
+		assertEquals("UPDATE account SET status=null WHERE id='42';", executed().toString());
+	}
+
+	@Test
+	public void recordsUpdatedIdInExistenceFilter() {
+
+		template.setExistenceFilter(Account.class, new PrimaryKeyBloomFilter(100));
+
+		template.update(Account.class, "42", Collections.<String, Object> singletonMap("logins", 1));
+
+		assertTrue(template.getExistenceFilter(Account.class).mightContain(key("42")));
+	}
+
+	private Statement executed() {
+
+		ArgumentCaptor<Statement> statement = ArgumentCaptor.forClass(Statement.class);
+		verify(session).execute(statement.capture());
+
+		return statement.getValue();
+	}
+
+	// the length prefixed key column values, as the template records them
+	private static byte[] key(String id) {
+
+		ByteBuffer value = DataType.text().serialize(id, ProtocolVersion.NEWEST_SUPPORTED);
+
+		return ByteBuffer.allocate(4 + value.remaining()).putInt(value.remaining()).put(value).array();
+	}
+}
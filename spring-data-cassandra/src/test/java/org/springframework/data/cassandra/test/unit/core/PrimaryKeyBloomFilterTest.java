@@ -0,0 +1,74 @@
+/*
+ * Copyright 2013-2014 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.cassandra.test.unit.core;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+import org.springframework.data.cassandra.core.PrimaryKeyBloomFilter;
+
+public class PrimaryKeyBloomFilterTest {
+
+	@Test
+	public void reportsEveryRecordedKey() {
+
+		PrimaryKeyBloomFilter filter = new PrimaryKeyBloomFilter(1000);
+
+		for (int i = 0; i < 1000; i++) {
+			filter.put(key(i));
+		}
+
+		for (int i = 0; i < 1000; i++) {
+			assertTrue(filter.mightContain(key(i)));
+		}
+	}
+
+	@Test
+	public void rejectsMostUnrecordedKeys() {
+
+		PrimaryKeyBloomFilter filter = new PrimaryKeyBloomFilter(1000, 0.01);
+
+		for (int i = 0; i < 1000; i++) {
+			filter.put(key(i));
+		}
+
+		int falsePositives = 0;
+		for (int i = 1000; i < 11000; i++) {
+			if (filter.mightContain(key(i))) {
+				falsePositives++;
+			}
+		}
+
+		assertTrue("too many false positives: " + falsePositives, falsePositives < 300);
+	}
+
+	@Test
+	public void clearForgetsKeys() {
+
+		PrimaryKeyBloomFilter filter = new PrimaryKeyBloomFilter(10);
+		filter.put(key(42));
+		filter.clear();
+
+		assertFalse(filter.mightContain(key(42)));
+	}
+
+	private static byte[] key(int i) {
+		return ByteBuffer.allocate(4).putInt(i).array();
+	}
+}
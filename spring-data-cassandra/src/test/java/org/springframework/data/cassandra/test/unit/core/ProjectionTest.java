@@ -0,0 +1,207 @@
+/*
+ * Copyright 2013-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.cassandra.test.unit.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cassandra.test.inmemory.InMemoryCluster;
+import org.springframework.data.cassandra.convert.MappingCassandraConverter;
+import org.springframework.data.cassandra.core.CassandraAdminTemplate;
+import org.springframework.data.cassandra.mapping.Column;
+import org.springframework.data.cassandra.mapping.PrimaryKey;
+import org.springframework.data.cassandra.mapping.Table;
+import org.springframework.data.cassandra.repository.Query;
+import org.springframework.data.cassandra.repository.TypedIdCassandraRepository;
+import org.springframework.data.cassandra.repository.support.CassandraRepositoryFactory;
+
+import com.datastax.driver.core.querybuilder.QueryBuilder;
+import com.datastax.driver.core.querybuilder.Select;
+
+public class ProjectionTest {
+
+	@Table
+	public static class Person {
+
+		@PrimaryKey
+		String id;
+
+		@Column("first_name")
+		String firstName;
+
+		String lastName;
+		int age;
+		String biography;
+
+		public String getFirstName() {
+			return firstName;
+		}
+
+		public String getLastName() {
+			return lastName;
+		}
+	}
+
+	public interface Names {
+
+		String getFirstName();
+
+		String getLastName();
+	}
+
+	public interface FullName {
+
+		@Value("#{target.firstName + ' ' + target.lastName}")
+		String getFullName();
+	}
+
+	public static class Age {
+
+		String id;
+		long age;
+	}
+
+	public static class Initials {
+
+		final String initials;
+
+		public Initials(String firstName, String lastName) {
+			this.initials = firstName.substring(0, 1) + lastName.substring(0, 1);
+		}
+	}
+
+	public interface PersonRepository extends TypedIdCassandraRepository<Person, String> {
+
+		@Query("SELECT first_name, lastname FROM person WHERE id = ?0")
+		Names findNamesById(String id);
+
+		@Query("SELECT id, age FROM person")
+		List<Age> findAges();
+	}
+
+	InMemoryCluster cluster;
+	CassandraAdminTemplate template;
+
+	@Before
+	public void setUp() {
+
+		cluster = new InMemoryCluster();
+		cluster.connect().execute("CREATE KEYSPACE ks WITH replication = { 'class' : 'SimpleStrategy', 'replication_factor' : 1 }");
+
+		MappingCassandraConverter converter = new MappingCassandraConverter();
+		converter.afterPropertiesSet();
+
+		template = new CassandraAdminTemplate(cluster.connect("ks"), converter);
+		template.createTable(true, template.getTableName(Person.class), Person.class, null);
+
+		template.insert(person("1", "Walter", "White", 50));
+		template.insert(person("2", "Jesse", "Pinkman", 24));
+	}
+
+	@After
+	public void tearDown() {
+		cluster.close();
+	}
+
+	Person person(String id, String firstName, String lastName, int age) {
+
+		Person person = new Person();
+		person.id = id;
+		person.firstName = firstName;
+		person.lastName = lastName;
+		person.age = age;
+		person.biography = "...";
+
+		return person;
+	}
+
+	@Test
+	public void selectsOnlyColumnsOfProjection() {
+
+		assertEquals("SELECT first_name,lastname FROM person;", template.createSelect(Person.class, Names.class)
+				.toString());
+		assertEquals("SELECT id,age FROM person;", template.createSelect(Person.class, Age.class).toString());
+		assertEquals("SELECT first_name,lastname FROM person;", template.createSelect(Person.class, Initials.class)
+				.toString());
+	}
+
+	@Test
+	public void selectsAllColumnsForEntityAndExpressions() {
+
+		assertEquals("SELECT * FROM person;", template.createSelect(Person.class, Person.class).toString());
+		assertEquals("SELECT * FROM person;", template.createSelect(Person.class, FullName.class).toString());
+	}
+
+	@Test
+	public void projectsOntoInterfaces() {
+
+		Names names = template.selectOneById(Person.class, "1", Names.class);
+
+		assertEquals("Walter", names.getFirstName());
+		assertEquals("White", names.getLastName());
+
+		assertEquals("Walter White", template.selectOneById(Person.class, "1", FullName.class).getFullName());
+	}
+
+	@Test
+	public void projectsOntoClasses() {
+
+		Select select = template.createSelect(Person.class, Age.class);
+		select.where(QueryBuilder.eq("id", "2"));
+
+		List<Age> ages = template.select(select, Person.class, Age.class);
+
+		assertEquals(1, ages.size());
+		assertEquals("2", ages.get(0).id);
+		assertEquals(24, ages.get(0).age);
+
+		List<Initials> initials = template.selectBySimpleIds(Person.class, Arrays.asList("1", "2"), Initials.class);
+
+		assertEquals(2, initials.size());
+		assertEquals("WW", initials.get(0).initials);
+		assertEquals("JP", initials.get(1).initials);
+	}
+
+	@Test
+	public void readsEntitiesForEntityTypes() {
+
+		Person person = template.selectOneById(Person.class, "1", Person.class);
+
+		assertEquals("...", person.biography);
+		assertNull(template.selectOneById(Person.class, "3", Names.class));
+	}
+
+	@Test
+	public void projectsRepositoryQueryResults() {
+
+		PersonRepository repository = new CassandraRepositoryFactory(template).getRepository(PersonRepository.class);
+
+		assertEquals("Jesse", repository.findNamesById("2").getFirstName());
+
+		List<Age> ages = repository.findAges();
+
+		assertEquals(2, ages.size());
+		assertTrue(ages.get(0).age + ages.get(1).age == 74);
+	}
+}